@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.LatencyProbe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LatencyProbe#recordValue(long)} with an increasing number of threads sharing the same probe.
+ *
+ * With the {@link HdrLatencyProbe} the costs per recording increase with the number of threads, since all threads share the
+ * same recorder. With the {@link StripedHdrLatencyProbe} the costs should remain flat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyProbeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ProbeState {
+
+        @Param({"HdrLatencyProbe", "StripedHdrLatencyProbe"})
+        public String probe;
+
+        private LatencyProbe latencyProbe;
+
+        @Setup
+        public void setup() {
+            latencyProbe = "HdrLatencyProbe".equals(probe)
+                    ? new HdrLatencyProbe("benchmark", true)
+                    : new StripedHdrLatencyProbe("benchmark", true);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        // varies the recorded value so not every recording hits the same bucket.
+        private long latencyNanos;
+
+        long nextLatencyNanos() {
+            latencyNanos = (latencyNanos + 997) & 0xFFFFF;
+            return latencyNanos + 1000;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void recordValue_1Thread(ProbeState probeState, ThreadState threadState) {
+        probeState.latencyProbe.recordValue(threadState.nextLatencyNanos());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordValue_8Threads(ProbeState probeState, ThreadState threadState) {
+        probeState.latencyProbe.recordValue(threadState.nextLatencyNanos());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void recordValue_64Threads(ProbeState probeState, ThreadState threadState) {
+        probeState.latencyProbe.recordValue(threadState.nextLatencyNanos());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the random generation of the {@link BaseThreadState} that most tests use to create keys and values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseThreadStateBenchmark {
+
+    private static final int INT_BOUND = 100_000;
+    private static final long LONG_BOUND = 100_000_000L;
+    private static final int BYTES_LENGTH = 1000;
+
+    private final BaseThreadState threadState = new BaseThreadState();
+    private final byte[] bytes = new byte[BYTES_LENGTH];
+
+    @Benchmark
+    public int randomInt() {
+        return threadState.randomInt();
+    }
+
+    @Benchmark
+    public int randomInt_bounded() {
+        return threadState.randomInt(INT_BOUND);
+    }
+
+    @Benchmark
+    public long randomLong() {
+        return threadState.randomLong();
+    }
+
+    @Benchmark
+    public long randomLong_bounded() {
+        return threadState.randomLong(LONG_BOUND);
+    }
+
+    @Benchmark
+    public double randomDouble() {
+        return threadState.randomDouble();
+    }
+
+    @Benchmark
+    public boolean randomBoolean() {
+        return threadState.randomBoolean();
+    }
+
+    @Benchmark
+    public byte[] randomBytes() {
+        threadState.randomBytes(bytes);
+        return bytes;
+    }
+}
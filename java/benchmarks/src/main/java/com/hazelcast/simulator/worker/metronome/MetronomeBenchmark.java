@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.worker.testcontainer.MetronomeSupplier;
+import com.hazelcast.simulator.worker.testcontainer.PropertyBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link Metronome#waitForNext()}.
+ *
+ * The interval is set to 1ns, so the metronome is always behind schedule and never needs to wait; what remains is the
+ * bookkeeping cost of the metronome. Run with multiple threads (-t) to see the contention on the
+ * {@link ConstantCombinedRateMetronome}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetronomeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SupplierState {
+
+        @Param({"EmptyMetronome", "SleepingMetronome", "BusySpinningMetronome", "ConstantCombinedRateMetronome"})
+        public String metronome;
+
+        private MetronomeSupplier supplier;
+
+        @Setup
+        public void setup() {
+            TestCase testCase = new TestCase("MetronomeBenchmark");
+            if (!EmptyMetronome.class.getSimpleName().equals(metronome)) {
+                testCase.setProperty("interval", "1ns")
+                        .setProperty("metronomeClass", Metronome.class.getPackage().getName() + "." + metronome);
+            }
+            supplier = new MetronomeSupplier("", new PropertyBinding(testCase), 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private Metronome metronome;
+
+        @Setup
+        public void setup(SupplierState supplierState) {
+            metronome = supplierState.supplier.get();
+        }
+    }
+
+    @Benchmark
+    public long waitForNext(ThreadState threadState) {
+        return threadState.metronome.waitForNext();
+    }
+}
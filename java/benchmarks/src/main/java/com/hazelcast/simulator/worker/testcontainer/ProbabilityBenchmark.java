@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.testcontainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the selection of a timestep method based on the probabilities, using the {@link OperationSelector} the way it is
+ * done by the generated {@link TimeStepLoop}.
+ *
+ * The size of the operation selector only depends on the number of methods, so skewed probabilities like
+ * '0.000001,0.099999,0.9' should select as fast as '0.5,0.5'.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProbabilityBenchmark {
+
+    @Param({"0.5,0.5", "0.1,0.2,0.3,0.4", "0.000001,0.099999,0.9"})
+    public String probabilities;
+
+    private final SplittableRandom splittableRandom = new SplittableRandom();
+    private OperationSelector operationSelector;
+
+    @Setup
+    public void setup() {
+        List<Probability> methodProbabilities = new ArrayList<>();
+        for (String probability : probabilities.split(",")) {
+            methodProbabilities.add(new Probability(Double.parseDouble(probability)));
+        }
+        operationSelector = Probability.loadOperationSelector(methodProbabilities);
+    }
+
+    @Benchmark
+    public int selectFromOperationSelector() {
+        return operationSelector.select(splittableRandom.nextLong());
+    }
+}
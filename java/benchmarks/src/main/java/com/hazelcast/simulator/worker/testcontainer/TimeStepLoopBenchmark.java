@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.testcontainer;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.worker.metronome.EmptyMetronome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the generated {@link TimeStepLoop} per iteration, using test classes with no-op timestep methods.
+ *
+ * The benchmark lives in the testcontainer package since the {@link TimeStepLoopCodeGenerator} is package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeStepLoopBenchmark {
+
+    private static final int ITERATIONS = 100_000;
+
+    @Param({"single", "mix"})
+    public String test;
+
+    @Param({"false", "true"})
+    public boolean measureLatency;
+
+    private TimeStepLoop loop;
+
+    @Setup
+    public void setup() throws Exception {
+        Class<?> testClass = "single".equals(test) ? SingleTimeStepTest.class : MixedTimeStepTest.class;
+        TestCase testCase = new TestCase("TimeStepLoopBenchmark")
+                .setProperty("class", testClass)
+                .setProperty("measureLatency", measureLatency);
+
+        TestContextImpl testContext = new TestContextImpl(testCase.getId(), "localhost", null);
+        PropertyBinding binding = new PropertyBinding(testCase).setTestContext(testContext);
+        testContext.setLatencyProbeClass(binding.getProbeClass());
+
+        Object testInstance = testClass.getConstructor().newInstance();
+        TimeStepModel timeStepModel = new TimeStepModel(testClass, binding);
+        Class<?> loopClass = new TimeStepLoopCodeGenerator().compile(
+                testCase.getId(), "", timeStepModel, EmptyMetronome.class, binding.getProbeClass(), 0, 0, true, 0);
+
+        loop = (TimeStepLoop) loopClass.getConstructor(testClass, TimeStepModel.class, String.class)
+                .newInstance(testInstance, timeStepModel, "");
+        loop.testContext = testContext;
+        loop.metronome = EmptyMetronome.INSTANCE;
+        loop.maxIterations = ITERATIONS;
+        loop.bind(binding);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public long timeStepLoop() throws Exception {
+        loop.timeStepLoop();
+        return loop.iteration();
+    }
+
+    public static class SingleTimeStepTest {
+
+        @TimeStep
+        public void noop() {
+        }
+    }
+
+    public static class MixedTimeStepTest {
+
+        @TimeStep(prob = 0.1)
+        public void noop1() {
+        }
+
+        @TimeStep(prob = 0.2)
+        public void noop2() {
+        }
+
+        @TimeStep(prob = 0.3)
+        public void noop3() {
+        }
+
+        @TimeStep(prob = 0.4)
+        public void noop4() {
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.hz;
+
+import com.hazelcast.simulator.utils.OffHeapValuePool;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A value that refers to bytes outside of the heap, typically a slice of an {@link OffHeapValuePool}.
+ * <p>
+ * It is serialized by the {@link PooledValueSerializer} from the buffer, so the values don't need to be kept on the heap.
+ * The serialized form is still a heap copy of the value. A deserialized PooledValue is backed by a heap buffer.
+ */
+public final class PooledValue {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a PooledValue.
+     *
+     * @param buffer the bytes between the position and the limit of the buffer form the value; the buffer is not copied
+     *               and should not be modified.
+     */
+    public PooledValue(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns the value of the pool at the given index.
+     *
+     * @param pool  the pool.
+     * @param index the index of the value.
+     * @return the created PooledValue.
+     */
+    public static PooledValue of(OffHeapValuePool pool, int index) {
+        return new PooledValue(pool.slice(index));
+    }
+
+    /**
+     * Returns a view of the value.
+     *
+     * @return a read-only view of the value.
+     */
+    public ByteBuffer buffer() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public int length() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PooledValue)) {
+            return false;
+        }
+        return buffer.equals(((PooledValue) o).buffer);
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledValue{length=" + length() + '}';
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.hz;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes a {@link PooledValue} as its length followed by its bytes.
+ * <p>
+ * The bytes are copied from the (off-heap) buffer into the output through a small per-thread buffer, so the serializer
+ * doesn't allocate a byte array of the size of the value. The output itself is still a heap buffer that ends up with a
+ * copy of the value, and reading a value allocates a byte array of its size. The serializer is registered in the
+ * default configuration of the driver; a custom configuration of the clients and the members needs:
+ * <pre>
+ * {@code
+ * <serialization>
+ *     <serializers>
+ *         <serializer type-class="com.hazelcast.simulator.hz.PooledValue"
+ *                     class-name="com.hazelcast.simulator.hz.PooledValueSerializer"/>
+ *     </serializers>
+ * </serialization>
+ * }
+ * </pre>
+ */
+public class PooledValueSerializer implements StreamSerializer<PooledValue> {
+
+    public static final int TYPE_ID = 1000;
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final ThreadLocal<byte[]> COPY_BUFFER = ThreadLocal.withInitial(() -> new byte[COPY_BUFFER_SIZE]);
+
+    @Override
+    public void write(ObjectDataOutput out, PooledValue value) throws IOException {
+        ByteBuffer buffer = value.buffer();
+        out.writeInt(buffer.remaining());
+        byte[] copyBuffer = COPY_BUFFER.get();
+        while (buffer.hasRemaining()) {
+            int length = Math.min(copyBuffer.length, buffer.remaining());
+            buffer.get(copyBuffer, 0, length);
+            out.write(copyBuffer, 0, length);
+        }
+    }
+
+    @Override
+    public PooledValue read(ObjectDataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new PooledValue(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+}
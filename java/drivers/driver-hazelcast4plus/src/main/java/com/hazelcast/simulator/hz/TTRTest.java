@@ -81,7 +81,7 @@ public class TTRTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private String randomValue() {
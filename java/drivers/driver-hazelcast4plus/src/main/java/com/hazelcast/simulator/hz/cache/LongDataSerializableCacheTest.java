@@ -66,7 +66,7 @@ public class LongDataSerializableCacheTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private DataSerializablePojo randomValue() {
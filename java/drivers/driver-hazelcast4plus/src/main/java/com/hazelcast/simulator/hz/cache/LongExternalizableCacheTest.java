@@ -65,7 +65,7 @@ public class LongExternalizableCacheTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private Long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey((long) keyDomain);
         }
 
         private ExternalizablePojo randomValue() {
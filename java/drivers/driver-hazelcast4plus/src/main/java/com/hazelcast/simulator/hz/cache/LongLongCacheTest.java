@@ -65,7 +65,7 @@ public class LongLongCacheTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private Long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey((long) keyDomain);
         }
 
         private Long randomValue() {
@@ -65,7 +65,7 @@ public class LongSerializableCacheTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private SerializablePojo randomValue() {
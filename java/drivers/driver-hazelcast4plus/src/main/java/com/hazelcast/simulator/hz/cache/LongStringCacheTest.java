@@ -73,7 +73,7 @@ public class LongStringCacheTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private String randomValue() {
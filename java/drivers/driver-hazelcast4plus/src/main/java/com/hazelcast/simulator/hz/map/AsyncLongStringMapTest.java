@@ -18,21 +18,17 @@ package com.hazelcast.simulator.hz.map;
 
 import com.hazelcast.map.IMap;
 import com.hazelcast.simulator.hz.HazelcastTest;
-import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.test.AsyncLoadGenerator;
 import com.hazelcast.simulator.test.BaseThreadState;
 import com.hazelcast.simulator.test.annotations.Prepare;
 import com.hazelcast.simulator.test.annotations.Run;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
 import com.hazelcast.simulator.worker.loadsupport.Streamer;
 import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
-import com.hazelcast.simulator.worker.testcontainer.Probability;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
-import java.util.concurrent.CompletionStage;
-import java.util.concurrent.CountDownLatch;
 
 import static com.hazelcast.simulator.utils.GeneratorUtils.generateAsciiStrings;
 
@@ -44,17 +40,20 @@ import static com.hazelcast.simulator.utils.GeneratorUtils.generateAsciiStrings;
  * The big advantage is that a client can generate much higher levels of load without
  * becoming the bottleneck itself.
  * <p/>
- * This is a POC implementation. In the future code generation should be used to do the
- * actual work.
+ * The load is generated by an {@link AsyncLoadGenerator}; with a ratePerSecond the latency
+ * is measured from the intended start of each call, so it includes the time a call had to
+ * wait because the concurrency limit was reached.
+ * <p/>
+ * The thread state is configured like the thread state of a timestep-thread: the keys are selected using the
+ * {@code keyDistribution} and with a {@code randomSeed} the random is seeded the same way. The operations are selected
+ * using the same random, so a seeded run repeats the same operation sequence.
  */
 public class AsyncLongStringMapTest extends HazelcastTest {
 
-    private final static byte METHOD_GET = 0;
-    private final static byte METHOD_SET = 1;
-    private final static byte METHOD_PUT = 2;
-
     // properties
     public int concurrency = 100;
+    // 0 means as fast as the concurrency allows
+    public double ratePerSecond = 0;
     public long keyDomain = 10000;
     public int valueCount = 10000;
     public int minValueLength = 10;
@@ -64,22 +63,22 @@ public class AsyncLongStringMapTest extends HazelcastTest {
     public double getProb = 1;
     public double putProb = 0;
     public double setProb = 0;
+    // the distribution of the keys, e.g. 'zipfian(theta=0.99)'; uniform if not set
+    public String keyDistribution;
+    // seeds the random of the thread state, so runs with the same seed issue the same operations on the same keys
+    public Long randomSeed;
 
     private IMap<Long, String> map;
     private String[] values;
-    private byte[] probabilityArray;
 
     @Setup
     public void setUp() {
         map = targetInstance.getMap(name);
         values = generateAsciiStrings(valueCount, minValueLength, maxValueLength);
-
-        List<Probability> probabilityList = new ArrayList<>();
-        probabilityList.add(new Probability(getProb));
-        probabilityList.add(new Probability(putProb));
-        probabilityList.add(new Probability(setProb));
-
-        probabilityArray = Probability.loadTimeStepProbabilityArray(probabilityList);
+        if (keyDistribution != null) {
+            // validates the specification
+            KeyDistribution.create(keyDistribution);
+        }
     }
 
     @Prepare(global = true)
@@ -99,88 +98,33 @@ public class AsyncLongStringMapTest extends HazelcastTest {
 
     @Run
     public void run() throws InterruptedException {
-        CountDownLatch completionLatch = new CountDownLatch(concurrency);
-        for (int k = 0; k < concurrency; k++) {
-            Task task = new Task(completionLatch);
-            task.run();
-        }
-        completionLatch.await();
+        ThreadState state = newThreadState();
+        new AsyncLoadGenerator(testContext)
+                .setThreadState(state)
+                .setMaxInFlight(concurrency)
+                .setRatePerSecond(ratePerSecond)
+                .addOperation("get", getProb, () -> map.getAsync(state.randomKey()))
+                .addOperation("put", putProb, () -> map.putAsync(state.randomKey(), state.randomValue()))
+                .addOperation("set", setProb, () -> map.setAsync(state.randomKey(), state.randomValue()))
+                .run();
     }
 
-    private class Task implements Runnable {
-        private final ThreadState state = new ThreadState();
-        private final LatencyProbe getLatencyProbe = testContext.getLatencyProbe("get");
-        private final LatencyProbe putLatencyProbe = testContext.getLatencyProbe("put");
-        private final LatencyProbe setLatencyProbe = testContext.getLatencyProbe("set");
-        private final CountDownLatch completionLatch;
-        private long startNs;
-        private boolean initializing = true;
-        private final ThreadState threadState = new ThreadState();
-        private int method;
-
-        private Task(CountDownLatch completionLatch) {
-            this.completionLatch = completionLatch;
+    private ThreadState newThreadState() {
+        // the operations are issued by a single thread, so it is thread 0 of the default execution group
+        ThreadState state = new ThreadState();
+        if (randomSeed != null) {
+            state.seed(randomSeed, testContext, "", 0);
         }
-
-        @Override
-        public void run() {
-            if (initializing) {
-                initializing = false;
-                startNs = System.nanoTime();
-            } else {
-                long nowNs = System.nanoTime();
-                long durationNs = nowNs - startNs;
-                switch (method) {
-                    case METHOD_GET:
-                        getLatencyProbe.recordValue(durationNs);
-                        break;
-                    case METHOD_SET:
-                        setLatencyProbe.recordValue(durationNs);
-                        break;
-                    case METHOD_PUT:
-                        putLatencyProbe.recordValue(durationNs);
-                        break;
-                    default:
-                        throw new RuntimeException("unexpected method index: " + method);
-                }
-
-                startNs = nowNs;
-            }
-
-            if (testContext.isStopped()) {
-                completionLatch.countDown();
-                return;
-            }
-
-            int probabilityPosition = threadState.randomInt(probabilityArray.length);
-            this.method = probabilityArray[probabilityPosition];
-
-            switch (method) {
-                case METHOD_GET: {
-                    CompletionStage<String> f = map.getAsync(state.randomKey());
-                    f.thenRunAsync(this);
-                }
-                break;
-                case METHOD_SET: {
-                    CompletionStage<Void> f = map.setAsync(state.randomKey(), threadState.randomValue());
-                    f.thenRunAsync(this);
-                }
-                break;
-                case METHOD_PUT: {
-                    CompletionStage<String> f = map.putAsync(state.randomKey(), threadState.randomValue());
-                    f.thenRunAsync(this);
-                }
-                break;
-                default:
-                    throw new RuntimeException("unexpected method index: " + method);
-            }
+        if (keyDistribution != null) {
+            state.setKeyDistribution(KeyDistribution.create(keyDistribution));
         }
+        return state;
     }
 
     public class ThreadState extends BaseThreadState {
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private String randomValue() {
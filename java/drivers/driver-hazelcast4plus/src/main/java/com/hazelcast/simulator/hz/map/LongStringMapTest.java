@@ -23,10 +23,9 @@ import com.hazelcast.simulator.test.annotations.Prepare;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Teardown;
 import com.hazelcast.simulator.test.annotations.TimeStep;
-import com.hazelcast.simulator.worker.loadsupport.Streamer;
-import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+import com.hazelcast.simulator.worker.loadsupport.BulkLoader;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.hazelcast.simulator.utils.GeneratorUtils.generateAsciiStrings;
 
@@ -55,13 +54,8 @@ public class LongStringMapTest extends HazelcastTest {
             return;
         }
 
-        Random random = new Random();
-        Streamer<Long, String> streamer = StreamerFactory.getInstance(map);
-        for (long key = 0; key < keyDomain; key++) {
-            String value = values[random.nextInt(valueCount)];
-            streamer.pushEntry(key, value);
-        }
-        streamer.await();
+        BulkLoader.forMap(targetInstance, map)
+                .load(0, keyDomain, key -> key, key -> values[ThreadLocalRandom.current().nextInt(valueCount)]);
     }
 
     @TimeStep(prob = -1)
@@ -82,7 +76,7 @@ public class LongStringMapTest extends HazelcastTest {
     public class ThreadState extends BaseThreadState {
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private String randomValue() {
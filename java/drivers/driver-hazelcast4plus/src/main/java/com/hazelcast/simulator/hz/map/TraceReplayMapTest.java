@@ -0,0 +1,192 @@
+package com.hazelcast.simulator.hz.map;
+
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.hazelcast.map.IMap;
+import com.hazelcast.simulator.hz.HazelcastTest;
+import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.StopException;
+import com.hazelcast.simulator.test.annotations.BeforeRun;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.trace.TraceOperation;
+import com.hazelcast.simulator.trace.TraceReader;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+
+/**
+ * Replays a recorded trace of map operations, e.g. converted from a production access log using the
+ * {@link com.hazelcast.simulator.trace.TraceWriter}.
+ * <p>
+ * The records are split over the load generators: record i is replayed by load generator i % loadGeneratorCount, so the
+ * cluster sees every record exactly once, at the recorded rate. The {@code loadGeneratorCount} needs to be set to the
+ * number of load generators that run the test; every load generator claims an index in the cluster when it starts, and
+ * the run fails if more load generators than the loadGeneratorCount show up. Within a load generator, the
+ * timestep-threads share a cursor in its records.
+ * <p>
+ * Every record is issued at its original time relative to the start of the replay, divided by the {@code timeCompression}. The
+ * latency is measured from that intended time, so if the cluster can't keep up, the waiting time is part of the latency
+ * (no coordinated omission). If all threads are busy, the replay falls behind; increase the {@code threadCount}.
+ * <p>
+ * The latency is recorded per operation in a probe with the name of the operation, e.g. 'get', and in total in the
+ * 'replay' probe. The test stops when the trace is exhausted.
+ */
+public class TraceReplayMapTest extends HazelcastTest {
+
+    // properties
+    // the trace file; should be available on every load generator
+    public String traceFile;
+    // 1 replays with the original timing, 2 twice as fast, etc. 0 replays as fast as possible.
+    public double timeCompression = 1;
+    // the number of load generators that run the test; the records are split over them
+    public int loadGeneratorCount = 1;
+    public boolean destroyOnExit = true;
+
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong replayStartNanos = new AtomicLong();
+    private final LatencyProbe[] operationProbes = new LatencyProbe[TraceOperation.values().length];
+    private IMap<Long, byte[]> map;
+    private TraceReader trace;
+    private long firstTimestampNanos;
+    private volatile int loadGeneratorIndex = -1;
+
+    @Setup
+    public void setUp() {
+        if (traceFile == null) {
+            throw new IllegalStateException("traceFile should be set");
+        }
+        if (timeCompression < 0) {
+            throw new IllegalStateException("timeCompression can't be smaller than 0");
+        }
+        if (loadGeneratorCount < 1) {
+            throw new IllegalStateException("loadGeneratorCount should be at least 1");
+        }
+
+        map = targetInstance.getMap(name);
+        trace = new TraceReader(new File(traceFile));
+        firstTimestampNanos = trace.size() == 0 ? 0 : trace.timestampNanos(0);
+        for (TraceOperation operation : TraceOperation.values()) {
+            operationProbes[operation.ordinal()] = testContext.getLatencyProbe(operation.name().toLowerCase(), false);
+        }
+        logger.info("Replaying " + trace.size() + " records from " + traceFile);
+    }
+
+    @BeforeRun
+    public synchronized void beforeRun() {
+        // only the first timestep-thread of this load generator claims the index
+        if (loadGeneratorIndex != -1) {
+            return;
+        }
+
+        long index = getAtomicLong(name + ":loadGeneratorIndex").getAndIncrement();
+        if (index >= loadGeneratorCount) {
+            throw new IllegalStateException("More load generators run the test than the loadGeneratorCount "
+                    + loadGeneratorCount + "; set the loadGeneratorCount to the number of load generators, else"
+                    + " records are replayed more than once");
+        }
+        loadGeneratorIndex = (int) index;
+        logger.info(format("Load generator %d of %d replays the records with index %% %d == %d",
+                index + 1, loadGeneratorCount, loadGeneratorCount, index));
+    }
+
+    @TimeStep
+    public void replay(ThreadState state, LatencyProbe probe) {
+        long index = loadGeneratorIndex + cursor.getAndIncrement() * loadGeneratorCount;
+        if (index >= trace.size()) {
+            throw new StopException();
+        }
+
+        long intendedStartNanos = intendedStartNanos(index);
+        long key = trace.key(index);
+        TraceOperation operation = trace.operation(index);
+        switch (operation) {
+            case GET:
+                map.get(key);
+                break;
+            case PUT:
+                map.put(key, state.value(trace.valueSize(index)));
+                break;
+            case SET:
+                map.set(key, state.value(trace.valueSize(index)));
+                break;
+            case REMOVE:
+                map.remove(key);
+                break;
+            case DELETE:
+                map.delete(key);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported operation: " + operation);
+        }
+
+        long latencyNanos = System.nanoTime() - intendedStartNanos;
+        probe.recordValue(latencyNanos);
+        operationProbes[operation.ordinal()].recordValue(latencyNanos);
+    }
+
+    private long intendedStartNanos(long index) {
+        long startNanos = replayStartNanos.get();
+        if (startNanos == 0) {
+            replayStartNanos.compareAndSet(0, System.nanoTime());
+            startNanos = replayStartNanos.get();
+        }
+
+        if (timeCompression == 0) {
+            return System.nanoTime();
+        }
+
+        long intendedStartNanos = startNanos
+                + (long) ((trace.timestampNanos(index) - firstTimestampNanos) / timeCompression);
+        for (; ; ) {
+            long remainingNanos = intendedStartNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return intendedStartNanos;
+            }
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        // a single random buffer that grows to the largest value in the trace; the values are copied from it, so the
+        // memory per thread doesn't depend on the number of distinct value sizes
+        private byte[] buffer = new byte[0];
+
+        private byte[] value(int size) {
+            if (size > buffer.length) {
+                buffer = new byte[Math.max(size, buffer.length * 2)];
+                randomBytes(buffer);
+            }
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    @Teardown
+    public void tearDown() {
+        if (destroyOnExit) {
+            map.destroy();
+            getAtomicLong(name + ":loadGeneratorIndex").destroy();
+        }
+    }
+}
@@ -41,6 +41,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.assignKeyToIndex;
 import static com.hazelcast.simulator.utils.GeneratorUtils.generateByteArrays;
@@ -111,7 +112,8 @@ public class LongByteArrayMapTest extends HazelcastTest {
             Integer clientIndex = clientIndexForThread.get(currentThread());
             mapsToSelectFrom = maps.get(clientIndex == null ? putClientForCurrentThread() : clientIndex);
         }
-        return mapsToSelectFrom.get(random.nextInt(mapCount));
+        // the timestep-threads share the test instance, so the shared random would be contended.
+        return mapCount == 1 ? mapsToSelectFrom.get(0) : mapsToSelectFrom.get(ThreadLocalRandom.current().nextInt(mapCount));
     }
 
     private synchronized int putClientForCurrentThread() {
@@ -214,7 +216,7 @@ public class LongByteArrayMapTest extends HazelcastTest {
         }
 
         private long randomKey() {
-            return randomLong(keyDomain);
+            return randomKey(keyDomain);
         }
 
         private byte[] randomValue() {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.map;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.simulator.hz.HazelcastTest;
+import com.hazelcast.simulator.hz.PooledValue;
+import com.hazelcast.simulator.hz.PooledValueSerializer;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.utils.FastRandom;
+import com.hazelcast.simulator.utils.OffHeapValuePool;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A map test with large values that are stored outside of the heap of the load generator.
+ * <p>
+ * The values are slices of an {@link OffHeapValuePool} in direct memory, or in a memory mapped file if the valueFile
+ * is set, and they are serialized from the pool by the {@link PooledValueSerializer}. So the data set of values doesn't
+ * live on the heap of the load generator, and the GC doesn't have to trace or copy it.
+ * <p>
+ * This doesn't make an operation allocation free: the client still copies every value it sends into a heap buffer of
+ * the size of the value, and every {@code get} deserializes the value into a new byte array. With large values this
+ * per-operation garbage is what remains for the GC of the load generator.
+ * <p>
+ * The serializer is registered in the default client and member configuration of the driver. With a custom
+ * configuration it needs to be added on the clients and the members, else the setup fails.
+ */
+public class PooledValueMapTest extends HazelcastTest {
+
+    // properties
+    public int keyDomain = 10000;
+    public int valueCount = 1000;
+    public int minValueLength = 100_000;
+    public int maxValueLength = 100_000;
+    // if set, the values are stored in a memory mapped file instead of direct memory
+    public String valueFile;
+    public boolean fillOnPrepare = true;
+    public boolean destroyOnExit = true;
+
+    private IMap<Long, PooledValue> map;
+    private PooledValue[] values;
+
+    @Setup
+    public void setUp() {
+        checkSerializerConfigured();
+        map = targetInstance.getMap(name);
+
+        Random random = new FastRandom();
+        OffHeapValuePool pool = valueFile == null
+                ? OffHeapValuePool.allocateDirect(valueCount, minValueLength, maxValueLength, random)
+                : OffHeapValuePool.map(new File(valueFile), valueCount, minValueLength, maxValueLength, random);
+        logger.info("Created value pool of " + pool.size() + " values, " + pool.totalBytes() + " bytes");
+
+        // the PooledValues are tiny views, so creating them upfront prevents any allocation in the timestep methods
+        values = new PooledValue[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            values[i] = PooledValue.of(pool, i);
+        }
+    }
+
+    private void checkSerializerConfigured() {
+        SerializationService serializationService =
+                ((SerializationServiceSupport) targetInstance).getSerializationService();
+        PooledValue value = new PooledValue(ByteBuffer.allocate(0));
+        try {
+            if (serializationService.toData(value).getType() == PooledValueSerializer.TYPE_ID) {
+                return;
+            }
+        } catch (HazelcastSerializationException e) {
+            logger.debug("Failed to serialize a PooledValue", e);
+        }
+        throw new IllegalStateException(PooledValueSerializer.class.getName() + " isn't configured as serializer of "
+                + PooledValue.class.getName() + "; add it to the serialization config of the clients and the members");
+    }
+
+    @Prepare(global = true)
+    public void prepare() {
+        if (!fillOnPrepare) {
+            return;
+        }
+
+        Random random = new FastRandom();
+        Streamer<Long, PooledValue> streamer = StreamerFactory.getInstance(map);
+        for (long key = 0; key < keyDomain; key++) {
+            streamer.pushEntry(key, values[random.nextInt(valueCount)]);
+        }
+        streamer.await();
+    }
+
+    @TimeStep(prob = -1)
+    public PooledValue get(ThreadState state) {
+        return map.get(state.randomKey());
+    }
+
+    @TimeStep(prob = 0.1)
+    public void set(ThreadState state) {
+        map.set(state.randomKey(), state.randomValue());
+    }
+
+    @TimeStep(prob = 0)
+    public CompletableFuture setAsync(ThreadState state) {
+        return map.setAsync(state.randomKey(), state.randomValue()).toCompletableFuture();
+    }
+
+    @TimeStep(prob = 0)
+    public PooledValue put(ThreadState state) {
+        return map.put(state.randomKey(), state.randomValue());
+    }
+
+    public class ThreadState extends BaseThreadState {
+
+        private long randomKey() {
+            return randomKey(keyDomain);
+        }
+
+        private PooledValue randomValue() {
+            return values[randomInt(values.length)];
+        }
+    }
+
+    @Teardown
+    public void tearDown() {
+        if (destroyOnExit) {
+            map.destroy();
+        }
+    }
+}
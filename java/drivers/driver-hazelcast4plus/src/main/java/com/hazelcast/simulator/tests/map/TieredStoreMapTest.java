@@ -5,6 +5,8 @@ import com.hazelcast.core.IExecutorService;
 import com.hazelcast.map.IMap;
 import com.hazelcast.memory.Capacity;
 import com.hazelcast.simulator.hz.HazelcastTest;
+import com.hazelcast.simulator.snapshot.SnapshotReader;
+import com.hazelcast.simulator.snapshot.SnapshotWriter;
 import com.hazelcast.simulator.test.BaseThreadState;
 import com.hazelcast.simulator.test.annotations.Prepare;
 import com.hazelcast.simulator.test.annotations.Setup;
@@ -20,14 +22,18 @@ import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.Assert;
 
+import java.io.File;
 import java.util.Random;
 import java.util.concurrent.ExecutionException;
 
 import static com.hazelcast.jet.core.test.JetAssert.assertTrue;
 import static com.hazelcast.memory.MemoryUnit.BYTES;
+import static com.hazelcast.simulator.snapshot.SnapshotReader.readBytes;
+import static com.hazelcast.simulator.snapshot.SnapshotReader.readInt;
 import static com.hazelcast.simulator.tests.helpers.KeyLocality.SHARED;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateIntKeys;
 import static com.hazelcast.simulator.utils.GeneratorUtils.generateByteArray;
+import static java.lang.String.format;
 
 /**
  * This test is running as part of release verification simulator test. Hence every change in this class should be
@@ -41,6 +47,9 @@ public class TieredStoreMapTest extends HazelcastTest {
     public boolean clearTsDirectoryOnPrepare = true;
     public boolean fillOnPrepare = true;
     public boolean destroyOnExit = true;
+    // if set, the generated entries are stored in a snapshot in this directory on the worker machine and restored on the
+    // next run instead of generating them again
+    public String snapshotDir;
 
     public KeyLocality keyLocality = SHARED;
 
@@ -131,16 +140,44 @@ public class TieredStoreMapTest extends HazelcastTest {
     }
 
     private void fillMap() {
-        Random random = new Random();
         Streamer<Integer, byte[]> streamer = StreamerFactory.getInstance(map);
-        logger.info("Starting new batch");
-        for (int key : keys) {
-            streamer.pushEntry(key, generateByteArray(random, RandomUtils.nextInt(minValueByteArrayLength, maxValueByteArrayLength)));
-            if (key % 1_000 == 0) {
-                logger.info("Added " + key + " of " + keys.length + " keys to Streamer");
+        File snapshotFile = snapshotDir == null ? null : new File(snapshotDir, name + ".snapshot");
+        String fingerprint = format("keyDomain=%d,keyLocality=%s,minValueByteArrayLength=%d,maxValueByteArrayLength=%d",
+                keyDomain, keyLocality, minValueByteArrayLength, maxValueByteArrayLength);
+        if (snapshotFile != null && SnapshotReader.exists(snapshotFile, fingerprint)) {
+            logger.info("Restoring snapshot " + snapshotFile.getAbsolutePath());
+            long count = new SnapshotReader(snapshotFile, fingerprint)
+                    .forEach((key, value) -> streamer.pushEntry(readInt(key), readBytes(value)));
+            streamer.await();
+            logger.info("Restored " + count + " entries from snapshot " + snapshotFile.getAbsolutePath());
+            return;
+        }
+
+        SnapshotWriter snapshotWriter = snapshotFile == null ? null : new SnapshotWriter(snapshotFile, fingerprint);
+        try {
+            Random random = new Random();
+            logger.info("Starting new batch");
+            for (int key : keys) {
+                byte[] value = generateByteArray(random, RandomUtils.nextInt(minValueByteArrayLength, maxValueByteArrayLength));
+                streamer.pushEntry(key, value);
+                if (snapshotWriter != null) {
+                    snapshotWriter.write(key, value);
+                }
+                if (key % 1_000 == 0) {
+                    logger.info("Added " + key + " of " + keys.length + " keys to Streamer");
+                }
             }
+            streamer.await();
+        } catch (RuntimeException e) {
+            if (snapshotWriter != null) {
+                snapshotWriter.abort();
+            }
+            throw e;
+        }
+        if (snapshotWriter != null) {
+            snapshotWriter.close();
+            logger.info("Written " + snapshotWriter.getEntryCount() + " entries to snapshot " + snapshotFile.getAbsolutePath());
         }
-        streamer.await();
     }
 
     private void clearTsDirectory() {
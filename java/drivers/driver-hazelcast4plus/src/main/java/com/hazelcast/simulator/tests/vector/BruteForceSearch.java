@@ -0,0 +1,344 @@
+package com.hazelcast.simulator.tests.vector;
+
+import com.hazelcast.config.vector.Metric;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Exact k nearest neighbours search by comparing every query with every vector, used to compute the ground truth of
+ * queries for which the dataset doesn't provide precomputed neighbours, e.g. an inflated collection or custom queries.
+ * <p>
+ * The vectors are split over fork-join tasks; each task reads its vectors in small blocks which are compared with all
+ * queries while the block is still in the CPU cache, and keeps the top k per query. The top k of the tasks are merged
+ * when the tasks are joined.
+ * <p>
+ * Scores are similarities, so a higher score is closer: the cosine similarity, the dot product or the negated squared
+ * euclidean distance. Equal scores are ordered by the lowest index, so the result is deterministic.
+ */
+public final class BruteForceSearch {
+
+    // the number of vectors that is compared with all queries at a time
+    private static final int BLOCK_SIZE = 64;
+    private static final int MIN_TASK_SIZE = 1024;
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int UNROLL = 4;
+
+    private final int size;
+    private final int dimension;
+    private final Metric metric;
+    private final ObjIntConsumer<float[]> vectorReader;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a search.
+     *
+     * @param size         the number of vectors to search.
+     * @param dimension    the dimension of the vectors.
+     * @param metric       the metric.
+     * @param vectorReader copies the vector with the given index into the given array; called concurrently.
+     * @param pool         the pool to run the search on.
+     */
+    public BruteForceSearch(int size, int dimension, Metric metric, ObjIntConsumer<float[]> vectorReader,
+                            ForkJoinPool pool) {
+        this.size = size;
+        this.dimension = dimension;
+        this.metric = metric;
+        this.vectorReader = vectorReader;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a search over the train vectors of a dataset reader using the common pool.
+     *
+     * @param reader the reader of the dataset.
+     * @param size   the number of vectors to search; if larger than the dataset, the vectors are repeated like in an
+     *               inflated collection, so index i contains train vector i % dataset size.
+     * @param metric the metric.
+     * @return the created search.
+     */
+    public static BruteForceSearch of(DatasetReader reader, int size, Metric metric) {
+        int datasetSize = reader.getSize();
+        return new BruteForceSearch(size, reader.getDimension(), metric,
+                (vector, index) -> reader.getTrainVector(index % datasetSize, vector), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the k nearest vectors of every query.
+     *
+     * @param queries the queries.
+     * @param k       the number of neighbours per query.
+     * @return the neighbours of the queries.
+     */
+    public Neighbours search(float[][] queries, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k should be larger than 0, but was " + k);
+        }
+        for (float[] query : queries) {
+            checkDimension(query);
+        }
+        float[] queryNorms = new float[queries.length];
+        for (int q = 0; q < queries.length; q++) {
+            queryNorms[q] = norm(queries[q]);
+        }
+
+        int taskSize = Math.max(MIN_TASK_SIZE, size / (pool.getParallelism() * TASKS_PER_THREAD) + 1);
+        TopK[] topKs = pool.invoke(new SearchTask(queries, queryNorms, k, 0, size, taskSize));
+
+        int[][] ids = new int[queries.length][];
+        float[][] scores = new float[queries.length][];
+        for (int q = 0; q < queries.length; q++) {
+            topKs[q].sort();
+            ids[q] = Arrays.copyOf(topKs[q].ids, topKs[q].count);
+            scores[q] = Arrays.copyOf(topKs[q].scores, topKs[q].count);
+        }
+        return new Neighbours(ids, scores);
+    }
+
+    /**
+     * Returns the score of a single vector for a query, computed exactly like in {@link #search(float[][], int)}, so
+     * it can be compared with the scores of the neighbours.
+     *
+     * @param query the query.
+     * @param index the index of the vector.
+     * @return the score.
+     */
+    public float score(float[] query, int index) {
+        checkDimension(query);
+        float[] vector = new float[dimension];
+        vectorReader.accept(vector, index);
+        return score(query, norm(query), vector, norm(vector));
+    }
+
+    private void checkDimension(float[] query) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Query has dimension " + query.length + ", expected " + dimension);
+        }
+    }
+
+    private float norm(float[] vector) {
+        return metric == Metric.COSINE ? (float) Math.sqrt(dot(vector, vector)) : 0;
+    }
+
+    private float score(float[] query, float queryNorm, float[] vector, float vectorNorm) {
+        return switch (metric) {
+            case COSINE -> queryNorm == 0 || vectorNorm == 0 ? 0 : dot(query, vector) / (queryNorm * vectorNorm);
+            case DOT -> dot(query, vector);
+            case EUCLIDEAN -> -squaredDistance(query, vector);
+        };
+    }
+
+    // independent accumulators, so the additions don't wait for each other
+    private static float dot(float[] a, float[] b) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int length = a.length;
+        int i = 0;
+        for (; i <= length - UNROLL; i += UNROLL) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static float squaredDistance(float[] a, float[] b) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int length = a.length;
+        int i = 0;
+        for (; i <= length - UNROLL; i += UNROLL) {
+            float d0 = a[i] - b[i];
+            float d1 = a[i + 1] - b[i + 1];
+            float d2 = a[i + 2] - b[i + 2];
+            float d3 = a[i + 3] - b[i + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            float d = a[i] - b[i];
+            s0 += d * d;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * The neighbours of the queries, ordered from closest to furthest.
+     *
+     * @param ids    the indexes of the neighbours per query.
+     * @param scores the scores of the neighbours per query.
+     */
+    public record Neighbours(int[][] ids, float[][] scores) {
+
+        /**
+         * Returns the score of the k-th neighbour of a query; every vector with at least this score is a correct
+         * result, which handles duplicate vectors that have the same score. If there are fewer than k neighbours, the
+         * score of the last one is returned, and {@link Float#NEGATIVE_INFINITY} if there are none.
+         *
+         * @throws IllegalArgumentException if k is smaller than 1.
+         */
+        public float kthScore(int query, int k) {
+            if (k < 1) {
+                throw new IllegalArgumentException("k should be at least 1, but was " + k);
+            }
+            float[] queryScores = scores[query];
+            if (queryScores.length == 0) {
+                return Float.NEGATIVE_INFINITY;
+            }
+            return queryScores[Math.min(k, queryScores.length) - 1];
+        }
+    }
+
+    private final class SearchTask extends RecursiveTask<TopK[]> {
+
+        private final float[][] queries;
+        private final float[] queryNorms;
+        private final int k;
+        private final int from;
+        private final int to;
+        private final int taskSize;
+
+        private SearchTask(float[][] queries, float[] queryNorms, int k, int from, int to, int taskSize) {
+            this.queries = queries;
+            this.queryNorms = queryNorms;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+            this.taskSize = taskSize;
+        }
+
+        @Override
+        protected TopK[] compute() {
+            if (to - from > taskSize) {
+                int middle = (from + to) >>> 1;
+                SearchTask left = new SearchTask(queries, queryNorms, k, from, middle, taskSize);
+                left.fork();
+                TopK[] right = new SearchTask(queries, queryNorms, k, middle, to, taskSize).compute();
+                TopK[] result = left.join();
+                for (int q = 0; q < result.length; q++) {
+                    result[q].addAll(right[q]);
+                }
+                return result;
+            }
+
+            TopK[] topKs = new TopK[queries.length];
+            for (int q = 0; q < queries.length; q++) {
+                topKs[q] = new TopK(k);
+            }
+            float[][] block = new float[BLOCK_SIZE][dimension];
+            float[] blockNorms = new float[BLOCK_SIZE];
+            for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+                int blockLength = Math.min(BLOCK_SIZE, to - blockStart);
+                for (int b = 0; b < blockLength; b++) {
+                    vectorReader.accept(block[b], blockStart + b);
+                    blockNorms[b] = norm(block[b]);
+                }
+                for (int q = 0; q < queries.length; q++) {
+                    float[] query = queries[q];
+                    float queryNorm = queryNorms[q];
+                    TopK topK = topKs[q];
+                    for (int b = 0; b < blockLength; b++) {
+                        topK.add(blockStart + b, score(query, queryNorm, block[b], blockNorms[b]));
+                    }
+                }
+            }
+            return topKs;
+        }
+    }
+
+    /**
+     * The k best scores seen so far, kept in a heap with the worst score at the root.
+     */
+    private static final class TopK {
+
+        private final int[] ids;
+        private final float[] scores;
+        private int count;
+
+        private TopK(int k) {
+            this.ids = new int[k];
+            this.scores = new float[k];
+        }
+
+        void add(int id, float score) {
+            if (count < ids.length) {
+                ids[count] = id;
+                scores[count] = score;
+                siftUp(count++);
+            } else if (isWorse(ids[0], scores[0], id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0, count);
+            }
+        }
+
+        void addAll(TopK other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.ids[i], other.scores[i]);
+            }
+        }
+
+        // heap sort; the worst is moved to the end first, so the result is ordered from best to worst
+        void sort() {
+            for (int end = count - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private static boolean isWorse(int id1, float score1, int id2, float score2) {
+            return score1 < score2 || (score1 == score2 && id1 > id2);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!isWorse(ids[index], scores[index], ids[parent], scores[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int end) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < end && isWorse(ids[left], scores[left], ids[worst], scores[worst])) {
+                    worst = left;
+                }
+                if (right < end && isWorse(ids[right], scores[right], ids[worst], scores[worst])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
@@ -27,6 +27,37 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class DatasetReader {
 
+    /**
+     * How the train dataset is made available.
+     */
+    public enum TrainDatasetMode {
+        // parsed into the heap
+        LOADED,
+        // converted once to a memory mapped file, see MappedVectorStore
+        MAPPED,
+        // not loaded at all; chunks are read from the dataset file on demand with openTrainChunkReader
+        STREAMED
+    }
+
+    /**
+     * Reads chunks of consecutive train vectors. A chunk reader isn't thread-safe, but multiple chunk readers can be used
+     * concurrently.
+     */
+    public interface TrainChunkReader extends AutoCloseable {
+
+        /**
+         * Reads train vectors; the vectors are normalized if the dataset is normalized.
+         *
+         * @param from   the index of the first vector.
+         * @param length the number of vectors to read.
+         * @return the vectors; the caller owns the arrays.
+         */
+        float[][] read(int from, int length);
+
+        @Override
+        void close();
+    }
+
     private final URL datasetURL;
 
     protected final Path workingDirectory;
@@ -35,6 +66,11 @@ public abstract class DatasetReader {
 
     protected float[][] trainDataset;
 
+    // the train dataset when it is memory mapped instead of loaded in trainDataset
+    protected MappedVectorStore trainStore;
+
+    private TrainDatasetMode trainDatasetMode;
+
     protected TestDataset testDataset;
 
     protected int dimension;
@@ -50,6 +86,10 @@ public abstract class DatasetReader {
     }
 
     public DatasetReader(String url, String directory, boolean normalizeVector, boolean testOnly) {
+        this(url, directory, normalizeVector, testOnly, TrainDatasetMode.LOADED);
+    }
+
+    public DatasetReader(String url, String directory, boolean normalizeVector, boolean testOnly, TrainDatasetMode mode) {
         try {
             this.datasetURL = URI.create(url).toURL();
             this.workingDirectory = Path.of(directory, FilenameUtils.getBaseName(datasetURL.getFile()));
@@ -63,8 +103,13 @@ public abstract class DatasetReader {
             logger.info("File downloaded to {}. Start unpacking...", downloadedFile);
 
             preprocessDatasetFile();
+            this.trainDatasetMode = testOnly ? null : mode;
             if (!testOnly) {
-                parseTrainDataset();
+                switch (mode) {
+                    case LOADED -> parseTrainDataset();
+                    case MAPPED -> mapTrainDataset();
+                    case STREAMED -> readTrainDatasetShape();
+                }
             }
             parseTestDataset();
             logger.info("Dataset reader is initialized");
@@ -77,6 +122,70 @@ public abstract class DatasetReader {
     protected abstract void parseTrainDataset();
     protected abstract void parseTestDataset();
 
+    /**
+     * Streams the train dataset into the writer, normalizing the vectors if needed, without loading the whole dataset
+     * in memory.
+     */
+    protected abstract void convertTrainDataset(MappedVectorStore.Writer writer);
+
+    /**
+     * Reads only the size and dimension of the train dataset.
+     */
+    protected abstract void readTrainDatasetShape();
+
+    /**
+     * Opens a chunk reader on the dataset file itself.
+     */
+    protected abstract TrainChunkReader openTrainFileChunkReader();
+
+    /**
+     * Opens a chunk reader on the train dataset, which reads from the dataset file when the train dataset is streamed.
+     *
+     * @return the opened chunk reader; should be closed after use.
+     */
+    public TrainChunkReader openTrainChunkReader() {
+        if (trainDatasetMode == TrainDatasetMode.STREAMED) {
+            return openTrainFileChunkReader();
+        }
+        return new TrainChunkReader() {
+            @Override
+            public float[][] read(int from, int length) {
+                float[][] vectors = new float[length][dimension];
+                for (int i = 0; i < length; i++) {
+                    getTrainVector(from + i, vectors[i]);
+                }
+                return vectors;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Converts the train dataset once into a flat file next to the downloaded file, and maps it.
+     */
+    private void mapTrainDataset() {
+        Path storeFile = workingDirectory.resolve(normalizeVector ? "train-normalized.vectors" : "train.vectors");
+        if (MappedVectorStore.exists(storeFile)) {
+            logger.info("Reusing converted train dataset {}", storeFile);
+        } else {
+            logger.info("Converting train dataset to {}", storeFile);
+            MappedVectorStore.Writer writer = new MappedVectorStore.Writer(storeFile);
+            try {
+                convertTrainDataset(writer);
+            } catch (RuntimeException e) {
+                writer.abort();
+                throw e;
+            }
+            writer.close();
+        }
+        trainStore = MappedVectorStore.open(storeFile);
+        size = trainStore.size();
+        dimension = trainStore.dimension();
+    }
+
     private void cleanup() {
         try {
             FileUtils.cleanDirectory(workingDirectory.toFile());
@@ -86,7 +195,30 @@ public abstract class DatasetReader {
     }
 
     public float[] getTrainVector(int index) {
-        return trainDataset[index];
+        checkRandomAccess();
+        return trainStore != null ? trainStore.get(index) : trainDataset[index];
+    }
+
+    /**
+     * Copies a train vector into the given array, which avoids allocating a vector per call for mapped datasets.
+     */
+    public void getTrainVector(int index, float[] vector) {
+        checkRandomAccess();
+        if (trainStore != null) {
+            trainStore.get(index, vector);
+        } else {
+            System.arraycopy(trainDataset[index], 0, vector, 0, dimension);
+        }
+    }
+
+    private void checkRandomAccess() {
+        if (trainDatasetMode == TrainDatasetMode.STREAMED) {
+            throw new UnsupportedOperationException("The train dataset is streamed, use openTrainChunkReader()");
+        }
+    }
+
+    public TrainDatasetMode getTrainDatasetMode() {
+        return trainDatasetMode;
     }
 
     public TestDataset getTestDataset() {
@@ -130,21 +262,35 @@ public abstract class DatasetReader {
             }
         }
 
-    private record DatasetKey(String url, boolean normalize) {}
+    private record DatasetKey(String url, boolean normalize, TrainDatasetMode mode) {}
     private final static Map<DatasetKey, DatasetReader> DATASET_CACHE = new ConcurrentHashMap<>();
 
     public static DatasetReader create(String url, String directory, boolean normalizeVector) {
-        return DATASET_CACHE.computeIfAbsent(new DatasetKey(url, normalizeVector),
-                __ -> create(url, directory, normalizeVector, false));
+        return create(url, directory, normalizeVector, TrainDatasetMode.LOADED);
+    }
+
+    /**
+     * Creates a reader, or returns the cached reader for the same dataset.
+     * <p>
+     * A mapped train dataset is converted once; later runs reuse the converted file in the working directory.
+     */
+    public static DatasetReader create(String url, String directory, boolean normalizeVector, TrainDatasetMode mode) {
+        return DATASET_CACHE.computeIfAbsent(new DatasetKey(url, normalizeVector, mode),
+                __ -> create(url, directory, normalizeVector, false, mode));
     }
 
     public static DatasetReader create(String url, String directory, boolean normalizeVector, boolean testOnly) {
+        return create(url, directory, normalizeVector, testOnly, TrainDatasetMode.LOADED);
+    }
+
+    private static DatasetReader create(String url, String directory, boolean normalizeVector, boolean testOnly,
+                                        TrainDatasetMode mode) {
         try {
             URL datasetUrl = URI.create(url).toURL();
             var ext = FilenameUtils.getExtension(datasetUrl.getFile());
             return switch (ext) {
-                case "hdf5" -> new HDF5DatasetReader(url, directory, normalizeVector, testOnly);
-                case "tgz" -> new NpyArchiveDatasetReader(url, directory, normalizeVector, testOnly);
+                case "hdf5" -> new HDF5DatasetReader(url, directory, normalizeVector, testOnly, mode);
+                case "tgz" -> new NpyArchiveDatasetReader(url, directory, normalizeVector, testOnly, mode);
                 default -> throw new UnsupportedOperationException("File " + ext + " is not supported");
             };
         } catch (MalformedURLException e) {
@@ -0,0 +1,266 @@
+package com.hazelcast.simulator.tests.vector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Vectors stored in a flat file that is memory mapped, so the vectors don't need to fit in the heap and can be shared
+ * by all tests in the JVM; the OS page cache keeps the hot part in memory.
+ * <p>
+ * Format (little endian): int magic, int dimension, long size, followed by size * dimension floats.
+ * <p>
+ * A mapped buffer can't be larger than 2 GB, so a large store is mapped in multiple segments; a vector never spans 2
+ * segments. Reading is thread-safe.
+ */
+public final class MappedVectorStore {
+
+    static final int MAGIC = 0x56454331;
+    static final int HEADER_LENGTH = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int SIZE_OFFSET = Integer.BYTES + Integer.BYTES;
+    private static final int MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+
+    private final int dimension;
+    private final int size;
+    private final int vectorsPerSegment;
+    private final FloatBuffer[] segments;
+
+    private MappedVectorStore(int dimension, int size, int vectorsPerSegment, FloatBuffer[] segments) {
+        this.dimension = dimension;
+        this.size = size;
+        this.vectorsPerSegment = vectorsPerSegment;
+        this.segments = segments;
+    }
+
+    /**
+     * Opens a store.
+     *
+     * @param file the file of the store.
+     * @return the opened store.
+     * @throws IllegalArgumentException if the file isn't a complete vector store.
+     */
+    public static MappedVectorStore open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            if (channel.size() < HEADER_LENGTH) {
+                throw new IllegalArgumentException("File [" + file + "] is too small to be a vector store");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_LENGTH).order(LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("File [" + file + "] is not a vector store");
+            }
+            int dimension = header.getInt(Integer.BYTES);
+            long size = header.getLong(SIZE_OFFSET);
+            long vectorBytes = (long) dimension * Float.BYTES;
+            if (dimension < 0 || size < 0 || size > Integer.MAX_VALUE
+                    || channel.size() != HEADER_LENGTH + size * vectorBytes) {
+                throw new IllegalArgumentException("Vector store [" + file + "] is incomplete or corrupt");
+            }
+
+            int vectorsPerSegment = dimension == 0 ? Integer.MAX_VALUE : (int) (MAX_SEGMENT_BYTES / vectorBytes);
+            int segmentCount = size == 0 ? 0 : (int) ((size + vectorsPerSegment - 1) / vectorsPerSegment);
+            FloatBuffer[] segments = new FloatBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * vectorsPerSegment;
+                long count = Math.min(vectorsPerSegment, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH + first * vectorBytes,
+                        count * vectorBytes).order(LITTLE_ENDIAN).asFloatBuffer();
+            }
+            return new MappedVectorStore(dimension, (int) size, vectorsPerSegment, segments);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks if the file is a complete vector store.
+     *
+     * @param file the file to check.
+     * @return {@code true} if the store can be opened.
+     */
+    public static boolean exists(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try {
+            open(file);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns a copy of a vector.
+     *
+     * @param index the index of the vector.
+     * @return the vector.
+     */
+    public float[] get(int index) {
+        float[] vector = new float[dimension];
+        get(index, vector);
+        return vector;
+    }
+
+    /**
+     * Copies a vector into the given array.
+     *
+     * @param index  the index of the vector.
+     * @param vector the array to copy to; should have the length of the dimension.
+     */
+    public void get(int index, float[] vector) {
+        checkIndex(index);
+        segments[index / vectorsPerSegment].get((index % vectorsPerSegment) * dimension, vector, 0, dimension);
+    }
+
+    /**
+     * Returns a read-only view of a vector without copying it.
+     *
+     * @param index the index of the vector.
+     * @return the view of the vector.
+     */
+    public FloatBuffer slice(int index) {
+        checkIndex(index);
+        return segments[index / vectorsPerSegment].slice((index % vectorsPerSegment) * dimension, dimension)
+                .asReadOnlyBuffer();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds for " + size + " vectors");
+        }
+    }
+
+    /**
+     * Writes a vector store. The vectors are written to a temporary file that is moved to the store file on close, so
+     * an interrupted conversion never results in an incomplete store.
+     * <p>
+     * Every writer gets its own temporary file, so multiple JVMs can convert the same store concurrently. If the move
+     * fails because another writer already completed the store, that store is used.
+     */
+    public static final class Writer implements Closeable {
+
+        private static final int BUFFER_SIZE = 1 << 20;
+
+        private final Path file;
+        private final Path tmpFile;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(LITTLE_ENDIAN);
+        private int dimension = -1;
+        private long size;
+
+        public Writer(Path file) {
+            this.file = file;
+            try {
+                this.tmpFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", ".tmp");
+                this.channel = FileChannel.open(tmpFile, WRITE);
+                // the header is written on close
+                channel.position(HEADER_LENGTH);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Appends a vector; all vectors need to have the same dimension.
+         *
+         * @param vector the vector to append.
+         */
+        public void append(float[] vector) {
+            if (dimension == -1) {
+                dimension = vector.length;
+            } else if (vector.length != dimension) {
+                throw new IllegalArgumentException("Vector " + size + " has dimension " + vector.length
+                        + ", but the store has dimension " + dimension);
+            }
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("A vector store can't contain more than " + Integer.MAX_VALUE + " vectors");
+            }
+            for (float value : vector) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.putFloat(value);
+            }
+            size++;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Discards the store.
+         */
+        public void abort() {
+            try {
+                channel.close();
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(Math.max(dimension, 0)).putLong(size).flip();
+            try {
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+                channel.close();
+                move();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void move() throws IOException {
+            try {
+                Files.move(tmpFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (!exists(file)) {
+                    throw e;
+                }
+                // another writer completed the store in the meantime
+                Files.deleteIfExists(tmpFile);
+            }
+        }
+    }
+}
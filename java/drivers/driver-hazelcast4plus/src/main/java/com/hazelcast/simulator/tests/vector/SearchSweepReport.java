@@ -0,0 +1,100 @@
+package com.hazelcast.simulator.tests.vector;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The results of a search parameter sweep: one point per combination of search options, and the Pareto front of the
+ * points, i.e. the points for which no other point has both a higher throughput and a higher precision.
+ */
+public final class SearchSweepReport {
+
+    private final List<Point> points = new ArrayList<>();
+
+    /**
+     * The measurement of one combination of search options.
+     *
+     * @param efSearch         the efSearch hint, or null if not set.
+     * @param limit            the number of results per search.
+     * @param singleStage      if single stage search was forced.
+     * @param operations       the number of searches.
+     * @param throughput       the searches per second.
+     * @param p50Micros        the median latency.
+     * @param p99Micros        the 99th percentile latency.
+     * @param p999Micros       the 99.9th percentile latency.
+     * @param maxMicros        the max latency.
+     * @param meanPrecision    the mean precision in percent.
+     * @param p5Precision      the precision in percent that 95% of the searches reach.
+     * @param precisionSamples the number of searches the precision was measured for.
+     */
+    public record Point(Integer efSearch, int limit, boolean singleStage, long operations, double throughput,
+                        long p50Micros, long p99Micros, long p999Micros, long maxMicros,
+                        double meanPrecision, double p5Precision, long precisionSamples) {
+
+        boolean dominates(Point other) {
+            return throughput >= other.throughput && meanPrecision >= other.meanPrecision
+                    && (throughput > other.throughput || meanPrecision > other.meanPrecision);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "efSearch=%s limit=%d singleStage=%s: %.0f ops/s, p50 %d us, p99 %d us,"
+                            + " p99.9 %d us, max %d us, precision mean %.2f%% p5 %.0f%%",
+                    efSearch, limit, singleStage, throughput, p50Micros, p99Micros, p999Micros, maxMicros,
+                    meanPrecision, p5Precision);
+        }
+    }
+
+    public void add(Point point) {
+        points.add(point);
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    /**
+     * Returns the points that aren't dominated by another point, ordered from the highest to the lowest precision.
+     *
+     * @return the Pareto front.
+     */
+    public List<Point> paretoFront() {
+        List<Point> front = new ArrayList<>();
+        for (Point point : points) {
+            if (points.stream().noneMatch(other -> other.dominates(point))) {
+                front.add(point);
+            }
+        }
+        front.sort(Comparator.comparingDouble(Point::meanPrecision).reversed()
+                .thenComparing(Comparator.comparingDouble(Point::throughput).reversed()));
+        return front;
+    }
+
+    /**
+     * Writes all points as CSV, with a column that tells if the point is on the Pareto front.
+     *
+     * @param fileName the file to write to.
+     */
+    public void write(String fileName) {
+        List<Point> front = paretoFront();
+        try (PrintWriter printWriter = new PrintWriter(new FileWriter(fileName))) {
+            printWriter.println("efSearch, limit, singleStage, operations, throughput, p50Micros, p99Micros, p999Micros,"
+                    + " maxMicros, meanPrecision, p5Precision, precisionSamples, pareto");
+            for (Point point : points) {
+                printWriter.printf(Locale.US, "%s, %d, %s, %d, %.1f, %d, %d, %d, %d, %.2f, %.0f, %d, %s%n",
+                        point.efSearch() == null ? "" : point.efSearch(), point.limit(), point.singleStage(),
+                        point.operations(), point.throughput(), point.p50Micros(), point.p99Micros(),
+                        point.p999Micros(), point.maxMicros(), point.meanPrecision(), point.p5Precision(),
+                        point.precisionSamples(), front.contains(point));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
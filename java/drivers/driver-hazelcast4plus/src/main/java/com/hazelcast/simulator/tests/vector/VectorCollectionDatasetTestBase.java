@@ -3,7 +3,6 @@ package com.hazelcast.simulator.tests.vector;
 import com.hazelcast.config.vector.Metric;
 import com.hazelcast.config.vector.VectorCollectionConfig;
 import com.hazelcast.config.vector.VectorIndexConfig;
-import com.hazelcast.core.Pipelining;
 import com.hazelcast.function.ThrowingRunnable;
 import com.hazelcast.simulator.hz.HazelcastTest;
 import com.hazelcast.simulator.test.annotations.Setup;
@@ -12,8 +11,6 @@ import com.hazelcast.simulator.tests.vector.model.TestDataset;
 import com.hazelcast.vector.VectorCollection;
 import com.hazelcast.vector.VectorValues;
 
-import java.util.concurrent.CompletionStage;
-
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
@@ -36,6 +33,9 @@ public class VectorCollectionDatasetTestBase extends HazelcastTest {
 
     // if vectors should be normalized before use
     public boolean normalize = false;
+    // how the train dataset is made available, see DatasetReader.TrainDatasetMode:
+    // LOADED in the heap, MAPPED from a file converted once, or STREAMED from the dataset file (prepare only)
+    public String trainDatasetMode = "LOADED";
     //endregion
 
     //region collection parameters
@@ -45,6 +45,11 @@ public class VectorCollectionDatasetTestBase extends HazelcastTest {
     public int asyncBackupCount = 0;
     //endregion
 
+    //region ingestion parameters; every thread has its own pipeline of putAll batches
+    public int ingestionThreadCount = 4;
+    public int ingestionPipelineDepth = MAX_PUT_ALL_IN_FLIGHT / 4;
+    //endregion
+
     //region graph parameters
     public String metric;
     public int maxDegree = VectorIndexConfig.DEFAULT_MAX_DEGREE;
@@ -57,8 +62,16 @@ public class VectorCollectionDatasetTestBase extends HazelcastTest {
     protected DatasetReader reader;
     protected TestDataset testDataset;
     protected VectorCollection<Integer, Integer> collection;
+    // for inflated collection precision calculation are wrong due to duplicated vectors
+    protected boolean collectionInflated;
+    // the time to load the collection and build the index in ms; 0 if the collection was reused
+    protected long indexBuildTime;
     //endregion
 
+    protected DatasetReader.TrainDatasetMode getTrainDatasetMode() {
+        return DatasetReader.TrainDatasetMode.valueOf(trainDatasetMode.toUpperCase());
+    }
+
     protected int getRequestedSize() {
         var size = targetCollectionSize > 0 ? targetCollectionSize : reader.getSize();
         return (int) (size * targetCollectionSizeFraction);
@@ -70,7 +83,7 @@ public class VectorCollectionDatasetTestBase extends HazelcastTest {
             collectionName = name;
         }
 
-        reader = DatasetReader.create(datasetUrl, workingDirectory, normalize);
+        reader = DatasetReader.create(datasetUrl, workingDirectory, normalize, getTrainDatasetMode());
 
         int dimension = reader.getDimension();
         assert dimension == reader.getTestDatasetDimension() : "dataset dimension does not correspond to query vector dimension";
@@ -107,21 +120,41 @@ public class VectorCollectionDatasetTestBase extends HazelcastTest {
         reader = null;
     }
 
-    void addToPipelineWithLogging(Pipelining<Void> pipelining, CompletionStage<Void> asyncInvocation) {
-        var now = System.currentTimeMillis();
-        try {
-            pipelining.add(asyncInvocation);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+    /**
+     * Loads the train dataset into the collection and optimizes the index, unless the collection is already filled.
+     *
+     * @return true if the collection was loaded, false if it was reused.
+     */
+    protected boolean loadCollection() {
+        int testDataSetSize = reader.getSize();
+        var size = getRequestedSize();
+        collectionInflated = size > testDataSetSize;
+
+        if (collection.size() == size) {
+            logger.info("Collection seems to be already filled - reusing existing data.");
+            return false;
         }
-        var msBlocked = System.currentTimeMillis() - now;
-        // log if we were blocked for more than 30 sec
-        if (msBlocked > 30_000) {
-            logger.info(
-                    "Thread was blocked for {} sec due to reaching max pipeline depth",
-                    MILLISECONDS.toSeconds(msBlocked)
-            );
+
+        var indexBuildTimeStart = System.currentTimeMillis();
+
+        logger.info("Start loading data...");
+        new VectorIngestion(reader, collection)
+                .setThreadCount(ingestionThreadCount)
+                .setPipelineDepth(ingestionPipelineDepth)
+                .setChunkSize(PUT_BATCH_SIZE)
+                .ingest(size);
+
+        var cleanupTimer = withTimer(() -> collection.optimizeAsync().toCompletableFuture().join());
+        indexBuildTime = System.currentTimeMillis() - indexBuildTimeStart;
+
+        logger.info("Collection size: {}", collection.size());
+        if (testDataSetSize != size) {
+            logger.info("Test dataset size: {}", testDataSetSize);
         }
+        logger.info("Collection dimension: {}", reader.getDimension());
+        logger.info("Cleanup time: {}s", MILLISECONDS.toSeconds(cleanupTimer));
+        logger.info("Index build time: {}s", MILLISECONDS.toSeconds(indexBuildTime));
+        return true;
     }
 
     protected static long withTimer(ThrowingRunnable runnable) {
@@ -1,5 +1,6 @@
 package com.hazelcast.simulator.tests.vector;
 
+import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.TimeStep;
 import com.hazelcast.simulator.utils.HazelcastUtils;
 import com.hazelcast.vector.VectorDocument;
@@ -16,6 +17,14 @@ public class VectorCollectionPutDatasetTest extends VectorCollectionDatasetTestB
 
     private final AtomicInteger counter = new AtomicInteger(0);
 
+    @Setup
+    public void setupPut() {
+        if (getTrainDatasetMode() == DatasetReader.TrainDatasetMode.STREAMED) {
+            throw new IllegalArgumentException("trainDatasetMode STREAMED is not supported, the puts need the train vectors"
+                    + " by index");
+        }
+    }
+
     @TimeStep(prob = 0)
     public void put() {
         int testDataSetSize = reader.getSize();
@@ -3,7 +3,6 @@ package com.hazelcast.simulator.tests.vector;
 import com.hazelcast.config.vector.Metric;
 import com.hazelcast.config.vector.VectorCollectionConfig;
 import com.hazelcast.config.vector.VectorIndexConfig;
-import com.hazelcast.core.Pipelining;
 import com.hazelcast.simulator.hz.HazelcastTest;
 import com.hazelcast.simulator.test.annotations.Prepare;
 import com.hazelcast.simulator.test.annotations.Setup;
@@ -14,7 +13,6 @@ import com.hazelcast.vector.SearchOptions;
 import com.hazelcast.vector.SearchOptionsBuilder;
 import com.hazelcast.vector.SearchResults;
 import com.hazelcast.vector.VectorCollection;
-import com.hazelcast.vector.VectorDocument;
 import com.hazelcast.vector.VectorValues;
 import com.hazelcast.vector.impl.Hints;
 
@@ -22,9 +20,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -43,6 +39,9 @@ public class VectorCollectionSearchDatasetTest extends VectorCollectionDatasetTe
     public boolean includeValue = true;
     public boolean singleStage = false;
     public Integer efSearch = null;
+    // if the precision should be scored against neighbours computed by brute force over the loaded collection instead
+    // of the neighbours in the dataset; needed for inflated collections and datasets without (correct) neighbours
+    public boolean bruteForceGroundTruth = false;
 
     // inner test parameters
 
@@ -52,14 +51,13 @@ public class VectorCollectionSearchDatasetTest extends VectorCollectionDatasetTe
 
     private SearchOptions options;
 
-    private long indexBuildTime = 0;
-    // for inflated collection precision calculation are wrong due to duplicated vectors
-    private boolean collectionInflated;
-
     private final AtomicInteger counter = new AtomicInteger(0);
 
     @Setup
     public void setupSearch() {
+        if (bruteForceGroundTruth && getTrainDatasetMode() == DatasetReader.TrainDatasetMode.STREAMED) {
+            throw new IllegalArgumentException("bruteForceGroundTruth is not supported with trainDatasetMode STREAMED");
+        }
         scoreMetrics.setName(name);
         SearchOptionsBuilder optionsBuilder = SearchOptions.builder()
                 .setIncludeValue(includeValue)
@@ -76,66 +74,17 @@ public class VectorCollectionSearchDatasetTest extends VectorCollectionDatasetTe
 
     @Prepare(global = true)
     public void prepare() {
-        int testDataSetSize = reader.getSize();
-        var size = getRequestedSize();
-        collectionInflated = size > testDataSetSize;
-
-        if (collection.size() == size) {
-            logger.info("Collection seems to be already filled - reusing existing data.");
+        if (!loadCollection()) {
             return;
         }
-
-        var indexBuildTimeStart = System.currentTimeMillis();
-
-        Map<Integer, VectorDocument<Integer>> buffer = new HashMap<>();
-        Pipelining<Void> pipelining = new Pipelining<>(MAX_PUT_ALL_IN_FLIGHT);
-        logger.info("Start loading data...");
-
-        int index = 0;
-        while (index < size) {
-            buffer.put(index, VectorDocument.of(index % testDataSetSize, VectorValues.of(reader.getTrainVector(index % testDataSetSize))));
-            index++;
-            if (buffer.size() % PUT_BATCH_SIZE == 0) {
-                addToPipelineWithLogging(pipelining, collection.putAllAsync(buffer));
-                logger.info(
-                        "Uploaded {} vectors from {}. Block size: {}. Total time (min): {}",
-                        index,
-                        size,
-                        buffer.size(),
-                        MILLISECONDS.toMinutes(System.currentTimeMillis() - indexBuildTimeStart)
-                );
-                buffer = new HashMap<>();
-            }
-        }
-        if (!buffer.isEmpty()) {
-            addToPipelineWithLogging(pipelining, collection.putAllAsync(buffer));
-            logger.info("Uploading last vectors block. Last block size: {}.", buffer.size());
-            buffer.clear();
+        if (collectionInflated && !bruteForceGroundTruth) {
+            logger.warn("Collection was inflated, precision calculation can be wrong");
         }
 
-        logger.info("Start waiting pipeline results...");
-        try {
-            pipelining.results();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        if (!bruteForceGroundTruth) {
+            // reader will no longer be needed
+            reader = null;
         }
-
-        var cleanupTimer = withTimer(() -> collection.optimizeAsync().toCompletableFuture().join());
-        indexBuildTime = System.currentTimeMillis() - indexBuildTimeStart;
-
-        logger.info("Collection size: {}", collection.size());
-        if (testDataSetSize != size) {
-            logger.info("Test dataset size: {}", testDataSetSize);
-            if (collectionInflated) {
-                logger.warn("Collection was inflated, precision calculation can be wrong");
-            }
-        }
-        logger.info("Collection dimension: {}", reader.getDimension());
-        logger.info("Cleanup time: {}s", MILLISECONDS.toSeconds(cleanupTimer));
-        logger.info("Index build time: {}s", MILLISECONDS.toSeconds(indexBuildTime));
-
-        // reader will no longer be needed
-        reader = null;
     }
 
     @TimeStep
@@ -158,12 +107,16 @@ public class VectorCollectionSearchDatasetTest extends VectorCollectionDatasetTe
 
     @Teardown(global = true)
     public void afterRun() {
-        searchResults.forEach(testSearchResult -> {
-            int index = testSearchResult.index();
-            List<Integer> ids = new ArrayList<>();
-            VectorUtils.forEach(testSearchResult.results, r -> ids.add((Integer) r.getKey()));
-            scoreMetrics.set((int) (testDataset.getPrecision(ids, index, limit) * 100));
-        });
+        if (bruteForceGroundTruth) {
+            scoreWithBruteForceGroundTruth();
+        } else {
+            searchResults.forEach(testSearchResult -> {
+                int index = testSearchResult.index();
+                List<Integer> ids = new ArrayList<>();
+                VectorUtils.forEach(testSearchResult.results, r -> ids.add((Integer) r.getKey()));
+                scoreMetrics.set((int) (testDataset.getPrecision(ids, index, limit) * 100));
+            });
+        }
 
         writeAllSearchResultsToFile("precision_" + name + ".out");
         appendStatisticsToFile();
@@ -180,6 +133,36 @@ public class VectorCollectionSearchDatasetTest extends VectorCollectionDatasetTe
         searchResults.clear();
     }
 
+    /**
+     * A result is correct if it scores at least as good as the limit-th exact neighbour, so duplicated vectors of an
+     * inflated collection are all correct instead of only the ones that happen to be picked by the brute force search.
+     */
+    private void scoreWithBruteForceGroundTruth() {
+        List<TestSearchResult> results = new ArrayList<>(searchResults);
+        float[][] queries = new float[results.size()][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = results.get(i).searchVector();
+        }
+
+        var search = BruteForceSearch.of(reader, getRequestedSize(), Metric.valueOf(metric));
+        logger.info("Computing brute force ground truth for {} queries...", queries.length);
+        var timer = System.currentTimeMillis();
+        var neighbours = search.search(queries, limit);
+        logger.info("Brute force ground truth computed in {}s", MILLISECONDS.toSeconds(System.currentTimeMillis() - timer));
+
+        for (int i = 0; i < queries.length; i++) {
+            float[] query = queries[i];
+            float kthScore = neighbours.kthScore(i, limit);
+            AtomicInteger correct = new AtomicInteger();
+            VectorUtils.forEach(results.get(i).results(), r -> {
+                if (search.score(query, (Integer) r.getKey()) >= kthScore) {
+                    correct.incrementAndGet();
+                }
+            });
+            scoreMetrics.set(correct.get() * 100 / limit);
+        }
+    }
+
     public record TestSearchResult(int index, float[] searchVector, SearchResults<?, ?> results) {
     }
 
@@ -0,0 +1,257 @@
+package com.hazelcast.simulator.tests.vector;
+
+import com.hazelcast.config.vector.Metric;
+import com.hazelcast.simulator.test.annotations.Prepare;
+import com.hazelcast.simulator.test.annotations.Run;
+import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.vector.SearchOptions;
+import com.hazelcast.vector.SearchOptionsBuilder;
+import com.hazelcast.vector.SearchResults;
+import com.hazelcast.vector.VectorValues;
+import com.hazelcast.vector.impl.Hints;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures the throughput, latency and precision of every combination of search options against a single loaded
+ * collection, and writes a report with the Pareto front of precision versus throughput. This replaces a full run,
+ * including the prepare, per combination of {@link VectorCollectionSearchDatasetTest}.
+ * <p>
+ * The sweep controls its own search threads, so it should be run with a single client worker.
+ */
+public class VectorCollectionSearchSweepTest extends VectorCollectionDatasetTestBase {
+
+    private static final int LATENCY_SIGNIFICANT_DIGITS = 3;
+    private static final double P5 = 5;
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+
+    // the grid of search options as comma separated values; an empty efSearch doesn't set the hint
+    public String sweepEfSearch = "";
+    public String sweepLimit = "10";
+    public String sweepSingleStage = "false";
+
+    public boolean includeVectors = true;
+    public boolean includeValue = true;
+
+    // the number of threads searching concurrently
+    public int sweepThreadCount = 8;
+    // the time per point to warm up and to measure
+    public int sweepWarmupSeconds = 5;
+    public int sweepPointSeconds = 30;
+    // the number of queries per point for which the precision is measured
+    public int sweepPrecisionQueryCount = 1000;
+    // see VectorCollectionSearchDatasetTest
+    public boolean bruteForceGroundTruth = false;
+
+    private final SearchSweepReport report = new SearchSweepReport();
+
+    private BruteForceSearch bruteForceSearch;
+    private BruteForceSearch.Neighbours groundTruth;
+
+    @Setup
+    public void setupSweep() {
+        if (bruteForceGroundTruth && getTrainDatasetMode() == DatasetReader.TrainDatasetMode.STREAMED) {
+            throw new IllegalArgumentException("bruteForceGroundTruth is not supported with trainDatasetMode STREAMED");
+        }
+        if (sweepThreadCount < 1 || sweepPointSeconds < 1 || sweepWarmupSeconds < 0 || sweepPrecisionQueryCount < 1) {
+            throw new IllegalArgumentException("sweepThreadCount, sweepPointSeconds and sweepPrecisionQueryCount should be"
+                    + " at least 1, and sweepWarmupSeconds can't be negative");
+        }
+        // fail fast on a malformed grid
+        parseGrid();
+    }
+
+    @Prepare(global = true)
+    public void prepare() {
+        loadCollection();
+        if (collectionInflated && !bruteForceGroundTruth) {
+            logger.warn("Collection was inflated, precision calculation can be wrong");
+        }
+    }
+
+    @Run
+    public void run() {
+        List<GridPoint> grid = parseGrid();
+        int precisionQueryCount = Math.min(sweepPrecisionQueryCount, testDataset.size());
+        if (bruteForceGroundTruth) {
+            computeGroundTruth(precisionQueryCount, grid.stream().mapToInt(GridPoint::limit).max().orElse(1));
+        }
+
+        for (GridPoint gridPoint : grid) {
+            SearchSweepReport.Point point = measure(gridPoint, precisionQueryCount);
+            logger.info("Sweep point {}", point);
+            report.add(point);
+        }
+
+        String fileName = "sweep_" + name + ".csv";
+        report.write(fileName);
+        logger.info("Sweep of {} points written to {}; Pareto front of precision versus throughput:",
+                report.getPoints().size(), fileName);
+        report.paretoFront().forEach(point -> logger.info("    {}", point));
+    }
+
+    private record GridPoint(Integer efSearch, int limit, boolean singleStage) {
+
+        SearchOptions toSearchOptions(boolean includeValue, boolean includeVectors) {
+            SearchOptionsBuilder optionsBuilder = SearchOptions.builder()
+                    .setIncludeValue(includeValue)
+                    .setIncludeVectors(includeVectors)
+                    .limit(limit);
+            if (efSearch != null) {
+                optionsBuilder.hint(Hints.EF_SEARCH, efSearch);
+            }
+            if (singleStage) {
+                optionsBuilder.hint(Hints.FORCE_SINGLE_STAGE_SEARCH, true);
+            }
+            return optionsBuilder.build();
+        }
+    }
+
+    private List<GridPoint> parseGrid() {
+        List<Integer> efSearches = sweepEfSearch.isBlank()
+                ? Arrays.asList((Integer) null)
+                : parseValues(sweepEfSearch, Integer::valueOf);
+        List<Integer> limits = parseValues(sweepLimit, Integer::valueOf);
+        List<Boolean> singleStages = parseValues(sweepSingleStage, value -> {
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException("Invalid sweepSingleStage value: " + value);
+            }
+            return Boolean.valueOf(value);
+        });
+
+        List<GridPoint> grid = new ArrayList<>();
+        for (Integer efSearch : efSearches) {
+            for (int limit : limits) {
+                if (limit < 1) {
+                    throw new IllegalArgumentException("Invalid sweepLimit value: " + limit);
+                }
+                for (boolean singleStage : singleStages) {
+                    grid.add(new GridPoint(efSearch, limit, singleStage));
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static <T> List<T> parseValues(String values, Function<String, T> parser) {
+        List<T> result = new ArrayList<>();
+        for (String value : values.split(",")) {
+            result.add(parser.apply(value.trim()));
+        }
+        return result;
+    }
+
+    private void computeGroundTruth(int queryCount, int k) {
+        float[][] queries = new float[queryCount][];
+        for (int i = 0; i < queryCount; i++) {
+            queries[i] = testDataset.getSearchVector(i);
+        }
+        bruteForceSearch = BruteForceSearch.of(reader, getRequestedSize(), Metric.valueOf(metric));
+        logger.info("Computing brute force ground truth for {} queries...", queryCount);
+        groundTruth = bruteForceSearch.search(queries, k);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SearchSweepReport.Point measure(GridPoint gridPoint, int precisionQueryCount) {
+        logger.info("Measuring {}...", gridPoint);
+        SearchOptions options = gridPoint.toSearchOptions(includeValue, includeVectors);
+        int limit = gridPoint.limit();
+
+        if (sweepWarmupSeconds > 0) {
+            search(options, sweepWarmupSeconds, new List[0], new Histogram(LATENCY_SIGNIFICANT_DIGITS));
+        }
+
+        Histogram latencies = new Histogram(LATENCY_SIGNIFICANT_DIGITS);
+        List<Integer>[] resultIds = new List[precisionQueryCount];
+        long startNanos = System.nanoTime();
+        long operations = search(options, sweepPointSeconds, resultIds, latencies);
+        long durationNanos = System.nanoTime() - startNanos;
+
+        // the precision is scored after the timed section, so the brute force scoring doesn't lower the throughput
+        ScoreMetrics precision = new ScoreMetrics();
+        for (int queryIndex = 0; queryIndex < resultIds.length; queryIndex++) {
+            if (resultIds[queryIndex] != null) {
+                precision.set(score(queryIndex, resultIds[queryIndex], limit));
+            }
+        }
+
+        return new SearchSweepReport.Point(gridPoint.efSearch(), limit, gridPoint.singleStage(), operations,
+                operations * (double) SECONDS.toNanos(1) / durationNanos,
+                micros(latencies.getValueAtPercentile(P50)), micros(latencies.getValueAtPercentile(P99)),
+                micros(latencies.getValueAtPercentile(P999)), micros(latencies.getMaxValue()),
+                precision.getTotalCount() == 0 ? 0 : precision.getMean(),
+                precision.getTotalCount() == 0 ? 0 : precision.getPercentile(P5), precision.getTotalCount());
+    }
+
+    // searches with all threads until the duration has passed; the ids of the results of the first queries are recorded
+    // in resultIds, so they can be scored afterwards
+    private long search(SearchOptions options, int durationSeconds, List<Integer>[] resultIds, Histogram latencies) {
+        long deadlineNanos = System.nanoTime() + SECONDS.toNanos(durationSeconds);
+        AtomicInteger counter = new AtomicInteger();
+        AtomicLong operations = new AtomicLong();
+        ThreadSpawner spawner = new ThreadSpawner(name, true);
+        for (int t = 0; t < sweepThreadCount; t++) {
+            spawner.spawn("SearchSweep", () -> {
+                Histogram threadLatencies = new Histogram(LATENCY_SIGNIFICANT_DIGITS);
+                long count = 0;
+                while (System.nanoTime() < deadlineNanos && !testContext.isStopped()) {
+                    int iteration = counter.getAndIncrement();
+                    int queryIndex = iteration % testDataset.size();
+                    float[] vector = testDataset.getSearchVector(queryIndex);
+
+                    long start = System.nanoTime();
+                    SearchResults<Integer, Integer> results = collection.searchAsync(VectorValues.of(vector), options)
+                            .toCompletableFuture()
+                            .join();
+                    threadLatencies.recordValue(System.nanoTime() - start);
+                    count++;
+
+                    if (iteration < resultIds.length) {
+                        List<Integer> ids = new ArrayList<>();
+                        VectorUtils.forEach(results, r -> ids.add((Integer) r.getKey()));
+                        // every iteration has its own slot; awaitCompletion makes the ids visible to the caller
+                        resultIds[iteration] = ids;
+                    }
+                }
+                synchronized (latencies) {
+                    latencies.add(threadLatencies);
+                }
+                operations.addAndGet(count);
+            });
+        }
+        spawner.awaitCompletion();
+        return operations.get();
+    }
+
+    private int score(int queryIndex, List<Integer> ids, int limit) {
+        if (groundTruth == null) {
+            return (int) (testDataset.getPrecision(ids, queryIndex, limit) * 100);
+        }
+        // see VectorCollectionSearchDatasetTest: every result as close as the limit-th exact neighbour is correct
+        float[] query = testDataset.getSearchVector(queryIndex);
+        float kthScore = groundTruth.kthScore(queryIndex, limit);
+        int correct = 0;
+        for (int id : ids) {
+            if (bruteForceSearch.score(query, id) >= kthScore) {
+                correct++;
+            }
+        }
+        return correct * 100 / limit;
+    }
+
+    private static long micros(long nanos) {
+        return NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,188 @@
+package com.hazelcast.simulator.tests.vector;
+
+import com.hazelcast.core.Pipelining;
+import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.simulator.utils.ThrottlingLogger;
+import com.hazelcast.vector.VectorCollection;
+import com.hazelcast.vector.VectorDocument;
+import com.hazelcast.vector.VectorValues;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Loads the train vectors of a dataset into a vector collection with a pipeline of stages per thread:
+ * <ol>
+ *     <li>read: the thread claims the next chunk of keys and reads the vectors of the chunk with its own
+ *     {@link DatasetReader.TrainChunkReader}, so a streamed dataset is read from the file in parallel.</li>
+ *     <li>convert: the vectors are converted to documents in a single batch map that is sized up front.</li>
+ *     <li>put: the batch is written with putAllAsync in the {@link Pipelining} of the thread, so every thread has its
+ *     own window of batches in flight.</li>
+ * </ol>
+ * The time spent in every stage is measured, so the progress log shows which stage limits the ingestion.
+ * <p>
+ * Keys go from 0 to the requested size; if the size is larger than the dataset the vectors are repeated, so key i gets
+ * the train vector i % dataset size, like an inflated collection.
+ */
+public final class VectorIngestion {
+
+    private static final Logger LOGGER = LogManager.getLogger(VectorIngestion.class);
+
+    private static final int DEFAULT_CHUNK_SIZE = 2_000;
+    private static final int DEFAULT_PIPELINE_DEPTH = 4;
+    private static final int MAXIMUM_LOGGING_RATE_MILLIS = 5000;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final DatasetReader reader;
+    private final VectorCollection<Integer, Integer> collection;
+    private final ThrottlingLogger throttlingLogger = ThrottlingLogger.newLogger(LOGGER, MAXIMUM_LOGGING_RATE_MILLIS);
+
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder convertNanos = new LongAdder();
+    private final LongAdder putNanos = new LongAdder();
+    private final LongAdder read = new LongAdder();
+    private final LongAdder converted = new LongAdder();
+    private final AtomicLong stored = new AtomicLong();
+
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int pipelineDepth = DEFAULT_PIPELINE_DEPTH;
+    private long startNanos;
+
+    public VectorIngestion(DatasetReader reader, VectorCollection<Integer, Integer> collection) {
+        this.reader = reader;
+        this.collection = collection;
+    }
+
+    public VectorIngestion setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount should be at least 1, but was " + threadCount);
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Sets the number of vectors that is read and written as a single batch.
+     */
+    public VectorIngestion setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize should be at least 1, but was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of batches every thread can have in flight.
+     */
+    public VectorIngestion setPipelineDepth(int pipelineDepth) {
+        if (pipelineDepth < 1) {
+            throw new IllegalArgumentException("pipelineDepth should be at least 1, but was " + pipelineDepth);
+        }
+        this.pipelineDepth = pipelineDepth;
+        return this;
+    }
+
+    /**
+     * Loads the keys [0, size) and waits for all batches to complete.
+     *
+     * @param size the number of vectors to load.
+     * @return the number of stored vectors.
+     * @throws RuntimeException if reading or writing one of the batches failed.
+     */
+    public long ingest(int size) {
+        startNanos = System.nanoTime();
+        int chunkCount = (int) ((size + (long) chunkSize - 1) / chunkSize);
+        ThreadSpawner spawner = new ThreadSpawner("vectorIngestion", true);
+        for (int i = 0; i < threadCount; i++) {
+            spawner.spawn("VectorIngestion", () -> ingestChunks(size, chunkCount));
+        }
+        spawner.awaitCompletion();
+
+        LOGGER.info("Ingestion completed: " + progress());
+        return stored.get();
+    }
+
+    private void ingestChunks(int size, int chunkCount) {
+        int datasetSize = reader.getSize();
+        Pipelining<Void> pipelining = new Pipelining<>(pipelineDepth);
+        try (DatasetReader.TrainChunkReader chunkReader = reader.openTrainChunkReader()) {
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunkCount; chunk = nextChunk.getAndIncrement()) {
+                int from = chunk * chunkSize;
+                int length = Math.min(chunkSize, size - from);
+
+                long start = System.nanoTime();
+                float[][] vectors = readChunk(chunkReader, from, length, datasetSize);
+                long readEnd = System.nanoTime();
+                readNanos.add(readEnd - start);
+                read.add(length);
+
+                Map<Integer, VectorDocument<Integer>> batch = new HashMap<>((int) (length / LOAD_FACTOR) + 1);
+                for (int i = 0; i < length; i++) {
+                    int key = from + i;
+                    batch.put(key, VectorDocument.of(key % datasetSize, VectorValues.of(vectors[i])));
+                }
+                long convertEnd = System.nanoTime();
+                convertNanos.add(convertEnd - readEnd);
+                converted.add(length);
+
+                CompletionStage<Void> future = collection.putAllAsync(batch)
+                        .whenComplete((v, throwable) -> {
+                            if (throwable == null) {
+                                stored.addAndGet(length);
+                            }
+                        });
+                pipelining.add(future);
+                putNanos.add(System.nanoTime() - convertEnd);
+
+                throttlingLogger.info(progress());
+            }
+            pipelining.results();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    // a chunk can wrap around the end of the dataset when the collection is inflated
+    private static float[][] readChunk(DatasetReader.TrainChunkReader chunkReader, int from, int length,
+                                       int datasetSize) {
+        float[][] vectors = new float[length][];
+        int offset = 0;
+        while (offset < length) {
+            int datasetIndex = (from + offset) % datasetSize;
+            int count = Math.min(length - offset, datasetSize - datasetIndex);
+            float[][] part = chunkReader.read(datasetIndex, count);
+            System.arraycopy(part, 0, vectors, offset, count);
+            offset += count;
+        }
+        return vectors;
+    }
+
+    // the per stage rates are per thread and exclude the time spent in the other stages; the put time is the time
+    // blocked on a full pipeline, so a high put rate means the cluster keeps up
+    private String progress() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        return format("stored %d vectors (%.0f vectors/s); per thread: read %.0f vectors/s, convert %.0f vectors/s,"
+                        + " put %.0f vectors/s (%d s blocked)",
+                stored.get(), stored.get() * NANOS_PER_SECOND / elapsedNanos,
+                rate(read.sum(), readNanos.sum()), rate(converted.sum(), convertNanos.sum()),
+                rate(converted.sum(), putNanos.sum()), NANOSECONDS.toSeconds(putNanos.sum()));
+    }
+
+    private static double rate(long count, long nanos) {
+        return nanos == 0 ? 0 : count * NANOS_PER_SECOND / nanos;
+    }
+}
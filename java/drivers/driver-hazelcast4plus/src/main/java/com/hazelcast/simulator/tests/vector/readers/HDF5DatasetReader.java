@@ -1,6 +1,7 @@
 package com.hazelcast.simulator.tests.vector.readers;
 
 import com.hazelcast.simulator.tests.vector.DatasetReader;
+import com.hazelcast.simulator.tests.vector.MappedVectorStore;
 import com.hazelcast.simulator.tests.vector.VectorUtils;
 import com.hazelcast.simulator.tests.vector.model.TestDataset;
 import io.jhdf.HdfFile;
@@ -14,6 +15,11 @@ public class HDF5DatasetReader extends DatasetReader {
         super(url, directory, normalizeVector, testOnly);
     }
 
+    public HDF5DatasetReader(String url, String directory, boolean normalizeVector, boolean testOnly,
+                             TrainDatasetMode mode) {
+        super(url, directory, normalizeVector, testOnly, mode);
+    }
+
     @Override
     protected void preprocessDatasetFile() {
 
@@ -33,6 +39,59 @@ public class HDF5DatasetReader extends DatasetReader {
         }
     }
 
+    @Override
+    protected void convertTrainDataset(MappedVectorStore.Writer writer) {
+        try (HdfFile hdfFile = new HdfFile(downloadedFile.toPath())) {
+            Dataset dataset = hdfFile.getDatasetByPath(hdfFile.getChildren().get("train").getPath());
+            var dimension = dataset.getDimensions()[1];
+            var size = dataset.getDimensions()[0];
+            for (int i = 0; i < size; i += BULK_READER_SIZE) {
+                int length = Math.min(BULK_READER_SIZE, size - i);
+                float[][] buffer = (float[][]) dataset.getData(new long[]{i, 0}, new int[]{length, dimension});
+                for (float[] vector : buffer) {
+                    if (normalizeVector) {
+                        VectorUtils.normalize(vector);
+                    }
+                    writer.append(vector);
+                }
+                logger.info("Converted {} of {} vectors", i + length, size);
+            }
+        }
+    }
+
+    @Override
+    protected void readTrainDatasetShape() {
+        try (HdfFile hdfFile = new HdfFile(downloadedFile.toPath())) {
+            Dataset dataset = hdfFile.getDatasetByPath(hdfFile.getChildren().get("train").getPath());
+            size = dataset.getDimensions()[0];
+            dimension = dataset.getDimensions()[1];
+        }
+    }
+
+    @Override
+    protected TrainChunkReader openTrainFileChunkReader() {
+        // every chunk reader has its own file, so chunk readers don't contend on the file
+        HdfFile hdfFile = new HdfFile(downloadedFile.toPath());
+        Dataset dataset = hdfFile.getDatasetByPath(hdfFile.getChildren().get("train").getPath());
+        return new TrainChunkReader() {
+            @Override
+            public float[][] read(int from, int length) {
+                float[][] vectors = (float[][]) dataset.getData(new long[]{from, 0}, new int[]{length, dimension});
+                if (normalizeVector) {
+                    for (float[] vector : vectors) {
+                        VectorUtils.normalize(vector);
+                    }
+                }
+                return vectors;
+            }
+
+            @Override
+            public void close() {
+                hdfFile.close();
+            }
+        };
+    }
+
     @Override
     protected void parseTestDataset() {
         try (HdfFile hdfFile = new HdfFile(downloadedFile.toPath())) {
@@ -4,6 +4,7 @@ import com.google.common.collect.Lists;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonParser;
 import com.hazelcast.simulator.tests.vector.DatasetReader;
+import com.hazelcast.simulator.tests.vector.MappedVectorStore;
 import com.hazelcast.simulator.tests.vector.VectorUtils;
 import com.hazelcast.simulator.tests.vector.model.TestDataset;
 import org.apache.commons.io.FileUtils;
@@ -26,6 +27,11 @@ public class NpyArchiveDatasetReader extends DatasetReader {
         super(url, directory, normalizeVector, testOnly);
     }
 
+    public NpyArchiveDatasetReader(String url, String directory, boolean normalizeVector, boolean testOnly,
+                                   TrainDatasetMode mode) {
+        super(url, directory, normalizeVector, testOnly, mode);
+    }
+
     @Override
     protected void preprocessDatasetFile() {
         this.trainDatasetFilename = Path.of(workingDirectory.toString(), "vectors.npy");
@@ -62,6 +68,44 @@ public class NpyArchiveDatasetReader extends DatasetReader {
         }
     }
 
+    @Override
+    protected void convertTrainDataset(MappedVectorStore.Writer writer) {
+        new NpyFloatMatrixReader(trainDatasetFilename).forEach(vector -> {
+            if (normalizeVector) {
+                VectorUtils.normalize(vector);
+            }
+            writer.append(vector);
+        });
+    }
+
+    @Override
+    protected void readTrainDatasetShape() {
+        var matrixReader = new NpyFloatMatrixReader(trainDatasetFilename);
+        size = matrixReader.rows();
+        dimension = matrixReader.columns();
+    }
+
+    @Override
+    protected TrainChunkReader openTrainFileChunkReader() {
+        var matrixReader = new NpyFloatMatrixReader(trainDatasetFilename);
+        return new TrainChunkReader() {
+            @Override
+            public float[][] read(int from, int length) {
+                float[][] vectors = matrixReader.read(from, length);
+                if (normalizeVector) {
+                    for (float[] vector : vectors) {
+                        VectorUtils.normalize(vector);
+                    }
+                }
+                return vectors;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
     @Override
     protected void parseTestDataset() {
         try {
@@ -0,0 +1,167 @@
+package com.hazelcast.simulator.tests.vector.readers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Streams the rows of a 2-dimensional float32 NPY file, without loading the whole matrix in memory.
+ * <p>
+ * See <a href="https://numpy.org/doc/stable/reference/generated/numpy.lib.format.html">the NPY format</a>; only C-order
+ * float32 matrices are supported.
+ */
+public final class NpyFloatMatrixReader {
+
+    private static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+    private static final int VERSION_OFFSET = MAGIC.length;
+    private static final int HEADER_LENGTH_OFFSET = VERSION_OFFSET + 2;
+    private static final int PREAMBLE_LENGTH = 12;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final Pattern DESCR = Pattern.compile("'descr'\\s*:\\s*'([<>|=])f4'");
+    private static final Pattern FORTRAN_ORDER = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    private static final Pattern SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(\\s*(\\d+)\\s*,\\s*(\\d+)\\s*,?\\s*\\)");
+
+    private final Path file;
+    private final long dataOffset;
+    private final ByteOrder byteOrder;
+    private final int rows;
+    private final int columns;
+
+    public NpyFloatMatrixReader(Path file) {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, preamble, 0);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (preamble.get(i) != MAGIC[i]) {
+                    throw new IllegalArgumentException("File [" + file + "] is not a NPY file");
+                }
+            }
+            int majorVersion = preamble.get(VERSION_OFFSET);
+            long headerLength;
+            long headerOffset;
+            if (majorVersion == 1) {
+                headerLength = Short.toUnsignedInt(preamble.getShort(HEADER_LENGTH_OFFSET));
+                headerOffset = HEADER_LENGTH_OFFSET + Short.BYTES;
+            } else {
+                headerLength = Integer.toUnsignedLong(preamble.getInt(HEADER_LENGTH_OFFSET));
+                headerOffset = HEADER_LENGTH_OFFSET + Integer.BYTES;
+            }
+
+            ByteBuffer headerBuffer = ByteBuffer.allocate((int) headerLength);
+            readFully(channel, headerBuffer, headerOffset);
+            String header = new String(headerBuffer.array(), ISO_8859_1);
+            this.dataOffset = headerOffset + headerLength;
+
+            Matcher descr = DESCR.matcher(header);
+            if (!descr.find()) {
+                throw new IllegalArgumentException("NPY file [" + file + "] doesn't contain float32 values: " + header);
+            }
+            this.byteOrder = ">".equals(descr.group(1)) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+            Matcher fortranOrder = FORTRAN_ORDER.matcher(header);
+            if (fortranOrder.find() && "True".equals(fortranOrder.group(1))) {
+                throw new IllegalArgumentException("NPY file [" + file + "] is in Fortran order, which isn't supported");
+            }
+
+            Matcher shape = SHAPE.matcher(header);
+            if (!shape.find()) {
+                throw new IllegalArgumentException("NPY file [" + file + "] doesn't contain a 2-dimensional matrix: " + header);
+            }
+            this.rows = Integer.parseInt(shape.group(1));
+            this.columns = Integer.parseInt(shape.group(2));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Streams the rows in order. The array passed to the consumer is a new array per row.
+     *
+     * @param consumer the consumer of the rows.
+     */
+    public void forEach(Consumer<float[]> consumer) {
+        long rowBytes = (long) columns * Float.BYTES;
+        int bufferSize = (int) Math.max(rowBytes, BUFFER_SIZE - BUFFER_SIZE % Math.max(rowBytes, 1));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize).order(byteOrder);
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            long position = dataOffset;
+            int row = 0;
+            while (row < rows) {
+                buffer.clear();
+                long remainingBytes = (rows - row) * rowBytes;
+                if (remainingBytes < buffer.capacity()) {
+                    buffer.limit((int) remainingBytes);
+                }
+                readFully(channel, buffer, position);
+                position += buffer.limit();
+                buffer.flip();
+                while (buffer.remaining() >= rowBytes && row < rows) {
+                    float[] vector = new float[columns];
+                    buffer.asFloatBuffer().get(vector);
+                    buffer.position(buffer.position() + (int) rowBytes);
+                    consumer.accept(vector);
+                    row++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a range of rows. Every call reads from its own file channel, so calls can be done concurrently.
+     *
+     * @param fromRow  the first row.
+     * @param rowCount the number of rows.
+     * @return the rows.
+     */
+    public float[][] read(int fromRow, int rowCount) {
+        if (fromRow < 0 || rowCount < 0 || fromRow + (long) rowCount > rows) {
+            throw new IndexOutOfBoundsException("Rows [" + fromRow + ", " + (fromRow + (long) rowCount)
+                    + ") are out of bounds for " + rows + " rows");
+        }
+        long rowBytes = (long) columns * Float.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate((int) (rowCount * rowBytes)).order(byteOrder);
+        float[][] vectors = new float[rowCount][columns];
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            readFully(channel, buffer, dataOffset + fromRow * rowBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        FloatBuffer floats = buffer.asFloatBuffer();
+        for (float[] vector : vectors) {
+            floats.get(vector);
+        }
+        return vectors;
+    }
+
+    private void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IllegalArgumentException("NPY file [" + file + "] is truncated");
+            }
+        }
+    }
+}
@@ -15,6 +15,10 @@
  */
 package com.hazelcast.simulator.worker.loadsupport;
 
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.simulator.metrics.MetricSamples;
+import com.hazelcast.simulator.metrics.MetricsProvider;
+import com.hazelcast.simulator.metrics.MetricsRegistry;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.utils.ThrottlingLogger;
 import com.hazelcast.spi.exception.TargetDisconnectedException;
@@ -22,73 +26,190 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.delayedExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Base class of the asynchronous {@link Streamer} implementations.
+ * <p>
+ * The number of in-flight operations is controlled by an {@link AdaptiveConcurrencyLimit}: the window grows as long as
+ * the latency stays close to the lowest observed latency and shrinks when the latency goes up or the cluster rejects
+ * operations. The concurrency level is the maximum size of the window. Rejected operations are retried after a delay that
+ * grows with every attempt, so an overloaded cluster slows down the streamer instead of failing it.
+ * <p>
+ * While the streamer is in use, the window, the number of in-flight operations, the throughput and the number of retries
+ * are exposed on the metrics endpoint of the worker with the label {@code streamer}. The metrics are registered by the
+ * first {@link #pushEntry(Object, Object)} and unregistered by {@link #await()} or by a failing pushEntry.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
 abstract class AbstractAsyncStreamer<K, V> implements Streamer<K, V> {
 
+    static final int INITIAL_CONCURRENCY_LEVEL = 16;
+    static final int MAX_ATTEMPTS = 10;
+    static final long INITIAL_RETRY_DELAY_MILLIS = 10;
+    static final long MAX_RETRY_DELAY_MILLIS = 1000;
+
     private static final Logger LOGGER = LogManager.getLogger(AbstractAsyncStreamer.class);
 
     private static final long DEFAULT_TIMEOUT_MINUTES = 2;
     private static final int MAXIMUM_LOGGING_RATE_MILLIS = 5000;
+    private static final AtomicInteger ID_GENERATOR = new AtomicInteger();
 
-    private final int concurrencyLevel;
-    private final Semaphore semaphore;
-    private final StreamerExecutionCallback callback;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
     private final ThrottlingLogger throttlingLogger;
     private final AtomicReference<Throwable> storedException = new AtomicReference<>();
     private final AtomicBoolean rejectedExecutionExceptionReported = new AtomicBoolean();
     private final AtomicBoolean targetDisconnectExceptionReported = new AtomicBoolean();
     private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    // 0: the metrics aren't registered yet, 1: registered, 2: unregistered for good
+    private final AtomicInteger metricsState = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private final String name = "streamer-" + ID_GENERATOR.incrementAndGet();
+    private final MetricsProvider metricsProvider = this::collectMetrics;
 
     AbstractAsyncStreamer(int concurrencyLevel) {
-        this(concurrencyLevel, new Semaphore(concurrencyLevel));
+        this(new AdaptiveConcurrencyLimit(Math.min(INITIAL_CONCURRENCY_LEVEL, concurrencyLevel), 1, concurrencyLevel));
     }
 
-    AbstractAsyncStreamer(int concurrencyLevel, Semaphore semaphore) {
-        this.concurrencyLevel = concurrencyLevel;
-        this.semaphore = semaphore;
-        this.callback = new StreamerExecutionCallback();
+    AbstractAsyncStreamer(AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
         this.throttlingLogger = ThrottlingLogger.newLogger(LOGGER, MAXIMUM_LOGGING_RATE_MILLIS);
     }
 
     abstract CompletableFuture storeAsync(K key, V value);
 
     @Override
-    @SuppressWarnings("unchecked")
     public void pushEntry(K key, V value) {
+        registerMetrics();
+        try {
+            doPushEntry(key, value);
+        } catch (RuntimeException e) {
+            // a test doesn't call await after a failed pushEntry, so the streamer would otherwise stay registered
+            unregisterMetrics();
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void doPushEntry(K key, V value) {
         if (storedException.get() != null) {
             throw new RuntimeException("Aborting pushEntry; problems are detected. Please check the cause",
                     storedException.get());
         }
 
-        acquirePermit(1);
+        long operationStartNanos = acquirePermit();
         try {
             CompletableFuture<V> future = storeAsync(key, value);
-            future.whenCompleteAsync(callback, Runnable::run);
+            future.whenCompleteAsync(new StreamerExecutionCallback(key, value, operationStartNanos), Runnable::run);
         } catch (Exception e) {
-            releasePermit(1);
+            concurrencyLimit.release(operationStartNanos, false);
             throw rethrow(e);
         }
     }
 
     @Override
     public void await() {
-        waitForInFlightOperationsFinished();
-        releasePermit(concurrencyLevel);
+        try {
+            waitForInFlightOperationsFinished();
+        } finally {
+            unregisterMetrics();
+        }
+        LOGGER.info(format("Completed: %d, throughput: %.0f ops/s, window: %d, retries: %d",
+                counter.get(), throughput(), concurrencyLimit.getLimit(), retries.get()));
         rethrowExceptionIfAny();
     }
 
+    /**
+     * Returns the number of completed operations per second since the creation of this streamer.
+     *
+     * @return the achieved throughput.
+     */
+    double throughput() {
+        long durationNanos = Math.max(1, System.nanoTime() - startNanos);
+        return counter.get() * (double) SECONDS.toNanos(1) / durationNanos;
+    }
+
+    /**
+     * Returns the name of this streamer, which is used as the label of its metrics.
+     *
+     * @return the name.
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the current size of the concurrency window.
+     *
+     * @return the maximum number of in-flight operations.
+     */
+    int windowSize() {
+        return concurrencyLimit.getLimit();
+    }
+
+    /**
+     * Returns the delay before the given attempt of a rejected operation; the delay doubles with every attempt.
+     *
+     * @param attempt the attempt; the first retry is attempt 2.
+     * @return the delay in milliseconds.
+     */
+    static long retryDelayMillis(int attempt) {
+        long delayMillis = INITIAL_RETRY_DELAY_MILLIS;
+        for (int i = 2; i < attempt && delayMillis < MAX_RETRY_DELAY_MILLIS; i++) {
+            delayMillis *= 2;
+        }
+        return Math.min(MAX_RETRY_DELAY_MILLIS, delayMillis);
+    }
+
+    private void registerMetrics() {
+        if (metricsState.compareAndSet(0, 1)) {
+            MetricsRegistry.getInstance().register(metricsProvider);
+        }
+    }
+
+    private void unregisterMetrics() {
+        if (metricsState.getAndSet(2) == 1) {
+            MetricsRegistry.getInstance().unregister(metricsProvider);
+        }
+    }
+
+    private void collectMetrics(MetricSamples samples) {
+        samples.gauge("simulator_streamer_window", "Maximum number of in-flight operations of the streamer.",
+                        concurrencyLimit.getLimit(), "streamer", name)
+                .gauge("simulator_streamer_in_flight", "Number of in-flight operations of the streamer.",
+                        concurrencyLimit.getInFlight(), "streamer", name)
+                .gauge("simulator_streamer_throughput", "Completed operations per second since the start of the streamer.",
+                        throughput(), "streamer", name)
+                .counter("simulator_streamer_completed_total", "Number of completed operations of the streamer.",
+                        counter.get(), "streamer", name)
+                .counter("simulator_streamer_retries_total", "Number of retries of rejected operations of the streamer.",
+                        retries.get(), "streamer", name);
+    }
+
     private void waitForInFlightOperationsFinished() {
-        acquirePermit(concurrencyLevel);
+        try {
+            if (!concurrencyLimit.awaitIdle(DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+                throw new IllegalStateException("Timeout when waiting for in-flight operations! Completed: " + counter.get());
+            }
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        }
     }
 
     private void rethrowExceptionIfAny() {
@@ -97,48 +218,91 @@ abstract class AbstractAsyncStreamer<K, V> implements Streamer<K, V> {
         }
     }
 
-    private void releasePermit(int count) {
-        semaphore.release(count);
-        throttlingLogger.info("At: " + counter.get());
+    private void logProgress() {
+        throttlingLogger.info(format("At: %d, throughput: %.0f ops/s, window: %d, in-flight: %d",
+                counter.get(), throughput(), concurrencyLimit.getLimit(), concurrencyLimit.getInFlight()));
     }
 
-    private void acquirePermit(int count) {
-        throttlingLogger.info("At: " + counter.get());
+    private long acquirePermit() {
+        logProgress();
         try {
-            if (!semaphore.tryAcquire(count, DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+            long operationStartNanos = concurrencyLimit.acquire(DEFAULT_TIMEOUT_MINUTES, MINUTES);
+            if (operationStartNanos == -1) {
                 throw new IllegalStateException("Timeout when trying to acquire a permit! Completed: " + counter.get());
             }
+            return operationStartNanos;
         } catch (InterruptedException e) {
             throw rethrow(e);
         }
     }
 
+    private static boolean isOverload(Throwable t) {
+        Throwable cause = t instanceof CompletionException || t instanceof ExecutionException ? t.getCause() : t;
+        return cause instanceof RejectedExecutionException || cause instanceof HazelcastOverloadException;
+    }
+
     private final class StreamerExecutionCallback implements BiConsumer<V, Throwable> {
 
+        private final K key;
+        private final V value;
+        private long operationStartNanos;
+        private int attempt = 1;
+
+        private StreamerExecutionCallback(K key, V value, long operationStartNanos) {
+            this.key = key;
+            this.value = value;
+            this.operationStartNanos = operationStartNanos;
+        }
+
         @Override
         public void accept(V v, Throwable throwable) {
-            if (throwable != null) {
-                onFailure(throwable);
+            if (throwable == null) {
+                onSuccess(false);
+            } else if (isOverload(throwable) && attempt < MAX_ATTEMPTS && storedException.get() == null) {
+                retry();
             } else {
-                onSuccess(v);
+                onFailure(throwable);
             }
         }
 
-        public void onSuccess(V response) {
-            releasePermit(1);
+        private void retry() {
+            // the retry keeps the permit; the smaller window only throttles new entries, so the callback never blocks.
+            // The retry is delayed instead of issued from the response thread right away, so an overloaded cluster gets
+            // time to recover instead of burning through all attempts within microseconds.
+            attempt++;
+            retries.incrementAndGet();
+            concurrencyLimit.onRejected(operationStartNanos);
+            delayedExecutor(retryDelayMillis(attempt), MILLISECONDS).execute(this::store);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void store() {
+            // the latency of the retry doesn't include the delay, else the window would shrink even further
+            operationStartNanos = System.nanoTime();
+            try {
+                CompletableFuture<V> future = storeAsync(key, value);
+                future.whenCompleteAsync(this, Runnable::run);
+            } catch (Exception e) {
+                onFailure(e);
+            }
+        }
+
+        private void onSuccess(boolean rejected) {
+            concurrencyLimit.release(operationStartNanos, rejected);
             counter.incrementAndGet();
+            logProgress();
         }
 
-        public void onFailure(Throwable t) {
+        private void onFailure(Throwable t) {
             storedException.compareAndSet(null, t);
 
-            if (t instanceof RejectedExecutionException) {
+            if (isOverload(t)) {
                 // we only want to report the RejectedExecutionException once. With 1000 inflight operations, you will
                 // get 1000 of these reports otherwise.
                 if (rejectedExecutionExceptionReported.compareAndSet(false, true)) {
                     Exception cause = new Exception("The Streamer ran into a"
-                            + " RejectedExecutionException; see the causes for the real cause. Only 1 entry if this"
-                            + " exception is reported to prevent exception noise.", t);
+                            + " RejectedExecutionException after " + attempt + " attempts; see the causes for the real"
+                            + " cause. Only 1 entry if this exception is reported to prevent exception noise.", t);
                     ExceptionReporter.report(null, cause);
                 }
             } else if (t instanceof ExecutionException && t.getCause() instanceof TargetDisconnectedException) {
@@ -154,7 +318,7 @@ abstract class AbstractAsyncStreamer<K, V> implements Streamer<K, V> {
                 ExceptionReporter.report(null, t);
             }
 
-            onSuccess(null);
+            onSuccess(isOverload(t));
         }
     }
 }
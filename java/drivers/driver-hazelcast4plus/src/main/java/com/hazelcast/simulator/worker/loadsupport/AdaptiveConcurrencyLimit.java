@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of in-flight operations, where the limit is adapted to the observed latency using AIMD (additive
+ * increase, multiplicative decrease).
+ * <p>
+ * The latency samples are smoothed using an exponentially weighted moving average, so a single slow operation doesn't
+ * count as congestion. The lowest smoothed latency is the baseline of an unloaded system. As long as the smoothed latency
+ * stays within the tolerance of the baseline, the limit increases: doubling per round trip until the first decrease (slow
+ * start), after that by 1 per round trip. If the smoothed latency exceeds the tolerance, or an operation is rejected, the
+ * limit is multiplied by the backoff ratio. Operations that were started before the last decrease don't cause another
+ * decrease, so a single congestion event only decreases the limit once.
+ * <p>
+ * The baseline slowly decays towards the smoothed latency, so the limit can follow a system that permanently became
+ * slower, e.g. because it contains more data.
+ * <p>
+ * This class is thread-safe.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    static final double DEFAULT_LATENCY_TOLERANCE = 2;
+    // the weight of a new sample in the smoothed latency
+    static final double LATENCY_SMOOTHING = 0.1;
+    // the fraction of the difference with the smoothed latency the baseline moves up per sample
+    static final double BASELINE_DECAY = 0.001;
+
+    private static final double HALF = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private boolean slowStart = true;
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+    private double smoothedLatencyNanos = -1;
+    private double baselineLatencyNanos = Double.MAX_VALUE;
+    private long completed;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, DEFAULT_BACKOFF_RATIO, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("minLimit should be at least 1, but was " + minLimit);
+        }
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("maxLimit " + maxLimit + " can't be smaller than minLimit " + minLimit);
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit " + initialLimit + " should be between minLimit " + minLimit
+                    + " and maxLimit " + maxLimit);
+        }
+        if (!(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("backoffRatio should be between 0 and 1, but was " + backoffRatio);
+        }
+        if (latencyTolerance < 1) {
+            throw new IllegalArgumentException("latencyTolerance can't be smaller than 1, but was " + latencyTolerance);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * Acquires a permit to start an operation, waiting if the limit has been reached.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return the start time of the operation in nanos, which needs to be passed to {@link #release(long, boolean)}, or
+     * {@code -1} if the timeout expired.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    synchronized long acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight >= (int) limit) {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return -1;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        inFlight++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Releases the permit of a completed operation and adapts the limit based on its latency.
+     *
+     * @param startNanos the start time returned by {@link #acquire(long, TimeUnit)}.
+     * @param rejected   {@code true} if the operation was rejected because the system is overloaded.
+     */
+    synchronized void release(long startNanos, boolean rejected) {
+        release(startNanos, 1, rejected);
+    }
+
+    /**
+     * Releases the permit of a completed operation that consisted of multiple entries, e.g. a batch, and adapts the limit
+     * based on its latency per entry. This way operations of different sizes are comparable and a larger batch isn't
+     * mistaken for congestion.
+     *
+     * @param startNanos     the start time returned by {@link #acquire(long, TimeUnit)}.
+     * @param operationCount the number of entries in the operation.
+     * @param rejected       {@code true} if the operation was rejected because the system is overloaded.
+     */
+    synchronized void release(long startNanos, int operationCount, boolean rejected) {
+        release(startNanos, System.nanoTime(), operationCount, rejected);
+    }
+
+    // the completion time is passed in, so the tests can simulate the latencies
+    synchronized void release(long startNanos, long nowNanos, int operationCount, boolean rejected) {
+        long latencyNanos = (nowNanos - startNanos) / Math.max(1, operationCount);
+        int inFlightBefore = inFlight;
+        inFlight--;
+        completed++;
+
+        if (rejected) {
+            decrease(startNanos, nowNanos);
+        } else {
+            updateLatency(latencyNanos);
+            if (smoothedLatencyNanos > latencyTolerance * baselineLatencyNanos) {
+                decrease(startNanos, nowNanos);
+            } else if (inFlightBefore >= limit * HALF) {
+                // only increase if the limit was actually used
+                limit = Math.min(maxLimit, limit + (slowStart ? 1 : 1 / limit));
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Signals that an operation was rejected and is going to be retried. The operation keeps its permit.
+     *
+     * @param startNanos the start time of the rejected attempt.
+     * @return the start time of the retry.
+     */
+    synchronized long onRejected(long startNanos) {
+        long nowNanos = System.nanoTime();
+        decrease(startNanos, nowNanos);
+        return nowNanos;
+    }
+
+    /**
+     * Waits until all in-flight operations have completed.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return {@code true} if all operations completed, {@code false} if the timeout expired.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    synchronized boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight > 0) {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        return true;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized long getCompleted() {
+        return completed;
+    }
+
+    private void decrease(long startNanos, long nowNanos) {
+        if (startNanos < lastDecreaseNanos) {
+            return;
+        }
+        slowStart = false;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecreaseNanos = nowNanos;
+    }
+
+    private void updateLatency(long latencyNanos) {
+        if (smoothedLatencyNanos < 0) {
+            smoothedLatencyNanos = latencyNanos;
+        } else {
+            smoothedLatencyNanos += LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+        }
+        if (smoothedLatencyNanos < baselineLatencyNanos) {
+            baselineLatencyNanos = smoothedLatencyNanos;
+        } else {
+            baselineLatencyNanos += BASELINE_DECAY * (smoothedLatencyNanos - baselineLatencyNanos);
+        }
+    }
+}
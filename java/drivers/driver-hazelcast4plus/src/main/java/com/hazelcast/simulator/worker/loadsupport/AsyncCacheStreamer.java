@@ -18,7 +18,6 @@ package com.hazelcast.simulator.worker.loadsupport;
 import com.hazelcast.cache.ICache;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Semaphore;
 
 /**
  * Asynchronous implementation of {@link Streamer} for {@link ICache}.
@@ -35,8 +34,8 @@ final class AsyncCacheStreamer<K, V> extends AbstractAsyncStreamer<K, V> {
         this.cache = cache;
     }
 
-    AsyncCacheStreamer(int concurrencyLevel, ICache<K, V> cache, Semaphore semaphore) {
-        super(concurrencyLevel, semaphore);
+    AsyncCacheStreamer(ICache<K, V> cache, AdaptiveConcurrencyLimit concurrencyLimit) {
+        super(concurrencyLimit);
         this.cache = cache;
     }
 
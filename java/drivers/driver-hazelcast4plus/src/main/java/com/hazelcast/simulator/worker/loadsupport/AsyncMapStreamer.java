@@ -18,7 +18,6 @@ package com.hazelcast.simulator.worker.loadsupport;
 import com.hazelcast.map.IMap;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Semaphore;
 
 /**
  * Asynchronous implementation of {@link Streamer} for {@link IMap}.
@@ -35,8 +34,8 @@ final class AsyncMapStreamer<K, V> extends AbstractAsyncStreamer<K, V> {
         this.map = map;
     }
 
-    AsyncMapStreamer(int concurrencyLevel, IMap<K, V> map, Semaphore semaphore) {
-        super(concurrencyLevel, semaphore);
+    AsyncMapStreamer(IMap<K, V> map, AdaptiveConcurrencyLimit concurrencyLimit) {
+        super(concurrencyLimit);
         this.map = map;
     }
 
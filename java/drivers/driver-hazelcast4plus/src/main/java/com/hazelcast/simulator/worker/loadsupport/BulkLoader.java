@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.map.IMap;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.simulator.utils.ThrottlingLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Loads a range of entries into a partitioned data structure using multiple threads.
+ * <p>
+ * The index range is split into contiguous sub ranges, one per thread. Each thread buffers the entries per owner partition
+ * and writes a buffer as a single batch once it reaches the batch size, so every batch is a single partition operation.
+ * The number of entries a thread buffers over all partitions is capped; when the cap is reached, the largest buffer is
+ * written, so the memory doesn't grow with the number of partitions and the buffers don't fill up all at once.
+ * <p>
+ * The batch size and the number of batches in flight adapt to the observed batch latency: the batch size grows while
+ * batches complete well within the target latency and shrinks when they don't, and the number of batches in flight is
+ * controlled by an {@link AdaptiveConcurrencyLimit}. The limit is fed the latency per entry, so batches of different sizes
+ * are comparable.
+ * <p>
+ * For a global prepare a single load generator loads the whole range. For a non-global prepare every load generator can
+ * load its own slice of the range by passing a different {@code fromIndex} and {@code toIndex}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type of the batch
+ */
+public final class BulkLoader<K, V> {
+
+    private static final Logger LOGGER = LogManager.getLogger(BulkLoader.class);
+
+    private static final int DEFAULT_INITIAL_BATCH_SIZE = 100;
+    private static final int DEFAULT_MIN_BATCH_SIZE = 10;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 10000;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final int DEFAULT_MAX_BUFFERED_ENTRIES = 50000;
+    private static final long DEFAULT_TARGET_BATCH_LATENCY_MILLIS = 100;
+    private static final long DEFAULT_TIMEOUT_MINUTES = 2;
+    private static final int MAXIMUM_LOGGING_RATE_MILLIS = 5000;
+
+    private final PartitionService partitionService;
+    private final Function<Map<K, V>, CompletionStage<?>> batchWriter;
+    private final ThrottlingLogger throttlingLogger = ThrottlingLogger.newLogger(LOGGER, MAXIMUM_LOGGING_RATE_MILLIS);
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicReference<Throwable> storedException = new AtomicReference<>();
+
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int minBatchSize = DEFAULT_MIN_BATCH_SIZE;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private int maxBufferedEntries = DEFAULT_MAX_BUFFERED_ENTRIES;
+    private long targetBatchLatencyNanos = MILLISECONDS.toNanos(DEFAULT_TARGET_BATCH_LATENCY_MILLIS);
+
+    private volatile int batchSize = DEFAULT_INITIAL_BATCH_SIZE;
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    /**
+     * Creates a BulkLoader.
+     *
+     * @param instance    the HazelcastInstance used to look up the partition of a key.
+     * @param batchWriter writes a batch of entries that all belong to the same partition.
+     */
+    public BulkLoader(HazelcastInstance instance, Function<Map<K, V>, CompletionStage<?>> batchWriter) {
+        this.partitionService = instance.getPartitionService();
+        this.batchWriter = batchWriter;
+    }
+
+    /**
+     * Creates a BulkLoader for an {@link IMap}.
+     * <p>
+     * The batches are written using {@link IMap#setAllAsync(Map)}, which doesn't return the old values.
+     *
+     * @param instance the HazelcastInstance.
+     * @param map      the IMap to load.
+     * @return the created BulkLoader.
+     */
+    public static <K, V> BulkLoader<K, V> forMap(HazelcastInstance instance, IMap<K, V> map) {
+        return new BulkLoader<>(instance, map::setAllAsync);
+    }
+
+    public BulkLoader<K, V> setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount should be at least 1, but was " + threadCount);
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    public BulkLoader<K, V> setBatchSize(int initialBatchSize, int minBatchSize, int maxBatchSize) {
+        if (minBatchSize < 1 || maxBatchSize < minBatchSize || initialBatchSize < minBatchSize
+                || initialBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException(format("Invalid batch size: initial %d, min %d, max %d",
+                    initialBatchSize, minBatchSize, maxBatchSize));
+        }
+        this.batchSize = initialBatchSize;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public BulkLoader<K, V> setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight should be at least 1, but was " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of entries a single thread buffers over all partitions.
+     *
+     * @param maxBufferedEntries the maximum number of buffered entries per thread.
+     * @return this BulkLoader.
+     */
+    public BulkLoader<K, V> setMaxBufferedEntries(int maxBufferedEntries) {
+        if (maxBufferedEntries < 1) {
+            throw new IllegalArgumentException("maxBufferedEntries should be at least 1, but was " + maxBufferedEntries);
+        }
+        this.maxBufferedEntries = maxBufferedEntries;
+        return this;
+    }
+
+    public BulkLoader<K, V> setTargetBatchLatencyMillis(long targetBatchLatencyMillis) {
+        if (targetBatchLatencyMillis < 1) {
+            throw new IllegalArgumentException("targetBatchLatencyMillis should be at least 1, but was "
+                    + targetBatchLatencyMillis);
+        }
+        this.targetBatchLatencyNanos = MILLISECONDS.toNanos(targetBatchLatencyMillis);
+        return this;
+    }
+
+    /**
+     * Loads the entries with an index in the range [fromIndex, toIndex) and waits for all batches to complete.
+     *
+     * @param fromIndex the first index (inclusive).
+     * @param toIndex   the last index (exclusive).
+     * @param keys      creates the key for an index.
+     * @param values    creates the value for an index.
+     * @return the number of loaded entries.
+     * @throws RuntimeException if creating or writing one of the batches failed.
+     */
+    public long load(long fromIndex, long toIndex, LongFunction<K> keys, LongFunction<V> values) {
+        if (toIndex < fromIndex) {
+            throw new IllegalArgumentException("toIndex " + toIndex + " can't be smaller than fromIndex " + fromIndex);
+        }
+
+        loaded.set(0);
+        storedException.set(null);
+        int initialInFlight = Math.min(threadCount, maxInFlight);
+        concurrencyLimit = new AdaptiveConcurrencyLimit(initialInFlight, 1, maxInFlight);
+
+        long count = toIndex - fromIndex;
+        long startMillis = System.currentTimeMillis();
+        ThreadSpawner spawner = new ThreadSpawner("bulkLoader", true);
+        for (int i = 0; i < threadCount; i++) {
+            long from = fromIndex + count * i / threadCount;
+            long to = fromIndex + count * (i + 1) / threadCount;
+            spawner.spawn("BulkLoader", () -> {
+                try {
+                    loadRange(from, to, keys, values);
+                } catch (Throwable t) {
+                    // the other threads stop loading and the load fails with this exception
+                    storedException.compareAndSet(null, t);
+                }
+            });
+        }
+        spawner.awaitCompletion();
+        awaitInFlight();
+
+        Throwable throwable = storedException.get();
+        if (throwable != null) {
+            throw rethrow(throwable);
+        }
+
+        long durationMillis = Math.max(1, System.currentTimeMillis() - startMillis);
+        LOGGER.info(format("Loaded %d entries in %d ms (%.0f entries/s, final batch size %d, final in-flight limit %d)",
+                loaded.get(), durationMillis, loaded.get() * 1000d / durationMillis, batchSize,
+                concurrencyLimit.getLimit()));
+        return loaded.get();
+    }
+
+    private void loadRange(long fromIndex, long toIndex, LongFunction<K> keys, LongFunction<V> values) {
+        Map<Integer, Map<K, V>> buffers = new HashMap<>();
+        int buffered = 0;
+        for (long index = fromIndex; index < toIndex && storedException.get() == null; index++) {
+            K key = keys.apply(index);
+            int partitionId = partitionService.getPartition(key).getPartitionId();
+            Map<K, V> buffer = buffers.computeIfAbsent(partitionId, id -> new HashMap<>());
+            if (buffer.put(key, values.apply(index)) == null) {
+                buffered++;
+            }
+            if (buffer.size() >= batchSize) {
+                buffers.remove(partitionId);
+                buffered -= buffer.size();
+                writeBatch(buffer);
+            } else if (buffered >= maxBufferedEntries) {
+                buffered -= writeLargestBatch(buffers);
+            }
+        }
+
+        for (Map<K, V> buffer : buffers.values()) {
+            if (storedException.get() != null) {
+                return;
+            }
+            writeBatch(buffer);
+        }
+    }
+
+    private int writeLargestBatch(Map<Integer, Map<K, V>> buffers) {
+        Map.Entry<Integer, Map<K, V>> largest = null;
+        for (Map.Entry<Integer, Map<K, V>> entry : buffers.entrySet()) {
+            if (largest == null || entry.getValue().size() > largest.getValue().size()) {
+                largest = entry;
+            }
+        }
+        Map<K, V> batch = buffers.remove(largest.getKey());
+        writeBatch(batch);
+        return batch.size();
+    }
+
+    private void writeBatch(Map<K, V> batch) {
+        long startNanos;
+        try {
+            startNanos = concurrencyLimit.acquire(DEFAULT_TIMEOUT_MINUTES, MINUTES);
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        }
+        if (startNanos == -1) {
+            throw new IllegalStateException("Timeout when trying to write a batch! Loaded: " + loaded.get());
+        }
+
+        int size = batch.size();
+        CompletionStage<?> future;
+        try {
+            future = batchWriter.apply(batch);
+        } catch (RuntimeException e) {
+            concurrencyLimit.release(startNanos, size, false);
+            throw e;
+        }
+
+        future.whenComplete((v, throwable) -> {
+            if (throwable == null) {
+                adaptBatchSize(System.nanoTime() - startNanos, size);
+                concurrencyLimit.release(startNanos, size, false);
+                throttlingLogger.info("Loaded: " + loaded.addAndGet(size));
+            } else {
+                concurrencyLimit.release(startNanos, size, isOverload(throwable));
+                storedException.compareAndSet(null, throwable);
+            }
+        });
+    }
+
+    private void adaptBatchSize(long latencyNanos, int size) {
+        // only batches that were full say something about the latency of the current batch size
+        int current = batchSize;
+        if (size < current) {
+            return;
+        }
+        if (latencyNanos < targetBatchLatencyNanos / 2) {
+            // a batch larger than the buffer cap would never fill up
+            batchSize = Math.min(Math.min(maxBatchSize, maxBufferedEntries), current * 2);
+        } else if (latencyNanos > targetBatchLatencyNanos) {
+            batchSize = Math.max(minBatchSize, current / 2);
+        }
+    }
+
+    private void awaitInFlight() {
+        try {
+            if (!concurrencyLimit.awaitIdle(DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+                throw new IllegalStateException("Timeout when waiting for batches to complete! Loaded: " + loaded.get());
+            }
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static boolean isOverload(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        return cause instanceof RejectedExecutionException || cause instanceof HazelcastOverloadException;
+    }
+}
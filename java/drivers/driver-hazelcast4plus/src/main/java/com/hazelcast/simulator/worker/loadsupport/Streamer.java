@@ -19,7 +19,8 @@ package com.hazelcast.simulator.worker.loadsupport;
  * Streamer is used for storage initialization during a warm-up phase.
  *
  * With Hazelcast version 3.5 or newer it does use asynchronous operations so it's extremely fast,
- * but it has own back-pressure and doesn't rely on back-pressure provided by Hazelcast.
+ * but it has own back-pressure and doesn't rely on back-pressure provided by Hazelcast. The number of in-flight
+ * operations adapts to the latency of the cluster, up to the concurrency level.
  *
  * For older Hazelcast versions a synchronous version is created by the factory.
  *
@@ -41,7 +42,7 @@ package com.hazelcast.simulator.worker.loadsupport;
 public interface Streamer<K, V> {
 
     /**
-     * Default concurrency level for asynchronous {@link Streamer} instances.
+     * Default concurrency level for asynchronous {@link Streamer} instances; the maximum number of in-flight operations.
      */
     int DEFAULT_CONCURRENCY_LEVEL = 1000;
 
@@ -0,0 +1,110 @@
+package com.hazelcast.simulator.tests.vector;
+
+import com.hazelcast.config.vector.Metric;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BruteForceSearchTest {
+
+    private static final int SIZE = 5000;
+    private static final int DIMENSION = 13;
+
+    private final Random random = new Random(42);
+    private final float[][] vectors = randomVectors(SIZE);
+    private final float[][] queries = randomVectors(20);
+
+    @Test
+    public void testSearch_euclidean() {
+        assertMatchesSort(Metric.EUCLIDEAN);
+    }
+
+    @Test
+    public void testSearch_dot() {
+        assertMatchesSort(Metric.DOT);
+    }
+
+    @Test
+    public void testSearch_cosine() {
+        assertMatchesSort(Metric.COSINE);
+    }
+
+    @Test
+    public void testSearch_whenKLargerThanSize() {
+        BruteForceSearch search = newSearch(Metric.EUCLIDEAN, 10);
+
+        BruteForceSearch.Neighbours neighbours = search.search(queries, 100);
+
+        assertEquals(10, neighbours.ids()[0].length);
+    }
+
+    @Test
+    public void testSearch_duplicatesOrderedByIndex() {
+        BruteForceSearch search = new BruteForceSearch(SIZE * 3, DIMENSION, Metric.EUCLIDEAN,
+                (vector, index) -> System.arraycopy(vectors[index % SIZE], 0, vector, 0, DIMENSION),
+                new ForkJoinPool(4));
+
+        BruteForceSearch.Neighbours neighbours = search.search(new float[][]{vectors[7]}, 3);
+
+        assertArrayEquals(new int[]{7, SIZE + 7, 2 * SIZE + 7}, neighbours.ids()[0]);
+        assertEquals(0, neighbours.kthScore(0, 3), 0);
+    }
+
+    @Test
+    public void testKthScore_whenNoNeighbours() {
+        BruteForceSearch.Neighbours neighbours = newSearch(Metric.EUCLIDEAN, 0).search(queries, 10);
+
+        assertEquals(Float.NEGATIVE_INFINITY, neighbours.kthScore(0, 10), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKthScore_whenKZero() {
+        newSearch(Metric.EUCLIDEAN, 10).search(queries, 1).kthScore(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearch_whenWrongDimension() {
+        newSearch(Metric.DOT, SIZE).search(new float[][]{new float[DIMENSION + 1]}, 1);
+    }
+
+    private void assertMatchesSort(Metric metric) {
+        BruteForceSearch search = newSearch(metric, SIZE);
+        int k = 10;
+
+        BruteForceSearch.Neighbours neighbours = search.search(queries, k);
+
+        for (int q = 0; q < queries.length; q++) {
+            float[] query = queries[q];
+            int[] expected = IntStream.range(0, SIZE).boxed()
+                    .sorted(Comparator.comparingDouble(i -> -search.score(query, i)))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(expected, neighbours.ids()[q]);
+            for (int i = 0; i < k; i++) {
+                assertEquals(search.score(query, expected[i]), neighbours.scores()[q][i], 0);
+            }
+        }
+    }
+
+    private BruteForceSearch newSearch(Metric metric, int size) {
+        return new BruteForceSearch(size, DIMENSION, metric,
+                (vector, index) -> System.arraycopy(vectors[index], 0, vector, 0, DIMENSION), new ForkJoinPool(4));
+    }
+
+    private float[][] randomVectors(int count) {
+        float[][] result = new float[count][DIMENSION];
+        for (float[] vector : result) {
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = random.nextFloat() * 2 - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.hazelcast.simulator.tests.vector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappedVectorStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("train.vectors");
+        try (MappedVectorStore.Writer writer = new MappedVectorStore.Writer(file)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.append(new float[]{i, i + 0.5f, -i});
+            }
+        }
+
+        assertTrue(MappedVectorStore.exists(file));
+        assertOnlyFile(file);
+
+        MappedVectorStore store = MappedVectorStore.open(file);
+        assertEquals(1000, store.size());
+        assertEquals(3, store.dimension());
+        assertArrayEquals(new float[]{0, 0.5f, 0}, store.get(0), 0);
+        assertArrayEquals(new float[]{999, 999.5f, -999}, store.get(999), 0);
+
+        FloatBuffer slice = store.slice(42);
+        assertEquals(3, slice.remaining());
+        assertEquals(42.5f, slice.get(1), 0);
+    }
+
+    @Test
+    public void testAbort() {
+        Path file = folder.getRoot().toPath().resolve("train.vectors");
+        MappedVectorStore.Writer writer = new MappedVectorStore.Writer(file);
+        writer.append(new float[]{1, 2});
+        writer.abort();
+
+        assertFalse(MappedVectorStore.exists(file));
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testConcurrentWriters() {
+        Path file = folder.getRoot().toPath().resolve("train.vectors");
+        MappedVectorStore.Writer writer1 = new MappedVectorStore.Writer(file);
+        MappedVectorStore.Writer writer2 = new MappedVectorStore.Writer(file);
+        for (int i = 0; i < 100; i++) {
+            writer1.append(new float[]{i, i});
+            writer2.append(new float[]{i, i});
+        }
+        writer1.close();
+        writer2.close();
+
+        MappedVectorStore store = MappedVectorStore.open(file);
+        assertEquals(100, store.size());
+        assertArrayEquals(new float[]{99, 99}, store.get(99), 0);
+        assertOnlyFile(file);
+    }
+
+    @Test
+    public void testExists_whenTruncated() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("train.vectors");
+        try (MappedVectorStore.Writer writer = new MappedVectorStore.Writer(file)) {
+            writer.append(new float[]{1, 2});
+            writer.append(new float[]{3, 4});
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertFalse(MappedVectorStore.exists(file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppend_whenDimensionMismatch() {
+        Path file = folder.getRoot().toPath().resolve("train.vectors");
+        MappedVectorStore.Writer writer = new MappedVectorStore.Writer(file);
+        try {
+            writer.append(new float[]{1, 2});
+            writer.append(new float[]{1, 2, 3});
+        } finally {
+            writer.abort();
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGet_whenOutOfBounds() {
+        Path file = folder.getRoot().toPath().resolve("train.vectors");
+        try (MappedVectorStore.Writer writer = new MappedVectorStore.Writer(file)) {
+            writer.append(new float[]{1, 2});
+        }
+
+        MappedVectorStore.open(file).get(1);
+    }
+
+    private void assertOnlyFile(Path file) {
+        assertArrayEquals(new String[]{file.getFileName().toString()}, folder.getRoot().list());
+    }
+}
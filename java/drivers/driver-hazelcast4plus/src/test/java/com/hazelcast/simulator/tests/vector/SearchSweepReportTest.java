@@ -0,0 +1,69 @@
+package com.hazelcast.simulator.tests.vector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SearchSweepReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SearchSweepReport report = new SearchSweepReport();
+
+    private final SearchSweepReport.Point fastImprecise = point(16, 5000, 80);
+    private final SearchSweepReport.Point slowPrecise = point(256, 1000, 99);
+    private final SearchSweepReport.Point dominated = point(64, 900, 95);
+    private final SearchSweepReport.Point balanced = point(128, 2000, 95);
+
+    @Test
+    public void testParetoFront() {
+        report.add(fastImprecise);
+        report.add(slowPrecise);
+        report.add(dominated);
+        report.add(balanced);
+
+        List<SearchSweepReport.Point> front = report.paretoFront();
+
+        assertEquals(List.of(slowPrecise, balanced, fastImprecise), front);
+    }
+
+    @Test
+    public void testParetoFront_whenEqualPoints() {
+        SearchSweepReport.Point copy = point(16, 5000, 80);
+        report.add(fastImprecise);
+        report.add(copy);
+
+        assertEquals(2, report.paretoFront().size());
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        report.add(slowPrecise);
+        report.add(dominated);
+        report.add(new SearchSweepReport.Point(null, 10, true, 100, 10, 1, 2, 3, 4, 50, 40, 100));
+        File file = folder.newFile();
+
+        report.write(file.getPath());
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("efSearch, limit"));
+        assertEquals("256, 10, false, 1000, 1000.0, 100, 200, 300, 400, 99.00, 90, 1000, true", lines.get(1));
+        assertTrue(lines.get(2).endsWith(", false"));
+        assertTrue(lines.get(3).startsWith(", 10, true"));
+    }
+
+    private static SearchSweepReport.Point point(int efSearch, double throughput, double precision) {
+        return new SearchSweepReport.Point(efSearch, 10, false, (long) throughput, throughput, 100, 200, 300, 400,
+                precision, 90, 1000);
+    }
+}
@@ -0,0 +1,95 @@
+package com.hazelcast.simulator.tests.vector.readers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class NpyFloatMatrixReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testForEach_littleEndian() throws IOException {
+        Path file = writeNpy("<f4", ByteOrder.LITTLE_ENDIAN, 3, 2);
+
+        NpyFloatMatrixReader reader = new NpyFloatMatrixReader(file);
+        assertEquals(3, reader.rows());
+        assertEquals(2, reader.columns());
+
+        List<float[]> rows = new ArrayList<>();
+        reader.forEach(rows::add);
+        assertEquals(3, rows.size());
+        assertArrayEquals(new float[]{0, 1}, rows.get(0), 0);
+        assertArrayEquals(new float[]{4, 5}, rows.get(2), 0);
+    }
+
+    @Test
+    public void testForEach_bigEndian() throws IOException {
+        Path file = writeNpy(">f4", ByteOrder.BIG_ENDIAN, 2, 3);
+
+        List<float[]> rows = new ArrayList<>();
+        new NpyFloatMatrixReader(file).forEach(rows::add);
+        assertEquals(2, rows.size());
+        assertArrayEquals(new float[]{3, 4, 5}, rows.get(1), 0);
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        Path file = writeNpy("<f4", ByteOrder.LITTLE_ENDIAN, 5, 2);
+
+        float[][] rows = new NpyFloatMatrixReader(file).read(1, 3);
+
+        assertEquals(3, rows.length);
+        assertArrayEquals(new float[]{2, 3}, rows[0], 0);
+        assertArrayEquals(new float[]{6, 7}, rows[2], 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRead_whenOutOfBounds() throws IOException {
+        Path file = writeNpy("<f4", ByteOrder.LITTLE_ENDIAN, 5, 2);
+
+        new NpyFloatMatrixReader(file).read(4, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWhenNotFloat32() throws IOException {
+        new NpyFloatMatrixReader(writeNpy("<f8", ByteOrder.LITTLE_ENDIAN, 1, 1));
+    }
+
+    private Path writeNpy(String descr, ByteOrder byteOrder, int rows, int columns) throws IOException {
+        StringBuilder header = new StringBuilder("{'descr': '" + descr + "', 'fortran_order': False, 'shape': ("
+                + rows + ", " + columns + "), }");
+        // the magic, version and header length are 10 bytes; the header is padded to a multiple of 64 and ends with \n
+        while ((10 + header.length() + 1) % 64 != 0) {
+            header.append(' ');
+        }
+        header.append('\n');
+
+        ByteBuffer buffer = ByteBuffer.allocate(10 + header.length() + rows * columns * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(new byte[]{(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0});
+        buffer.putShort((short) header.length());
+        buffer.put(header.toString().getBytes(ISO_8859_1));
+        buffer.order(byteOrder);
+        for (int i = 0; i < rows * columns; i++) {
+            buffer.putFloat(i);
+        }
+
+        Path file = folder.newFile().toPath();
+        Files.write(file, buffer.array());
+        return file;
+    }
+}
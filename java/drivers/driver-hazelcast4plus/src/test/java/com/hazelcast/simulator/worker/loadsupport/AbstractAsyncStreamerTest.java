@@ -0,0 +1,160 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.simulator.metrics.MetricSamples;
+import com.hazelcast.simulator.metrics.MetricsRegistry;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.TestEnvironmentUtils.setupFakeUserDir;
+import static com.hazelcast.simulator.TestEnvironmentUtils.teardownFakeUserDir;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AbstractAsyncStreamerTest {
+
+    @Before
+    public void before() {
+        setupFakeUserDir();
+        ExceptionReporter.reset();
+    }
+
+    @After
+    public void after() {
+        teardownFakeUserDir();
+    }
+
+    @Test
+    public void testPushEntry() {
+        // the latency of the stub is noise, so it shouldn't shrink the window
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 100, 0.5, Double.MAX_VALUE);
+        StubStreamer streamer = new StubStreamer(limit, 0);
+        streamer.completionExecutor = CompletableFuture.delayedExecutor(1, MILLISECONDS);
+
+        for (int i = 0; i < 1000; i++) {
+            streamer.pushEntry(i, "value" + i);
+        }
+        streamer.await();
+
+        assertEquals(1000, streamer.entries.size());
+        assertTrue(streamer.throughput() > 0);
+        assertTrue("windowSize: " + streamer.windowSize(), streamer.windowSize() > 4);
+    }
+
+    @Test
+    public void testPushEntry_whenRejected_thenRetriedAndWindowDecreased() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(64, 1, 64);
+        StubStreamer streamer = new StubStreamer(limit, 3);
+
+        streamer.pushEntry(1, "value");
+        streamer.await();
+
+        assertEquals("value", streamer.entries.get(1));
+        assertEquals(4, streamer.attempts.get());
+        assertTrue("windowSize: " + streamer.windowSize(), streamer.windowSize() < 64);
+    }
+
+    @Test
+    public void testPushEntry_whenRejectedTooOften_thenAwaitFails() {
+        StubStreamer streamer = new StubStreamer(new AdaptiveConcurrencyLimit(4, 1, 100), Integer.MAX_VALUE);
+
+        streamer.pushEntry(1, "value");
+        try {
+            streamer.await();
+            fail();
+        } catch (RejectedExecutionException expected) {
+        }
+
+        assertEquals(AbstractAsyncStreamer.MAX_ATTEMPTS, streamer.attempts.get());
+    }
+
+    @Test
+    public void testRetryDelayMillis() {
+        assertEquals(AbstractAsyncStreamer.INITIAL_RETRY_DELAY_MILLIS, AbstractAsyncStreamer.retryDelayMillis(2));
+        assertEquals(AbstractAsyncStreamer.INITIAL_RETRY_DELAY_MILLIS * 2, AbstractAsyncStreamer.retryDelayMillis(3));
+        assertEquals(AbstractAsyncStreamer.MAX_RETRY_DELAY_MILLIS, AbstractAsyncStreamer.retryDelayMillis(100));
+    }
+
+    @Test
+    public void testMetrics() {
+        StubStreamer streamer = new StubStreamer(new AdaptiveConcurrencyLimit(4, 1, 100), 0);
+        streamer.pushEntry(1, "value");
+
+        assertEquals(4, collectStreamerMetric(streamer, "simulator_streamer_window"), 0);
+        assertEquals(1, collectStreamerMetric(streamer, "simulator_streamer_completed_total"), 0);
+
+        // once the streamer has completed, its metrics are no longer exposed
+        streamer.await();
+        assertTrue(Double.isNaN(collectStreamerMetric(streamer, "simulator_streamer_window")));
+    }
+
+    @Test
+    public void testMetrics_whenPushEntryFails_thenUnregistered() {
+        StubStreamer streamer = new StubStreamer(new AdaptiveConcurrencyLimit(4, 1, 100), 0);
+        streamer.pushEntry(1, "value");
+        assertEquals(1, collectStreamerMetric(streamer, "simulator_streamer_completed_total"), 0);
+
+        streamer.storeFailure = new IllegalStateException("store failed");
+        try {
+            streamer.pushEntry(2, "value");
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        // the test doesn't call await after a failed pushEntry, so the failure unregisters the metrics
+        assertTrue(Double.isNaN(collectStreamerMetric(streamer, "simulator_streamer_window")));
+    }
+
+    private static double collectStreamerMetric(StubStreamer streamer, String name) {
+        MetricSamples samples = new MetricSamples();
+        MetricsRegistry.getInstance().collect(samples);
+        for (MetricSamples.Sample sample : samples.getSamples()) {
+            if (sample.getName().equals(name) && sample.getLabels().get("streamer").equals(streamer.getName())) {
+                return sample.getValue();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static final class StubStreamer extends AbstractAsyncStreamer<Integer, String> {
+
+        private final Map<Integer, String> entries = new ConcurrentHashMap<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final int rejections;
+        private Executor completionExecutor = Runnable::run;
+        private RuntimeException storeFailure;
+
+        private StubStreamer(AdaptiveConcurrencyLimit concurrencyLimit, int rejections) {
+            super(concurrencyLimit);
+            this.rejections = rejections;
+        }
+
+        @Override
+        CompletableFuture storeAsync(Integer key, String value) {
+            if (storeFailure != null) {
+                throw storeFailure;
+            }
+            CompletableFuture<String> future = new CompletableFuture<>();
+            boolean rejected = attempts.incrementAndGet() <= rejections;
+            completionExecutor.execute(() -> {
+                if (rejected) {
+                    future.completeExceptionally(new RejectedExecutionException("overloaded"));
+                } else {
+                    entries.put(key, value);
+                    future.complete(null);
+                }
+            });
+            return future;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    // the latency of an acquire/release without a real operation is noise, so it should never cause a decrease
+    private static final double NO_LATENCY_LIMIT = Double.MAX_VALUE;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenMinLimitZero() {
+        new AdaptiveConcurrencyLimit(1, 0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenInitialLimitAboveMax() {
+        new AdaptiveConcurrencyLimit(11, 1, 10);
+    }
+
+    @Test
+    public void testAcquire_whenLimitReached() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertTrue(limit.acquire(1, MILLISECONDS) != -1);
+        assertTrue(limit.acquire(1, MILLISECONDS) != -1);
+        assertEquals(-1, limit.acquire(1, MILLISECONDS));
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    public void testRelease_increasesLimit_whenFullyUsed() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0.5, NO_LATENCY_LIMIT);
+
+        long start1 = limit.acquire(1, MILLISECONDS);
+        long start2 = limit.acquire(1, MILLISECONDS);
+        limit.release(start1, false);
+        limit.release(start2, false);
+
+        assertTrue("limit: " + limit.getLimit(), limit.getLimit() > 2);
+        assertEquals(0, limit.getInFlight());
+        assertEquals(2, limit.getCompleted());
+    }
+
+    @Test
+    public void testRelease_doesNotIncreaseLimit_whenUnderused() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0.5, NO_LATENCY_LIMIT);
+
+        for (int i = 0; i < 10; i++) {
+            limit.release(limit.acquire(1, MILLISECONDS), false);
+        }
+
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_increaseIsCappedByMaxLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 5, 0.5, NO_LATENCY_LIMIT);
+
+        for (int i = 0; i < 10; i++) {
+            long[] starts = new long[limit.getLimit()];
+            for (int k = 0; k < starts.length; k++) {
+                starts[k] = limit.acquire(1, MILLISECONDS);
+            }
+            for (long start : starts) {
+                limit.release(start, false);
+            }
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_whenRejected_decreasesOncePerWindow() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, 0.5, 2);
+
+        long start1 = limit.acquire(1, MILLISECONDS);
+        long start2 = limit.acquire(1, MILLISECONDS);
+        limit.release(start1, true);
+        // started before the decrease, so it doesn't decrease again
+        limit.release(start2, true);
+
+        assertEquals(5, limit.getLimit());
+
+        limit.release(limit.acquire(1, MILLISECONDS), true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_whenRejected_neverBelowMinLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 3, 10, 0.5, 2);
+
+        limit.release(limit.acquire(1, MILLISECONDS), true);
+
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    public void testOnRejected_keepsPermit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, 0.5, 2);
+
+        long start = limit.acquire(1, MILLISECONDS);
+        long retryStart = limit.onRejected(start);
+
+        assertEquals(5, limit.getLimit());
+        assertEquals(1, limit.getInFlight());
+        assertTrue(retryStart >= start);
+    }
+
+    @Test
+    public void testRelease_whenLatencyExceedsTolerance_decreases() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, 0.5, 2);
+
+        // establish a low baseline
+        limit.release(limit.acquire(1, MILLISECONDS), false);
+
+        long start = limit.acquire(1, MILLISECONDS);
+        MILLISECONDS.sleep(20);
+        limit.release(start, false);
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_withOperationCount_usesLatencyPerEntry() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, 0.5, 2);
+
+        // a small batch establishes a baseline of 1 ms per entry
+        long start = limit.acquire(1, MILLISECONDS);
+        MILLISECONDS.sleep(10);
+        limit.release(start, 10, false);
+
+        // a large batch takes longer in total, but is much faster per entry
+        start = limit.acquire(1, MILLISECONDS);
+        MILLISECONDS.sleep(30);
+        limit.release(start, 1000, false);
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_withNoisyLatency_doesNotCollapse() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 1, 100, 0.9, 2);
+        Random random = new Random(42);
+
+        // 1-1.5 ms with a 4 ms spike in 5% of the operations; every operation starts after the previous one completed
+        long nowNanos = System.nanoTime();
+        for (int i = 0; i < 10000; i++) {
+            limit.acquire(1, MILLISECONDS);
+            long startNanos = nowNanos;
+            long latencyMicros = random.nextInt(100) < 5 ? 4000 : 1000 + random.nextInt(500);
+            nowNanos += MICROSECONDS.toNanos(latencyMicros);
+            limit.release(startNanos, nowNanos, 1, false);
+        }
+
+        assertTrue("limit: " + limit.getLimit(), limit.getLimit() >= 50);
+    }
+
+    @Test
+    public void testRelease_whenLatencyStaysHigh_decreases() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 1, 100, 0.9, 2);
+
+        long nowNanos = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            limit.acquire(1, MILLISECONDS);
+            long startNanos = nowNanos;
+            nowNanos += MILLISECONDS.toNanos(i < 100 ? 1 : 5);
+            limit.release(startNanos, nowNanos, 1, false);
+        }
+
+        assertTrue("limit: " + limit.getLimit(), limit.getLimit() < 50);
+    }
+
+    @Test
+    public void testAwaitIdle() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+        long start = limit.acquire(1, MILLISECONDS);
+
+        assertFalse(limit.awaitIdle(1, MILLISECONDS));
+
+        new Thread(() -> limit.release(start, false)).start();
+        assertTrue(limit.awaitIdle(1, MINUTES));
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.common;
+
+/**
+ * The test properties of the throughput search. The search is driven by the coordinator, but the worker needs to know
+ * if the search is enabled and which properties it shouldn't complain about as unused.
+ */
+public final class ThroughputSearchProperties {
+
+    public static final String THROUGHPUT_SEARCH_PREFIX = "throughputSearch";
+    public static final String THROUGHPUT_SEARCH_SLA_US = "throughputSearchSlaUs";
+    public static final String THROUGHPUT_SEARCH_STEP_SECONDS = "throughputSearchStepSeconds";
+    public static final String THROUGHPUT_SEARCH_PRECISION = "throughputSearchPrecision";
+    public static final String THROUGHPUT_SEARCH_PERCENTILE = "throughputSearchPercentile";
+    public static final String THROUGHPUT_SEARCH_MAX_RATE_FACTOR = "throughputSearchMaxRateFactor";
+
+    private ThroughputSearchProperties() {
+    }
+}
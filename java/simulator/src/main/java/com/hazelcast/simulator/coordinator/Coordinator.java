@@ -24,6 +24,8 @@ import com.hazelcast.simulator.coordinator.tasks.PrepareRunTask;
 import com.hazelcast.simulator.coordinator.tasks.RunTestSuiteTask;
 import com.hazelcast.simulator.coordinator.tasks.StartWorkersTask;
 import com.hazelcast.simulator.coordinator.tasks.TerminateWorkersTask;
+import com.hazelcast.simulator.metrics.JvmMetricsProvider;
+import com.hazelcast.simulator.metrics.MetricsHttpServer;
 import com.hazelcast.simulator.protocol.CoordinatorClient;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.CommandLineExitException;
@@ -45,6 +47,7 @@ import java.util.concurrent.Future;
 import static com.hazelcast.simulator.coordinator.AgentUtils.startAgents;
 import static com.hazelcast.simulator.coordinator.AgentUtils.stopAgents;
 import static com.hazelcast.simulator.drivers.Driver.loadDriver;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
 import static com.hazelcast.simulator.utils.FileUtils.locatePythonFile;
@@ -64,6 +67,7 @@ public class Coordinator implements Closeable {
     private final SimulatorProperties properties;
     private final int testCompletionTimeoutSeconds;
     private final CoordinatorClient client;
+    private MetricsHttpServer metricsServer;
 
     public Coordinator(Registry registry, CoordinatorParameters parameters) {
         this.registry = registry;
@@ -85,6 +89,8 @@ public class Coordinator implements Closeable {
     public void start() throws Exception {
         client.start();
 
+        startMetricsServer();
+
         registerShutdownHook();
 
         logConfiguration();
@@ -103,6 +109,18 @@ public class Coordinator implements Closeable {
         log("Coordinator started...");
     }
 
+    private void startMetricsServer() throws Exception {
+        int port = properties.getInt("COORDINATOR_METRICS_PORT", 0);
+        if (port <= 0) {
+            return;
+        }
+
+        metricsServer = new MetricsHttpServer(port)
+                .addProvider(new CoordinatorMetricsProvider(performanceStatsCollector, failureCollector, registry))
+                .addProvider(new JvmMetricsProvider())
+                .start();
+    }
+
     private void registerShutdownHook() {
         if (parameters.skipShutdownHook()) {
             return;
@@ -143,6 +161,8 @@ public class Coordinator implements Closeable {
         stopAgents(registry);
 
         failureCollector.logFailureInfo();
+
+        closeQuietly(metricsServer);
     }
 
     private void stopTests() {
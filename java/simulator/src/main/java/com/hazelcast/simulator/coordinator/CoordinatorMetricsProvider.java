@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.coordinator.registry.Registry;
+import com.hazelcast.simulator.metrics.MetricSamples;
+import com.hazelcast.simulator.metrics.MetricsProvider;
+import com.hazelcast.simulator.metrics.PerformanceStatsMetrics;
+
+/**
+ * Provides the metrics of the coordinator; the performance of a test is merged over all workers.
+ */
+class CoordinatorMetricsProvider implements MetricsProvider {
+
+    private final PerformanceStatsCollector performanceStatsCollector;
+    private final FailureCollector failureCollector;
+    private final Registry registry;
+
+    CoordinatorMetricsProvider(PerformanceStatsCollector performanceStatsCollector,
+                               FailureCollector failureCollector,
+                               Registry registry) {
+        this.performanceStatsCollector = performanceStatsCollector;
+        this.failureCollector = failureCollector;
+        this.registry = registry;
+    }
+
+    @Override
+    public void collect(MetricSamples samples) {
+        samples.gauge("simulator_agents", "Number of agents.", registry.agentCount())
+                .gauge("simulator_workers", "Number of workers.", registry.workerCount())
+                .counter("simulator_failures_total", "Number of failures.", failureCollector.getFailureCount());
+
+        for (String testId : performanceStatsCollector.getTestIds()) {
+            PerformanceStatsMetrics.collect(samples, performanceStatsCollector.get(testId, false), "test", testId);
+        }
+    }
+}
@@ -17,9 +17,11 @@ package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.HdrHistogram.Histogram;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +50,9 @@ public class PerformanceStatsCollector {
     public static final int THROUGHPUT_FORMAT_LENGTH = 12;
     public static final int LATENCY_FORMAT_LENGTH = 10;
 
+    // the percentiles that are displayed when the workers send their interval histograms
+    static final double[] DISPLAYED_PERCENTILES = {50, 99, 99.9, 99.99};
+
     private static final long DISPLAY_LATENCY_AS_MICROS_MAX_VALUE = MILLISECONDS.toMicros(10);
 
     // holds a map per Worker SimulatorAddress which contains the lastDelta PerformanceStats per testCaseId
@@ -72,19 +77,36 @@ public class PerformanceStatsCollector {
         }
 
         double latencyAvgNs = latest.getIntervalLatencyAvgNanos();
-        double latency999PercentileNs = latest.getIntervalLatency999PercentileNanos();
         double latencyMaxNs = latest.getIntervalLatencyMaxNanos();
 
-        return format("%s ops %s ops/s %s %s (avg) %s %s (%sth) %s %s (max)",
+        StringBuilder sb = new StringBuilder(format("%s ops %s ops/s %s",
                 formatLong(latest.getOperationCount(), OPERATION_COUNT_FORMAT_LENGTH),
                 formatDouble(latest.getIntervalThroughput(), THROUGHPUT_FORMAT_LENGTH),
-                formatLong(toPrettyValue(latencyAvgNs), LATENCY_FORMAT_LENGTH),
-                toPrettyUnit(latencyAvgNs),
-                formatLong(toPrettyValue(latency999PercentileNs), LATENCY_FORMAT_LENGTH),
-                toPrettyUnit(latency999PercentileNs),
-                INTERVAL_LATENCY_PERCENTILE,
-                formatLong(toPrettyValue(latencyMaxNs), LATENCY_FORMAT_LENGTH),
-                toPrettyUnit(latencyMaxNs));
+                formatLatency(latencyAvgNs, "avg")));
+
+        Histogram histogram = latest.getIntervalHistogram();
+        if (histogram == null) {
+            // the workers only sent the 99.9 percentile
+            double latency999PercentileNs = latest.getIntervalLatency999PercentileNanos();
+            sb.append(' ').append(formatLatency(latency999PercentileNs, INTERVAL_LATENCY_PERCENTILE + "th"));
+        } else {
+            // the histogram is merged from all workers, so these are the real percentiles of the whole cluster
+            for (double percentile : DISPLAYED_PERCENTILES) {
+                double latencyNs = histogram.getValueAtPercentile(percentile);
+                sb.append(' ').append(formatLatency(latencyNs, "p" + formatPercentile(percentile)));
+            }
+        }
+
+        sb.append(' ').append(formatLatency(latencyMaxNs, "max"));
+        return sb.toString();
+    }
+
+    private static String formatLatency(double latencyNs, String label) {
+        return format("%s %s (%s)", formatLong(toPrettyValue(latencyNs), LATENCY_FORMAT_LENGTH), toPrettyUnit(latencyNs), label);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
     }
 
     /**
@@ -113,13 +135,40 @@ public class PerformanceStatsCollector {
         }
     }
 
+    /**
+     * Returns the ids of the tests any worker has sent PerformanceStats for.
+     */
+    Set<String> getTestIds() {
+        Set<String> testIds = new HashSet<>();
+        for (WorkerPerformance workerPerformance : workerPerformanceInfoMap.values()) {
+            testIds.addAll(workerPerformance.testPerformanceMap.keySet());
+        }
+        return testIds;
+    }
+
+    /**
+     * Returns the number of intervals that every worker that reported for the test has sent. It only increases once all
+     * these workers have sent the next interval, so it can be used to act once per interval.
+     *
+     * Workers that haven't sent anything for the test, e.g. because they didn't execute any operations, are ignored.
+     */
+    long completedIntervalCount(String testCaseId) {
+        long result = Long.MAX_VALUE;
+        for (WorkerPerformance workerPerformance : workerPerformanceInfoMap.values()) {
+            TestPerformance testPerformance = workerPerformance.testPerformanceMap.get(testCaseId);
+            if (testPerformance != null) {
+                result = Math.min(result, testPerformance.intervalCount());
+            }
+        }
+        return result == Long.MAX_VALUE ? 0 : result;
+    }
+
     PerformanceStats get(String testCaseId, boolean aggregated) {
         // aggregate the PerformanceStats instances from all Workers by adding values (since from different Workers)
         PerformanceStats result = new PerformanceStats();
 
         for (WorkerPerformance workerPerformance : workerPerformanceInfoMap.values()) {
-            PerformanceStats performanceStats = workerPerformance.get(testCaseId, aggregated);
-            result.add(performanceStats);
+            workerPerformance.addTo(testCaseId, aggregated, result);
         }
 
         return result;
@@ -159,6 +208,16 @@ public class PerformanceStatsCollector {
                     formatLong(operationCount, OPERATION_COUNT_FORMAT_LENGTH),
                     formatDouble(operationCount / runningTimeSeconds, THROUGHPUT_FORMAT_LENGTH)));
         }
+
+        Histogram histogram = totalPerformanceStats.getIntervalHistogram();
+        if (histogram != null && histogram.getTotalCount() > 0) {
+            sb.append("Total latency          ");
+            for (double percentile : DISPLAYED_PERCENTILES) {
+                double latencyNs = histogram.getValueAtPercentile(percentile);
+                sb.append(' ').append(formatLatency(latencyNs, "p" + formatPercentile(percentile)));
+            }
+            sb.append(' ').append(formatLatency(histogram.getMaxValue(), "max")).append('\n');
+        }
         return sb.toString();
     }
 
@@ -175,12 +234,7 @@ public class PerformanceStatsCollector {
                 agentPerformanceStatsMap.put(agentAddress, agentPerformanceStats);
             }
 
-            WorkerPerformance workerPerformance = entry.getValue();
-            PerformanceStats workerTestPerformanceStats = workerPerformance.get(testId, true);
-            if (workerTestPerformanceStats != null) {
-                agentPerformanceStats.add(workerTestPerformanceStats);
-                totalPerformanceStats.add(workerTestPerformanceStats);
-            }
+            entry.getValue().addTo(testId, true, agentPerformanceStats, totalPerformanceStats);
         }
     }
 
@@ -200,51 +254,45 @@ public class PerformanceStatsCollector {
 
         private void updateAll(Map<String, PerformanceStats> deltas) {
             for (Map.Entry<String, PerformanceStats> entry : deltas.entrySet()) {
-                update(entry.getKey(), entry.getValue());
-            }
-        }
-
-        private void update(String testId, PerformanceStats delta) {
-            for (; ; ) {
-                TestPerformance current = testPerformanceMap.get(testId);
-                if (current == null) {
-                    if (testPerformanceMap.putIfAbsent(testId, new TestPerformance(delta, delta)) == null) {
-                        return;
-                    }
-                } else {
-                    TestPerformance update = current.update(delta);
-                    if (testPerformanceMap.replace(testId, current, update)) {
-                        return;
-                    }
-                }
+                testPerformanceMap.computeIfAbsent(entry.getKey(), k -> new TestPerformance()).update(entry.getValue());
             }
         }
 
-        private PerformanceStats get(String testId, boolean aggregated) {
+        private void addTo(String testId, boolean aggregated, PerformanceStats... targets) {
             TestPerformance testPerformance = testPerformanceMap.get(testId);
-            if (testPerformance == null) {
-                return new PerformanceStats();
+            if (testPerformance != null) {
+                testPerformance.addTo(aggregated, targets);
             }
-            return aggregated ? testPerformance.aggregated : testPerformance.lastDelta;
         }
     }
 
     /**
      * Contains the latest and aggregated performance info.
+     *
+     * The aggregated stats are merged in place under the lock of this instance, so a stats message doesn't copy the
+     * cumulative histogram. Readers only see them while holding the same lock.
      */
-    private final class TestPerformance {
-        private final PerformanceStats aggregated;
-        private final PerformanceStats lastDelta;
+    private static final class TestPerformance {
+        private final PerformanceStats aggregated = new PerformanceStats();
+        private PerformanceStats lastDelta = new PerformanceStats();
+        // the number of intervals received
+        private long intervalCount;
+
+        private synchronized void update(PerformanceStats delta) {
+            aggregated.add(delta, false);
+            lastDelta = delta;
+            intervalCount++;
+        }
 
-        private TestPerformance(PerformanceStats aggregated, PerformanceStats lastDelta) {
-            this.aggregated = aggregated;
-            this.lastDelta = lastDelta;
+        private synchronized void addTo(boolean useAggregated, PerformanceStats... targets) {
+            PerformanceStats source = useAggregated ? aggregated : lastDelta;
+            for (PerformanceStats target : targets) {
+                target.add(source);
+            }
         }
 
-        private TestPerformance update(PerformanceStats delta) {
-            PerformanceStats newAggregated = new PerformanceStats(aggregated);
-            newAggregated.add(delta, false);
-            return new TestPerformance(newAggregated, delta);
+        private synchronized long intervalCount() {
+            return intervalCount;
         }
     }
 }
@@ -24,11 +24,13 @@ import com.hazelcast.simulator.protocol.CoordinatorClient;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.message.SimulatorMessage;
 import com.hazelcast.simulator.worker.messages.CreateTestMessage;
+import com.hazelcast.simulator.worker.messages.SetRateMessage;
 import com.hazelcast.simulator.worker.messages.StartPhaseMessage;
 import com.hazelcast.simulator.worker.messages.StopRunMessage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -88,6 +90,9 @@ public final class TestCaseRunner {
     private final int logRunPhaseIntervalSeconds;
     private final List<WorkerData> targets;
     private final WorkerData globalTarget;
+    private final String runPath;
+    private final ThroughputSearch throughputSearch;
+    private long throughputSearchIntervalCount;
 
     @SuppressWarnings("checkstyle:parameternumber")
     public TestCaseRunner(TestData test,
@@ -118,6 +123,8 @@ public final class TestCaseRunner {
         } else {
             this.logRunPhaseIntervalSeconds = RUN_PHASE_LOG_INTERVAL_SECONDS;
         }
+        this.runPath = coordinatorParameters.getSimulatorProperties().get("run_path");
+        this.throughputSearch = ThroughputSearch.newThroughputSearch(testCase, performanceMonitorIntervalSeconds);
     }
 
     public boolean run() {
@@ -270,6 +277,11 @@ public final class TestCaseRunner {
             if (iteration % logRunPhaseIntervalSeconds == 0) {
                 logProgress(nowMs - startMs, durationMs);
             }
+
+            if (throughputSearch != null && searchThroughput()) {
+                log("Throughput search completed");
+                break;
+            }
         }
 
         stopRun();
@@ -278,9 +290,51 @@ public final class TestCaseRunner {
 
         logFinalPerformanceInfo(startMs);
 
+        logThroughputSearchResult();
+
         waitForGlobalTestPhaseCompletion(RUN);
     }
 
+    /**
+     * Feeds the performance of the last interval of all workers to the throughput search and adjusts the rate on the
+     * workers if the search moves to the next step.
+     *
+     * @return {@code true} if the search has completed and the run can be stopped.
+     */
+    private boolean searchThroughput() {
+        // only when every worker has sent a new interval; otherwise an interval could be recorded twice or skipped
+        long intervalCount = performanceStatsCollector.completedIntervalCount(testCase.getId());
+        if (intervalCount <= throughputSearchIntervalCount) {
+            return false;
+        }
+        throughputSearchIntervalCount = intervalCount;
+
+        if (!throughputSearch.record(performanceStatsCollector.get(testCase.getId(), false))) {
+            return false;
+        }
+
+        if (throughputSearch.isCompleted()) {
+            return true;
+        }
+
+        double rateFactor = throughputSearch.getRateFactor();
+        log(format("Throughput search: setting rate factor to %.4f", rateFactor));
+        invokeOnTargets(new SetRateMessage(testCase.getId(), rateFactor));
+        return false;
+    }
+
+    private void logThroughputSearchResult() {
+        if (throughputSearch == null) {
+            return;
+        }
+
+        LOGGER.info(testCase.getId() + " " + throughputSearch.formatResult());
+
+        File file = new File(runPath, testCase.getId() + "-throughput-search.csv");
+        throughputSearch.writeCsv(file);
+        log("Throughput search results written to " + file.getAbsolutePath());
+    }
+
     private boolean isAllDone(Map<WorkerData, Future> futures) {
         for (Future f : futures.values()) {
             if (!f.isDone()) {
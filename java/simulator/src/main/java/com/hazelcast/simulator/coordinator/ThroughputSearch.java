@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_MAX_RATE_FACTOR;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_PERCENTILE;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_PRECISION;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_SLA_US;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_STEP_SECONDS;
+import static com.hazelcast.simulator.coordinator.PerformanceStatsCollector.LATENCY_FORMAT_LENGTH;
+import static com.hazelcast.simulator.coordinator.PerformanceStatsCollector.THROUGHPUT_FORMAT_LENGTH;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
+import static com.hazelcast.simulator.utils.FormatUtils.formatLong;
+import static com.hazelcast.simulator.worker.performance.PerformanceStats.INTERVAL_LATENCY_PERCENTILE;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Searches for the maximum throughput of a test that can be sustained while an interval latency percentile stays under
+ * an SLA. The percentile defaults to {@link PerformanceStats#INTERVAL_LATENCY_PERCENTILE} and is taken from the interval
+ * histogram merged over all workers.
+ * <p>
+ * The search is done in steps. During a step, the rate of all workers is set to a factor of the configured rate and the
+ * performance of the workers is recorded. The first performance sample of a step is ignored since it contains the
+ * transition from the previous rate. A step passes if none of the remaining samples exceeds the SLA.
+ * <p>
+ * The rate factor starts at 1 and is doubled until a step fails or the max rate factor is reached. Then a binary search
+ * between the highest passing and the lowest failing rate factor is done until the difference is within the configured
+ * precision. If the configured rate already fails, the binary search is done between 0 and 1.
+ */
+public final class ThroughputSearch {
+
+    static final int DEFAULT_STEP_SECONDS = 30;
+    static final double DEFAULT_PRECISION = 0.05;
+    // if not even this fraction of the configured rate can be sustained, we give up.
+    static final double MIN_RATE_FACTOR = 1d / 1024;
+    // the rate isn't doubled beyond this factor of the configured rate, unless configured otherwise.
+    static final double DEFAULT_MAX_RATE_FACTOR = 1024;
+    private static final double MAX_PERCENTILE = 100;
+
+    private final long slaNanos;
+    private final double percentile;
+    private final int samplesPerStep;
+    private final double precision;
+    private final double maxRateFactor;
+    private final List<Step> steps = new ArrayList<>();
+
+    private double rateFactor = 1;
+    private double passedRateFactor;
+    private double failedRateFactor = Double.POSITIVE_INFINITY;
+    private boolean completed;
+
+    private int stepSampleCount;
+    private int stepMeasuredCount;
+    private long stepMaxLatencyNanos;
+    private double stepThroughputSum;
+
+    ThroughputSearch(long slaNanos, int samplesPerStep, double precision) {
+        this(slaNanos, INTERVAL_LATENCY_PERCENTILE, samplesPerStep, precision, DEFAULT_MAX_RATE_FACTOR);
+    }
+
+    ThroughputSearch(long slaNanos, double percentile, int samplesPerStep, double precision, double maxRateFactor) {
+        this.slaNanos = slaNanos;
+        this.percentile = percentile;
+        this.samplesPerStep = samplesPerStep;
+        this.precision = precision;
+        this.maxRateFactor = maxRateFactor;
+    }
+
+    /**
+     * Creates the ThroughputSearch for a test.
+     *
+     * @param testCase                          the test
+     * @param performanceMonitorIntervalSeconds the interval in which the workers send their performance
+     * @return the created ThroughputSearch or {@code null} if the test doesn't configure a throughput search.
+     * @throws CommandLineExitException if the throughput search is not configured correctly.
+     */
+    static ThroughputSearch newThroughputSearch(TestCase testCase, int performanceMonitorIntervalSeconds) {
+        String sla = testCase.getProperty(THROUGHPUT_SEARCH_SLA_US);
+        if (sla == null) {
+            return null;
+        }
+
+        if (performanceMonitorIntervalSeconds <= 0) {
+            throw new CommandLineExitException(format("%s requires the performance monitor to be enabled",
+                    THROUGHPUT_SEARCH_SLA_US));
+        }
+
+        long slaUs = parseLong(testCase, THROUGHPUT_SEARCH_SLA_US, sla);
+        String stepSecondsString = testCase.getProperty(THROUGHPUT_SEARCH_STEP_SECONDS);
+        long stepSeconds = stepSecondsString == null
+                ? DEFAULT_STEP_SECONDS
+                : parseLong(testCase, THROUGHPUT_SEARCH_STEP_SECONDS, stepSecondsString);
+
+        double precision = parseDouble(testCase, THROUGHPUT_SEARCH_PRECISION, DEFAULT_PRECISION);
+        if (precision <= 0 || precision >= 1) {
+            throw new CommandLineExitException(format("%s [%s] must be between 0 and 1", THROUGHPUT_SEARCH_PRECISION,
+                    precision));
+        }
+
+        double percentile = parseDouble(testCase, THROUGHPUT_SEARCH_PERCENTILE, INTERVAL_LATENCY_PERCENTILE);
+        if (percentile <= 0 || percentile > MAX_PERCENTILE) {
+            throw new CommandLineExitException(format("%s [%s] must be larger than 0 and at most 100",
+                    THROUGHPUT_SEARCH_PERCENTILE, percentile));
+        }
+
+        double maxRateFactor = parseDouble(testCase, THROUGHPUT_SEARCH_MAX_RATE_FACTOR, DEFAULT_MAX_RATE_FACTOR);
+        if (maxRateFactor < 1) {
+            throw new CommandLineExitException(format("%s [%s] must be at least 1", THROUGHPUT_SEARCH_MAX_RATE_FACTOR,
+                    maxRateFactor));
+        }
+
+        // every step needs at least 1 sample after the sample with the transition.
+        int samplesPerStep = (int) max(2, stepSeconds / performanceMonitorIntervalSeconds);
+        return new ThroughputSearch(MICROSECONDS.toNanos(slaUs), percentile, samplesPerStep, precision, maxRateFactor);
+    }
+
+    private static double parseDouble(TestCase testCase, String property, double defaultValue) {
+        String value = testCase.getProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new CommandLineExitException(format("%s [%s] is not a number", property, value));
+        }
+    }
+
+    private static long parseLong(TestCase testCase, String property, String value) {
+        long result;
+        try {
+            result = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new CommandLineExitException(format("%s [%s] of test [%s] is not a number", property, value,
+                    testCase.getId()));
+        }
+
+        if (result <= 0) {
+            throw new CommandLineExitException(format("%s [%s] of test [%s] must be larger than 0", property, value,
+                    testCase.getId()));
+        }
+        return result;
+    }
+
+    /**
+     * Records the combined performance of all workers in the last performance monitor interval.
+     *
+     * @param intervalStats the performance in the last interval
+     * @return {@code true} if the step has completed and the rate factor has changed or the search has completed.
+     */
+    boolean record(PerformanceStats intervalStats) {
+        if (completed) {
+            return false;
+        }
+
+        stepSampleCount++;
+        if (stepSampleCount > 1 && !intervalStats.isEmpty()) {
+            stepMeasuredCount++;
+            stepMaxLatencyNanos = max(stepMaxLatencyNanos, latencyNanos(intervalStats));
+            stepThroughputSum += intervalStats.getIntervalThroughput();
+        }
+
+        if (stepSampleCount < samplesPerStep) {
+            return false;
+        }
+
+        // without any measurements, we can't claim the SLA has been met.
+        boolean passed = stepMeasuredCount > 0 && stepMaxLatencyNanos <= slaNanos;
+        double throughput = stepMeasuredCount == 0 ? 0 : stepThroughputSum / stepMeasuredCount;
+        steps.add(new Step(rateFactor, throughput, stepMaxLatencyNanos, passed));
+
+        stepSampleCount = 0;
+        stepMeasuredCount = 0;
+        stepMaxLatencyNanos = 0;
+        stepThroughputSum = 0;
+
+        nextRateFactor(passed);
+        return true;
+    }
+
+    private long latencyNanos(PerformanceStats intervalStats) {
+        long latencyNanos = intervalStats.getIntervalLatencyPercentileNanos(percentile);
+        // without the interval histogram, the percentile is unknown; so there is no proof the SLA is met.
+        return latencyNanos < 0 ? Long.MAX_VALUE : latencyNanos;
+    }
+
+    private void nextRateFactor(boolean passed) {
+        if (passed) {
+            passedRateFactor = rateFactor;
+        } else {
+            failedRateFactor = rateFactor;
+        }
+
+        if (failedRateFactor == Double.POSITIVE_INFINITY) {
+            if (rateFactor >= maxRateFactor) {
+                // the max rate is sustainable; there is nothing left to search
+                completed = true;
+            } else {
+                rateFactor = min(rateFactor * 2, maxRateFactor);
+            }
+        } else if (failedRateFactor - passedRateFactor <= precision * failedRateFactor
+                || failedRateFactor <= MIN_RATE_FACTOR) {
+            completed = true;
+        } else {
+            rateFactor = (passedRateFactor + failedRateFactor) / 2;
+        }
+    }
+
+    boolean isCompleted() {
+        return completed;
+    }
+
+    double getRateFactor() {
+        return rateFactor;
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the passed step with the highest rate factor.
+     *
+     * @return the found step or {@code null} if no step has passed.
+     */
+    Step getMaxSustainableStep() {
+        Step result = null;
+        for (Step step : steps) {
+            if (step.passed && (result == null || step.rateFactor > result.rateFactor)) {
+                result = step;
+            }
+        }
+        return result;
+    }
+
+    String formatResult() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(format("Throughput search (%sth percentile SLA %d µs)%n", percentile,
+                NANOSECONDS.toMicros(slaNanos)));
+        sb.append("  step  rate factor    throughput  latency µs  result\n");
+        for (int k = 0; k < steps.size(); k++) {
+            Step step = steps.get(k);
+            sb.append(format(Locale.US, "  %4d  %11.4f  %s  %s  %s%n",
+                    k + 1,
+                    step.rateFactor,
+                    formatDouble(step.throughput, THROUGHPUT_FORMAT_LENGTH),
+                    formatLong(NANOSECONDS.toMicros(step.latencyNanos), LATENCY_FORMAT_LENGTH),
+                    step.passed ? "passed" : "failed"));
+        }
+
+        Step step = getMaxSustainableStep();
+        if (step == null) {
+            sb.append("No rate could be sustained within the SLA");
+        } else {
+            String remark = "";
+            if (!completed) {
+                remark = " (search did not complete)";
+            } else if (step.rateFactor >= maxRateFactor) {
+                remark = " (limited by the max rate factor)";
+            }
+            sb.append(format(Locale.US, "Max sustainable throughput %s ops/s at rate factor %.4f%s",
+                    formatDouble(step.throughput, 0),
+                    step.rateFactor,
+                    remark));
+        }
+        return sb.toString();
+    }
+
+    void writeCsv(File file) {
+        StringBuilder sb = new StringBuilder("step,rateFactor,throughput,latencyUs,passed\n");
+        for (int k = 0; k < steps.size(); k++) {
+            Step step = steps.get(k);
+            sb.append(k + 1).append(',')
+                    .append(step.rateFactor).append(',')
+                    .append(step.throughput).append(',')
+                    .append(NANOSECONDS.toMicros(step.latencyNanos)).append(',')
+                    .append(step.passed).append('\n');
+        }
+        writeText(sb.toString(), file);
+    }
+
+    /**
+     * The result of a single step of the search; a point on the latency curve.
+     */
+    static final class Step {
+        final double rateFactor;
+        final double throughput;
+        final long latencyNanos;
+        final boolean passed;
+
+        Step(double rateFactor, double throughput, long latencyNanos, boolean passed) {
+            this.rateFactor = rateFactor;
+            this.throughput = throughput;
+            this.latencyNanos = latencyNanos;
+            this.passed = passed;
+        }
+    }
+}
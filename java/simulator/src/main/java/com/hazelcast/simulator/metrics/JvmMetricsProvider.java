@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Provides the memory, GC and thread metrics of the JVM.
+ */
+public class JvmMetricsProvider implements MetricsProvider {
+
+    private static final double MILLIS_PER_SECOND = SECONDS.toMillis(1);
+
+    @Override
+    public void collect(MetricSamples samples) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        samples.gauge("jvm_memory_used_bytes", "Used memory.", heap.getUsed(), "area", "heap")
+                .gauge("jvm_memory_used_bytes", "Used memory.", nonHeap.getUsed(), "area", "nonheap")
+                .gauge("jvm_memory_committed_bytes", "Committed memory.", heap.getCommitted(), "area", "heap")
+                .gauge("jvm_memory_committed_bytes", "Committed memory.", nonHeap.getCommitted(), "area", "nonheap")
+                .gauge("jvm_memory_max_bytes", "Max memory; -1 if undefined.", heap.getMax(), "area", "heap");
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            samples.counter("jvm_gc_collections_total", "Number of garbage collections.", gc.getCollectionCount(),
+                    "gc", gc.getName());
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            samples.counter("jvm_gc_collection_seconds_total", "Time spent in garbage collections.",
+                    gc.getCollectionTime() / MILLIS_PER_SECOND,
+                    "gc", gc.getName());
+        }
+
+        samples.gauge("jvm_threads", "Number of live threads.", ManagementFactory.getThreadMXBean().getThreadCount())
+                .gauge("jvm_uptime_seconds", "Uptime of the JVM.",
+                        ManagementFactory.getRuntimeMXBean().getUptime() / MILLIS_PER_SECOND);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
+
+/**
+ * The samples collected from the {@link MetricsProvider} instances for a single request.
+ * <p>
+ * The labels of a sample are passed as name/value pairs, e.g. {@code gauge("latency", "...", 10, "test", "map")}.
+ */
+public final class MetricSamples {
+
+    private final List<Sample> samples = new ArrayList<>();
+
+    /**
+     * Adds a value that can go up and down.
+     *
+     * @param name   the name of the metric.
+     * @param help   the description of the metric.
+     * @param value  the value.
+     * @param labels the labels as name/value pairs.
+     * @return this.
+     */
+    public MetricSamples gauge(String name, String help, double value, String... labels) {
+        return add(Type.GAUGE, name, help, value, labels);
+    }
+
+    /**
+     * Adds a value that only goes up, e.g. the number of operations since the start of the test.
+     *
+     * @param name   the name of the metric.
+     * @param help   the description of the metric.
+     * @param value  the value.
+     * @param labels the labels as name/value pairs.
+     * @return this.
+     */
+    public MetricSamples counter(String name, String help, double value, String... labels) {
+        return add(Type.COUNTER, name, help, value, labels);
+    }
+
+    private MetricSamples add(Type type, String name, String help, double value, String... labels) {
+        checkNotNull(name, "name can't be null");
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("labels should be name/value pairs, but found " + labels.length + " elements");
+        }
+
+        Map<String, String> labelMap = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            labelMap.put(labels[i], labels[i + 1]);
+        }
+        samples.add(new Sample(type, name, help, value, labelMap));
+        return this;
+    }
+
+    public List<Sample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    enum Type {
+        GAUGE("gauge"),
+        COUNTER("counter");
+
+        private final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+
+        String getPrometheusName() {
+            return prometheusName;
+        }
+    }
+
+    /**
+     * A single value of a metric.
+     */
+    public static final class Sample {
+        final Type type;
+        final String name;
+        final String help;
+        final double value;
+        final Map<String, String> labels;
+
+        private Sample(Type type, String name, String help, double value, Map<String, String> labels) {
+            this.type = type;
+            this.name = name;
+            this.help = help;
+            this.value = value;
+            this.labels = labels;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+    }
+}
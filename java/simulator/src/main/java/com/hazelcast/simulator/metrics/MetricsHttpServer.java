@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.hazelcast.simulator.metrics.MetricSamples.Sample;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A lightweight embedded HTTP server that exposes the metrics of the {@link MetricsProvider} instances, so a running
+ * benchmark can be scraped and alerted on like any other service.
+ * <ul>
+ * <li>{@code /metrics} returns the metrics in the Prometheus text format</li>
+ * <li>{@code /metrics.json} returns the metrics as JSON</li>
+ * </ul>
+ * The server uses the HTTP server of the JDK and a single thread, so it doesn't add any dependencies and it doesn't
+ * interfere with the load generator.
+ */
+public class MetricsHttpServer implements Closeable {
+
+    static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final Logger LOGGER = LogManager.getLogger(MetricsHttpServer.class);
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_METHOD_NOT_ALLOWED = 405;
+    private static final int HTTP_INTERNAL_ERROR = 500;
+    private static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private final List<MetricsProvider> providers = new CopyOnWriteArrayList<>();
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a MetricsHttpServer.
+     *
+     * @param port the port to listen on; 0 to bind to a random free port.
+     */
+    public MetricsHttpServer(int port) {
+        if (port < 0) {
+            throw new IllegalArgumentException("port can't be smaller than 0, but was " + port);
+        }
+        this.port = port;
+    }
+
+    public MetricsHttpServer addProvider(MetricsProvider provider) {
+        providers.add(provider);
+        return this;
+    }
+
+    public MetricsHttpServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", this::handle);
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "MetricsHttpServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info(format("Metrics available on http://<host>:%d/metrics and /metrics.json", getPort()));
+        return this;
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port.
+     */
+    public int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, HTTP_METHOD_NOT_ALLOWED, "text/plain", "Only GET is supported");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if ("/metrics".equals(path)) {
+                send(exchange, HTTP_OK, PROMETHEUS_CONTENT_TYPE, toPrometheus(collect()));
+            } else if ("/metrics.json".equals(path)) {
+                send(exchange, HTTP_OK, JSON_CONTENT_TYPE, toJson(collect()));
+            } else {
+                send(exchange, HTTP_NOT_FOUND, "text/plain", "Unknown path " + path);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to serve metrics", e);
+            send(exchange, HTTP_INTERNAL_ERROR, "text/plain", "" + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private MetricSamples collect() {
+        MetricSamples samples = new MetricSamples();
+        for (MetricsProvider provider : providers) {
+            provider.collect(samples);
+        }
+        return samples;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    static String toPrometheus(MetricSamples samples) {
+        // the samples of a metric need to be adjacent, but the providers add them per test; so they are grouped by name.
+        Map<String, List<Sample>> metrics = new LinkedHashMap<>();
+        for (Sample sample : samples.getSamples()) {
+            metrics.computeIfAbsent(sample.name, name -> new ArrayList<>()).add(sample);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (List<Sample> metric : metrics.values()) {
+            Sample first = metric.get(0);
+            if (first.help != null) {
+                sb.append("# HELP ").append(first.name).append(' ').append(escapeHelp(first.help)).append('\n');
+            }
+            sb.append("# TYPE ").append(first.name).append(' ').append(first.type.getPrometheusName()).append('\n');
+            for (Sample sample : metric) {
+                appendSample(sb, sample);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendSample(StringBuilder sb, Sample sample) {
+        sb.append(sample.name);
+        if (!sample.labels.isEmpty()) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> label : sample.labels.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                sb.append(label.getKey()).append("=\"").append(escapeLabelValue(label.getValue())).append('"');
+            }
+            sb.append('}');
+        }
+        sb.append(' ').append(formatValue(sample.value)).append('\n');
+    }
+
+    static String toJson(MetricSamples samples) {
+        JsonArray metrics = new JsonArray();
+        for (Sample sample : samples.getSamples()) {
+            JsonObject metric = new JsonObject();
+            metric.addProperty("name", sample.name);
+            metric.addProperty("type", sample.type.getPrometheusName());
+            JsonObject labels = new JsonObject();
+            for (Map.Entry<String, String> label : sample.labels.entrySet()) {
+                labels.addProperty(label.getKey(), label.getValue());
+            }
+            metric.add("labels", labels);
+            metric.addProperty("value", sample.value);
+            metrics.add(metric);
+        }
+
+        JsonObject root = new JsonObject();
+        root.addProperty("timestamp", System.currentTimeMillis());
+        root.add("metrics", metrics);
+        return GSON.toJson(root);
+    }
+
+    private static String formatValue(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            return "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabelValue(String value) {
+        return escapeHelp(value).replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
+
+/**
+ * The process-wide {@link MetricsProvider} instances of components that aren't owned by the worker, e.g. the streamers a
+ * test uses to load its data. The worker exposes the registered providers on its metrics endpoint.
+ */
+public final class MetricsRegistry implements MetricsProvider {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final List<MetricsProvider> providers = new CopyOnWriteArrayList<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a provider; its metrics are collected until it is unregistered.
+     *
+     * @param provider the provider to register.
+     */
+    public void register(MetricsProvider provider) {
+        providers.add(checkNotNull(provider, "provider can't be null"));
+    }
+
+    /**
+     * Unregisters a provider.
+     *
+     * @param provider the provider to unregister.
+     */
+    public void unregister(MetricsProvider provider) {
+        providers.remove(provider);
+    }
+
+    @Override
+    public void collect(MetricSamples samples) {
+        for (MetricsProvider provider : providers) {
+            provider.collect(samples);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.metrics;
+
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Converts {@link PerformanceStats} to metrics; used by the worker for its own performance and by the coordinator for the
+ * performance merged over all workers.
+ */
+public final class PerformanceStatsMetrics {
+
+    static final double[] PERCENTILES = {50, 99, 99.9, 99.99};
+    // the Prometheus convention is to label a percentile with its quantile
+    static final String[] QUANTILES = {"0.5", "0.99", "0.999", "0.9999"};
+
+    private static final double NANOS_PER_SECOND = SECONDS.toNanos(1);
+
+    private PerformanceStatsMetrics() {
+    }
+
+    /**
+     * Adds the metrics of the PerformanceStats of the last interval to the samples.
+     *
+     * @param samples the samples to add to.
+     * @param stats   the PerformanceStats; nothing is added if it is empty.
+     * @param labels  the labels as name/value pairs, e.g. the test id.
+     */
+    public static void collect(MetricSamples samples, PerformanceStats stats, String... labels) {
+        if (stats == null || stats.isEmpty()) {
+            return;
+        }
+
+        samples.counter("simulator_test_operations_total", "Number of operations since the start of the test.",
+                        stats.getOperationCount(), labels)
+                .gauge("simulator_test_interval_throughput", "Operations per second in the last interval.",
+                        stats.getIntervalThroughput(), labels)
+                .gauge("simulator_test_total_throughput", "Operations per second since the start of the test.",
+                        stats.getTotalThroughput(), labels)
+                .gauge("simulator_test_latency_avg_seconds", "Average latency in the last interval.",
+                        stats.getIntervalLatencyAvgNanos() / NANOS_PER_SECOND, labels)
+                .gauge("simulator_test_latency_max_seconds", "Max latency in the last interval.",
+                        stats.getIntervalLatencyMaxNanos() / NANOS_PER_SECOND, labels);
+
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            // without an interval histogram only the 99.9 percentile is available
+            long latencyNanos = stats.getIntervalLatencyPercentileNanos(PERCENTILES[i]);
+            if (latencyNanos >= 0) {
+                samples.gauge("simulator_test_latency_seconds", "Latency percentiles in the last interval.",
+                        latencyNanos / NANOS_PER_SECOND, withLabel(labels, "quantile", QUANTILES[i]));
+            }
+        }
+    }
+
+    static String[] withLabel(String[] labels, String name, String value) {
+        String[] result = Arrays.copyOf(labels, labels.length + 2);
+        result[labels.length] = name;
+        result[labels.length + 1] = value;
+        return result;
+    }
+}
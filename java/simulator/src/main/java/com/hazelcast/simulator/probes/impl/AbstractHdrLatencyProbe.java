@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.LatencyProbe;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Base class for the HDR-Histogram based implementations of the {@link LatencyProbe}.
+ *
+ * Takes care of the validation and normalization of the recorded values; the subclass decides how the values are recorded.
+ */
+public abstract class AbstractHdrLatencyProbe implements LatencyProbe {
+    // we want to track up to 24-hour.
+    static final long HIGHEST_TRACKABLE_VALUE_NANOS = DAYS.toNanos(1);
+
+    // we care only about microsecond accuracy.
+    static final long LOWEST_DISCERNIBLE_VALUE = MICROSECONDS.toNanos(1);
+
+    // since we care about us, the value should be 1000 according to the javadoc of Recorder.
+    static final int NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 3;
+
+    private final AtomicLong negativeCount = new AtomicLong();
+    private final boolean includeInThroughput;
+    private final String name;
+
+    protected AbstractHdrLatencyProbe(String name, boolean includeInThroughput) {
+        this.name = name;
+        this.includeInThroughput = includeInThroughput;
+    }
+
+    @Override
+    public boolean includeInThroughput() {
+        return includeInThroughput;
+    }
+
+    @Override
+    public void done(long startNanos) {
+        if (startNanos <= 0) {
+            throw new IllegalArgumentException("startedNanos has to be a positive number");
+        }
+
+        long nowNanos = System.nanoTime();
+        recordValue(nowNanos - startNanos);
+    }
+
+    @Override
+    public void recordValue(long latencyNanos) {
+        if (latencyNanos < 0) {
+            negativeCount.incrementAndGet();
+
+            // Negative values should normally not happen.
+            // But it could happen when the clock jump or when there is an
+            // overflow. So lets convert it to a postive value and record it.
+            if (latencyNanos == Long.MIN_VALUE) {
+                latencyNanos = HIGHEST_TRACKABLE_VALUE_NANOS;
+            } else {
+                latencyNanos = -latencyNanos;
+            }
+        }
+
+        if (latencyNanos > HIGHEST_TRACKABLE_VALUE_NANOS) {
+            latencyNanos = HIGHEST_TRACKABLE_VALUE_NANOS;
+        }
+        record(latencyNanos);
+    }
+
+    /**
+     * Records a latency value that is guaranteed to be within the trackable range of the histogram.
+     *
+     * @param latencyNanos the latency in nanoseconds
+     */
+    protected abstract void record(long latencyNanos);
+
+    /**
+     * Gets the histogram of the values recorded since the last call to this method (or since the last reset).
+     *
+     * Should only be called by a single thread.
+     *
+     * @return the interval histogram
+     */
+    public abstract Histogram getIntervalHistogram();
+
+    @Override
+    public long negativeCount() {
+        return negativeCount.get();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+}
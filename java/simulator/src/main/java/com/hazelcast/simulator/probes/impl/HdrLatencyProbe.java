@@ -16,27 +16,16 @@
 package com.hazelcast.simulator.probes.impl;
 
 import com.hazelcast.simulator.probes.LatencyProbe;
+import org.HdrHistogram.Histogram;
 import org.HdrHistogram.Recorder;
 
-import java.util.concurrent.atomic.AtomicLong;
-
-import static java.util.concurrent.TimeUnit.DAYS;
-import static java.util.concurrent.TimeUnit.MICROSECONDS;
-
 /**
  * HDR-Histogram implementation of the {@link LatencyProbe}.
+ *
+ * All threads record into a single {@link Recorder}. See {@link StripedHdrLatencyProbe} for an implementation that spreads
+ * the threads over multiple recorders.
  */
-public class HdrLatencyProbe implements LatencyProbe {
-    // we want to track up to 24-hour.
-    static final long HIGHEST_TRACKABLE_VALUE_NANOS = DAYS.toNanos(1);
-
-    private final AtomicLong negativeCount = new AtomicLong();
-
-    // we care only about microsecond accuracy.
-    private static final long LOWEST_DISCERNIBLE_VALUE = MICROSECONDS.toNanos(1);
-
-    // since we care about u    s, the value should be 1000 according to the javadoc of Recorder.
-    private static final int NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 3;
+public class HdrLatencyProbe extends AbstractHdrLatencyProbe {
 
     // these settings come the website; just above the following link
     //https://github.com/HdrHistogram/HdrHistogram#histogram-variants-and-internal-representation
@@ -45,48 +34,12 @@ public class HdrLatencyProbe implements LatencyProbe {
             HIGHEST_TRACKABLE_VALUE_NANOS,
             NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
 
-    private final boolean includeInThroughput;
-    private final String name;
-
     public HdrLatencyProbe(String name, boolean includeInThroughput) {
-        this.name = name;
-        this.includeInThroughput = includeInThroughput;
-    }
-
-    @Override
-    public boolean includeInThroughput() {
-        return includeInThroughput;
-    }
-
-    @Override
-    public void done(long startNanos) {
-        if (startNanos <= 0) {
-            throw new IllegalArgumentException("startedNanos has to be a positive number");
-        }
-
-        long nowNanos = System.nanoTime();
-        recordValue(nowNanos - startNanos);
+        super(name, includeInThroughput);
     }
 
     @Override
-    public void recordValue(long latencyNanos) {
-
-        if (latencyNanos < 0) {
-            negativeCount.incrementAndGet();
-
-            // Negative values should normally not happen.
-            // But it could happen when the clock jump or when there is an
-            // overflow. So lets convert it to a postive value and record it.
-            if (latencyNanos == Long.MIN_VALUE) {
-                latencyNanos = HIGHEST_TRACKABLE_VALUE_NANOS;
-            } else {
-                latencyNanos = -latencyNanos;
-            }
-        }
-
-        if (latencyNanos > HIGHEST_TRACKABLE_VALUE_NANOS) {
-            latencyNanos = HIGHEST_TRACKABLE_VALUE_NANOS;
-        }
+    protected void record(long latencyNanos) {
         recorder.recordValue(latencyNanos);
     }
 
@@ -95,17 +48,12 @@ public class HdrLatencyProbe implements LatencyProbe {
     }
 
     @Override
-    public void reset() {
-        recorder.reset();
-    }
-
-    @Override
-    public long negativeCount() {
-        return negativeCount.get();
+    public Histogram getIntervalHistogram() {
+        return recorder.getIntervalHistogram();
     }
 
     @Override
-    public String name() {
-        return name;
+    public void reset() {
+        recorder.reset();
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.LatencyProbe;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HDR-Histogram implementation of the {@link LatencyProbe} where the recording threads are spread over a fixed number of
+ * {@link Recorder} stripes.
+ *
+ * With the {@link HdrLatencyProbe} all threads record into the same {@link Recorder}, which becomes a point of contention at
+ * high thread counts. With this probe a thread records into the stripe selected by the hash of its thread id, so only the
+ * few threads that share a stripe contend; the stripes are merged when the interval histogram is taken.
+ *
+ * The number of stripes is fixed and a stripe is only created when a thread records into it, so the memory usage is bounded,
+ * no matter how many threads record, e.g. virtual threads or the threads completing async calls.
+ */
+public class StripedHdrLatencyProbe extends AbstractHdrLatencyProbe {
+
+    static final int MAX_STRIPES = 64;
+
+    private static final int STRIPES_PER_PROCESSOR = 2;
+    private static final int HASH_SHIFT = 16;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final AtomicReferenceArray<Stripe> stripes;
+    private final int mask;
+
+    public StripedHdrLatencyProbe(String name, boolean includeInThroughput) {
+        this(name, includeInThroughput, Runtime.getRuntime().availableProcessors() * STRIPES_PER_PROCESSOR);
+    }
+
+    StripedHdrLatencyProbe(String name, boolean includeInThroughput, int stripeCount) {
+        super(name, includeInThroughput);
+        // a power of 2, so the stripe can be selected with a mask
+        int length = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, stripeCount) * 2 - 1));
+        this.stripes = new AtomicReferenceArray<>(length);
+        this.mask = length - 1;
+    }
+
+    @Override
+    protected void record(long latencyNanos) {
+        int hash = (int) Thread.currentThread().getId() * GOLDEN_RATIO;
+        int index = (hash ^ (hash >>> HASH_SHIFT)) & mask;
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            stripe = newStripe(index);
+        }
+        stripe.recorder.recordValue(latencyNanos);
+    }
+
+    private Stripe newStripe(int index) {
+        Stripe stripe = new Stripe();
+        return stripes.compareAndSet(index, null, stripe) ? stripe : stripes.get(index);
+    }
+
+    @Override
+    public Histogram getIntervalHistogram() {
+        Histogram intervalHistogram = new Histogram(
+                LOWEST_DISCERNIBLE_VALUE,
+                HIGHEST_TRACKABLE_VALUE_NANOS,
+                NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                stripe.recycledHistogram = stripe.recorder.getIntervalHistogram(stripe.recycledHistogram);
+                intervalHistogram.add(stripe.recycledHistogram);
+            }
+        }
+        return intervalHistogram;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                stripe.recorder.reset();
+            }
+        }
+    }
+
+    /**
+     * The number of stripes that have been recorded into.
+     *
+     * @return the number of stripes
+     */
+    public int stripeCount() {
+        int count = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            if (stripes.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The maximum number of stripes.
+     *
+     * @return the maximum number of stripes
+     */
+    public int maxStripeCount() {
+        return stripes.length();
+    }
+
+    private static final class Stripe {
+        private final Recorder recorder = new Recorder(
+                LOWEST_DISCERNIBLE_VALUE,
+                HIGHEST_TRACKABLE_VALUE_NANOS,
+                NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
+        // only accessed by the thread taking the interval histograms.
+        private Histogram recycledHistogram;
+    }
+}
@@ -19,8 +19,6 @@ import com.hazelcast.simulator.common.FailureType;
 import com.hazelcast.simulator.coordinator.FailureCollector;
 import com.hazelcast.simulator.coordinator.messages.FailureMessage;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
-import com.hazelcast.simulator.protocol.message.SimulatorMessageCodec;
-import com.hazelcast.simulator.protocol.message.MessageType;
 import com.hazelcast.simulator.protocol.message.SimulatorMessage;
 import com.hazelcast.simulator.utils.SimulatorUtils;
 import org.apache.logging.log4j.LogManager;
@@ -50,7 +48,11 @@ import java.util.concurrent.TimeoutException;
 
 import static com.hazelcast.simulator.common.SimulatorProperties.DEFAULT_AGENT_PORT;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.coordinatorAddress;
-import static com.hazelcast.simulator.protocol.message.MessageType.getMessageType;
+import static com.hazelcast.simulator.protocol.JmsMessages.PROPERTY_PAYLOAD;
+import static com.hazelcast.simulator.protocol.JmsMessages.PROPERTY_SOURCE;
+import static com.hazelcast.simulator.protocol.JmsMessages.PROPERTY_TARGET;
+import static com.hazelcast.simulator.protocol.JmsMessages.fromJmsMessage;
+import static com.hazelcast.simulator.protocol.JmsMessages.toJmsMessage;
 import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.UuidUtil.newUnsecureUuidString;
 import static java.lang.String.format;
@@ -271,18 +273,14 @@ public class CoordinatorClient implements Closeable {
         }
 
         private void run() throws JMSException {
-            Message message = remoteBroker.session.createMessage();
+            Message message = toJmsMessage(remoteBroker.session, msg, coordinatorAddress().toString());
+            message.setStringProperty(PROPERTY_TARGET, target.toString());
 
             if (requestId != null) {
                 message.setJMSReplyTo(remoteBroker.replyQueue);
                 message.setJMSCorrelationID(requestId);
             }
 
-            message.setStringProperty("source", coordinatorAddress().toString());
-            message.setStringProperty("target", target.toString());
-            message.setStringProperty("payload", SimulatorMessageCodec.toJson(msg));
-            message.setIntProperty("msgType", getMessageType(msg).toInt());
-
             switch (target.getAddressLevel()) {
                 case AGENT:
                     remoteBroker.agentProducer.send(message);
@@ -386,6 +384,8 @@ public class CoordinatorClient implements Closeable {
     private class ResponseHandlerThread extends Thread {
 
         private static final int DELAY_MILLIS = 100;
+        // the maximum number of messages taken from a single broker before moving to the next broker
+        private static final int MAX_MESSAGES_PER_BROKER = 1000;
 
         @Override
         public void run() {
@@ -426,32 +426,36 @@ public class CoordinatorClient implements Closeable {
             }
         }
 
+        /**
+         * Drains the messages available on the coordinator topic of the broker, so that a burst of messages, e.g. the
+         * performance stats of all workers, is processed in one go instead of one message per loop iteration.
+         */
         private boolean processMessages(RemoteBroker remoteBroker) {
+            int processed = 0;
             try {
-                Message message = remoteBroker.coordinatorConsumer.receiveNoWait();
-                if (message == null) {
-                    return false;
-                }
-
-                MessageType msgType = MessageType.fromInt(message.getIntProperty("msgType"));
-                String msgData = message.getStringProperty("payload");
+                while (processed < MAX_MESSAGES_PER_BROKER) {
+                    Message message = remoteBroker.coordinatorConsumer.receiveNoWait();
+                    if (message == null) {
+                        break;
+                    }
+                    processed++;
 
-                SimulatorMessage msg = SimulatorMessageCodec.fromJson(msgData, msgType.getClassType());
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Received " + msg);
-                }
+                    SimulatorMessage msg = fromJmsMessage(message);
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Received " + msg);
+                    }
 
-                SimulatorAddress source = SimulatorAddress.fromString(message.getStringProperty("source"));
+                    SimulatorAddress source = SimulatorAddress.fromString(message.getStringProperty(PROPERTY_SOURCE));
 
-                processor.process(msg, source, EmptyPromise.INSTANCE);
-                return true;
+                    processor.process(msg, source, EmptyPromise.INSTANCE);
+                }
             } catch (Exception e) {
                 if (!stop) {
                     //todo: feed into failure collector
                     LOGGER.fatal(e.getMessage(), e);
                 }
-                return false;
             }
+            return processed > 0;
         }
 
         private boolean processResponses(RemoteBroker remoteBroker) {
@@ -471,7 +475,7 @@ public class CoordinatorClient implements Closeable {
                         String message = replyMessage.getStringProperty("message");
                         future.complete(new Exception(message));
                     } else {
-                        future.complete(replyMessage.getStringProperty("payload"));
+                        future.complete(replyMessage.getStringProperty(PROPERTY_PAYLOAD));
                     }
                 }
                 return true;
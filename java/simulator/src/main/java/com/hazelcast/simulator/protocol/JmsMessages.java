@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol;
+
+import com.hazelcast.simulator.protocol.message.MessageType;
+import com.hazelcast.simulator.protocol.message.SimulatorMessage;
+import com.hazelcast.simulator.protocol.message.SimulatorMessageCodec;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+import static com.hazelcast.simulator.protocol.message.MessageType.getMessageType;
+
+/**
+ * Converts {@link SimulatorMessage} instances to and from JMS messages.
+ * <p/>
+ * The {@link SimulatorMessage} is written as the body of a {@link BytesMessage} using the {@link SimulatorMessageCodec}; the
+ * message type, source and target remain JMS properties since they are used for routing and message selectors.
+ */
+final class JmsMessages {
+
+    static final String PROPERTY_MSG_TYPE = "msgType";
+    static final String PROPERTY_SOURCE = "source";
+    static final String PROPERTY_TARGET = "target";
+    static final String PROPERTY_PAYLOAD = "payload";
+
+    private JmsMessages() {
+    }
+
+    static BytesMessage toJmsMessage(Session session, SimulatorMessage msg, String source) throws JMSException {
+        BytesMessage message = session.createBytesMessage();
+        message.setStringProperty(PROPERTY_SOURCE, source);
+        message.setIntProperty(PROPERTY_MSG_TYPE, getMessageType(msg).toInt());
+        message.writeBytes(SimulatorMessageCodec.toBytes(msg));
+        return message;
+    }
+
+    static SimulatorMessage fromJmsMessage(Message message) throws JMSException {
+        MessageType msgType = MessageType.fromInt(message.getIntProperty(PROPERTY_MSG_TYPE));
+        if (!(message instanceof BytesMessage)) {
+            // a message without body from a client that still sends the JSON as property
+            return SimulatorMessageCodec.fromJson(message.getStringProperty(PROPERTY_PAYLOAD), msgType.getClassType());
+        }
+
+        BytesMessage bytesMessage = (BytesMessage) message;
+        byte[] bytes = new byte[(int) bytesMessage.getBodyLength()];
+        bytesMessage.readBytes(bytes);
+        return SimulatorMessageCodec.fromBytes(bytes, msgType);
+    }
+}
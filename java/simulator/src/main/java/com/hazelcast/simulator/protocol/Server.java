@@ -16,8 +16,6 @@
 package com.hazelcast.simulator.protocol;
 
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
-import com.hazelcast.simulator.protocol.message.SimulatorMessageCodec;
-import com.hazelcast.simulator.protocol.message.MessageType;
 import com.hazelcast.simulator.protocol.message.SimulatorMessage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,7 +32,10 @@ import javax.jms.Topic;
 import java.io.Closeable;
 
 import static com.hazelcast.simulator.common.SimulatorProperties.DEFAULT_AGENT_PORT;
-import static com.hazelcast.simulator.protocol.message.MessageType.getMessageType;
+import static com.hazelcast.simulator.protocol.JmsMessages.PROPERTY_PAYLOAD;
+import static com.hazelcast.simulator.protocol.JmsMessages.PROPERTY_SOURCE;
+import static com.hazelcast.simulator.protocol.JmsMessages.fromJmsMessage;
+import static com.hazelcast.simulator.protocol.JmsMessages.toJmsMessage;
 import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
 import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
 import static com.hazelcast.simulator.utils.SimulatorUtils.localIp;
@@ -61,6 +62,11 @@ public class Server implements Closeable {
     private MessageHandler processor;
     private MessageConsumer consumer;
     private Session session;
+    // JMS sessions are single threaded; messages are sent from many threads, so the send session is guarded by its lock
+    private final Object sendLock = new Object();
+    private Session sendSession;
+    private MessageProducer coordinatorProducer;
+    private MessageProducer replyProducer;
     private Topic destination;
     private Connection connection;
     private String brokerURL;
@@ -96,6 +102,15 @@ public class Server implements Closeable {
         return this;
     }
 
+    /**
+     * Returns the SimulatorAddress of this server.
+     *
+     * @return the address of this server or {@code null} if not set.
+     */
+    public SimulatorAddress getSelfAddress() {
+        return selfAddress;
+    }
+
     /**
      * Set the {@link MessageHandler} responsible for handling operations.
      *
@@ -137,6 +152,13 @@ public class Server implements Closeable {
             String selector = "target='" + selfAddress + "'";
             LOGGER.info(format("Using messageSelector [%s]", selector));
             this.consumer = session.createConsumer(destination, selector);
+
+            this.sendSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            this.coordinatorProducer = sendSession.createProducer(sendSession.createTopic("coordinator"));
+            coordinatorProducer.setTimeToLive(MINUTES.toMillis(1));
+            coordinatorProducer.setDeliveryMode(NON_PERSISTENT);
+            // the reply destination differs per request, so the producer has no fixed destination
+            this.replyProducer = sendSession.createProducer(null);
             serverThread.start();
 
             LOGGER.info("Successfully started server for " + selfAddressString);
@@ -162,17 +184,10 @@ public class Server implements Closeable {
                 LOGGER.debug("sending [" + msg + "]");
             }
 
-            Destination topic = session.createTopic("coordinator");
-            MessageProducer producer = session.createProducer(topic);
-            producer.setTimeToLive(MINUTES.toMillis(1));
-            producer.setDeliveryMode(NON_PERSISTENT);
-
-            Message message = session.createMessage();
-            message.setStringProperty("source", selfAddressString);
-            message.setStringProperty("payload", SimulatorMessageCodec.toJson(msg));
-            message.setIntProperty("msgType", getMessageType(msg).toInt());
-
-            producer.send(message);
+            synchronized (sendLock) {
+                Message message = toJmsMessage(sendSession, msg, selfAddressString);
+                coordinatorProducer.send(message);
+            }
         } catch (JMSException e) {
             LOGGER.error(e);
         }
@@ -194,24 +209,23 @@ public class Server implements Closeable {
             }
 
             try {
-                Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-                Message message = session.createMessage();
-                message.setJMSCorrelationID(correlationId);
-                message.setStringProperty("source", selfAddressString);
-
-                if (o instanceof Throwable) {
-                    Throwable throwable = (Throwable) o;
-                    message.setBooleanProperty("error", true);
-                    message.setStringProperty("message", throwable.getMessage());
-                } else {
-                    message.setBooleanProperty("error", false);
-                    // hack
-                    message.setStringProperty("payload", "" + o);
+                synchronized (sendLock) {
+                    Message message = sendSession.createMessage();
+                    message.setJMSCorrelationID(correlationId);
+                    message.setStringProperty(PROPERTY_SOURCE, selfAddressString);
+
+                    if (o instanceof Throwable) {
+                        Throwable throwable = (Throwable) o;
+                        message.setBooleanProperty("error", true);
+                        message.setStringProperty("message", throwable.getMessage());
+                    } else {
+                        message.setBooleanProperty("error", false);
+                        // hack
+                        message.setStringProperty(PROPERTY_PAYLOAD, "" + o);
+                    }
+
+                    replyProducer.send(replyTo, message);
                 }
-
-                MessageProducer producer = session.createProducer(replyTo);
-                producer.send(message);
-                session.close();
             } catch (JMSException e) {
                 LOGGER.error(e);
             }
@@ -238,9 +252,7 @@ public class Server implements Closeable {
         private void handle() throws Exception {
             Message message = consumer.receive();
 
-            MessageType msgType = MessageType.fromInt(message.getIntProperty("msgType"));
-            String msgData = message.getStringProperty("payload");
-            SimulatorMessage msg = SimulatorMessageCodec.fromJson(msgData, msgType.getClassType());
+            SimulatorMessage msg = fromJmsMessage(message);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Received msg:" + msg);
             }
@@ -249,7 +261,7 @@ public class Server implements Closeable {
             promise.correlationId = message.getJMSCorrelationID();
             promise.msg = msg;
 
-            SimulatorAddress source = SimulatorAddress.fromString(message.getStringProperty("source"));
+            SimulatorAddress source = SimulatorAddress.fromString(message.getStringProperty(PROPERTY_SOURCE));
 
             try {
                 processor.process(msg, source, promise);
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.message;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes and decodes a {@link SimulatorMessage} in a compact binary format.
+ * <p/>
+ * Most messages are rare control messages that are encoded as JSON. Messages that are sent frequently, like the
+ * performance stats that every worker sends every interval, register a BinaryCodec with their {@link MessageType} to
+ * reduce the size on the wire and the garbage on the coordinator.
+ *
+ * @param <M> the type of the message.
+ */
+public interface BinaryCodec<M extends SimulatorMessage> {
+
+    void encode(M msg, DataOutput out) throws IOException;
+
+    M decode(DataInput in) throws IOException;
+}
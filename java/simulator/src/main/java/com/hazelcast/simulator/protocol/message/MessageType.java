@@ -22,6 +22,7 @@ import com.hazelcast.simulator.coordinator.messages.FailureMessage;
 import com.hazelcast.simulator.worker.messages.CreateTestMessage;
 import com.hazelcast.simulator.worker.messages.ExecuteScriptMessage;
 import com.hazelcast.simulator.worker.messages.PerformanceStatsMessage;
+import com.hazelcast.simulator.worker.messages.SetRateMessage;
 import com.hazelcast.simulator.worker.messages.StartPhaseMessage;
 import com.hazelcast.simulator.worker.messages.StopRunMessage;
 import com.hazelcast.simulator.worker.messages.TerminateWorkerMessage;
@@ -41,7 +42,7 @@ public enum MessageType {
 
     // Coordinator-Messages
     FAILURE(FailureMessage.class, 1000),
-    PERFORMANCE_STATE(PerformanceStatsMessage.class, 1002),
+    PERFORMANCE_STATE(PerformanceStatsMessage.class, 1002, PerformanceStatsMessage.BINARY_CODEC),
 
     // Agent-Messages
     CREATE_WORKER(CreateWorkerMessage.class, 3000),
@@ -53,14 +54,21 @@ public enum MessageType {
     CREATE_TEST(CreateTestMessage.class, 4002),
     EXECUTE_SCRIPT(ExecuteScriptMessage.class, 4003),
     START_TEST_PHASE(StartPhaseMessage.class, 4004),
-    STOP_TEST(StopRunMessage.class, 4005);
+    STOP_TEST(StopRunMessage.class, 4005),
+    SET_RATE(SetRateMessage.class, 4006);
 
     private final Class<? extends SimulatorMessage> classType;
     private final int classId;
+    private final BinaryCodec<? extends SimulatorMessage> binaryCodec;
 
     MessageType(Class<? extends SimulatorMessage> classType, int classId) {
+        this(classType, classId, null);
+    }
+
+    <M extends SimulatorMessage> MessageType(Class<M> classType, int classId, BinaryCodec<M> binaryCodec) {
         this.classType = classType;
         this.classId = classId;
+        this.binaryCodec = binaryCodec;
 
         MessageTypeRegistry.register(this, classType, classId);
     }
@@ -112,6 +120,15 @@ public enum MessageType {
         return classType;
     }
 
+    /**
+     * Returns the {@link BinaryCodec} of the {@link MessageType}.
+     *
+     * @return the BinaryCodec or {@code null} if the {@link SimulatorMessage} is encoded as JSON.
+     */
+    public BinaryCodec<? extends SimulatorMessage> getBinaryCodec() {
+        return binaryCodec;
+    }
+
     /**
      * Stores and validates the registered {@link MessageType} entries.
      * <p>
@@ -16,12 +16,28 @@
 package com.hazelcast.simulator.protocol.message;
 
 import com.google.gson.Gson;
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static com.hazelcast.simulator.protocol.message.MessageType.getMessageType;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Encodes and decodes a {@link SimulatorMessage}.
+ * <p/>
+ * The encoded bytes start with a format byte; followed by the message encoded by the {@link BinaryCodec} of the
+ * {@link MessageType}, or the JSON of the message if the type has no BinaryCodec.
  */
 public final class SimulatorMessageCodec {
 
+    static final byte FORMAT_JSON = 0;
+    static final byte FORMAT_BINARY = 1;
+
     private static final Gson GSON = new Gson();
 
     private SimulatorMessageCodec() {
@@ -34,4 +50,48 @@ public final class SimulatorMessageCodec {
     public static SimulatorMessage fromJson(String json, Class<? extends SimulatorMessage> classType) {
         return GSON.fromJson(json, classType);
     }
+
+    @SuppressWarnings("unchecked")
+    public static byte[] toBytes(SimulatorMessage msg) {
+        BinaryCodec codec = getMessageType(msg).getBinaryCodec();
+        if (codec == null) {
+            byte[] json = toJson(msg).getBytes(UTF_8);
+            byte[] bytes = new byte[json.length + 1];
+            bytes[0] = FORMAT_JSON;
+            System.arraycopy(json, 0, bytes, 1, json.length);
+            return bytes;
+        }
+
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeByte(FORMAT_BINARY);
+            codec.encode(msg, out);
+            out.flush();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SimulatorMessage fromBytes(byte[] bytes, MessageType msgType) {
+        switch (bytes[0]) {
+            case FORMAT_JSON:
+                return fromJson(new String(bytes, 1, bytes.length - 1, UTF_8), msgType.getClassType());
+            case FORMAT_BINARY:
+                BinaryCodec codec = msgType.getBinaryCodec();
+                if (codec == null) {
+                    throw new IllegalArgumentException(msgType + " has no binary codec");
+                }
+
+                try {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+                    return codec.decode(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown message format " + bytes[0]);
+        }
+    }
 }
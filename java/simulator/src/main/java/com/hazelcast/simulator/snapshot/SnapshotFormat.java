@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.snapshot;
+
+/**
+ * The binary format of a snapshot file.
+ * <p>
+ * A snapshot file consists of a header followed by variable length records:
+ * <pre>
+ * header: int magic, int version, long entryCount, int fingerprintLength, byte[] fingerprint (UTF-8)
+ * record: int keyLength, byte[] key, int valueLength, byte[] value
+ * </pre>
+ * All values are big endian. The fingerprint describes the parameters the dataset was generated with; a snapshot is
+ * only restored if its fingerprint matches.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x53534E50;
+    static final int VERSION = 1;
+    static final int ENTRY_COUNT_OFFSET = Integer.BYTES + Integer.BYTES;
+    static final int FINGERPRINT_LENGTH_OFFSET = ENTRY_COUNT_OFFSET + Long.BYTES;
+    static final int FINGERPRINT_OFFSET = FINGERPRINT_LENGTH_OFFSET + Integer.BYTES;
+
+    private SnapshotFormat() {
+    }
+}
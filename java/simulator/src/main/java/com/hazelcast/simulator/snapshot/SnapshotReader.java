@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.snapshot;
+
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.ENTRY_COUNT_OFFSET;
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.FINGERPRINT_LENGTH_OFFSET;
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.FINGERPRINT_OFFSET;
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.MAGIC;
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.VERSION;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads a snapshot file; see {@link SnapshotFormat} for the format.
+ * <p>
+ * The entries are streamed from a memory mapped window that moves through the file, so the snapshot doesn't need to fit
+ * in the heap and the OS takes care of reading ahead.
+ * <pre>
+ * {@code
+ *   if (SnapshotReader.exists(file, fingerprint)) {
+ *       new SnapshotReader(file, fingerprint).forEach((key, value) -> streamer.pushEntry(readInt(key), readBytes(value)));
+ *   }
+ * }
+ * </pre>
+ */
+public final class SnapshotReader {
+
+    static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private final File file;
+    private final int windowSize;
+    private final long entryCount;
+    private final long dataOffset;
+
+    /**
+     * Consumes the entries of a snapshot.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Consumes an entry. The buffers are only valid during the call.
+         *
+         * @param key   the serialized key.
+         * @param value the serialized value.
+         */
+        void accept(ByteBuffer key, ByteBuffer value);
+    }
+
+    /**
+     * Creates a SnapshotReader.
+     *
+     * @param file        the snapshot file.
+     * @param fingerprint the expected fingerprint.
+     * @throws IllegalArgumentException if the file isn't a snapshot or its fingerprint doesn't match.
+     */
+    public SnapshotReader(File file, String fingerprint) {
+        this(file, fingerprint, DEFAULT_WINDOW_SIZE);
+    }
+
+    SnapshotReader(File file, String fingerprint, int windowSize) {
+        this.file = file;
+        this.windowSize = windowSize;
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            if (channel.size() < FINGERPRINT_OFFSET) {
+                throw new IllegalArgumentException(format("Snapshot file [%s] is too small to be a snapshot", file));
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FINGERPRINT_OFFSET);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(format("File [%s] is not a snapshot file", file));
+            }
+            int version = header.getInt(Integer.BYTES);
+            if (version != VERSION) {
+                throw new IllegalArgumentException(format("Snapshot file [%s] has version %d, but only version %d is supported",
+                        file, version, VERSION));
+            }
+
+            this.entryCount = header.getLong(ENTRY_COUNT_OFFSET);
+            int fingerprintLength = header.getInt(FINGERPRINT_LENGTH_OFFSET);
+            if (entryCount < 0 || fingerprintLength < 0 || channel.size() < FINGERPRINT_OFFSET + (long) fingerprintLength) {
+                throw new IllegalArgumentException(format("Snapshot file [%s] is corrupt", file));
+            }
+            byte[] fingerprintBytes = new byte[fingerprintLength];
+            channel.map(FileChannel.MapMode.READ_ONLY, FINGERPRINT_OFFSET, fingerprintLength).get(fingerprintBytes);
+            String actualFingerprint = new String(fingerprintBytes, UTF_8);
+            if (!actualFingerprint.equals(fingerprint)) {
+                throw new IllegalArgumentException(format("Snapshot file [%s] has fingerprint [%s], but [%s] was expected",
+                        file, actualFingerprint, fingerprint));
+            }
+            this.dataOffset = FINGERPRINT_OFFSET + (long) fingerprintLength;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks if a snapshot file with the given fingerprint exists.
+     *
+     * @param file        the snapshot file.
+     * @param fingerprint the expected fingerprint.
+     * @return {@code true} if the snapshot can be restored, {@code false} otherwise.
+     */
+    public static boolean exists(File file, String fingerprint) {
+        if (!file.isFile()) {
+            return false;
+        }
+        try {
+            new SnapshotReader(file, fingerprint);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public long size() {
+        return entryCount;
+    }
+
+    /**
+     * Streams all entries of the snapshot in the order they were written.
+     *
+     * @param consumer the consumer of the entries.
+     * @return the number of entries.
+     * @throws IllegalStateException if the snapshot is truncated.
+     */
+    public long forEach(EntryConsumer consumer) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            Window window = new Window(channel, windowSize);
+            long position = dataOffset;
+            for (long i = 0; i < entryCount; i++) {
+                int keyLength = window.slice(position, Integer.BYTES).getInt();
+                position += Integer.BYTES;
+                ByteBuffer key = window.slice(position, keyLength);
+                position += keyLength;
+
+                int valueLength = window.slice(position, Integer.BYTES).getInt();
+                position += Integer.BYTES;
+                ByteBuffer value = window.slice(position, valueLength);
+                position += valueLength;
+
+                consumer.accept(key, value);
+            }
+            return entryCount;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static int readInt(ByteBuffer buffer) {
+        return buffer.getInt(buffer.position());
+    }
+
+    public static long readLong(ByteBuffer buffer) {
+        return buffer.getLong(buffer.position());
+    }
+
+    public static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * A memory mapped part of the file that is moved forward when a slice outside of it is requested.
+     */
+    private final class Window {
+
+        private final FileChannel channel;
+        private final int size;
+        private final long fileSize;
+        private MappedByteBuffer buffer;
+        private long start;
+
+        private Window(FileChannel channel, int size) throws IOException {
+            this.channel = channel;
+            this.size = size;
+            this.fileSize = channel.size();
+        }
+
+        private ByteBuffer slice(long position, int length) throws IOException {
+            if (length < 0 || position + length > fileSize) {
+                throw new IllegalStateException(format("Snapshot file [%s] is truncated at position %d", file, position));
+            }
+            if (buffer == null || position < start || position + length > start + buffer.capacity()) {
+                // a single entry can be larger than the window
+                long mapSize = Math.min(fileSize - position, Math.max(size, length));
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+                start = position;
+            }
+            int offset = (int) (position - start);
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(offset).limit(offset + length);
+            return slice.slice();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.snapshot;
+
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.ENTRY_COUNT_OFFSET;
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.MAGIC;
+import static com.hazelcast.simulator.snapshot.SnapshotFormat.VERSION;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Writes a snapshot file; see {@link SnapshotFormat} for the format.
+ * <p>
+ * The entries are written to a temporary file which is moved to the snapshot file on {@link #close()}, so a snapshot
+ * of a prepare that failed halfway is never restored. Use {@link #abort()} to discard the snapshot.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class SnapshotWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+    private final File tmpFile;
+    private final DataOutputStream out;
+    private long entryCount;
+    private boolean closed;
+
+    /**
+     * Creates a SnapshotWriter.
+     *
+     * @param file        the snapshot file.
+     * @param fingerprint the parameters the dataset is generated with, e.g. {@code "keyDomain=1000,valueSize=100"}.
+     */
+    public SnapshotWriter(File file, String fingerprint) {
+        this.file = file;
+        this.tmpFile = new File(file.getPath() + ".tmp");
+        File parent = file.getAbsoluteFile().getParentFile();
+        try {
+            Files.createDirectories(parent.toPath());
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), BUFFER_SIZE));
+            byte[] fingerprintBytes = fingerprint.getBytes(UTF_8);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            // the entry count is updated on close
+            out.writeLong(0);
+            out.writeInt(fingerprintBytes.length);
+            out.write(fingerprintBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes an entry.
+     *
+     * @param key   the serialized key.
+     * @param value the serialized value.
+     */
+    public void write(byte[] key, byte[] value) {
+        try {
+            out.writeInt(key.length);
+            out.write(key);
+            out.writeInt(value.length);
+            out.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entryCount++;
+    }
+
+    /**
+     * Writes an entry with an int key.
+     *
+     * @param key   the key; restored with {@link SnapshotReader#readInt(java.nio.ByteBuffer)}.
+     * @param value the serialized value.
+     */
+    public void write(int key, byte[] value) {
+        try {
+            out.writeInt(Integer.BYTES);
+            out.writeInt(key);
+            out.writeInt(value.length);
+            out.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entryCount++;
+    }
+
+    /**
+     * Writes an entry with a long key.
+     *
+     * @param key   the key; restored with {@link SnapshotReader#readLong(java.nio.ByteBuffer)}.
+     * @param value the serialized value.
+     */
+    public void write(long key, byte[] value) {
+        try {
+            out.writeInt(Long.BYTES);
+            out.writeLong(key);
+            out.writeInt(value.length);
+            out.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entryCount++;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Discards the snapshot; an existing snapshot file is left untouched.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeQuietly(out);
+        if (!tmpFile.delete() && tmpFile.exists()) {
+            throw new UncheckedIOException("Failed to delete " + tmpFile);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+            try (RandomAccessFile raf = new RandomAccessFile(tmpFile, "rw")) {
+                raf.seek(ENTRY_COUNT_OFFSET);
+                raf.writeLong(entryCount);
+                raf.getFD().sync();
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
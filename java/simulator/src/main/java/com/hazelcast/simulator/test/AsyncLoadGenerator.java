@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test;
+
+import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.utils.FastRandom;
+import com.hazelcast.simulator.worker.testcontainer.OperationSelector;
+import com.hazelcast.simulator.worker.testcontainer.Probability;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * Generates load with asynchronous operations from a {@link com.hazelcast.simulator.test.annotations.Run} method or any
+ * other callback driven test, with the same latency semantics as timestep methods.
+ * <p>
+ * A single thread issues the operations and the completion callbacks record the latency, so a few threads can keep a
+ * large number of operations in flight. The number of in-flight operations is bounded by the maxInFlight; when the
+ * window is full, the issuing thread waits for an operation to complete.
+ * <p>
+ * With a rate, the n-th operation is intended to start at {@code start + n * interval}, independent of the completion
+ * of earlier operations, and the latency is measured from the intended start. So when the system can't keep up and the
+ * window fills up, the time an operation has been waiting is included in its latency; the latency doesn't suffer from
+ * coordinated omission. The delay between the intended start and the actual start is recorded in the 'queueDelay'
+ * probe. Without a rate, the operations are issued as fast as the window allows and the latency is measured from the
+ * moment the operation starts waiting for the window.
+ * <pre>
+ * {@code
+ *   @Run
+ *   public void run() throws Exception {
+ *       ThreadState state = new ThreadState();
+ *       state.seed(randomSeed, testContext, "", 0);
+ *       new AsyncLoadGenerator(testContext)
+ *               .setThreadState(state)
+ *               .setMaxInFlight(100)
+ *               .setRatePerSecond(10000)
+ *               .addOperation("get", 0.9, () -> map.getAsync(state.randomKey()))
+ *               .addOperation("put", 0.1, () -> map.putAsync(state.randomKey(), state.randomValue()))
+ *               .run();
+ *   }
+ * }
+ * </pre>
+ * The operation is selected using the random of the thread state passed to {@link #setThreadState(BaseThreadState)}, so
+ * when the thread state is seeded using {@link BaseThreadState#seed(long, TestContext, String, int)}, a run with the same
+ * {@code randomSeed} repeats the same operation sequence. Without a thread state, the selection isn't reproducible.
+ * <p>
+ * Every operation records its latency in a probe with the name of the operation. A failed operation is reported and
+ * the load continues. The load stops when the test is stopped. If the in-flight operations don't complete within the
+ * completion timeout after that, the run fails with a {@link TestException}.
+ */
+public final class AsyncLoadGenerator {
+
+    static final int DEFAULT_MAX_IN_FLIGHT = 100;
+    static final long DEFAULT_COMPLETION_TIMEOUT_MILLIS = MINUTES.toMillis(2);
+
+    private final TestContext testContext;
+    private final List<String> names = new ArrayList<>();
+    private final List<Probability> probabilities = new ArrayList<>();
+    private final List<AsyncOperation> operations = new ArrayList<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private Random random = new FastRandom();
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private double ratePerSecond;
+    private long maxOperations = Long.MAX_VALUE;
+    private long completionTimeoutMillis = DEFAULT_COMPLETION_TIMEOUT_MILLIS;
+
+    /**
+     * Starts an asynchronous operation.
+     */
+    @FunctionalInterface
+    public interface AsyncOperation {
+
+        /**
+         * Starts the operation.
+         *
+         * @return the future that completes when the operation has completed.
+         * @throws Exception if the operation can't be started.
+         */
+        CompletionStage<?> start() throws Exception;
+    }
+
+    public AsyncLoadGenerator(TestContext testContext) {
+        this.testContext = testContext;
+    }
+
+    /**
+     * Adds an operation.
+     *
+     * @param name        the name of the operation; the latency is recorded in the probe with this name.
+     * @param probability the probability the operation is selected.
+     * @param operation   the operation.
+     * @return this AsyncLoadGenerator.
+     */
+    public AsyncLoadGenerator addOperation(String name, double probability, AsyncOperation operation) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("probability of operation [" + name + "] should be between 0 and 1, but was "
+                    + probability);
+        }
+        names.add(name);
+        probabilities.add(new Probability(probability));
+        operations.add(operation);
+        return this;
+    }
+
+    /**
+     * Sets the thread state whose random selects the operations. The random is only used by the thread that calls
+     * {@link #run()}, so the thread state can also be used by the operations.
+     *
+     * @param threadState the thread state.
+     * @return this AsyncLoadGenerator.
+     */
+    public AsyncLoadGenerator setThreadState(BaseThreadState threadState) {
+        this.random = checkNotNull(threadState, "threadState can't be null").random;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of in-flight operations.
+     *
+     * @param maxInFlight the maximum number of in-flight operations.
+     * @return this AsyncLoadGenerator.
+     */
+    public AsyncLoadGenerator setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight should be at least 1, but was " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Sets the intended number of operations per second.
+     *
+     * @param ratePerSecond the rate; 0 means as fast as possible.
+     * @return this AsyncLoadGenerator.
+     */
+    public AsyncLoadGenerator setRatePerSecond(double ratePerSecond) {
+        if (ratePerSecond < 0) {
+            throw new IllegalArgumentException("ratePerSecond can't be negative, but was " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of operations; the load stops when it is reached or when the test is stopped.
+     *
+     * @param maxOperations the maximum number of operations.
+     * @return this AsyncLoadGenerator.
+     */
+    public AsyncLoadGenerator setMaxOperations(long maxOperations) {
+        if (maxOperations < 0) {
+            throw new IllegalArgumentException("maxOperations can't be negative, but was " + maxOperations);
+        }
+        this.maxOperations = maxOperations;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time to wait for the in-flight operations to complete once the load has stopped.
+     *
+     * @param completionTimeoutMillis the timeout in milliseconds.
+     * @return this AsyncLoadGenerator.
+     */
+    public AsyncLoadGenerator setCompletionTimeoutMillis(long completionTimeoutMillis) {
+        if (completionTimeoutMillis < 0) {
+            throw new IllegalArgumentException("completionTimeoutMillis can't be negative, but was " + completionTimeoutMillis);
+        }
+        this.completionTimeoutMillis = completionTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Generates the load until the test is stopped, and waits for the in-flight operations to complete.
+     *
+     * @return the number of completed operations, including the failed ones.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws TestException        if the in-flight operations didn't complete within the completion timeout.
+     */
+    public long run() throws InterruptedException {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("No operations have been added");
+        }
+
+        int operationCount = operations.size();
+        OperationSelector selector = operationCount == 1 ? null : Probability.loadOperationSelector(probabilities);
+        LatencyProbe[] probes = new LatencyProbe[operationCount];
+        for (int i = 0; i < operationCount; i++) {
+            probes[i] = testContext.getLatencyProbe(names.get(i));
+        }
+        LatencyProbe queueDelayProbe = ratePerSecond == 0 ? null : testContext.getLatencyProbe("queueDelay", false);
+        long intervalNanos = ratePerSecond == 0 ? 0 : Math.max(1, Math.round(SECONDS.toNanos(1) / ratePerSecond));
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long startNanos = nanoTime();
+        for (long n = 0; n < maxOperations && !testContext.isStopped(); n++) {
+            long intendedStartNanos;
+            if (intervalNanos == 0) {
+                intendedStartNanos = nanoTime();
+            } else {
+                intendedStartNanos = startNanos + n * intervalNanos;
+                long now;
+                while ((now = nanoTime()) < intendedStartNanos) {
+                    parkNanos(intendedStartNanos - now);
+                }
+            }
+
+            inFlight.acquire();
+            if (queueDelayProbe != null) {
+                queueDelayProbe.recordValue(nanoTime() - intendedStartNanos);
+            }
+
+            int operationIndex = selector == null ? 0 : selector.select(random.nextLong());
+            LatencyProbe probe = probes[operationIndex];
+            CompletionStage<?> future;
+            try {
+                future = operations.get(operationIndex).start();
+            } catch (Exception e) {
+                inFlight.release();
+                onFailure(e);
+                completed.incrementAndGet();
+                continue;
+            }
+            future.whenComplete((o, throwable) -> {
+                try {
+                    probe.recordValue(nanoTime() - intendedStartNanos);
+                    if (throwable != null) {
+                        onFailure(throwable);
+                    }
+                    completed.incrementAndGet();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, completionTimeoutMillis, MILLISECONDS)) {
+            throw new TestException("Timeout: %d operations didn't complete within %d ms",
+                    maxInFlight - inFlight.availablePermits(), completionTimeoutMillis);
+        }
+        inFlight.release(maxInFlight);
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of failed operations.
+     *
+     * @return the number of failed operations.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void onFailure(Throwable throwable) {
+        failed.incrementAndGet();
+        ExceptionReporter.report(testContext.getTestId(), throwable);
+    }
+}
@@ -15,9 +15,17 @@
  */
 package com.hazelcast.simulator.test;
 
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
+import com.hazelcast.simulator.test.distribution.UniformKeyDistribution;
+import com.hazelcast.simulator.utils.FastRandom;
+
 import java.io.Serializable;
 import java.util.Random;
 
+import static com.hazelcast.simulator.utils.FastRandom.mix;
+import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
+
 /**
  * Implementations of this class should be public. This is required for the
  * generated TimeStepLoop class to work.
@@ -25,12 +33,70 @@ import java.util.Random;
  * This class is called BaseThreadState instead of ThreadState, since in most
  * cases a test needs to subclass BaseThreadState. In this case the prettier and
  * shorter name ThreadState can be used.
+ * <p>
+ * By default the random generator is a {@link FastRandom}, which isn't thread-safe; a thread state is only used by a
+ * single timestep-thread. A different generator can be plugged in using the {@link #BaseThreadState(Random)} constructor.
+ * When the test is configured with a {@code randomSeed}, the generator of every thread state is seeded deterministically
+ * based on the seed, the test id, the worker, the execution group and the index of the timestep-thread.
+ * <p>
+ * The {@link #randomKey(long)} methods select keys using the {@link KeyDistribution} that is configured with the
+ * {@code keyDistribution} test property; by default the keys are selected uniformly.
  */
 @SuppressWarnings("unused")
 public class BaseThreadState implements Serializable {
 
     @SuppressWarnings("checkstyle:visibilitymodifier")
-    public final Random random = new Random();
+    public final Random random;
+
+    private KeyDistribution keyDistribution = new UniformKeyDistribution();
+
+    public BaseThreadState() {
+        this(new FastRandom());
+    }
+
+    /**
+     * Creates a BaseThreadState with the given random generator.
+     *
+     * @param random the random generator to use.
+     */
+    protected BaseThreadState(Random random) {
+        this.random = checkNotNull(random, "random can't be null");
+    }
+
+    /**
+     * Seeds the random generator, so that a run with the same randomSeed produces the same random sequences.
+     * <p>
+     * The seed is mixed with the test id, the worker, the execution group and the index of the thread, so every thread of
+     * every worker gets a different seed; else they would all generate the same keys. The timestep-threads are seeded
+     * this way when the {@code randomSeed} test property is set; a test that creates its own thread states, e.g. from a
+     * {@link com.hazelcast.simulator.test.annotations.Run} method, can call this method to get the same behavior.
+     *
+     * @param randomSeed     the configured seed.
+     * @param testContext    the TestContext of the test.
+     * @param executionGroup the execution group of the thread; {@code ""} for the default execution group.
+     * @param threadIndex    the index of the thread within the execution group.
+     */
+    public void seed(long randomSeed, TestContext testContext, String executionGroup, int threadIndex) {
+        random.setSeed(threadSeed(randomSeed, testContext, executionGroup, threadIndex));
+    }
+
+    /**
+     * Derives the seed of a single thread from the configured seed, as done by
+     * {@link #seed(long, TestContext, String, int)}.
+     *
+     * @param randomSeed     the configured seed.
+     * @param testContext    the TestContext of the test.
+     * @param executionGroup the execution group of the thread; {@code ""} for the default execution group.
+     * @param threadIndex    the index of the thread within the execution group.
+     * @return the seed of the thread.
+     */
+    public static long threadSeed(long randomSeed, TestContext testContext, String executionGroup, int threadIndex) {
+        SimulatorAddress workerAddress = testContext.getWorkerAddress();
+        long seed = mix(randomSeed + testContext.getTestId().hashCode());
+        seed = mix(seed + (workerAddress == null ? 0 : workerAddress.toString().hashCode()));
+        seed = mix(seed + executionGroup.hashCode());
+        return mix(seed + threadIndex);
+    }
 
     /**
      * @return random generated double
@@ -56,8 +122,7 @@ public class BaseThreadState implements Serializable {
             throw new IllegalArgumentException("bound must be positive");
         }
 
-        // rounding will always be down towards 0. So the result will be exclusive the bound.
-        return (long) (random.nextDouble() * bound);
+        return random.nextLong(bound);
     }
 
     /**
@@ -82,4 +147,56 @@ public class BaseThreadState implements Serializable {
     public boolean randomBoolean() {
         return random.nextBoolean();
     }
+
+    /**
+     * Sets the {@link KeyDistribution} used by the {@link #randomKey(long)} methods.
+     *
+     * @param keyDistribution the KeyDistribution.
+     */
+    public void setKeyDistribution(KeyDistribution keyDistribution) {
+        this.keyDistribution = checkNotNull(keyDistribution, "keyDistribution can't be null");
+    }
+
+    /**
+     * Returns a key based on the configured {@link KeyDistribution}.
+     *
+     * @param keyDomain the number of keys (exclusive upper bound). Must be positive.
+     * @return the key between 0 (inclusive) and keyDomain (exclusive).
+     * @throws IllegalArgumentException if keyDomain smaller or equal than 0.
+     */
+    public long randomKey(long keyDomain) {
+        return keyDistribution.nextKey(random, keyDomain);
+    }
+
+    /**
+     * Returns a key based on the configured {@link KeyDistribution}.
+     *
+     * @param keyCount the number of keys (exclusive upper bound). Must be positive.
+     * @return the key between 0 (inclusive) and keyCount (exclusive).
+     * @throws IllegalArgumentException if keyCount smaller or equal than 0.
+     */
+    public int randomKey(int keyCount) {
+        return (int) keyDistribution.nextKey(random, keyCount);
+    }
+
+    /**
+     * Fills the byte array with random bytes.
+     *
+     * @param bytes the byte array to fill.
+     */
+    public void randomBytes(byte[] bytes) {
+        FastRandom.fill(random, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Fills a range of the byte array with random bytes.
+     *
+     * @param bytes  the byte array to fill.
+     * @param offset the offset of the first byte to fill.
+     * @param length the number of bytes to fill.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     */
+    public void randomBytes(byte[] bytes, int offset, int length) {
+        FastRandom.fill(random, bytes, offset, length);
+    }
 }
@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.test;
 
 import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 
 /**
  * The TestContext is they way for a test to get access to test related
@@ -68,6 +69,15 @@ public interface TestContext {
      */
     String getPublicIpAddress();
 
+    /**
+     * Returns the address of the worker running the test.
+     *
+     * @return the address of the worker or {@code null} if unknown.
+     */
+    default SimulatorAddress getWorkerAddress() {
+        return null;
+    }
+
     /**
      * Checks if the run phase or warmup phase has stopped. In most cases this
      * method doesn't need to be called since the
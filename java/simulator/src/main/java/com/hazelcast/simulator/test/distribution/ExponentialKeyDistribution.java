@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * The probability of a key decreases exponentially, so the lowest keys are the most popular.
+ * <p>
+ * The distribution is configured with a percentile and a fraction: the given percentile of the operations accesses the given
+ * fraction of the lowest keys. E.g. with a percentile of 95 and a fraction of 0.1, 95% of the operations access the lowest 10%
+ * of the keys. Samples outside of the key domain are rejected; so a low percentile combined with a high fraction is
+ * expensive.
+ */
+public final class ExponentialKeyDistribution extends KeyDistribution {
+
+    static final double DEFAULT_PERCENTILE = 95;
+    static final double DEFAULT_FRACTION = 0.1;
+
+    private static final long serialVersionUID = 1L;
+
+    private static final double HUNDRED = 100;
+
+    private final double percentile;
+    private final double fraction;
+    private long keyDomain;
+    private double gamma;
+
+    public ExponentialKeyDistribution(double percentile, double fraction) {
+        if (!(percentile > 0 && percentile < HUNDRED)) {
+            throw new IllegalArgumentException("percentile should be larger than 0 and smaller than 100, but was " + percentile);
+        }
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("fraction should be larger than 0 and not larger than 1, but was " + fraction);
+        }
+        this.percentile = percentile;
+        this.fraction = fraction;
+    }
+
+    @Override
+    public long nextKey(Random random, long keyDomain) {
+        checkKeyDomain(keyDomain);
+        if (keyDomain != this.keyDomain) {
+            this.keyDomain = keyDomain;
+            this.gamma = -Math.log(1 - percentile / HUNDRED) / (fraction * keyDomain);
+        }
+
+        for (; ; ) {
+            long key = (long) (-Math.log(1 - random.nextDouble()) / gamma);
+            if (key < keyDomain) {
+                return key;
+            }
+        }
+    }
+}
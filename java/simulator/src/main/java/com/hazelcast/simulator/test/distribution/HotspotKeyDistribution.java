@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * A fraction of the operations accesses the hot set, which consists of the lowest keys; the remaining operations access the
+ * other keys. Within the hot and the cold set the keys are accessed uniformly.
+ * <p>
+ * E.g. with a hotSetFraction of 0.2 and a hotOpnFraction of 0.8, 80% of the operations access 20% of the keys.
+ */
+public final class HotspotKeyDistribution extends KeyDistribution {
+
+    static final double DEFAULT_HOT_SET_FRACTION = 0.2;
+    static final double DEFAULT_HOT_OPN_FRACTION = 0.8;
+
+    private static final long serialVersionUID = 1L;
+
+    private final double hotSetFraction;
+    private final double hotOpnFraction;
+
+    public HotspotKeyDistribution(double hotSetFraction, double hotOpnFraction) {
+        if (hotSetFraction < 0 || hotSetFraction > 1) {
+            throw new IllegalArgumentException("hotSetFraction should be between 0 and 1, but was " + hotSetFraction);
+        }
+        if (hotOpnFraction < 0 || hotOpnFraction > 1) {
+            throw new IllegalArgumentException("hotOpnFraction should be between 0 and 1, but was " + hotOpnFraction);
+        }
+        this.hotSetFraction = hotSetFraction;
+        this.hotOpnFraction = hotOpnFraction;
+    }
+
+    @Override
+    public long nextKey(Random random, long keyDomain) {
+        checkKeyDomain(keyDomain);
+        long hotSetSize = (long) (keyDomain * hotSetFraction);
+        if (hotSetSize == 0 || hotSetSize == keyDomain) {
+            return random.nextLong(keyDomain);
+        }
+
+        if (random.nextDouble() < hotOpnFraction) {
+            return random.nextLong(hotSetSize);
+        }
+        return hotSetSize + random.nextLong(keyDomain - hotSetSize);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.lang.String.format;
+
+/**
+ * Determines which keys of a key domain are accessed by a test; e.g. uniformly or skewed towards a set of hot keys.
+ * <p>
+ * A KeyDistribution is created from a specification like {@code zipfian(theta=0.99)}: the name of the distribution with
+ * optional parameters between parentheses. The supported distributions are:
+ * <ol>
+ * <li>{@code uniform}: every key has the same probability.</li>
+ * <li>{@code zipfian(theta=0.99, scrambled=false)}: the probability of a key is proportional to 1/rank^theta, where
+ * 0 &lt; theta &lt; 1. The lowest keys are the hottest, unless scrambled; then the hot keys are spread over the key domain
+ * (and so over the partitions).</li>
+ * <li>{@code latest(theta=0.99)}: zipfian where the highest keys, so the most recently inserted, are the hottest.</li>
+ * <li>{@code hotspot(hotSetFraction=0.2, hotOpnFraction=0.8)}: a fraction of the operations uniformly accesses the hot set;
+ * the remaining operations uniformly access the other keys.</li>
+ * <li>{@code exponential(percentile=95, fraction=0.1)}: the given percentile of the operations accesses the given fraction
+ * of the lowest keys; the probability of a key decreases exponentially.</li>
+ * <li>{@code sequential}: the keys are accessed one after another, starting at a random key.</li>
+ * </ol>
+ * The expensive parts (like the zeta constant of the zipfian distribution) are computed once per key domain, so taking a
+ * sample is O(1) and doesn't allocate.
+ * <p>
+ * A KeyDistribution can have state, so it isn't thread-safe; every thread needs its own instance. It is serializable,
+ * so it can be part of a serializable thread state.
+ */
+public abstract class KeyDistribution implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Returns the next key.
+     *
+     * @param random    the random to use.
+     * @param keyDomain the number of keys; the returned key is between 0 (inclusive) and keyDomain (exclusive).
+     * @return the next key.
+     * @throws IllegalArgumentException if keyDomain smaller or equal than 0.
+     */
+    public abstract long nextKey(Random random, long keyDomain);
+
+    /**
+     * Creates a KeyDistribution from a specification.
+     *
+     * @param spec the specification, e.g. {@code hotspot(hotSetFraction=0.1,hotOpnFraction=0.9)}.
+     * @return the created KeyDistribution.
+     * @throws IllegalArgumentException if the specification is invalid.
+     */
+    public static KeyDistribution create(String spec) {
+        String trimmed = spec.trim();
+        String name = trimmed;
+        Map<String, String> parameters = new HashMap<>();
+
+        int open = trimmed.indexOf('(');
+        if (open >= 0) {
+            if (!trimmed.endsWith(")")) {
+                throw new IllegalArgumentException(format("Key distribution [%s] is missing a closing parenthesis", spec));
+            }
+            name = trimmed.substring(0, open).trim();
+            for (String parameter : trimmed.substring(open + 1, trimmed.length() - 1).split(",")) {
+                if (parameter.trim().isEmpty()) {
+                    continue;
+                }
+                String[] keyValue = parameter.split("=");
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException(
+                            format("Key distribution [%s] has an invalid parameter [%s]; expected key=value", spec, parameter));
+                }
+                parameters.put(keyValue[0].trim(), keyValue[1].trim());
+            }
+        }
+
+        Parameters params = new Parameters(spec, parameters);
+        KeyDistribution distribution;
+        switch (name) {
+            case "uniform":
+                distribution = new UniformKeyDistribution();
+                break;
+            case "zipfian":
+                distribution = new ZipfianKeyDistribution(
+                        params.getDouble("theta", ZipfianKeyDistribution.DEFAULT_THETA), params.getBoolean("scrambled"));
+                break;
+            case "latest":
+                distribution = new LatestKeyDistribution(params.getDouble("theta", ZipfianKeyDistribution.DEFAULT_THETA));
+                break;
+            case "hotspot":
+                distribution = new HotspotKeyDistribution(
+                        params.getDouble("hotSetFraction", HotspotKeyDistribution.DEFAULT_HOT_SET_FRACTION),
+                        params.getDouble("hotOpnFraction", HotspotKeyDistribution.DEFAULT_HOT_OPN_FRACTION));
+                break;
+            case "exponential":
+                distribution = new ExponentialKeyDistribution(
+                        params.getDouble("percentile", ExponentialKeyDistribution.DEFAULT_PERCENTILE),
+                        params.getDouble("fraction", ExponentialKeyDistribution.DEFAULT_FRACTION));
+                break;
+            case "sequential":
+                distribution = new SequentialKeyDistribution();
+                break;
+            default:
+                throw new IllegalArgumentException(format("Unknown key distribution [%s], valid values are "
+                        + "[uniform, zipfian, latest, hotspot, exponential, sequential]", name));
+        }
+        params.ensureAllUsed();
+        return distribution;
+    }
+
+    static void checkKeyDomain(long keyDomain) {
+        if (keyDomain <= 0) {
+            throw new IllegalArgumentException("keyDomain must be positive, but was " + keyDomain);
+        }
+    }
+
+    private static final class Parameters {
+        private final String spec;
+        private final Map<String, String> parameters;
+
+        private Parameters(String spec, Map<String, String> parameters) {
+            this.spec = spec;
+            this.parameters = parameters;
+        }
+
+        private double getDouble(String name, double defaultValue) {
+            String value = parameters.remove(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        format("Key distribution [%s] parameter [%s] with value [%s] is not a double", spec, name, value));
+            }
+        }
+
+        private boolean getBoolean(String name) {
+            String value = parameters.remove(name);
+            if (value == null) {
+                return false;
+            }
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException(
+                        format("Key distribution [%s] parameter [%s] with value [%s] is not a boolean", spec, name, value));
+            }
+            return Boolean.parseBoolean(value);
+        }
+
+        private void ensureAllUsed() {
+            if (!parameters.isEmpty()) {
+                throw new IllegalArgumentException(
+                        format("Key distribution [%s] has unknown parameters %s", spec, parameters.keySet()));
+            }
+        }
+    }
+}
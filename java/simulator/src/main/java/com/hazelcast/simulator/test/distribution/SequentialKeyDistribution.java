@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+
+/**
+ * The keys are accessed one after another, wrapping around at the end of the key domain.
+ * <p>
+ * Every instance starts at a random key, so threads don't access the same keys in lockstep.
+ */
+public final class SequentialKeyDistribution extends KeyDistribution {
+
+    private static final long serialVersionUID = 1L;
+
+    private long next = -1;
+
+    @Override
+    public long nextKey(Random random, long keyDomain) {
+        checkKeyDomain(keyDomain);
+        if (next < 0 || next >= keyDomain) {
+            next = random.nextLong(keyDomain);
+        }
+
+        long key = next;
+        next = key + 1 == keyDomain ? 0 : key + 1;
+        return key;
+    }
+}
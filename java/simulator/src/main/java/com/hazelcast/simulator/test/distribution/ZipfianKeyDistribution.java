@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.distribution;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.simulator.utils.FastRandom.mix;
+
+/**
+ * The probability of a key is proportional to 1/rank^theta; so the key with rank 0 is the most popular.
+ * <p>
+ * Uses the algorithm from "Quickly Generating Billion-Record Synthetic Databases" by Gray et al, which is also used by YCSB.
+ * The zeta constant is computed once per key domain and theta, after that taking a sample costs a single
+ * {@link Math#pow(double, double)}.
+ * <p>
+ * Without scrambling, the lowest keys are the hottest, so the hot keys are clustered. With scrambling, the rank is hashed
+ * to a key, so the hot keys are spread over the key domain. The hashing causes some collisions, so the distribution isn't
+ * exactly zipfian anymore.
+ */
+public final class ZipfianKeyDistribution extends KeyDistribution {
+
+    static final double DEFAULT_THETA = 0.99;
+
+    private static final long serialVersionUID = 1L;
+
+    // the zeta of larger key domains is approximated to prevent an expensive computation
+    private static final long EXACT_ZETA_TERMS = 1_000_000;
+    private static final double ONE_HALF = 0.5;
+    private static final double ONE_TWELFTH = 1d / 12;
+    private static final ConcurrentMap<String, Double> ZETA_CACHE = new ConcurrentHashMap<>();
+
+    private final double theta;
+    private final boolean scrambled;
+    private final double alpha;
+    private final double halfPowTheta;
+    private long keyDomain;
+    private double zetaN;
+    private double eta;
+
+    public ZipfianKeyDistribution(double theta, boolean scrambled) {
+        if (!(theta > 0 && theta < 1)) {
+            throw new IllegalArgumentException("theta should be larger than 0 and smaller than 1, but was " + theta);
+        }
+        this.theta = theta;
+        this.scrambled = scrambled;
+        this.alpha = 1 / (1 - theta);
+        this.halfPowTheta = Math.pow(ONE_HALF, theta);
+    }
+
+    @Override
+    public long nextKey(Random random, long keyDomain) {
+        checkKeyDomain(keyDomain);
+        if (keyDomain != this.keyDomain) {
+            init(keyDomain);
+        }
+
+        long rank = nextRank(random);
+        return scrambled ? Long.remainderUnsigned(mix(rank), keyDomain) : rank;
+    }
+
+    private void init(long keyDomain) {
+        this.keyDomain = keyDomain;
+        this.zetaN = zeta(keyDomain, theta);
+        double zeta2 = zeta(2, theta);
+        this.eta = (1 - Math.pow(2d / keyDomain, 1 - theta)) / (1 - zeta2 / zetaN);
+    }
+
+    private long nextRank(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1) {
+            return 0;
+        }
+        if (uz < 1 + halfPowTheta) {
+            return 1;
+        }
+        long rank = (long) (keyDomain * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, keyDomain - 1);
+    }
+
+    /**
+     * Returns the sum of 1/i^theta for i from 1 to n.
+     * <p>
+     * The first {@link #EXACT_ZETA_TERMS} terms are summed; the remainder is approximated using the Euler-Maclaurin formula.
+     */
+    static double zeta(long n, double theta) {
+        return ZETA_CACHE.computeIfAbsent(n + "/" + theta, key -> {
+            long exactTerms = Math.min(n, EXACT_ZETA_TERMS);
+            double sum = 0;
+            for (long i = 1; i <= exactTerms; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            if (n > exactTerms) {
+                double m = exactTerms;
+                double integral = (Math.pow(n, 1 - theta) - Math.pow(m, 1 - theta)) / (1 - theta);
+                double endCorrection = (Math.pow(n, -theta) - Math.pow(m, -theta)) * ONE_HALF;
+                double derivativeCorrection = -theta * (Math.pow(n, -theta - 1) - Math.pow(m, -theta - 1)) * ONE_TWELFTH;
+                sum += integral + endCorrection + derivativeCorrection;
+            }
+            return sum;
+        });
+    }
+}
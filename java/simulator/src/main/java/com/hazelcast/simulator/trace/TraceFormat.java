@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.trace;
+
+/**
+ * The binary format of a trace file.
+ * <p>
+ * A trace file consists of a header followed by fixed length records, so a record can be found based on its index:
+ * <pre>
+ * header: int magic, int version, long recordCount
+ * record: long timestampNanos, long key, int valueSize, byte operation
+ * </pre>
+ * All values are big endian. The timestamps are relative to an arbitrary origin and are non-decreasing.
+ */
+final class TraceFormat {
+
+    static final int MAGIC = 0x53545243;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    static final int RECORD_COUNT_OFFSET = Integer.BYTES + Integer.BYTES;
+
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int KEY_OFFSET = TIMESTAMP_OFFSET + Long.BYTES;
+    static final int VALUE_SIZE_OFFSET = KEY_OFFSET + Long.BYTES;
+    static final int OPERATION_OFFSET = VALUE_SIZE_OFFSET + Integer.BYTES;
+    static final int RECORD_LENGTH = OPERATION_OFFSET + Byte.BYTES;
+
+    private TraceFormat() {
+    }
+}
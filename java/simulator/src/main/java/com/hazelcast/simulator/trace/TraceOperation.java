@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.trace;
+
+/**
+ * The type of operation of a record in a trace.
+ * <p>
+ * The code of an operation is stored in the trace file, so the codes of existing operations should never change.
+ */
+public enum TraceOperation {
+
+    GET(0),
+    PUT(1),
+    SET(2),
+    REMOVE(3),
+    DELETE(4);
+
+    private static final TraceOperation[] BY_CODE;
+
+    static {
+        TraceOperation[] operations = values();
+        BY_CODE = new TraceOperation[operations.length];
+        for (TraceOperation operation : operations) {
+            BY_CODE[operation.code] = operation;
+        }
+    }
+
+    private final byte code;
+
+    TraceOperation(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static TraceOperation fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown trace operation code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.trace;
+
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.hazelcast.simulator.trace.TraceFormat.HEADER_LENGTH;
+import static com.hazelcast.simulator.trace.TraceFormat.KEY_OFFSET;
+import static com.hazelcast.simulator.trace.TraceFormat.MAGIC;
+import static com.hazelcast.simulator.trace.TraceFormat.OPERATION_OFFSET;
+import static com.hazelcast.simulator.trace.TraceFormat.RECORD_COUNT_OFFSET;
+import static com.hazelcast.simulator.trace.TraceFormat.RECORD_LENGTH;
+import static com.hazelcast.simulator.trace.TraceFormat.TIMESTAMP_OFFSET;
+import static com.hazelcast.simulator.trace.TraceFormat.VALUE_SIZE_OFFSET;
+import static com.hazelcast.simulator.trace.TraceFormat.VERSION;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads a trace file; see {@link TraceFormat} for the format.
+ * <p>
+ * The file is memory mapped, so the trace doesn't need to fit in the heap and the OS takes care of reading ahead. The
+ * records are accessed by index without creating objects, so the reader can be used by many threads concurrently.
+ * <p>
+ * A {@link MappedByteBuffer} can't be larger than 2 GB, so a large trace is mapped in multiple segments.
+ */
+public final class TraceReader {
+
+    // the number of records per segment; a record never spans 2 segments.
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_LENGTH;
+
+    private final MappedByteBuffer[] segments;
+    private final long recordCount;
+
+    public TraceReader(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            if (channel.size() < HEADER_LENGTH) {
+                throw new IllegalArgumentException(format("Trace file [%s] is too small to be a trace", file));
+            }
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_LENGTH);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(format("File [%s] is not a trace file", file));
+            }
+            int version = header.getInt(Integer.BYTES);
+            if (version != VERSION) {
+                throw new IllegalArgumentException(
+                        format("Trace file [%s] has version %d, but only version %d is supported", file, version, VERSION));
+            }
+
+            this.recordCount = header.getLong(RECORD_COUNT_OFFSET);
+            long expectedSize = HEADER_LENGTH + recordCount * RECORD_LENGTH;
+            if (recordCount < 0 || channel.size() < expectedSize) {
+                throw new IllegalArgumentException(format("Trace file [%s] is truncated; expected %d bytes but found %d",
+                        file, expectedSize, channel.size()));
+            }
+
+            int segmentCount = (int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long firstRecord = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, recordCount - firstRecord);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_LENGTH + firstRecord * RECORD_LENGTH, records * RECORD_LENGTH);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the number of records.
+     */
+    public long size() {
+        return recordCount;
+    }
+
+    public long timestampNanos(long index) {
+        return segment(index).getLong(offset(index) + TIMESTAMP_OFFSET);
+    }
+
+    public long key(long index) {
+        return segment(index).getLong(offset(index) + KEY_OFFSET);
+    }
+
+    public int valueSize(long index) {
+        return segment(index).getInt(offset(index) + VALUE_SIZE_OFFSET);
+    }
+
+    public TraceOperation operation(long index) {
+        return TraceOperation.fromCode(segment(index).get(offset(index) + OPERATION_OFFSET));
+    }
+
+    private MappedByteBuffer segment(long index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of bounds for " + recordCount + " records");
+        }
+        return segments[(int) (index / RECORDS_PER_SEGMENT)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index % RECORDS_PER_SEGMENT) * RECORD_LENGTH;
+    }
+}
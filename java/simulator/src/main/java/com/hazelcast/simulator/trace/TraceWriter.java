@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.trace;
+
+import com.hazelcast.simulator.utils.UncheckedIOException;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static com.hazelcast.simulator.trace.TraceFormat.MAGIC;
+import static com.hazelcast.simulator.trace.TraceFormat.RECORD_COUNT_OFFSET;
+import static com.hazelcast.simulator.trace.TraceFormat.VERSION;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.String.format;
+
+/**
+ * Writes a trace file; see {@link TraceFormat} for the format.
+ * <p>
+ * The records need to be written in order of their timestamps.
+ * <p>
+ * A recorded access log can be converted to a trace file using:
+ * <pre>
+ * java -cp simulator.jar com.hazelcast.simulator.trace.TraceWriter &lt;csvFile&gt; &lt;traceFile&gt;
+ * </pre>
+ * Every line of the CSV file contains {@code <timestampNanos>,<operation>,<key>,<valueSize>}, e.g.
+ * {@code 1000,PUT,42,100}. Empty lines and lines starting with '#' are ignored.
+ */
+public final class TraceWriter implements Closeable {
+
+    private static final int CSV_COLUMNS = 4;
+    private static final int CSV_OPERATION_COLUMN = 1;
+    private static final int CSV_KEY_COLUMN = 2;
+    private static final int CSV_VALUE_SIZE_COLUMN = 3;
+
+    private final File file;
+    private final DataOutputStream out;
+    private long recordCount;
+    private long lastTimestampNanos = Long.MIN_VALUE;
+
+    public TraceWriter(File file) {
+        this.file = file;
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            // the record count is updated on close
+            out.writeLong(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param timestampNanos the timestamp of the operation in nanoseconds.
+     * @param operation      the operation.
+     * @param key            the key.
+     * @param valueSize      the size of the value in bytes; only relevant for operations writing a value.
+     * @throws IllegalArgumentException if the timestamp is smaller than the timestamp of the previous record, or the
+     *                                  valueSize is negative.
+     */
+    public void write(long timestampNanos, TraceOperation operation, long key, int valueSize) {
+        if (timestampNanos < lastTimestampNanos) {
+            throw new IllegalArgumentException(format("The timestamp of record %d [%d] is smaller than the timestamp of the "
+                    + "previous record [%d]; the records need to be sorted by timestamp", recordCount, timestampNanos,
+                    lastTimestampNanos));
+        }
+        if (valueSize < 0) {
+            throw new IllegalArgumentException("valueSize can't be negative, but was " + valueSize);
+        }
+
+        try {
+            out.writeLong(timestampNanos);
+            out.writeLong(key);
+            out.writeInt(valueSize);
+            out.writeByte(operation.getCode());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastTimestampNanos = timestampNanos;
+        recordCount++;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.seek(RECORD_COUNT_OFFSET);
+                raf.writeLong(recordCount);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts a CSV file to a trace file.
+     *
+     * @param csvFile   the CSV file to convert.
+     * @param traceFile the trace file to write.
+     * @return the number of written records.
+     */
+    public static long convertCsv(File csvFile, File traceFile) {
+        TraceWriter writer = new TraceWriter(traceFile);
+        try (BufferedReader reader = Files.newBufferedReader(csvFile.toPath())) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] columns = line.split(",");
+                if (columns.length != CSV_COLUMNS) {
+                    throw new IllegalArgumentException(format("Line %d of %s [%s] doesn't have %d columns",
+                            lineNumber, csvFile, line, CSV_COLUMNS));
+                }
+                try {
+                    writer.write(Long.parseLong(columns[0].trim()),
+                            TraceOperation.valueOf(columns[CSV_OPERATION_COLUMN].trim().toUpperCase()),
+                            Long.parseLong(columns[CSV_KEY_COLUMN].trim()),
+                            Integer.parseInt(columns[CSV_VALUE_SIZE_COLUMN].trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(format("Line %d of %s [%s] is invalid: %s",
+                            lineNumber, csvFile, line, e.getMessage()), e);
+                }
+            }
+        } catch (IOException e) {
+            closeQuietly(writer);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(writer);
+            throw e;
+        }
+        writer.close();
+        return writer.getRecordCount();
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: TraceWriter <csvFile> <traceFile>");
+        }
+
+        long recordCount = convertCsv(new File(args[0]), new File(args[1]));
+        System.out.println("Written " + recordCount + " records to " + args[1]);
+    }
+}
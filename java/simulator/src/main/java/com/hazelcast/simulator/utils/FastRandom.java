@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import java.util.Random;
+
+/**
+ * A fast pseudo random generator based on xoshiro256** that is seeded using SplitMix64.
+ * <p>
+ * In contrast to {@link Random}, this generator doesn't update an atomic seed, so it isn't thread-safe; it should be
+ * used by a single thread, e.g. as part of a thread state. The bounded methods are unbiased.
+ * <p>
+ * This class extends {@link Random} so that it can be used as a drop-in replacement.
+ */
+public final class FastRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final long MIX_MULTIPLIER_1 = 0xbf58476d1ce4e5b9L;
+    private static final long MIX_MULTIPLIER_2 = 0x94d049bb133111ebL;
+    private static final int MIX_SHIFT_1 = 30;
+    private static final int MIX_SHIFT_2 = 27;
+    private static final int MIX_SHIFT_3 = 31;
+
+    private static final int STATE_SHIFT = 17;
+    private static final int STATE_ROTATION = 45;
+    private static final int RESULT_MULTIPLIER_1 = 5;
+    private static final int RESULT_ROTATION = 7;
+    private static final int RESULT_MULTIPLIER_2 = 9;
+
+    private static final long LOWER_32_BITS_MASK = 0xFFFFFFFFL;
+    private static final long TWO_POW_32 = 1L << 32;
+    private static final int DOUBLE_SHIFT = 11;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final int FLOAT_SHIFT = 40;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    // the fields have no initializers since they are set by the setSeed call from the Random constructor.
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * Creates a FastRandom with a seed that is very likely to be different from any other FastRandom.
+     */
+    public FastRandom() {
+        super();
+    }
+
+    /**
+     * Creates a FastRandom with the given seed; FastRandoms with the same seed produce the same sequence.
+     *
+     * @param seed the seed.
+     */
+    public FastRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Mixes the bits of a value using the SplitMix64 finalizer. Can be used to derive independent seeds.
+     *
+     * @param value the value to mix.
+     * @return the mixed value.
+     */
+    public static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> MIX_SHIFT_1)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> MIX_SHIFT_2)) * MIX_MULTIPLIER_2;
+        return z ^ (z >>> MIX_SHIFT_3);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // SplitMix64 never produces 4 zeros in a row, so the state is always valid.
+        long x = seed;
+        s0 = mix(x += GOLDEN_GAMMA);
+        s1 = mix(x += GOLDEN_GAMMA);
+        s2 = mix(x += GOLDEN_GAMMA);
+        s3 = mix(x + GOLDEN_GAMMA);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * RESULT_MULTIPLIER_1, RESULT_ROTATION) * RESULT_MULTIPLIER_2;
+        long t = s1 << STATE_SHIFT;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, STATE_ROTATION);
+        return result;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (Long.SIZE - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> Integer.SIZE);
+    }
+
+    /**
+     * Returns an unbiased random int between 0 (inclusive) and the bound (exclusive).
+     * <p>
+     * Uses Lemire's multiply-shift method, which only needs a division in the rare case of a rejection.
+     *
+     * @param bound the upper bound (exclusive). Must be positive.
+     * @return the random int.
+     * @throws IllegalArgumentException if bound smaller or equal than 0.
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        long m = (nextLong() >>> Integer.SIZE) * bound;
+        long low = m & LOWER_32_BITS_MASK;
+        if (low < bound) {
+            long threshold = (TWO_POW_32 - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> Integer.SIZE) * bound;
+                low = m & LOWER_32_BITS_MASK;
+            }
+        }
+        return (int) (m >>> Integer.SIZE);
+    }
+
+    /**
+     * Returns an unbiased random long between 0 (inclusive) and the bound (exclusive).
+     * <p>
+     * Uses Lemire's multiply-shift method, which only needs a division in the rare case of a rejection.
+     *
+     * @param bound the upper bound (exclusive). Must be positive.
+     * @return the random long.
+     * @throws IllegalArgumentException if bound smaller or equal than 0.
+     */
+    @Override
+    public long nextLong(long bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        long x = nextLong();
+        long low = x * bound;
+        if (Long.compareUnsigned(low, bound) < 0) {
+            long threshold = Long.remainderUnsigned(-bound, bound);
+            while (Long.compareUnsigned(low, threshold) < 0) {
+                x = nextLong();
+                low = x * bound;
+            }
+        }
+        // the unsigned high 64 bits of x * bound; bound is positive, so only x needs a correction.
+        return Math.multiplyHigh(x, bound) + ((x >> (Long.SIZE - 1)) & bound);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> FLOAT_SHIFT) * FLOAT_UNIT;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        nextBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Fills a range of a byte array with random bytes, using 8 bytes of every generated long.
+     *
+     * @param bytes  the byte array to fill.
+     * @param offset the offset of the first byte to fill.
+     * @param length the number of bytes to fill.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     */
+    public void nextBytes(byte[] bytes, int offset, int length) {
+        fill(this, bytes, offset, length);
+    }
+
+    /**
+     * Fills a range of a byte array with random bytes from the given random, using 8 bytes of every generated long.
+     *
+     * @param random the random to generate the bytes with.
+     * @param bytes  the byte array to fill.
+     * @param offset the offset of the first byte to fill.
+     * @param length the number of bytes to fill.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     */
+    public static void fill(Random random, byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException(
+                    "offset " + offset + " and length " + length + " are out of bounds for length " + bytes.length);
+        }
+
+        int index = offset;
+        int end = offset + length;
+        int wordEnd = end - Long.BYTES;
+        while (index <= wordEnd) {
+            long value = random.nextLong();
+            for (int i = 0; i < Long.BYTES; i++) {
+                bytes[index++] = (byte) value;
+                value >>>= Byte.SIZE;
+            }
+        }
+
+        if (index < end) {
+            long value = random.nextLong();
+            while (index < end) {
+                bytes[index++] = (byte) value;
+                value >>>= Byte.SIZE;
+            }
+        }
+    }
+}
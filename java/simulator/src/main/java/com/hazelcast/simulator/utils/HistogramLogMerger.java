@@ -23,87 +23,194 @@ import org.HdrHistogram.HistogramLogWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
 
 /**
- * The HistogramLogMerger merges the Histograms of multiple HDR files. This will be done based under the assumption that
- * every histogram spans the same duration.
+ * The HistogramLogMerger merges the interval Histograms of multiple HDR files, e.g. the HDR files of the same probe of all
+ * workers.
  * <p>
- * It works like this; from each HistogramLogReader a Histogram is read and merged into a final Histogram and this Histogram
- * is written into the merged HDR. Once round is complete, the next Histogram is retrieved. The different HDR files don't need
- * to have the same length; as soon as a HDR is finished, it is ignored and this continues till all HDR files are fully processed.
+ * The intervals are aligned on their timestamps: the time is divided in buckets of the interval length of the inputs, and
+ * every interval Histogram is added to the bucket that contains the middle of the interval. So intervals of workers that
+ * started at different moments are merged with the intervals of the other workers that cover the same time, instead of with
+ * the intervals that happen to have the same position in their file. The interval length is the median length of the first
+ * intervals of the first input.
+ * <p>
+ * The files are merged in parallel with a fork/join reduction: every task merges its files into a map of buckets, and the
+ * maps of the tasks are merged when the tasks are joined. In batch mode, all outputs of a run are merged in a single JVM.
+ * <p>
+ * Usage:
+ * <pre>
+ * HistogramLogMerger &lt;outputFile&gt; &lt;hdr_files_list_file&gt;
+ * HistogramLogMerger --batch &lt;batch_file&gt;
+ * </pre>
+ * The hdr_files_list_file contains one input file per line. Every line of the batch_file contains an output file followed by
+ * its input files, separated by tabs.
  */
 public final class HistogramLogMerger {
 
+    private static final String BATCH_OPTION = "--batch";
+    private static final String BATCH_SEPARATOR = "\t";
+    private static final int INTERVAL_SAMPLES = 9;
+    private static final int MIN_FILES_PER_TASK = 4;
+    private static final int TASKS_PER_THREAD = 4;
+
     private HistogramLogMerger() {
     }
 
     public static void main(String[] args) throws IOException {
-        File outputFile = new File(args[0]);
-        deleteQuiet(outputFile);
-        ensureExistingFile(outputFile);
-
         if (args.length < 2) {
-            throw new IllegalArgumentException("Usage: HistogramLogMerger <outputFile> <hdr_files_list_file>");
+            throw new IllegalArgumentException("Usage: HistogramLogMerger <outputFile> <hdr_files_list_file>\n"
+                    + "       HistogramLogMerger --batch <batch_file>");
         }
 
-        File inputFilesListFile = new File(args[1]);
-        if (!inputFilesListFile.exists()) {
-            throw new IllegalArgumentException("hdr_files_list_file [" + inputFilesListFile + "] doesn't exist");
+        if (BATCH_OPTION.equals(args[0])) {
+            File batchFile = checkExists(new File(args[1]), "batch_file");
+            log("Using batch file " + batchFile);
+            mergeAll(readBatch(batchFile), ForkJoinPool.commonPool());
+        } else {
+            File inputFilesListFile = checkExists(new File(args[1]), "hdr_files_list_file");
+            log("Using input files list from " + inputFilesListFile);
+            List<File> inputFiles = new ArrayList<>();
+            for (String line : Files.readAllLines(inputFilesListFile.toPath())) {
+                if (!line.isBlank()) {
+                    inputFiles.add(new File(line));
+                }
+            }
+            merge(new File(args[0]), inputFiles, ForkJoinPool.commonPool());
         }
+    }
 
-        log("Using input files list from " + inputFilesListFile);
+    /**
+     * Merges every output with its input files; the outputs are merged in parallel.
+     *
+     * @param jobs the input files per output file.
+     * @param pool the pool to merge with.
+     */
+    public static void mergeAll(Map<File, List<File>> jobs, ForkJoinPool pool) {
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (Map.Entry<File, List<File>> job : jobs.entrySet()) {
+            tasks.add(pool.submit(() -> merge(job.getKey(), job.getValue(), pool)));
+        }
+        for (ForkJoinTask<Integer> task : tasks) {
+            task.join();
+        }
+    }
 
-        List<String> inputFiles = Files.readAllLines(inputFilesListFile.toPath());
-        ArrayList<HistogramLogReader> readers = new ArrayList<>(inputFiles.size());
-        inputFiles.forEach(p -> {
-            File file = new File(p);
-            if (!file.exists()) {
-                throw new IllegalArgumentException("File [" + file + "] doesn't exist");
+    /**
+     * Merges the input files into the output file.
+     *
+     * @param outputFile the output file; overwritten if it exists.
+     * @param inputFiles the input files.
+     * @param pool       the pool to merge with.
+     * @return the number of merged intervals.
+     */
+    public static int merge(File outputFile, List<File> inputFiles, ForkJoinPool pool) {
+        for (File inputFile : inputFiles) {
+            checkExists(inputFile, "File");
+        }
+
+        TreeMap<Long, Histogram> buckets = new TreeMap<>();
+        long intervalMillis = inputFiles.isEmpty() ? 0 : inferIntervalMillis(inputFiles.get(0));
+        if (intervalMillis > 0) {
+            int filesPerTask = Math.max(MIN_FILES_PER_TASK,
+                    inputFiles.size() / (pool.getParallelism() * TASKS_PER_THREAD) + 1);
+            MergeTask task = new MergeTask(inputFiles, 0, inputFiles.size(), filesPerTask, intervalMillis);
+            buckets = ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
+        }
+
+        write(outputFile, buckets);
+        log("Merged " + inputFiles.size() + " files into " + buckets.size() + " intervals of " + intervalMillis
+                + " ms in " + outputFile);
+        return buckets.size();
+    }
+
+    static Map<File, List<File>> readBatch(File batchFile) throws IOException {
+        Map<File, List<File>> jobs = new TreeMap<>();
+        for (String line : Files.readAllLines(batchFile.toPath())) {
+            if (line.isBlank()) {
+                continue;
             }
-            try {
-                readers.add(new HistogramLogReader(p));
-            } catch (FileNotFoundException e) {
-                throw new RuntimeException(e);
+            String[] fields = line.split(BATCH_SEPARATOR);
+            List<File> inputFiles = new ArrayList<>();
+            for (int i = 1; i < fields.length; i++) {
+                inputFiles.add(new File(fields[i]));
             }
-        });
-
-        HistogramLogWriter writer = new HistogramLogWriter(outputFile);
-        String comment = "[Latency histograms for " + getBaseName(outputFile) + ']';
-        log(comment);
-        writer.outputComment(comment);
-        writer.outputLogFormatVersion();
-        writer.outputLegend();
-
-        int numberOfMergedHistograms = 0;
-        for (; ; ) {
-            Histogram merged = null;
-            for (HistogramLogReader reader : readers) {
-                Histogram histogram = (Histogram) reader.nextIntervalHistogram();
-                if (histogram == null) {
-                    continue;
-                }
+            jobs.put(new File(fields[0]), inputFiles);
+        }
+        return jobs;
+    }
 
-                if (merged == null) {
-                    merged = new Histogram(
-                            histogram.getLowestDiscernibleValue(),
-                            histogram.getHighestTrackableValue(),
-                            histogram.getNumberOfSignificantValueDigits());
-                }
-                merged.add(histogram);
+    // the first interval is often shorter because the run didn't start on an interval boundary, so the median is used
+    static long inferIntervalMillis(File file) {
+        HistogramLogReader reader = newReader(file);
+        try {
+            long[] lengths = new long[INTERVAL_SAMPLES];
+            int count = 0;
+            Histogram histogram;
+            while (count < INTERVAL_SAMPLES && (histogram = (Histogram) reader.nextIntervalHistogram()) != null) {
+                lengths[count++] = histogram.getEndTimeStamp() - histogram.getStartTimeStamp();
             }
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(lengths, 0, count);
+            return Math.max(1, lengths[count / 2]);
+        } finally {
+            reader.close();
+        }
+    }
 
-            if (merged == null) {
-                break;
+    private static void write(File outputFile, TreeMap<Long, Histogram> buckets) {
+        deleteQuiet(outputFile);
+        ensureExistingFile(outputFile);
+        HistogramLogWriter writer;
+        try {
+            writer = new HistogramLogWriter(outputFile);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            String comment = "[Latency histograms for " + getBaseName(outputFile) + ']';
+            writer.outputComment(comment);
+            if (!buckets.isEmpty()) {
+                long startMillis = buckets.firstEntry().getValue().getStartTimeStamp();
+                writer.setBaseTime(startMillis);
+                writer.outputStartTime(startMillis);
             }
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Histogram histogram : buckets.values()) {
+                writer.outputIntervalHistogram(histogram);
+            }
+        } finally {
+            writer.close();
+        }
+    }
 
-            writer.outputIntervalHistogram(merged);
-            log("Added merged histogram " + ++numberOfMergedHistograms + " to " + outputFile);
+    private static File checkExists(File file, String description) {
+        if (!file.exists()) {
+            throw new IllegalArgumentException(description + " [" + file + "] doesn't exist");
+        }
+        return file;
+    }
+
+    private static HistogramLogReader newReader(File file) {
+        try {
+            return new HistogramLogReader(file);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -116,4 +223,65 @@ public final class HistogramLogMerger {
         int pos = name.lastIndexOf('.');
         return pos == -1 ? name : name.substring(0, pos);
     }
+
+    private static final class MergeTask extends RecursiveTask<TreeMap<Long, Histogram>> {
+
+        private final List<File> files;
+        private final int from;
+        private final int to;
+        private final int filesPerTask;
+        private final long intervalMillis;
+
+        private MergeTask(List<File> files, int from, int to, int filesPerTask, long intervalMillis) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.filesPerTask = filesPerTask;
+            this.intervalMillis = intervalMillis;
+        }
+
+        @Override
+        protected TreeMap<Long, Histogram> compute() {
+            if (to - from > filesPerTask) {
+                int middle = (from + to) >>> 1;
+                MergeTask left = new MergeTask(files, from, middle, filesPerTask, intervalMillis);
+                left.fork();
+                TreeMap<Long, Histogram> right = new MergeTask(files, middle, to, filesPerTask, intervalMillis).compute();
+                TreeMap<Long, Histogram> result = left.join();
+                right.forEach((bucket, histogram) -> add(result, bucket, histogram));
+                return result;
+            }
+
+            TreeMap<Long, Histogram> buckets = new TreeMap<>();
+            for (int i = from; i < to; i++) {
+                HistogramLogReader reader = newReader(files.get(i));
+                try {
+                    Histogram histogram;
+                    while ((histogram = (Histogram) reader.nextIntervalHistogram()) != null) {
+                        long middleMillis = (histogram.getStartTimeStamp() + histogram.getEndTimeStamp()) / 2;
+                        add(buckets, Math.floorDiv(middleMillis, intervalMillis), histogram);
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+            return buckets;
+        }
+
+        private void add(TreeMap<Long, Histogram> buckets, long bucket, Histogram histogram) {
+            Histogram merged = buckets.get(bucket);
+            if (merged == null) {
+                merged = new Histogram(
+                        histogram.getLowestDiscernibleValue(),
+                        histogram.getHighestTrackableValue(),
+                        histogram.getNumberOfSignificantValueDigits());
+                merged.setAutoResize(true);
+                buckets.put(bucket, merged);
+            }
+            merged.add(histogram);
+            // the bucket is the interval of the merged histogram, whatever the timestamps of the added histograms are
+            merged.setStartTimeStamp(bucket * intervalMillis);
+            merged.setEndTimeStamp((bucket + 1) * intervalMillis);
+        }
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A pool of random values stored outside of the heap, in direct or memory mapped buffers.
+ * <p>
+ * Pre-generated values on the heap, e.g. a {@code byte[][]} with thousands of 100 KB values, end up in the old
+ * generation and make every full collection of the load generator expensive. The values of this pool are read through
+ * slices of the off-heap buffers, so the load generator heap only contains the offsets and lengths.
+ * <p>
+ * A buffer can't be larger than 2 GB, so a large pool is stored in multiple segments; a value never spans 2 segments.
+ * <p>
+ * This class is thread-safe once created.
+ */
+public final class OffHeapValuePool {
+
+    static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private static final int FILL_CHUNK_SIZE = 1 << 16;
+
+    private final ByteBuffer[] segments;
+    private final int[] segmentIndexes;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final long totalBytes;
+
+    private OffHeapValuePool(ByteBuffer[] segments, int[] segmentIndexes, int[] offsets, int[] lengths, long totalBytes) {
+        this.segments = segments;
+        this.segmentIndexes = segmentIndexes;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * Creates a pool in direct buffers. The JVM needs to be configured with a large enough
+     * {@code -XX:MaxDirectMemorySize}.
+     *
+     * @param count     the number of values.
+     * @param minLength the minimum length of a value.
+     * @param maxLength the maximum length of a value (exclusive, unless equal to the minLength).
+     * @param random    the random used to generate the lengths and content.
+     * @return the created pool.
+     */
+    public static OffHeapValuePool allocateDirect(int count, int minLength, int maxLength, Random random) {
+        return create(null, count, minLength, maxLength, random, MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a pool in a memory mapped file; the OS can page out values that aren't used. An existing file is
+     * overwritten; the file isn't deleted by the pool.
+     *
+     * @param file      the file to store the values in.
+     * @param count     the number of values.
+     * @param minLength the minimum length of a value.
+     * @param maxLength the maximum length of a value (exclusive, unless equal to the minLength).
+     * @param random    the random used to generate the lengths and content.
+     * @return the created pool.
+     */
+    public static OffHeapValuePool map(File file, int count, int minLength, int maxLength, Random random) {
+        return create(file, count, minLength, maxLength, random, MAX_SEGMENT_SIZE);
+    }
+
+    static OffHeapValuePool create(File file, int count, int minLength, int maxLength, Random random, int maxSegmentSize) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count should be at least 1, but was " + count);
+        }
+        if (minLength < 0 || maxLength < minLength) {
+            throw new IllegalArgumentException("Invalid value length: min " + minLength + ", max " + maxLength);
+        }
+        if (maxLength > maxSegmentSize) {
+            throw new IllegalArgumentException("maxLength can't be larger than " + maxSegmentSize + ", but was " + maxLength);
+        }
+
+        int[] lengths = new int[count];
+        int[] segmentIndexes = new int[count];
+        int[] offsets = new int[count];
+        List<Integer> segmentSizes = new ArrayList<>();
+        int segmentSize = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < count; i++) {
+            int length = minLength == maxLength ? minLength : minLength + random.nextInt(maxLength - minLength);
+            if ((long) segmentSize + length > maxSegmentSize) {
+                segmentSizes.add(segmentSize);
+                segmentSize = 0;
+            }
+            lengths[i] = length;
+            segmentIndexes[i] = segmentSizes.size();
+            offsets[i] = segmentSize;
+            segmentSize += length;
+            totalBytes += length;
+        }
+        segmentSizes.add(segmentSize);
+
+        int segmentCount = segmentSizes.size();
+
+        ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        if (file == null) {
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = ByteBuffer.allocateDirect(segmentSizes.get(i));
+            }
+        } else {
+            try (FileChannel channel = FileChannel.open(file.toPath(), CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+                long position = 0;
+                for (int i = 0; i < segmentCount; i++) {
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSizes.get(i));
+                    position += segmentSizes.get(i);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] chunk = new byte[FILL_CHUNK_SIZE];
+        for (ByteBuffer segment : segments) {
+            while (segment.hasRemaining()) {
+                int length = Math.min(chunk.length, segment.remaining());
+                random.nextBytes(chunk);
+                segment.put(chunk, 0, length);
+            }
+            segment.clear();
+        }
+        return new OffHeapValuePool(segments, segmentIndexes, offsets, lengths, totalBytes);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the number of values.
+     */
+    public int size() {
+        return lengths.length;
+    }
+
+    /**
+     * Returns the total number of bytes of all values.
+     *
+     * @return the total number of bytes.
+     */
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    public int length(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * Returns a read-only view of a value; the position of the view is 0 and the limit is the length of the value.
+     * The view doesn't copy the value.
+     *
+     * @param index the index of the value.
+     * @return the view of the value.
+     */
+    public ByteBuffer slice(int index) {
+        ByteBuffer view = segments[segmentIndexes[index]].asReadOnlyBuffer();
+        int offset = offsets[index];
+        view.position(offset).limit(offset + lengths[index]);
+        return view.slice();
+    }
+
+    /**
+     * Copies a part of a value to a byte array.
+     *
+     * @param index       the index of the value.
+     * @param valueOffset the offset within the value.
+     * @param dst         the byte array to copy to.
+     * @param dstOffset   the offset within the byte array.
+     * @param length      the number of bytes to copy.
+     */
+    public void copyTo(int index, int valueOffset, byte[] dst, int dstOffset, int length) {
+        if (valueOffset < 0 || length < 0 || valueOffset + length > lengths[index]) {
+            throw new IndexOutOfBoundsException("Can't copy " + length + " bytes at offset " + valueOffset
+                    + " from a value of " + lengths[index] + " bytes");
+        }
+        ByteBuffer view = segments[segmentIndexes[index]].duplicate();
+        view.position(offsets[index] + valueOffset);
+        view.get(dst, dstOffset, length);
+    }
+}
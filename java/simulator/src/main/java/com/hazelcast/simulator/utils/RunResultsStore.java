@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.simulator.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The RunResultsStore writes the interval series of a run into a single columnar file, so that runs can be compared
+ * without parsing the operations csv and HDR files of every worker again.
+ * <p>
+ * Every row is one interval of a series; a series is the throughput or the latency of a test on a worker for a probe. The
+ * throughput series are read from the operations csv files and have the probe {@value #OPERATIONS_PROBE}, the latency
+ * series are read from the HDR files. The series of a worker have the worker id, e.g. A1_W1. The series in the run
+ * directory, which are merged over all workers by the {@link OperationsFileAggregator} and the {@link HistogramLogMerger},
+ * have an empty worker id. The global operations.csv of a worker has an empty test id.
+ * <p>
+ * The file contains the data column by column in little endian byte order, like Arrow, so a column can be loaded without
+ * parsing:
+ * <pre>
+ * magic          8 bytes "SIMRES01"
+ * rowCount       int32
+ * columnCount    int32
+ * per column:
+ *   name         int16 length + UTF-8 bytes
+ *   type         int8: 0 = int64, 1 = float64, 2 = dictionary encoded string
+ *   values       int64[rowCount] or float64[rowCount], or for a string column:
+ *                int32 dictionary size, per entry an int16 length + UTF-8 bytes, and int32[rowCount] dictionary indices
+ * </pre>
+ * Timestamps are epoch milliseconds, latencies are microseconds and NaN for the throughput series.
+ * <p>
+ * Usage:
+ * <pre>
+ * RunResultsStore &lt;run_dir&gt;
+ * </pre>
+ * writes the {@value #FILE_NAME} file into the run directory.
+ */
+public final class RunResultsStore {
+
+    public static final String FILE_NAME = "results.columns";
+    public static final String OPERATIONS_PROBE = "operations";
+
+    static final String[] LATENCY_COLUMNS = {"min_us", "mean_us", "p50_us", "p90_us", "p99_us", "p999_us", "p9999_us",
+            "max_us"};
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final byte[] MAGIC = "SIMRES01".getBytes(UTF_8);
+    private static final byte TYPE_LONG = 0;
+    private static final byte TYPE_DOUBLE = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int OPERATIONS_FIELDS = 5;
+    private static final int SERIES_COLUMNS = 7;
+    private static final Pattern WORKER_DIR = Pattern.compile("^(A\\d+_W\\d+)-.*");
+    private static final String OPERATIONS_SUFFIX = ".operations.csv";
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String HDR_EXTENSION = ".hdr";
+
+    private RunResultsStore() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: RunResultsStore <run_dir>");
+        }
+        File runDir = new File(args[0]);
+        File file = new File(runDir, FILE_NAME);
+        int rows = write(runDir, file);
+        System.out.println("[RunResultsStore] Written " + rows + " intervals to " + file);
+    }
+
+    /**
+     * Reads all series of the run directory and writes them into the file. The files are read in parallel.
+     *
+     * @param runDir the run directory.
+     * @param file   the file to write to; overwritten if it exists.
+     * @return the number of written intervals.
+     */
+    public static int write(File runDir, File file) {
+        if (!runDir.isDirectory()) {
+            throw new IllegalArgumentException("Run directory [" + runDir + "] doesn't exist");
+        }
+
+        List<Row> rows = findSeries(runDir).parallelStream()
+                .flatMap(series -> series.read().stream().map(interval -> new Row(series, interval)))
+                .collect(toList());
+
+        Path tmp = new File(file.getPath() + ".tmp").toPath();
+        try (Output out = new Output(FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING))) {
+            out.put(MAGIC);
+            out.putInt(rows.size());
+            out.putInt(SERIES_COLUMNS + LATENCY_COLUMNS.length);
+            out.putStrings("test_id", rows, row -> row.series().testId());
+            out.putStrings("worker_id", rows, row -> row.series().workerId());
+            out.putStrings("probe", rows, row -> row.series().probe());
+            out.putLongs("start_millis", rows, row -> row.interval().startMillis());
+            out.putLongs("end_millis", rows, row -> row.interval().endMillis());
+            out.putLongs("count", rows, row -> row.interval().count());
+            out.putDoubles("throughput", rows, row -> row.interval().throughput());
+            for (int c = 0; c < LATENCY_COLUMNS.length; c++) {
+                int column = c;
+                out.putDoubles(LATENCY_COLUMNS[c], rows, row -> row.interval().latenciesMicros()[column]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + tmp, e);
+        }
+        try {
+            Files.move(tmp, file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to move " + tmp + " to " + file, e);
+        }
+        return rows.size();
+    }
+
+    /**
+     * Reads a file written by {@link #write(File, File)}.
+     *
+     * @param file the file to read.
+     * @return the columns of the file.
+     */
+    public static Table read(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new IllegalArgumentException("File [" + file + "] is not a run results file");
+            }
+            int rowCount = buffer.getInt();
+            int columnCount = buffer.getInt();
+            Map<String, Object> columns = new LinkedHashMap<>();
+            for (int c = 0; c < columnCount; c++) {
+                String name = getString(buffer);
+                columns.put(name, readColumn(buffer, rowCount, name));
+            }
+            return new Table(rowCount, columns);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    private static Object readColumn(ByteBuffer buffer, int rowCount, String name) {
+        byte type = buffer.get();
+        switch (type) {
+            case TYPE_LONG:
+                long[] longs = new long[rowCount];
+                buffer.asLongBuffer().get(longs);
+                buffer.position(buffer.position() + rowCount * Long.BYTES);
+                return longs;
+            case TYPE_DOUBLE:
+                double[] doubles = new double[rowCount];
+                buffer.asDoubleBuffer().get(doubles);
+                buffer.position(buffer.position() + rowCount * Double.BYTES);
+                return doubles;
+            case TYPE_STRING:
+                String[] dictionary = new String[buffer.getInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = getString(buffer);
+                }
+                String[] strings = new String[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    strings[i] = dictionary[buffer.getInt()];
+                }
+                return strings;
+            default:
+                throw new IllegalArgumentException("Unknown type " + type + " of column " + name);
+        }
+    }
+
+    /**
+     * The columns of a run results file.
+     */
+    public static final class Table {
+
+        private final int rowCount;
+        private final Map<String, Object> columns;
+
+        Table(int rowCount, Map<String, Object> columns) {
+            this.rowCount = rowCount;
+            this.columns = columns;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public List<String> getColumnNames() {
+            return new ArrayList<>(columns.keySet());
+        }
+
+        public String[] getStrings(String name) {
+            return (String[]) getColumn(name);
+        }
+
+        public long[] getLongs(String name) {
+            return (long[]) getColumn(name);
+        }
+
+        public double[] getDoubles(String name) {
+            return (double[]) getColumn(name);
+        }
+
+        private Object getColumn(String name) {
+            Object column = columns.get(name);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown column " + name);
+            }
+            return column;
+        }
+    }
+
+    // the series are ordered by test, probe and worker; the first file wins if files of old and new runs map to one series
+    static List<Series> findSeries(File runDir) {
+        Map<String, Series> series = new TreeMap<>();
+        addSeries(series, runDir, "");
+        for (File dir : listFiles(runDir)) {
+            Matcher matcher = WORKER_DIR.matcher(dir.getName());
+            if (dir.isDirectory() && matcher.matches()) {
+                addSeries(series, dir, matcher.group(1));
+            }
+        }
+        return new ArrayList<>(series.values());
+    }
+
+    private static void addSeries(Map<String, Series> series, File dir, String workerId) {
+        for (File file : listFiles(dir)) {
+            if (!file.isFile()) {
+                continue;
+            }
+            String name = file.getName();
+            Series s = null;
+            if (name.endsWith(HDR_EXTENSION)) {
+                String baseName = name.substring(0, name.length() - HDR_EXTENSION.length());
+                int pos = baseName.indexOf('.');
+                if (pos > 0) {
+                    s = new Series(baseName.substring(0, pos), workerId, baseName.substring(pos + 1), file);
+                }
+            } else {
+                String testId = operationsTestId(name);
+                if (testId != null) {
+                    s = new Series(testId, workerId, OPERATIONS_PROBE, file);
+                }
+            }
+            if (s != null) {
+                series.putIfAbsent(s.testId() + '\0' + s.probe() + '\0' + s.workerId(), s);
+            }
+        }
+    }
+
+    // the worker writes operations.csv and <testId>.operations.csv, old runs are renamed to operations-<testId>.csv and the
+    // OperationsFileAggregator writes operations<suffix>.csv with the remainder of the worker file name as suffix
+    static String operationsTestId(String fileName) {
+        if (fileName.endsWith(OPERATIONS_SUFFIX)) {
+            return fileName.substring(0, fileName.length() - OPERATIONS_SUFFIX.length());
+        }
+        if (!fileName.startsWith(OPERATIONS_PROBE) || !fileName.endsWith(CSV_EXTENSION)) {
+            return null;
+        }
+        String testId = fileName.substring(OPERATIONS_PROBE.length(), fileName.length() - CSV_EXTENSION.length());
+        if (testId.startsWith("-")) {
+            testId = testId.substring(1);
+        }
+        if (testId.endsWith(".")) {
+            testId = testId.substring(0, testId.length() - 1);
+        }
+        return testId;
+    }
+
+    private static List<File> listFiles(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<File> result = new ArrayList<>(Arrays.asList(files));
+        result.sort(Comparator.comparing(File::getName));
+        return result;
+    }
+
+    record Series(String testId, String workerId, String probe, File file) {
+
+        List<Interval> read() {
+            return OPERATIONS_PROBE.equals(probe) && file.getName().endsWith(CSV_EXTENSION)
+                    ? readOperations(file)
+                    : readHistograms(file);
+        }
+    }
+
+    record Interval(long startMillis, long endMillis, long count, double throughput, double[] latenciesMicros) {
+    }
+
+    private record Row(Series series, Interval interval) {
+    }
+
+    // the epoch is the end of the interval; incomplete lines, e.g. of a killed worker, are skipped
+    static List<Interval> readOperations(File file) {
+        double[] noLatencies = new double[LATENCY_COLUMNS.length];
+        Arrays.fill(noLatencies, Double.NaN);
+        List<Interval> intervals = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(file.toPath())) {
+            long previousEndMillis = -1;
+            for (String line : (Iterable<String>) lines.skip(1)::iterator) {
+                String[] fields = line.split(",");
+                if (fields.length < OPERATIONS_FIELDS) {
+                    continue;
+                }
+                Interval interval = parseOperations(fields, previousEndMillis, noLatencies);
+                if (interval != null) {
+                    intervals.add(interval);
+                    previousEndMillis = interval.endMillis();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+        return intervals;
+    }
+
+    private static Interval parseOperations(String[] fields, long previousEndMillis, double[] noLatencies) {
+        try {
+            long endMillis = Math.round(Double.parseDouble(fields[0]) * SECONDS.toMillis(1));
+            long startMillis = previousEndMillis == -1 ? endMillis - SECONDS.toMillis(1) : previousEndMillis;
+            return new Interval(startMillis, endMillis, Long.parseLong(fields[3]), Double.parseDouble(fields[4]), noLatencies);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static List<Interval> readHistograms(File file) {
+        List<Interval> intervals = new ArrayList<>();
+        HistogramLogReader reader;
+        try {
+            reader = new HistogramLogReader(file);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Histogram histogram;
+            while ((histogram = (Histogram) reader.nextIntervalHistogram()) != null) {
+                long startMillis = histogram.getStartTimeStamp();
+                long endMillis = histogram.getEndTimeStamp();
+                long count = histogram.getTotalCount();
+                double throughput = endMillis > startMillis
+                        ? count * (double) SECONDS.toMillis(1) / (endMillis - startMillis)
+                        : 0;
+                intervals.add(new Interval(startMillis, endMillis, count, throughput, latenciesMicros(histogram)));
+            }
+        } finally {
+            reader.close();
+        }
+        return intervals;
+    }
+
+    private static double[] latenciesMicros(Histogram histogram) {
+        double[] latencies = new double[LATENCY_COLUMNS.length];
+        if (histogram.getTotalCount() == 0) {
+            Arrays.fill(latencies, Double.NaN);
+            return latencies;
+        }
+        double nanosPerMicro = MICROSECONDS.toNanos(1);
+        int c = 0;
+        latencies[c++] = histogram.getMinValue() / nanosPerMicro;
+        latencies[c++] = histogram.getMean() / nanosPerMicro;
+        for (double percentile : PERCENTILES) {
+            latencies[c++] = histogram.getValueAtPercentile(percentile) / nanosPerMicro;
+        }
+        latencies[c] = histogram.getMaxValue() / nanosPerMicro;
+        return latencies;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    // a buffered little endian writer, so the columns don't have to be kept in memory as byte arrays
+    private static final class Output implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        <T> void putStrings(String name, List<T> rows, Function<T, String> column) throws IOException {
+            putHeader(name, TYPE_STRING);
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            int[] indices = new int[rows.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = dictionary.computeIfAbsent(column.apply(rows.get(i)), value -> dictionary.size());
+            }
+            putInt(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                putString(value);
+            }
+            for (int index : indices) {
+                putInt(index);
+            }
+        }
+
+        <T> void putLongs(String name, List<T> rows, ToLongFunction<T> column) throws IOException {
+            putHeader(name, TYPE_LONG);
+            for (T row : rows) {
+                ensureRemaining(Long.BYTES);
+                buffer.putLong(column.applyAsLong(row));
+            }
+        }
+
+        <T> void putDoubles(String name, List<T> rows, ToDoubleFunction<T> column) throws IOException {
+            putHeader(name, TYPE_DOUBLE);
+            for (T row : rows) {
+                ensureRemaining(Double.BYTES);
+                buffer.putDouble(column.applyAsDouble(row));
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            ensureRemaining(bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void putHeader(String name, byte type) throws IOException {
+            putString(name);
+            ensureRemaining(1);
+            buffer.put(type);
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("String too long: " + value);
+            }
+            ensureRemaining(Short.BYTES);
+            buffer.putShort((short) bytes.length);
+            put(bytes);
+        }
+
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.utils;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -24,6 +25,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.utils.EmptyStatement.ignore;
 import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
 
 /**
@@ -38,6 +40,29 @@ import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
  */
 public class ThreadSpawner {
 
+    // virtual threads are only available on Java 21+, while Simulator is compiled for Java 17. So they are created using
+    // reflection; if the JVM doesn't support them, the methods are null.
+    private static final Method OF_VIRTUAL_METHOD;
+    private static final Method BUILDER_NAME_METHOD;
+    private static final Method BUILDER_UNSTARTED_METHOD;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class);
+            unstarted = builderClass.getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            ignore(e);
+        }
+        OF_VIRTUAL_METHOD = ofVirtual;
+        BUILDER_NAME_METHOD = name;
+        BUILDER_UNSTARTED_METHOD = unstarted;
+    }
+
     private final List<Thread> threads = Collections.synchronizedList(new LinkedList<>());
     private final ConcurrentMap<String, AtomicInteger> idMap = new ConcurrentHashMap<>();
 
@@ -116,6 +141,57 @@ public class ThreadSpawner {
         return thread;
     }
 
+    /**
+     * Checks if the JVM is able to create virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported, {@code false} otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL_METHOD != null;
+    }
+
+    /**
+     * Spawns a new virtual thread for the given {@link Runnable}.
+     *
+     * @param namePrefix the name prefix for the thread
+     * @param runnable   the {@link Runnable} to execute
+     * @return the created thread
+     * @throws UnsupportedOperationException if the JVM doesn't support virtual threads
+     * @see #isVirtualThreadSupported()
+     */
+    public Thread spawnVirtual(String namePrefix, Runnable runnable) {
+        checkNotNull(namePrefix, "namePrefix can't be null");
+        checkNotNull(runnable, "runnable can't be null");
+
+        if (!isVirtualThreadSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported on Java "
+                    + System.getProperty("java.version"));
+        }
+
+        String name = newName(namePrefix);
+        Thread thread;
+        // a virtual thread can't be subclassed, so the exception handling is done by wrapping the runnable.
+        if (throwException) {
+            thread = newVirtualThread(name, runnable);
+            thread.setUncaughtExceptionHandler(exceptionHandler);
+        } else {
+            thread = newVirtualThread(name, new ReportExceptionRunnable(testId, runnable));
+        }
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    private static Thread newVirtualThread(String name, Runnable runnable) {
+        try {
+            Object builder = OF_VIRTUAL_METHOD.invoke(null);
+            builder = BUILDER_NAME_METHOD.invoke(builder, name);
+            return (Thread) BUILDER_UNSTARTED_METHOD.invoke(builder, runnable);
+        } catch (ReflectiveOperationException e) {
+            throw new ReflectionException(e);
+        }
+    }
+
     /**
      * Waits for all threads to finish.
      *
@@ -162,6 +238,27 @@ public class ThreadSpawner {
         }
     }
 
+    private static class ReportExceptionRunnable implements Runnable {
+
+        private final String testId;
+        private final Runnable task;
+
+        ReportExceptionRunnable(String testId, Runnable task) {
+            this.testId = testId;
+            this.task = task;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        public void run() {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                ExceptionReporter.report(testId, t);
+            }
+        }
+    }
+
     private static class ReportExceptionThread extends Thread {
 
         private final String testId;
@@ -19,11 +19,15 @@ import com.hazelcast.simulator.agent.workerprocess.WorkerParameters;
 import com.hazelcast.simulator.common.ProcessSuicideThread;
 import com.hazelcast.simulator.common.ShutdownThread;
 import com.hazelcast.simulator.drivers.Driver;
+import com.hazelcast.simulator.metrics.JvmMetricsProvider;
+import com.hazelcast.simulator.metrics.MetricsHttpServer;
+import com.hazelcast.simulator.metrics.MetricsRegistry;
 import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.worker.messages.TerminateWorkerMessage;
 import com.hazelcast.simulator.worker.performance.OperationsMonitor;
+import com.hazelcast.simulator.worker.performance.WorkerMetricsProvider;
 import com.hazelcast.simulator.worker.testcontainer.TestManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -61,6 +65,7 @@ public class Worker {
     private final Driver driver;
     private final WorkerParameters parameters;
     private final SimulatorAddress workerAddress;
+    private MetricsHttpServer metricsServer;
     private ShutdownThread shutdownThread;
 
     public Worker(WorkerParameters parameters) throws Exception {
@@ -88,6 +93,7 @@ public class Worker {
 
         server.start();
         performanceMonitor.start();
+        startMetricsServer();
         driver.startDriverInstance();
 
         new ProcessSuicideThread(parameters.get("agent.pid"), parameters.intGet("WORKER_ORPHAN_INTERVAL_SECONDS")).start();
@@ -99,6 +105,21 @@ public class Worker {
         logHeader("Successfully started Worker #" + workerAddress);
     }
 
+    private void startMetricsServer() throws Exception {
+        String basePort = parameters.get("WORKER_METRICS_PORT");
+        if (basePort == null || parseInt(basePort.trim()) <= 0) {
+            return;
+        }
+
+        // multiple workers can run on the same machine, so every worker gets its own port.
+        int port = parseInt(basePort.trim()) + workerAddress.getWorkerIndex();
+        metricsServer = new MetricsHttpServer(port)
+                .addProvider(new WorkerMetricsProvider(testManager))
+                .addProvider(new JvmMetricsProvider())
+                .addProvider(MetricsRegistry.getInstance())
+                .start();
+    }
+
     public void shutdown(TerminateWorkerMessage msg) {
         LOGGER.warn("Terminating worker");
         closeQuietly(server);
@@ -182,6 +203,7 @@ public class Worker {
         public void doRun() {
             closeQuietly(driver);
             closeQuietly(performanceMonitor);
+            closeQuietly(metricsServer);
         }
     }
 }
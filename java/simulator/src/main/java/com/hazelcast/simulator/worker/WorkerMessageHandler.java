@@ -23,6 +23,7 @@ import com.hazelcast.simulator.protocol.message.SimulatorMessage;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.worker.messages.CreateTestMessage;
 import com.hazelcast.simulator.worker.messages.ExecuteScriptMessage;
+import com.hazelcast.simulator.worker.messages.SetRateMessage;
 import com.hazelcast.simulator.worker.messages.StartPhaseMessage;
 import com.hazelcast.simulator.worker.messages.StopRunMessage;
 import com.hazelcast.simulator.worker.messages.TerminateWorkerMessage;
@@ -58,6 +59,9 @@ public class WorkerMessageHandler implements MessageHandler {
             } else if (msg instanceof StopRunMessage) {
                 testManager.stopRun((StopRunMessage) msg);
                 promise.answer("ok");
+            } else if (msg instanceof SetRateMessage) {
+                testManager.setRate((SetRateMessage) msg);
+                promise.answer("ok");
             } else {
                 throw new HandleException("Unknown message:" + msg);
             }
@@ -16,11 +16,19 @@
 package com.hazelcast.simulator.worker.messages;
 
 import com.google.gson.annotations.SerializedName;
+import com.hazelcast.simulator.protocol.message.BinaryCodec;
 import com.hazelcast.simulator.protocol.message.SimulatorMessage;
 import com.hazelcast.simulator.worker.performance.PerformanceStats;
 
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.DataFormatException;
 
 /**
  * Sends a {@link PerformanceStats} per running Simulator Test to the Coordinator,
@@ -32,6 +40,70 @@ import java.util.Map;
  */
 public class PerformanceStatsMessage implements SimulatorMessage {
 
+    /**
+     * Every worker sends this message every performance monitor interval, so it is encoded in binary instead of JSON.
+     * <p/>
+     * The interval histogram is sent in the compressed HdrHistogram encoding; a length of 0 means there is no histogram.
+     */
+    public static final BinaryCodec<PerformanceStatsMessage> BINARY_CODEC = new BinaryCodec<PerformanceStatsMessage>() {
+        @Override
+        public void encode(PerformanceStatsMessage msg, DataOutput out) throws IOException {
+            out.writeInt(msg.performanceStatsMap.size());
+            for (Map.Entry<String, PerformanceStats> entry : msg.performanceStatsMap.entrySet()) {
+                PerformanceStats stats = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(stats.getOperationCount());
+                out.writeDouble(stats.getIntervalThroughput());
+                out.writeDouble(stats.getTotalThroughput());
+                out.writeDouble(stats.getIntervalLatencyAvgNanos());
+                out.writeLong(stats.getIntervalLatency999PercentileNanos());
+                out.writeLong(stats.getIntervalLatencyMaxNanos());
+                writeHistogram(stats.getIntervalHistogram(), out);
+            }
+        }
+
+        @Override
+        public PerformanceStatsMessage decode(DataInput in) throws IOException {
+            PerformanceStatsMessage msg = new PerformanceStatsMessage();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String testId = in.readUTF();
+                PerformanceStats stats = new PerformanceStats(
+                        in.readLong(), in.readDouble(), in.readDouble(), in.readDouble(), in.readLong(), in.readLong(),
+                        readHistogram(in));
+                msg.performanceStatsMap.put(testId, stats);
+            }
+            return msg;
+        }
+
+        private void writeHistogram(Histogram histogram, DataOutput out) throws IOException {
+            if (histogram == null) {
+                out.writeInt(0);
+                return;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            out.writeInt(length);
+            out.write(buffer.array(), 0, length);
+        }
+
+        private Histogram readHistogram(DataInput in) throws IOException {
+            int length = in.readInt();
+            if (length == 0) {
+                return null;
+            }
+
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            try {
+                return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+            } catch (DataFormatException e) {
+                throw new IOException("Failed to decode the interval histogram", e);
+            }
+        }
+    };
+
     /**
      * Map of {@link PerformanceStats} per Simulator Test.
      *
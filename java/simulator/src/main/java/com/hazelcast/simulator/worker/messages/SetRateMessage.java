@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.messages;
+
+import com.google.gson.annotations.SerializedName;
+import com.hazelcast.simulator.protocol.message.SimulatorMessage;
+
+/**
+ * Adjusts the rate of a running Simulator Test.
+ * <p/>
+ * The rate is set as a factor of the configured rate of every execution group, e.g. a factor of 2 doubles the
+ * ratePerSecond. It is sent by the coordinator when it searches for the maximum throughput under a latency SLA.
+ */
+public class SetRateMessage implements SimulatorMessage {
+
+    /**
+     * The name of the test to adjust.
+     */
+    @SerializedName("testId")
+    private final String testId;
+
+    /**
+     * The factor to apply to the configured rate.
+     */
+    @SerializedName("rateFactor")
+    private final double rateFactor;
+
+    public SetRateMessage(String testId, double rateFactor) {
+        this.testId = testId;
+        this.rateFactor = rateFactor;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public double getRateFactor() {
+        return rateFactor;
+    }
+
+    @Override
+    public String toString() {
+        return "SetRateMessage{testId='" + testId + "', rateFactor=" + rateFactor + "}";
+    }
+}
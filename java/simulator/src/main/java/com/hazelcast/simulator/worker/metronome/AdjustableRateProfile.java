@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+/**
+ * A {@link RateProfile} with a rate that can be adjusted while the test is running. The rate is set as a factor of the
+ * configured rate, so that the ratio between execution groups is preserved.
+ * <p>
+ * This is used by the coordinator to search for the maximum throughput that can be sustained under a latency SLA.
+ */
+public final class AdjustableRateProfile extends RateProfile {
+
+    private final double baseRatePerSecond;
+    private volatile double rateFactor = 1;
+
+    public AdjustableRateProfile(double baseRatePerSecond) {
+        this.baseRatePerSecond = baseRatePerSecond;
+    }
+
+    public void setRateFactor(double rateFactor) {
+        if (rateFactor <= 0) {
+            throw new IllegalArgumentException("rateFactor must be larger than 0, but was " + rateFactor);
+        }
+        this.rateFactor = rateFactor;
+    }
+
+    public double getRateFactor() {
+        return rateFactor;
+    }
+
+    @Override
+    public double ratePerSecond(long elapsedNanos) {
+        return baseRatePerSecond * rateFactor;
+    }
+}
@@ -17,6 +17,7 @@ package com.hazelcast.simulator.worker.metronome;
 
 import com.hazelcast.simulator.worker.testcontainer.PropertyBinding;
 
+import static com.hazelcast.simulator.worker.metronome.RateProfile.MAX_WAIT_NANOS;
 import static com.hazelcast.simulator.worker.testcontainer.PropertyBinding.toPropertyName;
 import static java.lang.System.nanoTime;
 import static org.apache.commons.lang3.RandomUtils.nextLong;
@@ -37,37 +38,70 @@ public final class BusySpinningMetronome implements Metronome {
 
     private final long intervalNanos;
     private final boolean accountForCoordinatedOmission;
+    private final int threadCount;
+    private final RateProfile rateProfile;
+    private long previousNanos;
     private long nextNanos;
 
     BusySpinningMetronome(long intervalNanos, boolean accountForCoordinatedOmission) {
+        this(intervalNanos, accountForCoordinatedOmission, 1, null);
+    }
+
+    BusySpinningMetronome(long intervalNanos, boolean accountForCoordinatedOmission, int threadCount, RateProfile rateProfile) {
         this.intervalNanos = intervalNanos;
         this.accountForCoordinatedOmission = accountForCoordinatedOmission;
+        this.threadCount = threadCount;
+        this.rateProfile = rateProfile;
     }
 
     public BusySpinningMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix) {
-        this(intervalNanos * threadCount, binding.loadAsBoolean(toPropertyName(prefix, "accountForCoordinatedOmission"), true));
+        this(intervalNanos, threadCount, binding, prefix, null);
+    }
+
+    public BusySpinningMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix,
+                                 RateProfile rateProfile) {
+        this(intervalNanos * threadCount,
+                binding.loadAsBoolean(toPropertyName(prefix, "accountForCoordinatedOmission"), true),
+                threadCount, rateProfile);
     }
 
     public BusySpinningMetronome(Metronome m) {
         BusySpinningMetronome master = (BusySpinningMetronome) m;
         this.intervalNanos = master.intervalNanos;
         this.accountForCoordinatedOmission = master.accountForCoordinatedOmission;
+        this.threadCount = master.threadCount;
+        this.rateProfile = master.rateProfile;
     }
 
     @Override
     public long waitForNext() {
         // set random interval on the first run
         if (nextNanos == 0) {
-            nextNanos = nanoTime() + nextLong(0, intervalNanos);
+            long now = nanoTime();
+            if (rateProfile == null) {
+                nextNanos = now + nextLong(0, intervalNanos);
+            } else {
+                long profileIntervalNanos = rateProfile.intervalNanos(now, threadCount);
+                previousNanos = now - nextLong(0, profileIntervalNanos);
+                nextNanos = previousNanos + profileIntervalNanos;
+            }
         }
 
         long now;
-        do {
-            now = nanoTime();
-        } while (now < nextNanos);
+        long readNanos = nanoTime() + MAX_WAIT_NANOS;
+        while ((now = nanoTime()) < nextNanos) {
+            if (rateProfile != null && now >= readNanos) {
+                // the rate may have changed while waiting
+                nextNanos = previousNanos + rateProfile.intervalNanos(now, threadCount);
+                readNanos = now + MAX_WAIT_NANOS;
+            }
+        }
 
         long expectedStartNanos = nextNanos;
-        nextNanos = expectedStartNanos + intervalNanos;
+        previousNanos = expectedStartNanos;
+        // with a rate profile, the interval of this thread is determined by the rate at the expected start time.
+        nextNanos = expectedStartNanos
+                + (rateProfile == null ? intervalNanos : rateProfile.intervalNanos(expectedStartNanos, threadCount));
         return accountForCoordinatedOmission ? expectedStartNanos : nanoTime();
     }
 
@@ -38,22 +38,34 @@ public class ConstantCombinedRateMetronome implements Metronome {
 
     private final long intervalNanos;
     private final boolean accountForCoordinatedOmission;
+    private final RateProfile rateProfile;
     private final AtomicLong nextExpectedStartNanos;
 
     ConstantCombinedRateMetronome(long intervalNanos, boolean accountForCoordinatedOmission) {
+        this(intervalNanos, accountForCoordinatedOmission, null);
+    }
+
+    ConstantCombinedRateMetronome(long intervalNanos, boolean accountForCoordinatedOmission, RateProfile rateProfile) {
         this.intervalNanos = intervalNanos;
         this.accountForCoordinatedOmission = accountForCoordinatedOmission;
+        this.rateProfile = rateProfile;
         this.nextExpectedStartNanos = new AtomicLong(nanoTime());
     }
 
     public ConstantCombinedRateMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix) {
-        this(intervalNanos, binding.loadAsBoolean(toPropertyName(prefix, "accountForCoordinatedOmission"), true));
+        this(intervalNanos, threadCount, binding, prefix, null);
+    }
+
+    public ConstantCombinedRateMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix,
+                                         RateProfile rateProfile) {
+        this(intervalNanos, binding.loadAsBoolean(toPropertyName(prefix, "accountForCoordinatedOmission"), true), rateProfile);
     }
 
     public ConstantCombinedRateMetronome(Metronome m) {
         ConstantCombinedRateMetronome master = (ConstantCombinedRateMetronome) m;
         this.intervalNanos = master.intervalNanos;
         this.accountForCoordinatedOmission = master.accountForCoordinatedOmission;
+        this.rateProfile = master.rateProfile;
         this.nextExpectedStartNanos = master.nextExpectedStartNanos;
     }
 
@@ -69,7 +81,8 @@ public class ConstantCombinedRateMetronome implements Metronome {
             }
 
             // if we manage to cas the item, we can execute the request, otherwise continue waiting.
-            if (nextExpectedStartNanos.compareAndSet(expectedStartNanos, expectedStartNanos + intervalNanos)) {
+            long nextIntervalNanos = rateProfile == null ? intervalNanos : rateProfile.intervalNanos(expectedStartNanos);
+            if (nextExpectedStartNanos.compareAndSet(expectedStartNanos, expectedStartNanos + nextIntervalNanos)) {
                 break;
             }
         }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.util.Arrays.binarySearch;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link RateProfile} that replays the rates from a CSV file, e.g. rates recorded on a production system.
+ * <p>
+ * Every line contains the offset in seconds since the start of the run and the rate in requests per second:
+ * <pre>
+ * # seconds,ratePerSecond
+ * 0,1000
+ * 60,5000
+ * 120,2000
+ * </pre>
+ * A rate is used until the offset of the next line; the rate of the last line is used for the remainder of the run. Empty
+ * lines and lines starting with '#' are ignored. The offsets need to be increasing.
+ */
+public final class CsvRateProfile extends RateProfile {
+
+    private final long[] offsetNanos;
+    private final double[] ratesPerSecond;
+
+    public CsvRateProfile(long[] offsetSeconds, double[] ratesPerSecond) {
+        if (offsetSeconds.length == 0 || offsetSeconds.length != ratesPerSecond.length) {
+            throw new IllegalArgumentException("offsetSeconds and ratesPerSecond should have the same non zero length");
+        }
+
+        this.offsetNanos = new long[offsetSeconds.length];
+        for (int k = 0; k < offsetSeconds.length; k++) {
+            if (k > 0 && offsetSeconds[k] <= offsetSeconds[k - 1]) {
+                throw new IllegalArgumentException(format("Offset [%d] is not larger than previous offset [%d]",
+                        offsetSeconds[k], offsetSeconds[k - 1]));
+            }
+            this.offsetNanos[k] = SECONDS.toNanos(offsetSeconds[k]);
+        }
+        this.ratesPerSecond = ratesPerSecond.clone();
+    }
+
+    public static CsvRateProfile load(File file) {
+        List<Long> offsets = new ArrayList<>();
+        List<Double> rates = new ArrayList<>();
+        String[] lines = fileAsText(file).split("\n");
+        for (int lineNumber = 1; lineNumber <= lines.length; lineNumber++) {
+            String line = lines[lineNumber - 1].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] columns = line.split(",");
+            if (columns.length != 2) {
+                throw new IllegalArgumentException(format("%s line %d: expected 'seconds,ratePerSecond' but found [%s]",
+                        file, lineNumber, line));
+            }
+
+            try {
+                offsets.add(Long.parseLong(columns[0].trim()));
+                rates.add(Double.parseDouble(columns[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(format("%s line %d: invalid number in [%s]", file, lineNumber, line), e);
+            }
+        }
+
+        long[] offsetSeconds = new long[offsets.size()];
+        double[] ratesPerSecond = new double[rates.size()];
+        for (int k = 0; k < offsetSeconds.length; k++) {
+            offsetSeconds[k] = offsets.get(k);
+            ratesPerSecond[k] = rates.get(k);
+        }
+        return new CsvRateProfile(offsetSeconds, ratesPerSecond);
+    }
+
+    @Override
+    public double ratePerSecond(long elapsedNanos) {
+        int index = binarySearch(offsetNanos, elapsedNanos);
+        if (index < 0) {
+            // the insertion point is the first offset larger than the elapsed time; we need the one before it.
+            index = -index - 2;
+        }
+        return ratesPerSecond[max(0, index)];
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.worker.testcontainer.PropertyBinding;
+import com.hazelcast.simulator.worker.testcontainer.TestContextImpl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.worker.testcontainer.PropertyBinding.toPropertyName;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * The OpenLoopMetronome issues requests according to a fixed schedule that is independent of the completion of earlier
+ * requests.
+ * <p>
+ * All the other metronomes are closed-loop: a thread waits for its slot and then blocks on the request. So when the latency
+ * exceeds the interval, the intended rate silently collapses and this is only compensated in the latency histogram.
+ * <p>
+ * With the OpenLoopMetronome the schedule is shared by all threads of the execution group: the n-th request is intended to
+ * start at {@code start + n * interval}, no matter how many threads are available or how long the previous requests took.
+ * With a {@link RateProfile}, the interval between subsequent requests follows the profile instead.
+ * The threads act as a pool of executors; a free thread claims the next request of the schedule. If the request is already
+ * due, the thread executes it immediately and the time it has been waiting for a free thread is recorded as the queueing delay
+ * in the 'queueDelay' probe. The latency is always measured from the intended start time.
+ * <p>
+ * To keep up with the schedule, enough threads need to be available. Blocking calls can be combined with virtual threads
+ * (threadModel=virtual) so a large pool of threads is cheap. Async timestep methods don't block the thread, so a few threads
+ * are sufficient.
+ * <p>
+ * The intended rate and the achieved rate are available through {@link #intendedCount()} and {@link #claimedCount()}.
+ * The schedule ends when the test is stopped ({@link #stop()}) or when the last thread has left the timestep loop
+ * ({@link #onLoopExit()}), so the time spent waiting for the threads and the in-flight calls to complete doesn't count as
+ * requests that should have been started.
+ */
+public final class OpenLoopMetronome implements Metronome {
+
+    private final long intervalNanos;
+    private final Schedule schedule;
+
+    OpenLoopMetronome(long intervalNanos, LatencyProbe queueDelayProbe) {
+        this(intervalNanos, queueDelayProbe, null);
+    }
+
+    OpenLoopMetronome(long intervalNanos, LatencyProbe queueDelayProbe, RateProfile rateProfile) {
+        this.intervalNanos = intervalNanos;
+        this.schedule = new Schedule(queueDelayProbe, rateProfile);
+    }
+
+    public OpenLoopMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix) {
+        this(intervalNanos, threadCount, binding, prefix, null);
+    }
+
+    public OpenLoopMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix,
+                             RateProfile rateProfile) {
+        this(intervalNanos, queueDelayProbe(binding, prefix), rateProfile);
+    }
+
+    public OpenLoopMetronome(Metronome m) {
+        OpenLoopMetronome master = (OpenLoopMetronome) m;
+        this.intervalNanos = master.intervalNanos;
+        this.schedule = master.schedule;
+    }
+
+    private static LatencyProbe queueDelayProbe(PropertyBinding binding, String prefix) {
+        TestContextImpl testContext = binding.getTestContext();
+        // there is no test context when the binding itself creates the metronome.
+        return testContext == null ? null : testContext.getLatencyProbe(toPropertyName(prefix, "queueDelay"), false);
+    }
+
+    @Override
+    public long waitForNext() {
+        long expectedStartNanos = schedule.rateProfile == null ? claimFixed() : claimProfiled();
+
+        long now = nanoTime();
+        long queueDelayNanos = now - expectedStartNanos;
+        if (queueDelayNanos < 0) {
+            // we are ahead of the schedule.
+            do {
+                parkNanos(expectedStartNanos - now);
+            } while ((now = nanoTime()) < expectedStartNanos);
+            queueDelayNanos = 0;
+        }
+
+        LatencyProbe queueDelayProbe = schedule.queueDelayProbe;
+        if (queueDelayProbe != null) {
+            queueDelayProbe.recordValue(queueDelayNanos);
+        }
+        return expectedStartNanos;
+    }
+
+    private long claimFixed() {
+        long startNanos = schedule.startNanos();
+        long ticket = schedule.nextTicket.getAndIncrement();
+        return startNanos + ticket * intervalNanos;
+    }
+
+    // with a rate profile the start time of a request depends on the start time of the previous request.
+    private long claimProfiled() {
+        AtomicLong nextStartNanos = schedule.nextStartNanos;
+        for (; ; ) {
+            long expectedStartNanos = nextStartNanos.get();
+            if (expectedStartNanos == 0) {
+                nextStartNanos.compareAndSet(0, schedule.startNanos());
+                continue;
+            }
+
+            long nextIntervalNanos = schedule.rateProfile.intervalNanos(expectedStartNanos);
+            if (nextStartNanos.compareAndSet(expectedStartNanos, expectedStartNanos + nextIntervalNanos)) {
+                schedule.nextTicket.incrementAndGet();
+                return expectedStartNanos;
+            }
+        }
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * Returns the number of requests that should have been started according to the schedule.
+     *
+     * @return the intended number of requests, or 0 if the schedule hasn't started.
+     */
+    public long intendedCount() {
+        long startNanos = schedule.startNanos.get();
+        if (startNanos == 0) {
+            return 0;
+        }
+
+        long now = schedule.endNanos();
+        RateProfile rateProfile = schedule.rateProfile;
+        if (rateProfile == null) {
+            return (now - startNanos) / intervalNanos + 1;
+        }
+
+        // the requests that are due but not claimed yet are estimated using the current rate.
+        long lagNanos = now - schedule.nextStartNanos.get();
+        return claimedCount() + (lagNanos < 0 ? 0 : lagNanos / rateProfile.intervalNanos(now) + 1);
+    }
+
+    /**
+     * Signals that the test has stopped; the schedule ends at the first call.
+     */
+    public void stop() {
+        schedule.stopNanos.compareAndSet(0, nanoTime());
+    }
+
+    /**
+     * Signals that the calling thread has left the timestep loop; without a {@link #stop()}, the schedule ends when the
+     * last thread has left the loop.
+     */
+    public void onLoopExit() {
+        schedule.lastLoopExitNanos.accumulateAndGet(nanoTime(), Math::max);
+    }
+
+    /**
+     * Returns the number of requests that have been claimed by a thread. If this number is structurally lower than the
+     * {@link #intendedCount()}, there are not enough threads to keep up with the schedule.
+     *
+     * @return the claimed number of requests.
+     */
+    public long claimedCount() {
+        return schedule.nextTicket.get();
+    }
+
+    /**
+     * Returns the intended rate in requests per second. With a {@link RateProfile}, this is the current rate.
+     *
+     * @return the intended rate.
+     */
+    public double intendedRatePerSecond() {
+        RateProfile rateProfile = schedule.rateProfile;
+        long currentIntervalNanos = rateProfile == null ? intervalNanos : rateProfile.intervalNanos(nanoTime());
+        return SECONDS.toNanos(1) / (double) currentIntervalNanos;
+    }
+
+    private static final class Schedule {
+        private final AtomicLong startNanos = new AtomicLong();
+        private final AtomicLong nextTicket = new AtomicLong();
+        private final AtomicLong nextStartNanos = new AtomicLong();
+        private final AtomicLong stopNanos = new AtomicLong();
+        private final AtomicLong lastLoopExitNanos = new AtomicLong();
+        private final LatencyProbe queueDelayProbe;
+        private final RateProfile rateProfile;
+
+        private Schedule(LatencyProbe queueDelayProbe, RateProfile rateProfile) {
+            this.queueDelayProbe = queueDelayProbe;
+            this.rateProfile = rateProfile;
+        }
+
+        private long endNanos() {
+            long stop = stopNanos.get();
+            if (stop != 0) {
+                return stop;
+            }
+            long lastLoopExit = lastLoopExitNanos.get();
+            return lastLoopExit != 0 ? lastLoopExit : nanoTime();
+        }
+
+        // the schedule starts when the first request is claimed, not when the metronome is created.
+        private long startNanos() {
+            long start = startNanos.get();
+            if (start != 0) {
+                return start;
+            }
+
+            start = nanoTime();
+            return startNanos.compareAndSet(0, start) ? start : startNanos.get();
+        }
+    }
+}
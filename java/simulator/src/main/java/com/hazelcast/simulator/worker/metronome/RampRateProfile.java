@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link RateProfile} that linearly increases (or decreases) the rate from a start rate to the end rate in the given
+ * duration. Once the end rate is reached, it remains constant.
+ */
+public final class RampRateProfile extends RateProfile {
+
+    private final double startRatePerSecond;
+    private final double endRatePerSecond;
+    private final long durationNanos;
+
+    public RampRateProfile(double startRatePerSecond, double endRatePerSecond, long durationSeconds) {
+        this.startRatePerSecond = startRatePerSecond;
+        this.endRatePerSecond = endRatePerSecond;
+        this.durationNanos = SECONDS.toNanos(durationSeconds);
+    }
+
+    @Override
+    public double ratePerSecond(long elapsedNanos) {
+        if (elapsedNanos >= durationNanos) {
+            return endRatePerSecond;
+        }
+
+        double fraction = (double) elapsedNanos / durationNanos;
+        return startRatePerSecond + (endRatePerSecond - startRatePerSecond) * fraction;
+    }
+}
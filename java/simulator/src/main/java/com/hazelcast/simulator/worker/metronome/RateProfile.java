@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A RateProfile determines the rate of requests of an execution group over the course of a run. Without a RateProfile the
+ * {@link Metronome} uses a fixed interval; with a RateProfile the interval to the next request is determined by the rate
+ * at the expected start time of the current request.
+ * <p>
+ * The rate is the combined rate of all threads of the execution group, just like the ratePerSecond property. The profile
+ * starts when the first interval is requested and is shared between all metronomes of the execution group, so all threads
+ * follow the same clock.
+ * <p>
+ * Implementations should be thread-safe and not allocate since the interval is determined for every request.
+ */
+public abstract class RateProfile {
+
+    /**
+     * The rate of a thread is never lower than 1 request per second; otherwise a profile that starts at 0 would never make
+     * progress.
+     */
+    public static final double MIN_RATE_PER_SECOND = 1;
+
+    /**
+     * The maximum time a metronome waits before it reads the interval again. Without it, a thread that waits for the
+     * interval of a low rate, e.g. at the start of a ramp from 0, would miss the rate increase in the meantime.
+     */
+    public static final long MAX_WAIT_NANOS = MILLISECONDS.toNanos(100);
+
+    private final AtomicLong startNanos = new AtomicLong();
+
+    /**
+     * Returns the combined rate for all threads in requests per second.
+     *
+     * @param elapsedNanos the time in nanoseconds since the start of the profile.
+     * @return the rate.
+     */
+    public abstract double ratePerSecond(long elapsedNanos);
+
+    /**
+     * Returns the combined interval of all threads for the request that is expected to start at the given time.
+     *
+     * @param expectedStartNanos the expected start time of the request (in {@link System#nanoTime()}).
+     * @return the interval in nanoseconds.
+     */
+    public final long intervalNanos(long expectedStartNanos) {
+        return intervalNanos(expectedStartNanos, 1);
+    }
+
+    /**
+     * Returns the interval of a single thread for the request that is expected to start at the given time, when the
+     * combined rate is spread over the given number of threads.
+     *
+     * @param expectedStartNanos the expected start time of the request (in {@link System#nanoTime()}).
+     * @param threadCount        the number of threads.
+     * @return the interval in nanoseconds.
+     */
+    public final long intervalNanos(long expectedStartNanos, int threadCount) {
+        double ratePerSecond = ratePerSecond(expectedStartNanos - startNanos(expectedStartNanos)) / threadCount;
+        return max(1, round(SECONDS.toNanos(1) / max(MIN_RATE_PER_SECOND, ratePerSecond)));
+    }
+
+    private long startNanos(long nowNanos) {
+        long start = startNanos.get();
+        if (start != 0) {
+            return start;
+        }
+
+        return startNanos.compareAndSet(0, nowNanos) ? nowNanos : startNanos.get();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.sin;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link RateProfile} where the rate follows a sine wave around a mean rate. This can be used to simulate a diurnal
+ * pattern in a compressed amount of time.
+ */
+public final class SineRateProfile extends RateProfile {
+
+    private final double meanRatePerSecond;
+    private final double amplitudePerSecond;
+    private final long periodNanos;
+
+    public SineRateProfile(double meanRatePerSecond, double amplitudePerSecond, long periodSeconds) {
+        this.meanRatePerSecond = meanRatePerSecond;
+        this.amplitudePerSecond = amplitudePerSecond;
+        this.periodNanos = SECONDS.toNanos(periodSeconds);
+    }
+
+    @Override
+    public double ratePerSecond(long elapsedNanos) {
+        double phase = 2 * PI * (elapsedNanos % periodNanos) / periodNanos;
+        return meanRatePerSecond + amplitudePerSecond * sin(phase);
+    }
+}
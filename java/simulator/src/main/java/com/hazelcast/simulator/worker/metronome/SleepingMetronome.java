@@ -19,7 +19,9 @@ import com.hazelcast.simulator.worker.testcontainer.PropertyBinding;
 
 import java.util.concurrent.locks.LockSupport;
 
+import static com.hazelcast.simulator.worker.metronome.RateProfile.MAX_WAIT_NANOS;
 import static com.hazelcast.simulator.worker.testcontainer.PropertyBinding.toPropertyName;
+import static java.lang.Math.min;
 import static java.lang.System.nanoTime;
 import static org.apache.commons.lang3.RandomUtils.nextLong;
 
@@ -33,37 +35,71 @@ public final class SleepingMetronome implements Metronome {
 
     private final long intervalNanos;
     private final boolean accountForCoordinatedOmission;
+    private final int threadCount;
+    private final RateProfile rateProfile;
+    private long previousNanos;
     private long nextNanos;
 
     SleepingMetronome(long intervalNanos, boolean accountForCoordinatedOmission) {
+        this(intervalNanos, accountForCoordinatedOmission, 1, null);
+    }
+
+    SleepingMetronome(long intervalNanos, boolean accountForCoordinatedOmission, int threadCount, RateProfile rateProfile) {
         this.intervalNanos = intervalNanos;
         this.accountForCoordinatedOmission = accountForCoordinatedOmission;
+        this.threadCount = threadCount;
+        this.rateProfile = rateProfile;
     }
 
     public SleepingMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix) {
-        this(intervalNanos * threadCount, binding.loadAsBoolean(toPropertyName(prefix, "accountForCoordinatedOmission"), true));
+        this(intervalNanos, threadCount, binding, prefix, null);
+    }
+
+    public SleepingMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix,
+                             RateProfile rateProfile) {
+        this(intervalNanos * threadCount,
+                binding.loadAsBoolean(toPropertyName(prefix, "accountForCoordinatedOmission"), true),
+                threadCount, rateProfile);
     }
 
     public SleepingMetronome(Metronome m) {
         SleepingMetronome master = (SleepingMetronome) m;
         this.intervalNanos = master.intervalNanos;
         this.accountForCoordinatedOmission = master.accountForCoordinatedOmission;
+        this.threadCount = master.threadCount;
+        this.rateProfile = master.rateProfile;
     }
 
     @Override
     public long waitForNext() {
         // set random interval on the first run
         if (nextNanos == 0) {
-            nextNanos = nanoTime() + nextLong(0, intervalNanos);
+            long now = nanoTime();
+            if (rateProfile == null) {
+                nextNanos = now + nextLong(0, intervalNanos);
+            } else {
+                long profileIntervalNanos = rateProfile.intervalNanos(now, threadCount);
+                previousNanos = now - nextLong(0, profileIntervalNanos);
+                nextNanos = previousNanos + profileIntervalNanos;
+            }
         }
 
         long now;
-        while ((now = System.nanoTime()) < nextNanos) {
-            LockSupport.parkNanos(nextNanos - now);
+        while ((now = nanoTime()) < nextNanos) {
+            if (rateProfile == null) {
+                LockSupport.parkNanos(nextNanos - now);
+            } else {
+                LockSupport.parkNanos(min(nextNanos - now, MAX_WAIT_NANOS));
+                // the rate may have changed while waiting
+                nextNanos = previousNanos + rateProfile.intervalNanos(nanoTime(), threadCount);
+            }
         }
 
         long expectedStartNanos = nextNanos;
-        nextNanos += intervalNanos;
+        previousNanos = expectedStartNanos;
+        // with a rate profile, the interval of this thread is determined by the rate at the expected start time.
+        nextNanos = expectedStartNanos
+                + (rateProfile == null ? intervalNanos : rateProfile.intervalNanos(expectedStartNanos, threadCount));
         return accountForCoordinatedOmission ? expectedStartNanos : nanoTime();
     }
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link RateProfile} that increases the rate in a staircase: every step the rate is increased by a fixed amount until
+ * the maximum rate is reached.
+ * <p>
+ * This is useful to find the saturation point of a system in a single run: the throughput and latency of each step can be
+ * compared to see at which rate the latency SLA breaks.
+ */
+public final class StepRateProfile extends RateProfile {
+
+    private final double startRatePerSecond;
+    private final double stepRatePerSecond;
+    private final long stepNanos;
+    private final double maxRatePerSecond;
+
+    public StepRateProfile(double startRatePerSecond, double stepRatePerSecond, long stepSeconds, double maxRatePerSecond) {
+        this.startRatePerSecond = startRatePerSecond;
+        this.stepRatePerSecond = stepRatePerSecond;
+        this.stepNanos = SECONDS.toNanos(stepSeconds);
+        this.maxRatePerSecond = maxRatePerSecond;
+    }
+
+    @Override
+    public double ratePerSecond(long elapsedNanos) {
+        long step = elapsedNanos / stepNanos;
+        return min(maxRatePerSecond, startRatePerSecond + step * stepRatePerSecond);
+    }
+}
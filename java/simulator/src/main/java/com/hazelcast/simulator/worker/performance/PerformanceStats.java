@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.worker.performance;
 
 import com.hazelcast.simulator.common.TestPhase;
+import org.HdrHistogram.Histogram;
 
 import static java.lang.Math.max;
 
@@ -39,6 +40,9 @@ public class PerformanceStats {
     private double intervalLatencyAvgNanos;
     private long intervalLatencyMaxNanos;
     private long intervalLatency999PercentileNanos;
+    // the merged interval histogram of the latency probes that are included in the throughput; it isn't part of the JSON
+    // since it is only sent in the binary encoding of the PerformanceStatsMessage.
+    private transient Histogram intervalHistogram;
 
     /**
      * Creates an empty {@link PerformanceStats} instance.
@@ -74,6 +78,30 @@ public class PerformanceStats {
         this.intervalLatencyMaxNanos = intervalLatencyMaxNanos;
     }
 
+    /**
+     * Creates a {@link PerformanceStats} instance with values and the interval latency histogram.
+     *
+     * @param operationCount                    Operation count value.
+     * @param intervalThroughput                Throughput value for an interval.
+     * @param totalThroughput                   Total throughput value.
+     * @param intervalLatencyAvgNanos           Average latency for an interval.
+     * @param intervalLatency999PercentileNanos 99.9 Percentile latency for an interval
+     *                                          ({@link PerformanceStats#INTERVAL_LATENCY_PERCENTILE}).
+     * @param intervalLatencyMaxNanos           Maximum latency for an interval.
+     * @param intervalHistogram                 Latency histogram in nanoseconds for an interval; can be {@code null}.
+     */
+    public PerformanceStats(long operationCount,
+                            double intervalThroughput,
+                            double totalThroughput,
+                            double intervalLatencyAvgNanos,
+                            long intervalLatency999PercentileNanos,
+                            long intervalLatencyMaxNanos,
+                            Histogram intervalHistogram) {
+        this(operationCount, intervalThroughput, totalThroughput, intervalLatencyAvgNanos,
+                intervalLatency999PercentileNanos, intervalLatencyMaxNanos);
+        this.intervalHistogram = intervalHistogram;
+    }
+
     public PerformanceStats(PerformanceStats original) {
         this.operationCount = original.operationCount;
         this.intervalThroughput = original.intervalThroughput;
@@ -81,6 +109,7 @@ public class PerformanceStats {
         this.intervalLatencyAvgNanos = original.intervalLatencyAvgNanos;
         this.intervalLatency999PercentileNanos = original.intervalLatency999PercentileNanos;
         this.intervalLatencyMaxNanos = original.intervalLatencyMaxNanos;
+        this.intervalHistogram = merge(null, original.intervalHistogram);
     }
 
     /**
@@ -102,7 +131,8 @@ public class PerformanceStats {
      * For the total performance number and the performance per Simulator Agent, the added values should be set, so we get the
      * summed up operation count and throughput values.
      * <p>
-     * The method always sets the maximum values for latency.
+     * The method always sets the maximum values for latency. The interval histograms are merged, so the percentiles of the
+     * combined histogram are the real percentiles over all {@link PerformanceStats} instances.
      *
      * @param other                          {@link PerformanceStats} which should be added to this instance
      * @param addOperationCountAndThroughput {@code true} if operation count and throughput should be added,
@@ -121,6 +151,7 @@ public class PerformanceStats {
             intervalLatencyAvgNanos = other.intervalLatencyAvgNanos;
             intervalLatency999PercentileNanos = other.intervalLatency999PercentileNanos;
             intervalLatencyMaxNanos = other.intervalLatencyMaxNanos;
+            intervalHistogram = merge(null, other.intervalHistogram);
         } else {
             if (addOperationCountAndThroughput) {
                 operationCount += other.operationCount;
@@ -135,7 +166,24 @@ public class PerformanceStats {
             intervalLatencyAvgNanos = max(intervalLatencyAvgNanos, other.intervalLatencyAvgNanos);
             intervalLatency999PercentileNanos = max(intervalLatency999PercentileNanos, other.intervalLatency999PercentileNanos);
             intervalLatencyMaxNanos = max(intervalLatencyMaxNanos, other.intervalLatencyMaxNanos);
+            intervalHistogram = merge(intervalHistogram, other.intervalHistogram);
+        }
+    }
+
+    /**
+     * Adds the source histogram to the target histogram. The source is never modified, since it can be shared.
+     *
+     * @return the target or a new auto resizing histogram if the target is {@code null}.
+     */
+    private static Histogram merge(Histogram target, Histogram source) {
+        if (source == null) {
+            return target;
         }
+        if (target == null) {
+            target = new Histogram(source.getNumberOfSignificantValueDigits());
+        }
+        target.add(source);
+        return target;
     }
 
     /**
@@ -171,6 +219,30 @@ public class PerformanceStats {
         return intervalLatencyMaxNanos;
     }
 
+    /**
+     * Returns the interval latency histogram.
+     *
+     * @return the histogram or {@code null} if the worker didn't send a histogram.
+     */
+    public Histogram getIntervalHistogram() {
+        return intervalHistogram;
+    }
+
+    /**
+     * Returns a percentile of the interval latency.
+     * <p>
+     * Without an interval histogram, only the {@link #INTERVAL_LATENCY_PERCENTILE} is available.
+     *
+     * @param percentile the percentile, e.g. 99.99
+     * @return the latency in nanoseconds or -1 if the percentile isn't available.
+     */
+    public long getIntervalLatencyPercentileNanos(double percentile) {
+        if (intervalHistogram != null) {
+            return intervalHistogram.getValueAtPercentile(percentile);
+        }
+        return percentile == INTERVAL_LATENCY_PERCENTILE ? intervalLatency999PercentileNanos : -1;
+    }
+
     @Override
     public String toString() {
         return "PerformanceStats{"
@@ -16,7 +16,7 @@
 package com.hazelcast.simulator.worker.performance;
 
 import com.hazelcast.simulator.probes.LatencyProbe;
-import com.hazelcast.simulator.probes.impl.HdrLatencyProbe;
+import com.hazelcast.simulator.probes.impl.AbstractHdrLatencyProbe;
 import com.hazelcast.simulator.test.TestException;
 import com.hazelcast.simulator.worker.testcontainer.TestContainer;
 import com.hazelcast.simulator.worker.testcontainer.TestContextImpl;
@@ -59,11 +59,14 @@ public final class TestOperationsTracker {
     private double intervalLatencyAvgNanos;
     private long intervalLatency999PercentileNanos;
     private long intervalLatencyMaxNanos;
+    private Histogram intervalLatencyHistogram;
     private long intervalOperationCount;
     private long totalOperationCount;
     private double intervalThroughput;
     private double totalThroughput;
     private long nextUpdateMillis;
+    // read by the metrics endpoint, so it is published as an immutable snapshot
+    private volatile PerformanceStats lastPerformanceStats;
 
     public TestOperationsTracker(TestContainer container) {
         this.testContainer = container;
@@ -117,6 +120,7 @@ public final class TestOperationsTracker {
         long intervalPercentileLatency = -1;
         double intervalMean = -1;
         long intervalMaxLatency = -1;
+        Histogram intervalLatencyHistogram = null;
 
         long iterations = testContainer.iteration() - iterationsDuringWarmup;
         long intervalOperationCount = iterations - lastIterations;
@@ -124,12 +128,12 @@ public final class TestOperationsTracker {
         for (Map.Entry<String, LatencyProbe> entry : latencyProbes.entrySet()) {
             String probeName = entry.getKey();
             LatencyProbe latencyProbe = entry.getValue();
-            if (!(latencyProbe instanceof HdrLatencyProbe)) {
+            if (!(latencyProbe instanceof AbstractHdrLatencyProbe)) {
                 continue;
             }
 
-            HdrLatencyProbe hdrLatencyProbe = (HdrLatencyProbe) latencyProbe;
-            Histogram intervalHistogram = hdrLatencyProbe.getRecorder().getIntervalHistogram();
+            AbstractHdrLatencyProbe hdrLatencyProbe = (AbstractHdrLatencyProbe) latencyProbe;
+            Histogram intervalHistogram = hdrLatencyProbe.getIntervalHistogram();
             intervalHistogram.setStartTimeStamp(lastUpdateMillis);
             intervalHistogram.setEndTimeStamp(currentTimeMillis);
             intervalHistograms.put(probeName, intervalHistogram);
@@ -151,6 +155,14 @@ public final class TestOperationsTracker {
 
             if (latencyProbe.includeInThroughput()) {
                 intervalOperationCount += intervalHistogram.getTotalCount();
+
+                // the histograms of the probes that measure the operations are merged and sent to the coordinator, so it
+                // can calculate the percentiles over all workers. Probes like the 'queueDelay' measure something else.
+                if (intervalLatencyHistogram == null) {
+                    intervalLatencyHistogram = intervalHistogram.copy();
+                } else {
+                    intervalLatencyHistogram.add(intervalHistogram);
+                }
             }
         }
 
@@ -159,6 +171,7 @@ public final class TestOperationsTracker {
         this.intervalLatency999PercentileNanos = intervalPercentileLatency;
         this.intervalLatencyAvgNanos = intervalMean;
         this.intervalLatencyMaxNanos = intervalMaxLatency;
+        this.intervalLatencyHistogram = intervalLatencyHistogram;
 
         this.intervalOperationCount = intervalOperationCount;
         this.totalOperationCount += intervalOperationCount;
@@ -172,6 +185,18 @@ public final class TestOperationsTracker {
         this.lastIterations = iterations;
         this.nextUpdateMillis += updateIntervalMillis;
         this.lastUpdateMillis = currentTimeMillis;
+        this.lastPerformanceStats = createPerformanceStats();
+    }
+
+    /**
+     * Returns the PerformanceStats of the last interval.
+     *
+     * This method is thread-safe.
+     *
+     * @return the PerformanceStats or {@code null} if there hasn't been a complete interval yet.
+     */
+    public PerformanceStats getLastPerformanceStats() {
+        return lastPerformanceStats;
     }
 
     long intervalOperationCount() {
@@ -214,7 +239,8 @@ public final class TestOperationsTracker {
                 totalThroughput,
                 intervalLatencyAvgNanos,
                 intervalLatency999PercentileNanos,
-                intervalLatencyMaxNanos);
+                intervalLatencyMaxNanos,
+                intervalLatencyHistogram);
     }
 
     HistogramLogWriter createHistogramLogWriter(String probeName) {
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import com.hazelcast.simulator.metrics.MetricSamples;
+import com.hazelcast.simulator.metrics.MetricsProvider;
+import com.hazelcast.simulator.metrics.PerformanceStatsMetrics;
+import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.worker.testcontainer.TestContainer;
+import com.hazelcast.simulator.worker.testcontainer.TestManager;
+
+import java.util.Map;
+
+/**
+ * Provides the metrics of the tests running on a worker.
+ */
+public class WorkerMetricsProvider implements MetricsProvider {
+
+    private final TestManager testManager;
+
+    public WorkerMetricsProvider(TestManager testManager) {
+        this.testManager = testManager;
+    }
+
+    @Override
+    public void collect(MetricSamples samples) {
+        for (TestContainer container : testManager.getContainers()) {
+            String testId = container.getTestCase().getId();
+
+            samples.gauge("simulator_test_running", "1 if the test is running, 0 otherwise.",
+                            container.isRunning() ? 1 : 0, "test", testId)
+                    .counter("simulator_test_iterations_total", "Number of timestep iterations of the test.",
+                            container.iteration(), "test", testId)
+                    .gauge("simulator_test_in_flight", "Number of async operations that haven't completed.",
+                            container.inFlight(), "test", testId);
+
+            for (Map.Entry<String, LatencyProbe> entry : container.getTestContext().getLatencyProbes().entrySet()) {
+                samples.counter("simulator_test_negative_latency_total", "Number of negative latencies recorded by a probe.",
+                        entry.getValue().negativeCount(), "test", testId, "probe", entry.getKey());
+            }
+
+            TestOperationsTracker tracker = container.getTestOperationsTracker();
+            PerformanceStatsMetrics.collect(samples, tracker.getLastPerformanceStats(), "test", testId);
+        }
+    }
+}
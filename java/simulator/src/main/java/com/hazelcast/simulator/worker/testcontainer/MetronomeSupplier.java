@@ -15,15 +15,24 @@
  */
 package com.hazelcast.simulator.worker.testcontainer;
 
+import com.hazelcast.simulator.utils.UncheckedIOException;
+import com.hazelcast.simulator.worker.metronome.AdjustableRateProfile;
+import com.hazelcast.simulator.worker.metronome.CsvRateProfile;
 import com.hazelcast.simulator.worker.metronome.EmptyMetronome;
 import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.metronome.RampRateProfile;
+import com.hazelcast.simulator.worker.metronome.RateProfile;
+import com.hazelcast.simulator.worker.metronome.SineRateProfile;
 import com.hazelcast.simulator.worker.metronome.SleepingMetronome;
+import com.hazelcast.simulator.worker.metronome.StepRateProfile;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static com.hazelcast.simulator.worker.testcontainer.PropertyBinding.toPropertyName;
+import static java.lang.Math.max;
 import static java.lang.Math.round;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.DAYS;
@@ -36,8 +45,15 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class MetronomeSupplier implements Supplier<Metronome> {
 
+    public static final String RATE_PROFILE_CONSTANT = "constant";
+    public static final String RATE_PROFILE_RAMP = "ramp";
+    public static final String RATE_PROFILE_STEP = "step";
+    public static final String RATE_PROFILE_SINE = "sine";
+    public static final String RATE_PROFILE_CSV = "csv";
+
     private final Class<? extends Metronome> metronomeClass;
     private final Metronome masterMetronome;
+    private final RateProfile rateProfile;
     private final long intervalNanos;
 
     public MetronomeSupplier(String executionGroup, PropertyBinding binding, int threadCount) {
@@ -58,6 +74,14 @@ public class MetronomeSupplier implements Supplier<Metronome> {
         Class<SleepingMetronome> configuredMetronomeClass = binding.loadAsClass(
                 toPropertyName(executionGroup, "metronomeClass"), SleepingMetronome.class);
 
+        this.rateProfile = binding.isThroughputSearch()
+                ? newAdjustableRateProfile(executionGroup, binding, intervalNanos)
+                : loadRateProfile(executionGroup, binding, intervalNanos);
+        if (rateProfile != null && intervalNanos == 0) {
+            // a replayed profile doesn't need a ratePerSecond; the initial interval is taken from the profile.
+            intervalNanos = round(SECONDS.toNanos(1) / max(RateProfile.MIN_RATE_PER_SECOND, rateProfile.ratePerSecond(0)));
+        }
+
         this.intervalNanos = intervalNanos;
         if (intervalNanos == 0) {
             this.metronomeClass = EmptyMetronome.class;
@@ -67,19 +91,114 @@ public class MetronomeSupplier implements Supplier<Metronome> {
 
             Constructor<? extends Metronome> constructor;
             try {
-                constructor = this.metronomeClass.getConstructor(Long.TYPE, Integer.TYPE, PropertyBinding.class, String.class);
+                if (rateProfile == null) {
+                    constructor = metronomeClass.getConstructor(Long.TYPE, Integer.TYPE, PropertyBinding.class, String.class);
+                } else {
+                    constructor = metronomeClass.getConstructor(
+                            Long.TYPE, Integer.TYPE, PropertyBinding.class, String.class, RateProfile.class);
+                }
             } catch (NoSuchMethodException e) {
+                if (rateProfile != null) {
+                    throw new IllegalTestException(
+                            format("Metronome [%s] doesn't support a rateProfile", metronomeClass.getName()), e);
+                }
                 throw new IllegalTestException("Metronome [%s], does not have the right constructor", e);
             }
 
             try {
-                masterMetronome = constructor.newInstance(intervalNanos, threadCount, binding, executionGroup);
+                masterMetronome = rateProfile == null
+                        ? constructor.newInstance(intervalNanos, threadCount, binding, executionGroup)
+                        : constructor.newInstance(intervalNanos, threadCount, binding, executionGroup, rateProfile);
             } catch (Exception e) {
                 throw new IllegalTestException("Failed to create a master metronome instance", e);
             }
         }
     }
 
+    private static RateProfile newAdjustableRateProfile(String executionGroup, PropertyBinding binding, long intervalNanos) {
+        String property = toPropertyName(executionGroup, "rateProfile");
+        if (binding.load(property) != null) {
+            throw new IllegalTestException(format("%s can't be combined with the throughput search", property));
+        }
+
+        // an execution group without a rate isn't throttled, so there is nothing to adjust.
+        return intervalNanos == 0 ? null : new AdjustableRateProfile(SECONDS.toNanos(1) / (double) intervalNanos);
+    }
+
+    private static RateProfile loadRateProfile(String executionGroup, PropertyBinding binding, long intervalNanos) {
+        String property = toPropertyName(executionGroup, "rateProfile");
+        String profile = binding.load(property);
+        if (profile == null || RATE_PROFILE_CONSTANT.equals(profile)) {
+            return null;
+        }
+
+        if (RATE_PROFILE_CSV.equals(profile)) {
+            String fileProperty = toPropertyName(executionGroup, "rateProfileFile");
+            String file = binding.load(fileProperty);
+            if (file == null) {
+                throw new IllegalTestException(format("%s [%s] requires %s", property, profile, fileProperty));
+            }
+
+            try {
+                return CsvRateProfile.load(new File(file));
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                throw new IllegalTestException(format("%s has an invalid rate profile file [%s]", fileProperty, file), e);
+            }
+        }
+
+        if (intervalNanos == 0) {
+            throw new IllegalTestException(format("%s [%s] requires ratePerSecond or interval to be set", property, profile));
+        }
+
+        double ratePerSecond = SECONDS.toNanos(1) / (double) intervalNanos;
+        switch (profile) {
+            case RATE_PROFILE_RAMP:
+                return new RampRateProfile(
+                        loadNonNegativeDouble(executionGroup, binding, "rateProfileStartRatePerSecond", 0),
+                        ratePerSecond,
+                        loadPositiveLong(executionGroup, binding, "rateProfileDurationSeconds"));
+            case RATE_PROFILE_STEP:
+                return new StepRateProfile(
+                        ratePerSecond,
+                        loadNonNegativeDouble(executionGroup, binding, "rateProfileStepRatePerSecond", ratePerSecond),
+                        loadPositiveLong(executionGroup, binding, "rateProfileStepSeconds"),
+                        loadNonNegativeDouble(executionGroup, binding, "rateProfileMaxRatePerSecond", Double.MAX_VALUE));
+            case RATE_PROFILE_SINE:
+                double amplitude = loadNonNegativeDouble(executionGroup, binding, "rateProfileAmplitudePerSecond", 0);
+                if (amplitude == 0 || amplitude > ratePerSecond) {
+                    throw new IllegalTestException(format("%s must be larger than 0 and not larger than the ratePerSecond %s",
+                            toPropertyName(executionGroup, "rateProfileAmplitudePerSecond"), ratePerSecond));
+                }
+                return new SineRateProfile(
+                        ratePerSecond,
+                        amplitude,
+                        loadPositiveLong(executionGroup, binding, "rateProfilePeriodSeconds"));
+            default:
+                throw new IllegalTestException(format("%s has an unrecognized value [%s], valid values are %s, %s, %s, %s and %s",
+                        property, profile, RATE_PROFILE_CONSTANT, RATE_PROFILE_RAMP, RATE_PROFILE_STEP, RATE_PROFILE_SINE,
+                        RATE_PROFILE_CSV));
+        }
+    }
+
+    private static double loadNonNegativeDouble(String executionGroup, PropertyBinding binding, String name,
+                                                double defaultValue) {
+        String property = toPropertyName(executionGroup, name);
+        double value = binding.loadAsDouble(property, defaultValue);
+        if (value < 0) {
+            throw new IllegalTestException(format("%s can't be smaller than 0, but was %s", property, value));
+        }
+        return value;
+    }
+
+    private static long loadPositiveLong(String executionGroup, PropertyBinding binding, String name) {
+        String property = toPropertyName(executionGroup, name);
+        long value = binding.loadAsLong(property, 0);
+        if (value <= 0) {
+            throw new IllegalTestException(format("%s should be set to a value larger than 0", property));
+        }
+        return value;
+    }
+
     public long getIntervalNanos() {
         return intervalNanos;
     }
@@ -125,6 +244,14 @@ public class MetronomeSupplier implements Supplier<Metronome> {
         return metronomeClass;
     }
 
+    RateProfile getRateProfile() {
+        return rateProfile;
+    }
+
+    Metronome getMasterMetronome() {
+        return masterMetronome;
+    }
+
     @Override
     public Metronome get() {
         if (metronomeClass == EmptyMetronome.class) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.testcontainer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Selects a timestep method based on the ratios of the methods, using the alias method.
+ * <p>
+ * Selecting a method needs a single random long: the upper 32 bits pick a column and the lower 32 bits decide between the
+ * column and its alias. The table has a column per method, so for the typical test it fits in a single cache line; unlike a
+ * probability array with an element per 1/{@link Probability#PROBABILITY_LENGTH}, where every selection touches a random
+ * cache line of a 1 MB array.
+ * <p>
+ * The selection is exact for the given ratios (up to a 2^-32 rounding of the thresholds).
+ * <p>
+ * This class is immutable and thread-safe; the random value needs to be provided by the caller, typically using a
+ * non-synchronized random per thread.
+ */
+public final class OperationSelector {
+
+    // 2^32; the threshold is compared against the lower 32 bits of the random
+    private static final long THRESHOLD_SCALE = 1L << 32;
+    private static final long LOWER_32_BITS_MASK = 0xFFFFFFFFL;
+
+    private final long[] thresholds;
+    private final int[] aliases;
+    private final int size;
+
+    private OperationSelector(long[] thresholds, int[] aliases) {
+        this.thresholds = thresholds;
+        this.aliases = aliases;
+        this.size = thresholds.length;
+    }
+
+    /**
+     * Creates an OperationSelector.
+     *
+     * @param ratios the ratio per method; the probability of method i is ratios[i] / sum(ratios).
+     * @return the created OperationSelector.
+     * @throws IllegalArgumentException if there are no ratios, a ratio is negative or all ratios are 0.
+     */
+    public static OperationSelector fromRatios(int... ratios) {
+        int size = ratios.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("ratios can't be empty");
+        }
+
+        long total = 0;
+        for (int ratio : ratios) {
+            if (ratio < 0) {
+                throw new IllegalArgumentException("ratio can't be negative, but was " + ratio);
+            }
+            total += ratio;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("at least one ratio should be larger than 0");
+        }
+
+        // Vose's alias method in integer arithmetic: the scaled ratio of column i is ratio[i] * size, and a column is 'full'
+        // when it reaches the total.
+        long[] scaled = new long[size];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (long) ratios[i] * size;
+            if (scaled[i] < total) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+
+        long[] thresholds = new long[size];
+        int[] aliases = new int[size];
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int s = small.pop();
+            int l = large.pop();
+
+            thresholds[s] = scaled[s] * THRESHOLD_SCALE / total;
+            aliases[s] = l;
+
+            scaled[l] = scaled[l] + scaled[s] - total;
+            if (scaled[l] < total) {
+                small.push(l);
+            } else {
+                large.push(l);
+            }
+        }
+
+        // the remaining columns are full; they never select their alias
+        fillRemaining(small, thresholds, aliases);
+        fillRemaining(large, thresholds, aliases);
+
+        return new OperationSelector(thresholds, aliases);
+    }
+
+    private static void fillRemaining(Deque<Integer> remaining, long[] thresholds, int[] aliases) {
+        while (!remaining.isEmpty()) {
+            int i = remaining.pop();
+            thresholds[i] = THRESHOLD_SCALE;
+            aliases[i] = i;
+        }
+    }
+
+    /**
+     * Selects a method.
+     *
+     * @param random a uniformly distributed random long.
+     * @return the index of the selected method.
+     */
+    public int select(long random) {
+        int column = (int) (((random >>> Integer.SIZE) * size) >>> Integer.SIZE);
+        return (random & LOWER_32_BITS_MASK) < thresholds[column] ? column : aliases[column];
+    }
+
+    /**
+     * Returns the number of methods.
+     *
+     * @return the number of methods.
+     */
+    public int size() {
+        return size;
+    }
+}
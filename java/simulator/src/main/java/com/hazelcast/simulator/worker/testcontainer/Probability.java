@@ -72,32 +72,31 @@ public class Probability {
         return Double.toString(value);
     }
 
-    public static byte[] loadTimeStepProbabilityArray(Map<Method, Probability> methods, List<Method> activeMethods) {
+    /**
+     * Creates the {@link OperationSelector} for the active timestep methods.
+     *
+     * @param methods       the probability per method.
+     * @param activeMethods the active methods; the index of a method in this list is the index returned by the selector.
+     * @return the OperationSelector or {@code null} if there are less than 2 active methods.
+     */
+    public static OperationSelector loadOperationSelector(Map<Method, Probability> methods, List<Method> activeMethods) {
         if (activeMethods.size() < 2) {
             return null;
         }
 
         double[] methodProbabilities = new double[activeMethods.size()];
         for (int methodIndex = 0; methodIndex < activeMethods.size(); methodIndex++) {
-            Method method = activeMethods.get(methodIndex);
-            Probability probability = methods.get(method);
-            methodProbabilities[methodIndex] = probability.getValue();
+            methodProbabilities[methodIndex] = methods.get(activeMethods.get(methodIndex)).getValue();
         }
-
-        int[] methodRatios = methodProbabilitiesToMethodRatios(methodProbabilities);
-        return ratiosToMethodProbabilityArray(methodRatios);
+        return OperationSelector.fromRatios(methodProbabilitiesToMethodRatios(methodProbabilities));
     }
 
-
-    public static byte[] loadTimeStepProbabilityArray(List<Probability> methods) {
+    public static OperationSelector loadOperationSelector(List<Probability> methods) {
         double[] methodProbabilities = new double[methods.size()];
         for (int methodIndex = 0; methodIndex < methods.size(); methodIndex++) {
-            Probability probability = methods.get(methodIndex);
-            methodProbabilities[methodIndex] = probability.getValue();
+            methodProbabilities[methodIndex] = methods.get(methodIndex).getValue();
         }
-
-        int[] methodRatios = methodProbabilitiesToMethodRatios(methodProbabilities);
-        return ratiosToMethodProbabilityArray(methodRatios);
+        return OperationSelector.fromRatios(methodProbabilitiesToMethodRatios(methodProbabilities));
     }
 
     public static int[] methodProbabilitiesToMethodRatios(double... methodProbabilities) {
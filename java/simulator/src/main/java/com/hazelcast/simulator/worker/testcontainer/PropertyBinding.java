@@ -17,6 +17,7 @@ package com.hazelcast.simulator.worker.testcontainer;
 
 import com.hazelcast.simulator.common.TestCase;
 import com.hazelcast.simulator.probes.LatencyProbe;
+import com.hazelcast.simulator.probes.impl.AbstractHdrLatencyProbe;
 import com.hazelcast.simulator.probes.impl.HdrLatencyProbe;
 import com.hazelcast.simulator.drivers.Convertible;
 import com.hazelcast.simulator.test.TestContext;
@@ -30,6 +31,8 @@ import java.lang.reflect.Field;
 import java.util.HashSet;
 import java.util.Set;
 
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_PREFIX;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_SLA_US;
 import static com.hazelcast.simulator.utils.Preconditions.checkNotNull;
 import static com.hazelcast.simulator.utils.PropertyBindingSupport.bindAll;
 import static com.hazelcast.simulator.utils.PropertyBindingSupport.removeUnderscores;
@@ -56,6 +59,9 @@ public class PropertyBinding {
     // if we want to measure latency. Normally this is always true; but in its current setting, hdr can cause contention
     // and I want a switch that turns of hdr recording. Perhaps that with some tuning this isn't needed.
     public boolean measureLatency = true;
+    // the LatencyProbe implementation to use when measuring latency. The StripedHdrLatencyProbe can be used to prevent
+    // contention on the probe with high thread counts.
+    public Class latencyProbeClass = HdrLatencyProbe.class;
     // flag to enable jitter recording
     public boolean recordJitter;
     // configures the minimum value for the jitter sample to be recorded.
@@ -66,6 +72,7 @@ public class PropertyBinding {
     private final Class<? extends LatencyProbe> probeClass;
     private TestContextImpl testContext;
     private final TestCase testCase;
+    private final boolean throughputSearch;
     private final Set<String> unusedProperties = new HashSet<>();
     private Object driverInstance;
 
@@ -76,6 +83,10 @@ public class PropertyBinding {
         unusedProperties.remove("rampupSeconds");
         unusedProperties.remove("id");
 
+        // the throughput search is driven by the coordinator; the worker only needs to know if it is enabled.
+        this.throughputSearch = testCase.getProperty(THROUGHPUT_SEARCH_SLA_US) != null;
+        unusedProperties.removeIf(property -> property.startsWith(THROUGHPUT_SEARCH_PREFIX));
+
         bind(this);
 
         if (recordJitterThresholdNs < 0) {
@@ -237,14 +248,33 @@ public class PropertyBinding {
         return probeClass;
     }
 
+    @SuppressWarnings("unchecked")
     private Class<? extends LatencyProbe> loadProbeClass() {
-        return measureLatency ? HdrLatencyProbe.class : null;
+        if (!measureLatency) {
+            return null;
+        }
+
+        if (!AbstractHdrLatencyProbe.class.isAssignableFrom(latencyProbeClass)) {
+            throw new IllegalTestException(format("latencyProbeClass [%s] should be a subclass of %s",
+                    latencyProbeClass.getName(), AbstractHdrLatencyProbe.class.getName()));
+        }
+        return latencyProbeClass;
     }
 
     public TestCase getTestCase() {
         return testCase;
     }
 
+    /**
+     * Checks if the coordinator searches for the maximum sustainable throughput of this test, in which case the rate of the
+     * test is adjusted while it is running.
+     *
+     * @return {@code true} if the throughput search is enabled.
+     */
+    public boolean isThroughputSearch() {
+        return throughputSearch;
+    }
+
     public TestContextImpl getTestContext() {
         return testContext;
     }
@@ -107,6 +107,9 @@ public class TestContainer {
         propertyBinding.bind(testInstance);
 
         this.runner = newRunner();
+        if (propertyBinding.isThroughputSearch() && !(runner instanceof TimeStepRunner)) {
+            throw new IllegalTestException("The throughput search requires a test with @TimeStep methods");
+        }
 
         registerTestPhaseTasks();
 
@@ -120,6 +123,24 @@ public class TestContainer {
         runner.stop();
     }
 
+    /**
+     * Adjusts the rate of the test while it is running.
+     *
+     * @param rateFactor the factor to apply to the configured rate.
+     * @throws IllegalStateException if the rate of the test can't be adjusted.
+     */
+    public void setRateFactor(double rateFactor) {
+        if (!(runner instanceof TimeStepRunner)) {
+            throw new IllegalStateException(format("The rate of test [%s] can't be adjusted, it has no @TimeStep methods",
+                    testCase.getId()));
+        }
+        ((TimeStepRunner) runner).setRateFactor(rateFactor);
+    }
+
+    TestRunner getRunner() {
+        return runner;
+    }
+
     public TestPhase getCurrentPhase() {
         return currentPhase.get();
     }
@@ -172,6 +193,10 @@ public class TestContainer {
         return runner == null ? 0 : runner.iterations();
     }
 
+    public long inFlight() {
+        return runner == null ? 0 : runner.inFlight();
+    }
+
     public void invoke(TestPhase testPhase) throws Exception {
         if (!currentPhase.compareAndSet(null, testPhase)) {
             throw new IllegalStateException(format("Tried to start %s for test %s, but %s is still running!", testPhase,
@@ -17,11 +17,12 @@ package com.hazelcast.simulator.worker.testcontainer;
 
 import com.hazelcast.simulator.probes.LatencyProbe;
 import com.hazelcast.simulator.probes.impl.NoopLatencyProbe;
-import com.hazelcast.simulator.probes.impl.HdrLatencyProbe;
 import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.message.LogMessage;
 import com.hazelcast.simulator.test.TestContext;
 
+import java.lang.reflect.Constructor;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -36,6 +37,7 @@ public class TestContextImpl implements TestContext {
     private final ConcurrentMap<String, LatencyProbe> latencyProbes = new ConcurrentHashMap<>();
     private volatile boolean stopped;
     private Class latencyProbeClass;
+    private Constructor<? extends LatencyProbe> latencyProbeConstructor;
 
     public TestContextImpl(String testId,
                            String publicIpAddress,
@@ -45,8 +47,20 @@ public class TestContextImpl implements TestContext {
         this.server = server;
     }
 
+    @SuppressWarnings("unchecked")
     public void setLatencyProbeClass(Class latencyProbeClass) {
         this.latencyProbeClass = latencyProbeClass;
+        if (latencyProbeClass == null) {
+            this.latencyProbeConstructor = null;
+            return;
+        }
+
+        try {
+            this.latencyProbeConstructor = latencyProbeClass.getConstructor(String.class, Boolean.TYPE);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalTestException(format("LatencyProbe [%s] does not have a (String, boolean) constructor",
+                    latencyProbeClass.getName()), e);
+        }
     }
 
     public Map<String, LatencyProbe> getLatencyProbes() {
@@ -64,7 +78,7 @@ public class TestContextImpl implements TestContext {
 
         LatencyProbe probe = latencyProbes.get(probeName);
         if (probe == null) {
-            probe = new HdrLatencyProbe(probeName, includeInThroughput);
+            probe = newLatencyProbe(probeName, includeInThroughput);
             LatencyProbe found = latencyProbes.putIfAbsent(probeName, probe);
             if (found != null) {
                 probe = found;
@@ -73,6 +87,14 @@ public class TestContextImpl implements TestContext {
         return probe;
     }
 
+    private LatencyProbe newLatencyProbe(String probeName, boolean includeInThroughput) {
+        try {
+            return latencyProbeConstructor.newInstance(probeName, includeInThroughput);
+        } catch (Exception e) {
+            throw new IllegalTestException("Failed to create LatencyProbe [" + probeName + "]", e);
+        }
+    }
+
     @Override
     public String getTestId() {
         return testId;
@@ -83,6 +105,11 @@ public class TestContextImpl implements TestContext {
         return publicIpAddress;
     }
 
+    @Override
+    public SimulatorAddress getWorkerAddress() {
+        return server == null ? null : server.getSelfAddress();
+    }
+
     @Override
     public boolean isStopped() {
         return stopped;
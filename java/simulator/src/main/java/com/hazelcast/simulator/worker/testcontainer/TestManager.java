@@ -22,6 +22,7 @@ import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.drivers.Driver;
 import com.hazelcast.simulator.worker.messages.CreateTestMessage;
+import com.hazelcast.simulator.worker.messages.SetRateMessage;
 import com.hazelcast.simulator.worker.messages.StartPhaseMessage;
 import com.hazelcast.simulator.worker.messages.StopRunMessage;
 import org.apache.logging.log4j.LogManager;
@@ -93,6 +94,19 @@ public class TestManager {
         testContainer.stop();
     }
 
+    public void setRate(SetRateMessage msg) {
+        String testId = msg.getTestId();
+
+        LOGGER.info(format("%s Setting rate factor of %s to %s %s", DASHES, testId, msg.getRateFactor(), DASHES));
+
+        TestContainer testContainer = tests.get(testId);
+        if (testContainer == null) {
+            throw new IllegalArgumentException(format("Could not set rate, test [%s] is not found.", testId));
+        }
+
+        testContainer.setRateFactor(msg.getRateFactor());
+    }
+
     public void startTestPhase(StartPhaseMessage msg, Promise promise) throws Exception {
         TestPhase testPhase = msg.getTestPhase();
 
@@ -47,6 +47,17 @@ abstract class TestRunner {
         return 0;
     }
 
+    /**
+     * Returns the number of async calls that have been issued, but not yet completed. Value is 0 if it isn't tracked.
+     *
+     * This method is thread-safe.
+     *
+     * @return the number of in-flight calls.
+     */
+    public long inFlight() {
+        return 0;
+    }
+
     /**
      * Checks if the run strategy is running. This is true in case of warmup and actual running.
      *
@@ -18,7 +18,9 @@ package com.hazelcast.simulator.worker.testcontainer;
 
 import com.hazelcast.simulator.probes.LatencyProbe;
 import com.hazelcast.simulator.test.StopException;
+import com.hazelcast.simulator.test.TestException;
 import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.metronome.OpenLoopMetronome;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -27,6 +29,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -34,6 +38,8 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 /**
  * The timestep loop executed by a single timestep-thread
@@ -42,6 +48,8 @@ import static java.lang.String.format;
  */
 public abstract class TimeStepLoop implements Runnable {
 
+    static final long DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS = MINUTES.toMillis(2);
+
     protected TestContextImpl testContext;
     protected Metronome metronome;
 
@@ -51,10 +59,17 @@ public abstract class TimeStepLoop implements Runnable {
     protected final Object testInstance;
     protected final AtomicLong iterations = new AtomicLong();
     protected final TimeStepModel timeStepModel;
-    protected final byte[] timeStepProbabilities;
+    protected final OperationSelector operationSelector;
     protected final Map<String, LatencyProbe> probeMap = new HashMap<>();
     protected long maxIterations;
     protected long delayMillis;
+    // bounds the number of outstanding async timestep calls of this loop; null if unbounded.
+    protected Semaphore inFlight;
+    protected int maxInFlight;
+    // the maximum time to wait for the in-flight calls to complete once the loop has stopped.
+    protected long inFlightTimeoutMillis = DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS;
+    // selects the operation when there are multiple timestep methods; seeded when a randomSeed is configured.
+    protected SplittableRandom operationRandom = new SplittableRandom();
 
     // There are used to prevent dead code optimization
     protected final AtomicReference atomicReference = new AtomicReference();
@@ -67,7 +82,7 @@ public abstract class TimeStepLoop implements Runnable {
         this.timeStepModel = timeStepModel;
         this.executionGroup = executionGroup;
         this.threadState = initThreadState();
-        this.timeStepProbabilities = timeStepModel.getTimeStepProbabilityArray(executionGroup);
+        this.operationSelector = timeStepModel.getOperationSelector(executionGroup);
     }
 
     public String getExecutionGroup() {
@@ -112,6 +127,13 @@ public abstract class TimeStepLoop implements Runnable {
                 logger.info(threadName + " stopped using StopException");
             }
 
+            if (metronome instanceof OpenLoopMetronome) {
+                // the waiting for the in-flight calls below doesn't count as time the schedule is running
+                ((OpenLoopMetronome) metronome).onLoopExit();
+            }
+
+            awaitInFlight();
+
             afterRun();
 
             logger.info(threadName + " completed normally" + (explicitStop ? " with StopException" : ""));
@@ -122,6 +144,30 @@ public abstract class TimeStepLoop implements Runnable {
         }
     }
 
+    /**
+     * Returns the number of async timestep calls that have been issued, but not yet completed.
+     *
+     * @return the number of in-flight calls, or 0 if the number of in-flight calls isn't bounded.
+     */
+    public int inFlight() {
+        Semaphore inFlight = this.inFlight;
+        return inFlight == null ? 0 : maxInFlight - inFlight.availablePermits();
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        if (inFlight == null) {
+            return;
+        }
+
+        // once all permits are acquired, all outstanding calls have completed. A call that never completes would
+        // otherwise hang the worker forever.
+        if (!inFlight.tryAcquire(maxInFlight, inFlightTimeoutMillis, MILLISECONDS)) {
+            throw new TestException("Timeout: %d async timestep calls didn't complete within %d ms",
+                    maxInFlight - inFlight.availablePermits(), inFlightTimeoutMillis);
+        }
+        inFlight.release(maxInFlight);
+    }
+
     private Object initThreadState() {
         Constructor constructor = timeStepModel.getThreadStateConstructor(executionGroup);
         if (constructor == null) {
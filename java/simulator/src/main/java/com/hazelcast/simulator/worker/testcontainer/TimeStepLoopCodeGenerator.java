@@ -66,7 +66,8 @@ class TimeStepLoopCodeGenerator {
             Class<? extends LatencyProbe> probeClass,
             long logFrequency,
             long logRateMs,
-            boolean hasIterationCap) {
+            boolean hasIterationCap,
+            int maxInFlight) {
 
         ensureExistingDirectory(targetDirectory);
 
@@ -81,7 +82,8 @@ class TimeStepLoopCodeGenerator {
             className += testCaseId;
         }
         JavaFileObject file = createJavaFileObject(
-                className, executionGroup, metronomeClass, timeStepModel, probeClass, logFrequency, logRateMs, hasIterationCap);
+                className, executionGroup, metronomeClass, timeStepModel, probeClass, logFrequency, logRateMs, hasIterationCap,
+                maxInFlight);
         return compile(javaCompiler, file, className);
     }
 
@@ -131,7 +133,8 @@ class TimeStepLoopCodeGenerator {
             Class<? extends LatencyProbe> probeClass,
             long logFrequency,
             long logRateMs,
-            boolean hasIterationCap) {
+            boolean hasIterationCap,
+            int maxInFlight) {
         try {
             Configuration cfg = new Configuration(Configuration.VERSION_2_3_24);
             cfg.setClassForTemplateLoading(this.getClass(), "/");
@@ -163,6 +166,10 @@ class TimeStepLoopCodeGenerator {
                 root.put("hasIterationCap", "true");
             }
 
+            if (maxInFlight > 0) {
+                root.put("maxInFlight", "" + maxInFlight);
+            }
+
             Template temp = cfg.getTemplate("TimeStepLoop.ftl");
             StringWriter out = new StringWriter();
             temp.process(root, out);
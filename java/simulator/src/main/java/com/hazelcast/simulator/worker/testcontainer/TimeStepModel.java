@@ -34,7 +34,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static com.hazelcast.simulator.utils.EmptyStatement.ignore;
-import static com.hazelcast.simulator.worker.testcontainer.Probability.loadTimeStepProbabilityArray;
+import static com.hazelcast.simulator.worker.testcontainer.Probability.loadOperationSelector;
 import static java.lang.String.format;
 import static java.lang.reflect.Modifier.isAbstract;
 import static java.lang.reflect.Modifier.isPublic;
@@ -320,17 +320,15 @@ public class TimeStepModel {
     }
 
     /**
-     * Returns the probabilities of the {@link TimeStep} methods.
+     * Returns the {@link OperationSelector} that selects the {@link TimeStep} method based on the probabilities.
      *
-     * The value in the byte refers to the index of the method in the {@link #getActiveTimeStepMethods(String)}.
-     * If a method has 0.5 probability and index 15, then 50% of the values in the array will point to 15.
+     * The selected value refers to the index of the method in the {@link #getActiveTimeStepMethods(String)}.
      *
-     * @param group the name of the execution group to get the probability array for
-     * @return the array of probabilities for each {@link TimeStep} method or {@code null} if there is only a
-     * single {@link TimeStep} method.
+     * @param group the name of the execution group to get the operation selector for
+     * @return the operation selector or {@code null} if there is only a single {@link TimeStep} method.
      */
-    public byte[] getTimeStepProbabilityArray(String group) {
-        return executionGroups.get(group).timeStepProbabilityArray;
+    public OperationSelector getOperationSelector(String group) {
+        return executionGroups.get(group).operationSelector;
     }
 
     private final class ExecutionGroup {
@@ -341,7 +339,7 @@ public class TimeStepModel {
         private Class threadStateClass;
         private Constructor threadStateConstructor;
         private Map<Method, Probability> probabilities;
-        private byte[] timeStepProbabilityArray;
+        private OperationSelector operationSelector;
 
         private ExecutionGroup(String name) {
             this.name = name;
@@ -351,7 +349,7 @@ public class TimeStepModel {
             threadStateClass = loadThreadStateClass();
             threadStateConstructor = loadThreadStateConstructor();
             probabilities = loadProbabilities();
-            timeStepProbabilityArray = loadTimeStepProbabilityArray(probabilities, getActiveTimeStepMethods(name));
+            operationSelector = loadOperationSelector(probabilities, getActiveTimeStepMethods(name));
         }
 
         private Class loadThreadStateClass() {
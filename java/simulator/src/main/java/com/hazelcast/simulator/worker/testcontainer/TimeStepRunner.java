@@ -16,15 +16,27 @@
 
 package com.hazelcast.simulator.worker.testcontainer;
 
+import com.hazelcast.simulator.test.BaseThreadState;
 import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
 import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.simulator.worker.metronome.AdjustableRateProfile;
+import com.hazelcast.simulator.worker.metronome.BusySpinningMetronome;
+import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.metronome.OpenLoopMetronome;
+import com.hazelcast.simulator.worker.metronome.RateProfile;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
+import static com.hazelcast.simulator.utils.FastRandom.mix;
 import static com.hazelcast.simulator.worker.testcontainer.PropertyBinding.toPropertyName;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -40,6 +52,9 @@ class TimeStepRunner extends TestRunner {
     private static final int DEFAULT_THREAD_COUNT = 10;
     private static final int DEFAULT_LOG_FREQUENCY = 0;
     private static final int DEFAULT_LOG_RATE_MS = 0;
+    private static final String THREAD_MODEL_PLATFORM = "platform";
+    private static final String THREAD_MODEL_VIRTUAL = "virtual";
+    private static final String RANDOM_SEED = "randomSeed";
 
     private static final Logger LOGGER = LogManager.getLogger(TimeStepRunner.class);
 
@@ -53,6 +68,11 @@ class TimeStepRunner extends TestRunner {
     private final Map<String, Class> loopClassMap = new HashMap<>();
     private final Map<String, Integer> threadCountMap = new HashMap<>();
     private final Map<String, Long> runIterationMap = new HashMap<>();
+    private final Map<String, Integer> maxInFlightMap = new HashMap<>();
+    private final Map<String, Long> inFlightTimeoutMap = new HashMap<>();
+    private final Map<String, Boolean> virtualThreadsMap = new HashMap<>();
+    private final Map<String, String> keyDistributionMap = new HashMap<>();
+    private final Long randomSeed;
     private int totalThreadCount;
 
     TimeStepRunner(TestContainer testContainer) {
@@ -61,6 +81,7 @@ class TimeStepRunner extends TestRunner {
         this.testInstance = testContainer.getTestInstance();
         this.timeStepModel = new TimeStepModel(testInstance.getClass(), binding);
         this.spawner = new ThreadSpawner(testContext.getTestId());
+        this.randomSeed = binding.load(RANDOM_SEED) == null ? null : binding.loadAsLong(RANDOM_SEED, 0);
 
         for (String executionGroup : timeStepModel.getExecutionGroups()) {
             int threadCount = binding.loadAsInt(toPropertyName(executionGroup, "threadCount"), DEFAULT_THREAD_COUNT);
@@ -72,6 +93,13 @@ class TimeStepRunner extends TestRunner {
 
             LOGGER.info(format("executionGroup [%s] using interval: %s class=%s",
                     executionGroup, metronomeConstructor.getIntervalNanos(), metronomeConstructor.getMetronomeClass().getName()));
+            if (metronomeConstructor.getRateProfile() != null) {
+                LOGGER.info(format("executionGroup [%s] using rateProfile: %s",
+                        executionGroup, metronomeConstructor.getRateProfile().getClass().getSimpleName()));
+            }
+
+            virtualThreadsMap.put(executionGroup, loadVirtualThreads(executionGroup, metronomeConstructor));
+            keyDistributionMap.put(executionGroup, loadKeyDistribution(executionGroup));
 
             long logFrequency = binding.loadAsLong(toPropertyName(executionGroup, "logFrequency"), DEFAULT_LOG_FREQUENCY);
             long logRateMs = binding.loadAsLong(toPropertyName(executionGroup, "logRateMs"), DEFAULT_LOG_RATE_MS);
@@ -79,6 +107,10 @@ class TimeStepRunner extends TestRunner {
             long iterations = binding.loadAsLong(toPropertyName(executionGroup, "iterations"), 0);
             runIterationMap.put(executionGroup, iterations);
 
+            int maxInFlight = loadMaxInFlight(executionGroup);
+            maxInFlightMap.put(executionGroup, maxInFlight);
+            inFlightTimeoutMap.put(executionGroup, loadInFlightTimeoutMillis(executionGroup));
+
             Class loopClass = new TimeStepLoopCodeGenerator().compile(
                     testContainer.getTestCase().getId(),
                     executionGroup,
@@ -87,10 +119,125 @@ class TimeStepRunner extends TestRunner {
                     binding.getProbeClass(),
                     logFrequency,
                     logRateMs,
-                    iterations > 0);
+                    iterations > 0,
+                    maxInFlight);
 
             loopClassMap.put(executionGroup, loopClass);
         }
+
+        if (binding.isThroughputSearch() && !hasAdjustableRate()) {
+            throw new IllegalTestException("The throughput search requires a ratePerSecond or interval to be configured");
+        }
+    }
+
+    MetronomeSupplier getMetronomeSupplier(String executionGroup) {
+        return metronomeSettingsMap.get(executionGroup);
+    }
+
+    private boolean hasAdjustableRate() {
+        for (MetronomeSupplier metronomeSupplier : metronomeSettingsMap.values()) {
+            if (metronomeSupplier.getRateProfile() instanceof AdjustableRateProfile) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adjusts the rate of all execution groups with a configured rate.
+     *
+     * @param rateFactor the factor to apply to the configured rate.
+     */
+    void setRateFactor(double rateFactor) {
+        if (!hasAdjustableRate()) {
+            throw new IllegalStateException("The rate of test [" + testContext.getTestId() + "] can't be adjusted");
+        }
+
+        for (MetronomeSupplier metronomeSupplier : metronomeSettingsMap.values()) {
+            RateProfile rateProfile = metronomeSupplier.getRateProfile();
+            if (rateProfile instanceof AdjustableRateProfile) {
+                ((AdjustableRateProfile) rateProfile).setRateFactor(rateFactor);
+            }
+        }
+    }
+
+    private boolean loadVirtualThreads(String executionGroup, MetronomeSupplier metronomeSupplier) {
+        String property = toPropertyName(executionGroup, "threadModel");
+        String threadModel = binding.load(property);
+        if (threadModel == null || THREAD_MODEL_PLATFORM.equals(threadModel)) {
+            return false;
+        }
+
+        if (!THREAD_MODEL_VIRTUAL.equals(threadModel)) {
+            throw new IllegalTestException(format("%s has an invalid value [%s], valid values are [%s, %s]",
+                    property, threadModel, THREAD_MODEL_PLATFORM, THREAD_MODEL_VIRTUAL));
+        }
+
+        if (!ThreadSpawner.isVirtualThreadSupported()) {
+            throw new IllegalTestException(format("%s is set to [%s], but virtual threads are not supported on Java %s",
+                    property, threadModel, System.getProperty("java.version")));
+        }
+
+        // a busy spinning virtual thread never unmounts, so it would monopolize its carrier thread.
+        if (metronomeSupplier.getMetronomeClass() == BusySpinningMetronome.class) {
+            throw new IllegalTestException(format("%s [%s] can't be combined with the %s",
+                    property, threadModel, BusySpinningMetronome.class.getSimpleName()));
+        }
+        return true;
+    }
+
+    private String loadKeyDistribution(String executionGroup) {
+        String property = toPropertyName(executionGroup, "keyDistribution");
+        String keyDistribution = binding.load(property);
+        if (keyDistribution == null) {
+            return null;
+        }
+
+        Class threadStateClass = timeStepModel.getThreadStateClass(executionGroup);
+        if (threadStateClass == null || !BaseThreadState.class.isAssignableFrom(threadStateClass)) {
+            throw new IllegalTestException(format("%s is configured, but the thread state of executionGroup [%s] doesn't "
+                    + "extend %s", property, executionGroup, BaseThreadState.class.getSimpleName()));
+        }
+
+        try {
+            // validates the specification
+            KeyDistribution.create(keyDistribution);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalTestException(property + " is invalid: " + e.getMessage(), e);
+        }
+        return keyDistribution;
+    }
+
+    private int loadMaxInFlight(String executionGroup) {
+        String property = toPropertyName(executionGroup, "maxInFlight");
+        int maxInFlight = binding.loadAsInt(property, 0);
+        if (maxInFlight < 0) {
+            throw new IllegalTestException(property + " can't be smaller than 0");
+        }
+
+        if (maxInFlight > 0 && !hasAsyncTimeStepMethod(executionGroup)) {
+            throw new IllegalTestException(format("%s is configured, but executionGroup [%s] has no TimeStep method"
+                    + " returning a %s", property, executionGroup, CompletableFuture.class.getSimpleName()));
+        }
+        return maxInFlight;
+    }
+
+    private long loadInFlightTimeoutMillis(String executionGroup) {
+        String property = toPropertyName(executionGroup, "inFlightTimeoutMillis");
+        long inFlightTimeoutMillis = binding.loadAsLong(property, TimeStepLoop.DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS);
+        if (inFlightTimeoutMillis < 0) {
+            throw new IllegalTestException(property + " can't be smaller than 0");
+        }
+        return inFlightTimeoutMillis;
+    }
+
+    private boolean hasAsyncTimeStepMethod(String executionGroup) {
+        for (Method method : timeStepModel.getActiveTimeStepMethods(executionGroup)) {
+            if (CompletableFuture.class.equals(method.getReturnType())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -105,6 +252,18 @@ class TimeStepRunner extends TestRunner {
         return iterations;
     }
 
+    @Override
+    public long inFlight() {
+        TimeStepLoop[] localRunners = loops;
+        long inFlight = 0;
+        if (localRunners != null) {
+            for (TimeStepLoop runner : localRunners) {
+                inFlight += runner.inFlight();
+            }
+        }
+        return inFlight;
+    }
+
     @Override
     public void run() throws Exception {
         try {
@@ -123,18 +282,52 @@ class TimeStepRunner extends TestRunner {
                     name += "-" + executionGroup;
                 }
                 name += "-timestepThread";
-                spawner.spawn(name, loop);
+                if (virtualThreadsMap.get(executionGroup)) {
+                    spawner.spawnVirtual(name, loop);
+                } else {
+                    spawner.spawn(name, loop);
+                }
             }
 
             spawner.awaitCompletion();
+            logOpenLoopSummary();
         } finally {
             onRunCompleted();
         }
     }
 
+    private void logOpenLoopSummary() {
+        for (Map.Entry<String, MetronomeSupplier> entry : metronomeSettingsMap.entrySet()) {
+            Metronome masterMetronome = entry.getValue().getMasterMetronome();
+            if (!(masterMetronome instanceof OpenLoopMetronome)) {
+                continue;
+            }
+
+            OpenLoopMetronome metronome = (OpenLoopMetronome) masterMetronome;
+            long intendedCount = metronome.intendedCount();
+            long claimedCount = metronome.claimedCount();
+            String msg = format("executionGroup [%s] open loop: intended %d requests at %.1f/s, claimed %d requests",
+                    entry.getKey(), intendedCount, metronome.intendedRatePerSecond(), claimedCount);
+            long behindCount = intendedCount - claimedCount;
+            // the schedule ends when the test stops, but claims just before are still racing; so only complain if more
+            // than a second behind.
+            if (behindCount > metronome.intendedRatePerSecond()) {
+                LOGGER.warn(msg + format(", fell %d requests behind schedule. Increase the threadCount.", behindCount));
+            } else {
+                LOGGER.info(msg);
+            }
+        }
+    }
+
     @Override
     public void stop() {
         super.stop();
+        for (MetronomeSupplier metronomeSupplier : metronomeSettingsMap.values()) {
+            Metronome masterMetronome = metronomeSupplier.getMasterMetronome();
+            if (masterMetronome instanceof OpenLoopMetronome) {
+                ((OpenLoopMetronome) masterMetronome).stop();
+            }
+        }
 
         // After 2 minutes, we interrupt all threads.
         Thread t = new Thread() {
@@ -171,10 +364,22 @@ class TimeStepRunner extends TestRunner {
             long delayMs = SECONDS.toMillis(rampupSeconds) / threadCount;
             for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
                 TimeStepLoop runner = constructor.newInstance(testInstance, timeStepModel, executionGroup);
+                seedRandoms(runner, threadIndex);
+                String keyDistribution = keyDistributionMap.get(executionGroup);
+                if (keyDistribution != null) {
+                    // a key distribution can have state, so every thread state gets its own instance
+                    ((BaseThreadState) runner.threadState).setKeyDistribution(KeyDistribution.create(keyDistribution));
+                }
                 runner.testContext = binding.getTestContext();
                 runner.maxIterations = runIterationMap.get(executionGroup);
                 runner.metronome = metronomeSupplier.get();
                 runner.delayMillis = delayMs * threadIndex;
+                int maxInFlight = maxInFlightMap.get(executionGroup);
+                if (maxInFlight > 0) {
+                    runner.maxInFlight = maxInFlight;
+                    runner.inFlight = new Semaphore(maxInFlight);
+                    runner.inFlightTimeoutMillis = inFlightTimeoutMap.get(executionGroup);
+                }
                 runner.bind(binding);
                 runnables[k] = runner;
                 k++;
@@ -183,4 +388,22 @@ class TimeStepRunner extends TestRunner {
 
         return runnables;
     }
+
+    /**
+     * Seeds the random of the thread state and the random that selects the operations, so that a run with the same
+     * randomSeed produces the same random sequences. Every timestep-thread of every worker gets a different seed, else
+     * they would all generate the same keys.
+     */
+    private void seedRandoms(TimeStepLoop runner, int threadIndex) {
+        if (randomSeed == null) {
+            return;
+        }
+
+        long seed = BaseThreadState.threadSeed(randomSeed, testContext, runner.executionGroup, threadIndex);
+        // the seed is mixed once more, so the operation selection doesn't follow the sequence of the thread state
+        runner.operationRandom = new SplittableRandom(mix(~seed));
+        if (runner.threadState instanceof BaseThreadState) {
+            ((BaseThreadState) runner.threadState).seed(randomSeed, testContext, runner.executionGroup, threadIndex);
+        }
+    }
 }
@@ -23,7 +23,7 @@ public class ${className} extends TimeStepLoop {
     @Override
     public void timeStepLoop() throws Exception {
 <#if timeStepMethods?size gt 1>
-        final Random random = new Random();
+        final SplittableRandom random = this.operationRandom;
 </#if>
         final AtomicLong iterations = this.iterations;
         final TestContextImpl testContext = (TestContextImpl)this.testContext;
@@ -39,6 +39,9 @@ public class ${className} extends TimeStepLoop {
 <#if threadStateClass??>
         final ${threadStateClass} threadState = (${threadStateClass})this.threadState;
 </#if>
+<#if maxInFlight??>
+        final Semaphore inFlight = this.inFlight;
+</#if>
 <#if logFrequency??>
         long logCounter = 0;
 </#if>
@@ -47,7 +50,7 @@ public class ${className} extends TimeStepLoop {
 </#if>
 
 <#if timeStepMethods?size gt 1>
-        final byte[] probs  = this.timeStepProbabilities;
+        final OperationSelector operationSelector = this.operationSelector;
 </#if>
 
 <#if hasIterationCap??>
@@ -73,7 +76,11 @@ public class ${className} extends TimeStepLoop {
     <#assign resultType=method.getReturnType().getName()>
     <#if hasProbe(method)|| !probeClass?? || isAsyncResult(resultType)>
             <#assign resultName = "result">
+            <#if isAsyncResult(resultType) && maxInFlight??>
+                <@boundedAsyncMethodCall m=method/>
+            <#else>
             <#if isAsyncResult(resultType)>${resultType} ${resultName} = </#if><@timestepMethodCall m=method/>
+            </#if>
             <#if isAsyncResult(resultType)>
                 <@handleAsyncResult m=method/>
             </#if>
@@ -83,15 +90,19 @@ public class ${className} extends TimeStepLoop {
     </#if>
 <#else>
 
-            switch(probs[random.nextInt(probs.length)]){
+            switch(operationSelector.select(random.nextLong())){
     <#list timeStepMethods as method>
         <#assign index = method?counter-1>
                 case ${index}:
         <#assign resultType=method.getReturnType().getName()>
         <#if hasProbe(method) || !probeClass?? || isAsyncResult(resultType)>
             <#assign resultName = "result" + index>
+            <#if isAsyncResult(resultType) && maxInFlight??>
+                    <@boundedAsyncMethodCall m=method/>
+            <#else>
             <#if isAsyncResult(resultType)>
                     ${resultType} ${resultName} = </#if><@timestepMethodCall m=method/>
+            </#if>
             <#if isAsyncResult(resultType)>
                     <@handleAsyncResult m=method/>
             </#if>
@@ -126,7 +137,36 @@ public class ${className} extends TimeStepLoop {
     }
 
 <#macro handleAsyncResult m>
+    <#if probeClass?? && maxInFlight??>
+                    ${resultName}.whenCompleteAsync((o, throwable) -> {
+                        // the slot is released even if recording fails, otherwise the window would shrink until the
+                        // loop blocks forever
+                        try {
+                            ${m.getName()}Probe.recordValue(System.nanoTime() - startNanos);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }, Runnable::run);
+    <#elseif probeClass??>
                     ${resultName}.whenCompleteAsync((o, throwable) ->  ${m.getName()}Probe.recordValue(System.nanoTime() - startNanos), Runnable::run);
+    <#elseif maxInFlight??>
+                    ${resultName}.whenCompleteAsync((o, throwable) -> inFlight.release(), Runnable::run);
+    </#if>
+</#macro>
+
+<#--
+    Waits for a free slot in the in-flight window before issuing the async call. The wait happens after the startNanos
+    has been determined, so the time spent waiting for the window is included in the recorded latency.
+-->
+<#macro boundedAsyncMethodCall m>
+                    inFlight.acquire();
+                    final ${m.getReturnType().getName()} ${resultName};
+                    try {
+                        ${resultName} = <@timestepMethodCall m=m/>
+                    } catch (Throwable t) {
+                        inFlight.release();
+                        throw t;
+                    }
 </#macro>
 
 <#macro timestepMethodCall m>
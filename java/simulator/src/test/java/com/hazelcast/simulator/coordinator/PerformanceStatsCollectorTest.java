@@ -2,6 +2,7 @@ package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.HdrHistogram.Histogram;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -105,6 +106,23 @@ public class PerformanceStatsCollectorTest {
         assertEquals(2800, performanceStats.getIntervalLatencyMaxNanos());
     }
 
+    @Test
+    public void testCompletedIntervalCount() {
+        assertEquals(0, performanceStatsCollector.completedIntervalCount(TEST_CASE_ID_1));
+
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(1000, 200, 500, 1900.0d, 1800, 2500));
+        assertEquals(1, performanceStatsCollector.completedIntervalCount(TEST_CASE_ID_1));
+
+        // a1w1 is ahead; the count only increases when a2w1 has caught up
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(1500, 150, 550, 1600.0d, 1700, 2400));
+        update(a2w1, TEST_CASE_ID_1, new PerformanceStats(800, 100, 300, 2200.0d, 2400, 2800));
+        assertEquals(1, performanceStatsCollector.completedIntervalCount(TEST_CASE_ID_1));
+
+        update(a2w1, TEST_CASE_ID_1, new PerformanceStats(900, 100, 300, 2200.0d, 2400, 2800));
+        assertEquals(2, performanceStatsCollector.completedIntervalCount(TEST_CASE_ID_1));
+        assertEquals(0, performanceStatsCollector.completedIntervalCount(TEST_CASE_ID_2));
+    }
+
     @Test
     public void testGet_testCaseNotFound() {
         PerformanceStats performanceStats = performanceStatsCollector.get("notFound", true);
@@ -191,4 +209,49 @@ public class PerformanceStatsCollectorTest {
         assertEquals(0, agentPerformanceStatsMap.size());
         assertTrue(totalPerformanceStats.isEmpty());
     }
+
+    @Test
+    public void testFormatPerformanceNumbers_withHistograms() {
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(100, 100, 100, 1000, 1000, 1000, histogram(100, 1000)));
+        // a single slow worker decides the high percentiles of the cluster
+        update(a2w1, TEST_CASE_ID_1, new PerformanceStats(2, 2, 2, 50000, 50000, 50000, histogram(2, 50000)));
+
+        String s = performanceStatsCollector.formatIntervalPerformanceNumbers(TEST_CASE_ID_1);
+
+        assertEquals("           102 ops       102.00 ops/s         50 µs (avg)          1 µs (p50)         50 µs (p99)"
+                + "         50 µs (p99.9)         50 µs (p99.99)         50 µs (max)", s);
+    }
+
+    @Test
+    public void testDetailedPerformanceInfo_withHistograms() {
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(100, 100, 100, 1000, 1000, 1000, histogram(100, 1000)));
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(200, 100, 100, 1000, 1000, 1000, histogram(100, 1000)));
+
+        String s = performanceStatsCollector.detailedPerformanceInfo(TEST_CASE_ID_1, SECONDS.toMillis(2));
+
+        assertTrue(s, s.contains("Total latency"));
+        assertTrue(s, s.contains("(p99.99)"));
+    }
+
+    @Test
+    public void testGet_aggregatedHistogram_doesNotModifyDeltas() {
+        Histogram first = histogram(100, 1000);
+        Histogram second = histogram(50, 2000);
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(100, 100, 100, 1000, 1000, 1000, first));
+        update(a1w1, TEST_CASE_ID_1, new PerformanceStats(150, 50, 100, 2000, 2000, 2000, second));
+
+        PerformanceStats aggregated = performanceStatsCollector.get(TEST_CASE_ID_1, true);
+        PerformanceStats latest = performanceStatsCollector.get(TEST_CASE_ID_1, false);
+
+        assertEquals(150, aggregated.getIntervalHistogram().getTotalCount());
+        assertEquals(50, latest.getIntervalHistogram().getTotalCount());
+        assertEquals(100, first.getTotalCount());
+        assertEquals(50, second.getTotalCount());
+    }
+
+    private static Histogram histogram(int count, long valueNanos) {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(valueNanos, count);
+        return histogram;
+    }
 }
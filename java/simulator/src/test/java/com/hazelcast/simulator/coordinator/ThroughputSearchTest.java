@@ -0,0 +1,220 @@
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.coordinator.ThroughputSearch.Step;
+import com.hazelcast.simulator.utils.CommandLineExitException;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.HdrHistogram.Histogram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_MAX_RATE_FACTOR;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_PERCENTILE;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_PRECISION;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_SLA_US;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_STEP_SECONDS;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThroughputSearchTest {
+
+    private static final double ASSERT_EQUALS_DELTA = 0.0001;
+    private static final long SLA_NANOS = MILLISECONDS.toNanos(10);
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void testNewThroughputSearch_whenNotConfigured() {
+        assertNull(ThroughputSearch.newThroughputSearch(new TestCase("foo"), 1));
+    }
+
+    @Test
+    public void testNewThroughputSearch() {
+        TestCase testCase = new TestCase("foo")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty(THROUGHPUT_SEARCH_STEP_SECONDS, 10)
+                .setProperty(THROUGHPUT_SEARCH_PRECISION, 0.1);
+
+        ThroughputSearch search = ThroughputSearch.newThroughputSearch(testCase, 5);
+
+        assertEquals(1, search.getRateFactor(), ASSERT_EQUALS_DELTA);
+        assertFalse(search.isCompleted());
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testNewThroughputSearch_whenPerformanceMonitorDisabled() {
+        ThroughputSearch.newThroughputSearch(new TestCase("foo").setProperty(THROUGHPUT_SEARCH_SLA_US, 1000), 0);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testNewThroughputSearch_whenMaxRateFactorTooSmall() {
+        ThroughputSearch.newThroughputSearch(new TestCase("foo")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty(THROUGHPUT_SEARCH_MAX_RATE_FACTOR, 0.5), 1);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testNewThroughputSearch_whenInvalidSla() {
+        ThroughputSearch.newThroughputSearch(new TestCase("foo").setProperty(THROUGHPUT_SEARCH_SLA_US, "10ms"), 1);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testNewThroughputSearch_whenInvalidPrecision() {
+        ThroughputSearch.newThroughputSearch(new TestCase("foo")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty(THROUGHPUT_SEARCH_PRECISION, 1), 1);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testNewThroughputSearch_whenInvalidPercentile() {
+        ThroughputSearch.newThroughputSearch(new TestCase("foo")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty(THROUGHPUT_SEARCH_PERCENTILE, 101), 1);
+    }
+
+    @Test
+    public void testRecord_withPercentile() {
+        // 1% of the calls is above the SLA; so it passes for the median, but not for the 99.9th percentile.
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(SLA_NANOS / 2, 99);
+        histogram.recordValueWithCount(SLA_NANOS * 2, 1);
+        PerformanceStats stats = new PerformanceStats(100, 100, 100, SLA_NANOS, SLA_NANOS * 2, SLA_NANOS * 2, histogram);
+
+        ThroughputSearch medianSearch = new ThroughputSearch(SLA_NANOS, 50, 2, 0.05, ThroughputSearch.DEFAULT_MAX_RATE_FACTOR);
+        medianSearch.record(stats);
+        medianSearch.record(stats);
+        assertTrue(medianSearch.getSteps().get(0).passed);
+
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+        search.record(stats);
+        search.record(stats);
+        assertFalse(search.getSteps().get(0).passed);
+    }
+
+    @Test
+    public void testRecord_firstSampleOfStepIsIgnored() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+
+        // the transition sample exceeds the SLA, but is ignored.
+        assertFalse(search.record(stats(1000, 2 * SLA_NANOS)));
+        assertTrue(search.record(stats(1000, SLA_NANOS)));
+
+        assertTrue(search.getSteps().get(0).passed);
+        assertEquals(2, search.getRateFactor(), ASSERT_EQUALS_DELTA);
+    }
+
+    @Test
+    public void testRecord_whenNoMeasurements_thenFailed() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+
+        search.record(new PerformanceStats());
+        search.record(new PerformanceStats());
+
+        assertFalse(search.getSteps().get(0).passed);
+        assertEquals(0.5, search.getRateFactor(), ASSERT_EQUALS_DELTA);
+    }
+
+    @Test
+    public void testSearch_convergesOnCapacity() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+
+        double capacityFactor = 5.3;
+        runSearch(search, capacityFactor);
+
+        assertTrue(search.isCompleted());
+        Step step = search.getMaxSustainableStep();
+        assertTrue(step.rateFactor <= capacityFactor);
+        assertTrue(step.rateFactor >= capacityFactor * 0.95);
+        // 1, 2, 4 and 8 are tried before the binary search starts
+        assertEquals(1, search.getSteps().get(0).rateFactor, ASSERT_EQUALS_DELTA);
+        assertEquals(8, search.getSteps().get(3).rateFactor, ASSERT_EQUALS_DELTA);
+        assertFalse(search.getSteps().get(3).passed);
+    }
+
+    @Test
+    public void testSearch_whenMaxRateFactorPasses() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, PerformanceStats.INTERVAL_LATENCY_PERCENTILE, 2, 0.05, 3);
+
+        runSearch(search, 100);
+
+        assertTrue(search.isCompleted());
+        // 1, 2 and the max rate factor instead of 4
+        assertEquals(3, search.getSteps().size());
+        assertEquals(3, search.getMaxSustainableStep().rateFactor, ASSERT_EQUALS_DELTA);
+        assertTrue(search.formatResult().contains("limited by the max rate factor"));
+    }
+
+    @Test
+    public void testSearch_whenConfiguredRateFails() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+
+        double capacityFactor = 0.3;
+        runSearch(search, capacityFactor);
+
+        assertTrue(search.isCompleted());
+        Step step = search.getMaxSustainableStep();
+        assertTrue(step.rateFactor <= capacityFactor);
+        assertTrue(step.rateFactor >= capacityFactor * 0.95);
+    }
+
+    @Test
+    public void testSearch_whenNothingPasses() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+
+        runSearch(search, 0);
+
+        assertTrue(search.isCompleted());
+        assertNull(search.getMaxSustainableStep());
+        assertTrue(search.formatResult().contains("No rate could be sustained"));
+    }
+
+    @Test
+    public void testRecord_whenCompleted() {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+        runSearch(search, 2.5);
+        int stepCount = search.getSteps().size();
+
+        assertFalse(search.record(stats(1000, SLA_NANOS)));
+        assertFalse(search.record(stats(1000, SLA_NANOS)));
+        assertEquals(stepCount, search.getSteps().size());
+    }
+
+    @Test
+    public void testWriteCsv() throws Exception {
+        ThroughputSearch search = new ThroughputSearch(SLA_NANOS, 2, 0.05);
+        runSearch(search, 2.5);
+        File file = new File(dir.getRoot(), "search.csv");
+
+        search.writeCsv(file);
+
+        String[] lines = fileAsText(file).split("\n");
+        assertEquals("step,rateFactor,throughput,latencyUs,passed", lines[0]);
+        assertEquals(search.getSteps().size() + 1, lines.length);
+        assertTrue(lines[1].startsWith("1,1.0,1000.0,"));
+        assertTrue(search.formatResult().contains("Max sustainable throughput"));
+    }
+
+    /**
+     * Simulates a system where the latency exceeds the SLA as soon as the rate factor exceeds the capacity.
+     */
+    private static void runSearch(ThroughputSearch search, double capacityFactor) {
+        for (int k = 0; k < 1000 && !search.isCompleted(); k++) {
+            double rateFactor = search.getRateFactor();
+            long latencyNanos = rateFactor <= capacityFactor ? SLA_NANOS / 2 : SLA_NANOS * 2;
+            search.record(stats(rateFactor * 1000, latencyNanos));
+        }
+    }
+
+    private static PerformanceStats stats(double throughput, long latency999PercentileNanos) {
+        return new PerformanceStats(1, throughput, throughput, latency999PercentileNanos, latency999PercentileNanos,
+                latency999PercentileNanos);
+    }
+}
@@ -0,0 +1,113 @@
+package com.hazelcast.simulator.metrics;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsHttpServerTest {
+
+    private MetricsHttpServer server;
+
+    @Before
+    public void before() throws IOException {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(MICROSECONDS.toNanos(100), 1000);
+
+        server = new MetricsHttpServer(0)
+                .addProvider(samples -> PerformanceStatsMetrics.collect(samples,
+                        new PerformanceStats(1000, 100, 50, 100000, 100000, 100000, histogram), "test", "map"))
+                .addProvider(samples -> samples.gauge("simulator_test_in_flight", "In flight.", 3, "test", "map"))
+                .addProvider(samples -> PerformanceStatsMetrics.collect(samples,
+                        new PerformanceStats(10, 1, 1, 1000, 1000, 1000), "test", "queue"))
+                .addProvider(new JvmMetricsProvider())
+                .start();
+    }
+
+    @After
+    public void after() {
+        closeQuietly(server);
+    }
+
+    @Test
+    public void testPrometheus() throws IOException {
+        HttpURLConnection connection = open("/metrics");
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(MetricsHttpServer.PROMETHEUS_CONTENT_TYPE, connection.getContentType());
+
+        String body = read(connection);
+        assertTrue(body, body.contains("# TYPE simulator_test_operations_total counter\n"
+                + "simulator_test_operations_total{test=\"map\"} 1000\n"
+                + "simulator_test_operations_total{test=\"queue\"} 10\n"));
+        assertTrue(body, body.contains("simulator_test_latency_seconds{test=\"map\",quantile=\"0.9999\"} 1.000"));
+        // without a histogram only the 99.9 percentile is available
+        assertTrue(body, body.contains("simulator_test_latency_seconds{test=\"queue\",quantile=\"0.999\"} 1.0E-6\n"));
+        assertTrue(body, !body.contains("simulator_test_latency_seconds{test=\"queue\",quantile=\"0.5\"}"));
+        assertTrue(body, body.contains("simulator_test_in_flight{test=\"map\"} 3\n"));
+        assertTrue(body, body.contains("# TYPE jvm_gc_collections_total counter\n"));
+        assertEquals(1, count(body, "# TYPE simulator_test_latency_seconds gauge"));
+    }
+
+    @Test
+    public void testJson() throws IOException {
+        HttpURLConnection connection = open("/metrics.json");
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(MetricsHttpServer.JSON_CONTENT_TYPE, connection.getContentType());
+
+        JsonObject root = JsonParser.parseString(read(connection)).getAsJsonObject();
+        JsonObject first = root.getAsJsonArray("metrics").get(0).getAsJsonObject();
+        assertEquals("simulator_test_operations_total", first.get("name").getAsString());
+        assertEquals("map", first.getAsJsonObject("labels").get("test").getAsString());
+        assertEquals(1000, first.get("value").getAsLong());
+    }
+
+    @Test
+    public void testUnknownPath() throws IOException {
+        assertEquals(404, open("/foo").getResponseCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativePort() {
+        new MetricsHttpServer(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSamples_whenLabelsNotPaired() {
+        new MetricSamples().gauge("foo", "foo", 1, "test");
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+
+    private static int count(String s, String part) {
+        int count = 0;
+        for (int index = s.indexOf(part); index >= 0; index = s.indexOf(part, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.utils.ThreadSpawner;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.probes.impl.AbstractHdrLatencyProbe.HIGHEST_TRACKABLE_VALUE_NANOS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StripedHdrLatencyProbeTest {
+
+    private StripedHdrLatencyProbe probe = new StripedHdrLatencyProbe("foo", true);
+
+    @Test
+    public void testConstructor() {
+        assertTrue(probe.includeInThroughput());
+        assertEquals("foo", probe.name());
+        assertEquals(0, probe.stripeCount());
+    }
+
+    @Test
+    public void testRecordValues_fromMultipleThreads() {
+        int threadCount = 8;
+        int valuesPerThread = 10000;
+
+        ThreadSpawner spawner = new ThreadSpawner("StripedHdrLatencyProbeTest", true);
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            spawner.spawn(() -> {
+                for (int k = 1; k <= valuesPerThread; k++) {
+                    probe.recordValue(MILLISECONDS.toNanos(k % 100 + 1));
+                }
+            });
+        }
+        spawner.awaitCompletion();
+
+        assertTrue(probe.stripeCount() >= 1);
+        assertTrue(probe.stripeCount() <= Math.min(threadCount, probe.maxStripeCount()));
+
+        Histogram histogram = probe.getIntervalHistogram();
+        assertEquals(threadCount * valuesPerThread, histogram.getTotalCount());
+        assertEquals(MILLISECONDS.toNanos(100), histogram.getMaxValue(), MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testRecordValues_fromManyThreads_stripesAreBounded() {
+        probe = new StripedHdrLatencyProbe("foo", true, 4);
+        int threadCount = 200;
+
+        ThreadSpawner spawner = new ThreadSpawner("StripedHdrLatencyProbeTest", true);
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            spawner.spawn(() -> probe.recordValue(MILLISECONDS.toNanos(1)));
+        }
+        spawner.awaitCompletion();
+
+        assertEquals(4, probe.maxStripeCount());
+        assertTrue(probe.stripeCount() <= 4);
+        assertEquals(threadCount, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testConstructor_stripeCountIsPowerOfTwoAndCapped() {
+        assertEquals(8, new StripedHdrLatencyProbe("foo", true, 5).maxStripeCount());
+        assertEquals(1, new StripedHdrLatencyProbe("foo", true, 0).maxStripeCount());
+        assertEquals(StripedHdrLatencyProbe.MAX_STRIPES,
+                new StripedHdrLatencyProbe("foo", true, 1000).maxStripeCount());
+    }
+
+    @Test
+    public void testGetIntervalHistogram_onlyContainsValuesSinceLastCall() {
+        probe.recordValue(1000);
+        probe.recordValue(2000);
+        assertEquals(2, probe.getIntervalHistogram().getTotalCount());
+
+        probe.recordValue(3000);
+        assertEquals(1, probe.getIntervalHistogram().getTotalCount());
+
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testReset() {
+        probe.recordValue(1000);
+        probe.reset();
+
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testNegativeValue() {
+        probe.recordValue(MILLISECONDS.toNanos(-200));
+
+        assertEquals(1, probe.negativeCount());
+        Histogram histogram = probe.getIntervalHistogram();
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(MILLISECONDS.toNanos(200), histogram.getMaxValue(), MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testRecord_whenTooLarge() {
+        probe.recordValue(HIGHEST_TRACKABLE_VALUE_NANOS * 2);
+
+        Histogram histogram = probe.getIntervalHistogram();
+        assertEquals(1, histogram.getTotalCount());
+        assertTrue(histogram.getMaxValue() >= HIGHEST_TRACKABLE_VALUE_NANOS);
+    }
+}
@@ -4,10 +4,13 @@ import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.message.LogMessage;
 import com.hazelcast.simulator.protocol.message.SimulatorMessage;
 import com.hazelcast.simulator.utils.AssertTask;
+import com.hazelcast.simulator.worker.messages.PerformanceStatsMessage;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
 import org.apache.logging.log4j.Level;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import javax.jms.JMSException;
 import java.util.concurrent.CountDownLatch;
@@ -24,6 +27,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class MessagingTest {
@@ -138,4 +142,36 @@ public class MessagingTest {
             }
         });
     }
+
+    @Test
+    public void sendCoordinator_performanceStats() throws Exception {
+        agentServer = new Server("agents")
+                .setBrokerURL(broker.getBrokerURL())
+                .setSelfAddress(agentAddress)
+                .setProcessor(mock(MessageHandler.class))
+                .start();
+
+        final MessageHandler clientOperationProcessor = mock(MessageHandler.class);
+        client = new CoordinatorClient()
+                .setProcessor(clientOperationProcessor);
+        client.getConnectionFactory().setMaxReconnectAttempts(1);
+        client.start().connectToAgentBroker(agentAddress, localIp());
+
+        for (int i = 1; i <= 10; i++) {
+            PerformanceStatsMessage msg = new PerformanceStatsMessage();
+            msg.addPerformanceStats("test", new PerformanceStats(i, i, i, i, i, i));
+            agentServer.sendCoordinator(msg);
+        }
+
+        final ArgumentCaptor<SimulatorMessage> captor = ArgumentCaptor.forClass(SimulatorMessage.class);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                verify(clientOperationProcessor, times(10)).process(captor.capture(), eq(agentAddress), any(Promise.class));
+            }
+        });
+
+        PerformanceStatsMessage last = (PerformanceStatsMessage) captor.getValue();
+        assertEquals(10, last.getPerformanceStats().get("test").getOperationCount());
+    }
 }
@@ -0,0 +1,76 @@
+package com.hazelcast.simulator.protocol.message;
+
+import com.hazelcast.simulator.worker.messages.PerformanceStatsMessage;
+import com.hazelcast.simulator.worker.performance.PerformanceStats;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.Level;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.protocol.message.MessageType.LOG;
+import static com.hazelcast.simulator.protocol.message.MessageType.PERFORMANCE_STATE;
+import static com.hazelcast.simulator.protocol.message.SimulatorMessageCodec.FORMAT_BINARY;
+import static com.hazelcast.simulator.protocol.message.SimulatorMessageCodec.FORMAT_JSON;
+import static com.hazelcast.simulator.protocol.message.SimulatorMessageCodec.fromBytes;
+import static com.hazelcast.simulator.protocol.message.SimulatorMessageCodec.toBytes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SimulatorMessageCodecTest {
+
+    @Test
+    public void testJson() {
+        LogMessage msg = new LogMessage("foo", Level.WARN);
+
+        byte[] bytes = toBytes(msg);
+        LogMessage result = (LogMessage) fromBytes(bytes, LOG);
+
+        assertEquals(FORMAT_JSON, bytes[0]);
+        assertEquals("foo", result.getMessage());
+        assertEquals(Level.WARN, result.getLevel());
+    }
+
+    @Test
+    public void testBinary() {
+        PerformanceStatsMessage msg = new PerformanceStatsMessage();
+        msg.addPerformanceStats("test1", new PerformanceStats(1000, 200.5, 150.25, 2000.5, 9000, 12000));
+        msg.addPerformanceStats("test2", new PerformanceStats());
+
+        byte[] bytes = toBytes(msg);
+        PerformanceStatsMessage result = (PerformanceStatsMessage) fromBytes(bytes, PERFORMANCE_STATE);
+
+        assertEquals(FORMAT_BINARY, bytes[0]);
+        assertTrue(bytes.length < SimulatorMessageCodec.toJson(msg).length());
+        assertEquals(2, result.getPerformanceStats().size());
+
+        PerformanceStats stats = result.getPerformanceStats().get("test1");
+        assertEquals(1000, stats.getOperationCount());
+        assertEquals(200.5, stats.getIntervalThroughput(), 0);
+        assertEquals(150.25, stats.getTotalThroughput(), 0);
+        assertEquals(2000.5, stats.getIntervalLatencyAvgNanos(), 0);
+        assertEquals(9000, stats.getIntervalLatency999PercentileNanos());
+        assertEquals(12000, stats.getIntervalLatencyMaxNanos());
+
+        assertNull(stats.getIntervalHistogram());
+        assertTrue(result.getPerformanceStats().get("test2").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromBytes_whenUnknownFormat() {
+        fromBytes(new byte[]{Byte.MAX_VALUE}, LOG);
+    }
+
+    @Test
+    public void testBinary_withHistogram() {
+        Histogram histogram = new Histogram(3);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordValue(i * 1000L);
+        }
+        PerformanceStatsMessage msg = new PerformanceStatsMessage();
+        msg.addPerformanceStats("test", new PerformanceStats(1000, 100, 100, 500000, 999000, 1000000, histogram));
+
+        PerformanceStatsMessage result = (PerformanceStatsMessage) fromBytes(toBytes(msg), PERFORMANCE_STATE);
+
+        assertEquals(histogram, result.getPerformanceStats().get("test").getIntervalHistogram());
+    }
+}
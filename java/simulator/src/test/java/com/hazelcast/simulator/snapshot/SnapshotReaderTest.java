@@ -0,0 +1,162 @@
+package com.hazelcast.simulator.snapshot;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.hazelcast.simulator.snapshot.SnapshotReader.readBytes;
+import static com.hazelcast.simulator.snapshot.SnapshotReader.readInt;
+import static com.hazelcast.simulator.snapshot.SnapshotReader.readLong;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotReaderTest {
+
+    private static final String FINGERPRINT = "keyDomain=3";
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void test_writeAndRead() throws IOException {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT)) {
+            writer.write(1, "one".getBytes(UTF_8));
+            writer.write(Long.MAX_VALUE, new byte[0]);
+            writer.write("key".getBytes(UTF_8), "value".getBytes(UTF_8));
+        }
+
+        assertTrue(SnapshotReader.exists(file, FINGERPRINT));
+        SnapshotReader reader = new SnapshotReader(file, FINGERPRINT);
+        assertEquals(3, reader.size());
+
+        List<byte[]> keys = new ArrayList<>();
+        List<byte[]> values = new ArrayList<>();
+        assertEquals(3, reader.forEach((key, value) -> {
+            keys.add(readBytes(key));
+            values.add(readBytes(value));
+        }));
+
+        assertArrayEquals(new byte[]{0, 0, 0, 1}, keys.get(0));
+        assertArrayEquals("one".getBytes(UTF_8), values.get(0));
+        assertEquals(8, keys.get(1).length);
+        assertArrayEquals(new byte[0], values.get(1));
+        assertArrayEquals("key".getBytes(UTF_8), keys.get(2));
+        assertArrayEquals("value".getBytes(UTF_8), values.get(2));
+    }
+
+    @Test
+    public void test_readIntAndLong() {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT)) {
+            writer.write(-42, new byte[]{1});
+            writer.write(1L << 40, new byte[]{2});
+        }
+
+        List<Long> keys = new ArrayList<>();
+        new SnapshotReader(file, FINGERPRINT).forEach((key, value) ->
+                keys.add(key.remaining() == Integer.BYTES ? readInt(key) : readLong(key)));
+
+        assertEquals(-42L, (long) keys.get(0));
+        assertEquals(1L << 40, (long) keys.get(1));
+    }
+
+    @Test
+    public void test_entriesSpanningWindows() {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        Random random = new Random(1);
+        Map<Integer, byte[]> expected = new HashMap<>();
+        try (SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT)) {
+            for (int key = 0; key < 100; key++) {
+                // some values are larger than the window
+                byte[] value = new byte[random.nextInt(300)];
+                random.nextBytes(value);
+                expected.put(key, value);
+                writer.write(key, value);
+            }
+        }
+
+        Map<Integer, byte[]> actual = new HashMap<>();
+        new SnapshotReader(file, FINGERPRINT, 128).forEach((key, value) -> actual.put(readInt(key), readBytes(value)));
+
+        assertEquals(expected.size(), actual.size());
+        for (Map.Entry<Integer, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void test_exists_whenFingerprintDifferent() {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        new SnapshotWriter(file, FINGERPRINT).close();
+
+        assertTrue(SnapshotReader.exists(file, FINGERPRINT));
+        assertFalse(SnapshotReader.exists(file, "keyDomain=4"));
+    }
+
+    @Test
+    public void test_exists_whenMissing() {
+        assertFalse(SnapshotReader.exists(new File(dir.getRoot(), "map.snapshot"), FINGERPRINT));
+    }
+
+    @Test
+    public void test_exists_whenNotClosed() {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT);
+        writer.write(1, new byte[1]);
+
+        assertFalse(SnapshotReader.exists(file, FINGERPRINT));
+        writer.abort();
+        assertFalse(new File(dir.getRoot(), "map.snapshot.tmp").exists());
+    }
+
+    @Test
+    public void test_abort_keepsExistingSnapshot() {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT)) {
+            writer.write(1, new byte[1]);
+        }
+
+        SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT);
+        writer.write(2, new byte[1]);
+        writer.abort();
+
+        assertEquals(1, new SnapshotReader(file, FINGERPRINT).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_notASnapshot() throws IOException {
+        File file = dir.newFile("map.snapshot");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write(new byte[100]);
+        }
+
+        new SnapshotReader(file, FINGERPRINT);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_truncated() throws IOException {
+        File file = new File(dir.getRoot(), "map.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, FINGERPRINT)) {
+            writer.write(1, new byte[100]);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        new SnapshotReader(file, FINGERPRINT).forEach((key, value) -> {
+        });
+    }
+}
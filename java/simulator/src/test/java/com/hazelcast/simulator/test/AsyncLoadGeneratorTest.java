@@ -0,0 +1,181 @@
+package com.hazelcast.simulator.test;
+
+import com.hazelcast.simulator.probes.impl.HdrLatencyProbe;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.testcontainer.TestContextImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.TestEnvironmentUtils.setupFakeUserDir;
+import static com.hazelcast.simulator.TestEnvironmentUtils.teardownFakeUserDir;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class AsyncLoadGeneratorTest {
+
+    private TestContextImpl testContext;
+
+    @Before
+    public void before() {
+        setupFakeUserDir();
+        ExceptionReporter.reset();
+        testContext = new TestContextImpl("test", "localhost", mock(Server.class));
+        testContext.setLatencyProbeClass(HdrLatencyProbe.class);
+    }
+
+    @After
+    public void after() {
+        teardownFakeUserDir();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_whenNoOperations() throws Exception {
+        new AsyncLoadGenerator(testContext).run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_whenInvalidProbability() {
+        new AsyncLoadGenerator(testContext).addOperation("get", 1.5, () -> completedFuture(null));
+    }
+
+    @Test
+    public void test_operationMixAndProbes() throws Exception {
+        AtomicInteger gets = new AtomicInteger();
+        AtomicInteger puts = new AtomicInteger();
+
+        long completed = new AsyncLoadGenerator(testContext)
+                .setMaxOperations(10000)
+                .addOperation("get", 0.75, () -> completedFuture(gets.incrementAndGet()))
+                .addOperation("put", 0.25, () -> completedFuture(puts.incrementAndGet()))
+                .run();
+
+        assertEquals(10000, completed);
+        assertEquals(10000, gets.get() + puts.get());
+        assertTrue("gets: " + gets.get(), gets.get() > 7000 && gets.get() < 8000);
+        assertEquals(gets.get(), probe("get").getIntervalHistogram().getTotalCount());
+        assertEquals(puts.get(), probe("put").getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void test_seededThreadState_sameOperationSequence() throws Exception {
+        List<String> operations1 = runSeeded(42);
+        List<String> operations2 = runSeeded(42);
+
+        assertEquals(100, operations1.size());
+        assertEquals(operations1, operations2);
+        assertNotEquals(operations1, runSeeded(43));
+    }
+
+    private List<String> runSeeded(long randomSeed) throws Exception {
+        List<String> operations = new ArrayList<>();
+        BaseThreadState threadState = new BaseThreadState();
+        threadState.seed(randomSeed, testContext, "", 0);
+
+        new AsyncLoadGenerator(testContext)
+                .setThreadState(threadState)
+                .setMaxOperations(100)
+                .addOperation("get", 0.5, () -> completedFuture(operations.add("get")))
+                .addOperation("put", 0.5, () -> completedFuture(operations.add("put")))
+                .run();
+        return operations;
+    }
+
+    @Test
+    public void test_maxInFlight() throws Exception {
+        Executor delayed = CompletableFuture.delayedExecutor(1, MILLISECONDS);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxObservedInFlight = new AtomicInteger();
+
+        new AsyncLoadGenerator(testContext)
+                .setMaxInFlight(4)
+                .setMaxOperations(200)
+                .addOperation("get", 1, () -> {
+                    maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return CompletableFuture.runAsync(inFlight::decrementAndGet, delayed);
+                })
+                .run();
+
+        assertEquals(0, inFlight.get());
+        assertTrue("maxObservedInFlight: " + maxObservedInFlight.get(), maxObservedInFlight.get() <= 4);
+    }
+
+    @Test
+    public void test_latencyIncludesQueueing_whenRateCantBeSustained() throws Exception {
+        // every operation takes 10 ms and only 1 can be in flight, but 1000 are intended per second
+        Executor delayed = CompletableFuture.delayedExecutor(10, MILLISECONDS);
+
+        new AsyncLoadGenerator(testContext)
+                .setRatePerSecond(1000)
+                .setMaxInFlight(1)
+                .setMaxOperations(20)
+                .addOperation("get", 1, () -> CompletableFuture.runAsync(() -> {
+                }, delayed))
+                .run();
+
+        // the last operation was intended to start after 19 ms, but started after about 190 ms
+        assertTrue(probe("get").getIntervalHistogram().getMaxValue() >= MILLISECONDS.toNanos(150));
+        assertTrue(probe("queueDelay").getIntervalHistogram().getMaxValue() >= MILLISECONDS.toNanos(140));
+        assertFalse(probe("queueDelay").includeInThroughput());
+    }
+
+    @Test
+    public void test_failedOperations() throws Exception {
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new Exception("expected"));
+        AtomicInteger count = new AtomicInteger();
+
+        AsyncLoadGenerator generator = new AsyncLoadGenerator(testContext)
+                .setMaxOperations(10)
+                .addOperation("get", 1, () -> {
+                    if (count.incrementAndGet() % 2 == 0) {
+                        throw new Exception("expected");
+                    }
+                    return failed;
+                });
+
+        assertEquals(10, generator.run());
+        assertEquals(10, generator.getFailedCount());
+    }
+
+    @Test(expected = TestException.class)
+    public void test_whenOperationsDontComplete() throws Exception {
+        new AsyncLoadGenerator(testContext)
+                .setMaxOperations(10)
+                .setCompletionTimeoutMillis(100)
+                .addOperation("get", 1, CompletableFuture::new)
+                .run();
+    }
+
+    @Test
+    public void test_stopsWhenTestStopped() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+
+        long completed = new AsyncLoadGenerator(testContext)
+                .addOperation("get", 1, () -> {
+                    if (count.incrementAndGet() == 100) {
+                        testContext.stop();
+                    }
+                    return completedFuture(null);
+                })
+                .run();
+
+        assertEquals(100, completed);
+    }
+
+    private HdrLatencyProbe probe(String name) {
+        return (HdrLatencyProbe) testContext.getLatencyProbes().get(name);
+    }
+}
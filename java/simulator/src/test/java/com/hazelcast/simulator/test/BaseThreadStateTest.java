@@ -1,9 +1,22 @@
 package com.hazelcast.simulator.test;
 
+import com.hazelcast.simulator.test.distribution.KeyDistribution;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class BaseThreadStateTest {
 
@@ -52,4 +65,72 @@ public class BaseThreadStateTest {
     public void randomLong() {
         double whatever = state.randomLong();
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void randomInt_withZeroBound() {
+        state.randomInt(0);
+    }
+
+    @Test
+    public void randomBytes() {
+        state.random.setSeed(42);
+        byte[] bytes = new byte[10];
+        state.randomBytes(bytes);
+
+        state.random.setSeed(42);
+        byte[] range = new byte[12];
+        state.randomBytes(range, 1, 10);
+
+        byte[] expected = new byte[12];
+        System.arraycopy(bytes, 0, expected, 1, 10);
+        assertArrayEquals(expected, range);
+    }
+
+    @Test
+    public void pluggableRandom() {
+        Random random = new Random(42);
+        BaseThreadState state = new BaseThreadState(random) {
+        };
+
+        assertSame(random, state.random);
+        long value = state.randomLong(100);
+        assertTrue(value >= 0);
+        assertTrue(value < 100);
+    }
+
+    @Test
+    public void seed() {
+        TestContext testContext = mock(TestContext.class);
+        when(testContext.getTestId()).thenReturn("test");
+
+        BaseThreadState state1 = new BaseThreadState();
+        BaseThreadState state2 = new BaseThreadState();
+        BaseThreadState otherThread = new BaseThreadState();
+        state1.seed(42, testContext, "", 0);
+        state2.seed(42, testContext, "", 0);
+        otherThread.seed(42, testContext, "", 1);
+
+        long value = state1.randomLong();
+        assertEquals(value, state2.randomLong());
+        assertNotEquals(value, otherThread.randomLong());
+    }
+
+    @Test
+    public void serialize_withKeyDistribution() throws Exception {
+        state.random.setSeed(42);
+        state.setKeyDistribution(KeyDistribution.create("zipfian(theta=0.9)"));
+        state.randomKey(1000L);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        ObjectOutputStream outputStream = new ObjectOutputStream(byteArrayOutputStream);
+        outputStream.writeObject(state);
+        outputStream.close();
+
+        ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
+        BaseThreadState read = (BaseThreadState) inputStream.readObject();
+
+        for (int k = 0; k < 100; k++) {
+            assertEquals(state.randomKey(1000L), read.randomKey(1000L));
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package com.hazelcast.simulator.test.distribution;
+
+import com.hazelcast.simulator.utils.FastRandom;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyDistributionTest {
+
+    private static final int SAMPLES = 1_000_000;
+    private static final int KEY_DOMAIN = 1000;
+
+    private final Random random = new FastRandom(42);
+
+    @Test
+    public void test_uniform() {
+        long[] counts = sample("uniform", KEY_DOMAIN);
+
+        assertEquals(0.5, fraction(counts, 0, KEY_DOMAIN / 2), 0.01);
+    }
+
+    @Test
+    public void test_zipfian() {
+        long[] counts = sample("zipfian(theta=0.99)", KEY_DOMAIN);
+
+        // the key with rank 0 is the most popular
+        for (int i = 1; i < KEY_DOMAIN; i++) {
+            assertTrue(counts[0] > counts[i]);
+        }
+        // with theta 0.99 over 1000 keys, the lowest 10% of the keys get the majority of the operations
+        assertTrue(fraction(counts, 0, KEY_DOMAIN / 10) > 0.6);
+        // the probability of rank 0 is 1/zeta(n)
+        assertEquals(1 / ZipfianKeyDistribution.zeta(KEY_DOMAIN, 0.99), fraction(counts, 0, 1), 0.01);
+    }
+
+    @Test
+    public void test_zipfian_scrambled() {
+        long[] counts = sample("zipfian(theta=0.99,scrambled=true)", KEY_DOMAIN);
+
+        // the hot keys are spread over the key domain
+        assertTrue(fraction(counts, 0, KEY_DOMAIN / 10) < 0.5);
+        long max = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+        }
+        assertTrue(max / (double) SAMPLES > 0.1);
+    }
+
+    @Test
+    public void test_latest() {
+        long[] counts = sample("latest", KEY_DOMAIN);
+
+        for (int i = 0; i < KEY_DOMAIN - 1; i++) {
+            assertTrue(counts[KEY_DOMAIN - 1] > counts[i]);
+        }
+    }
+
+    @Test
+    public void test_hotspot() {
+        long[] counts = sample("hotspot(hotSetFraction=0.1, hotOpnFraction=0.9)", KEY_DOMAIN);
+
+        assertEquals(0.9, fraction(counts, 0, KEY_DOMAIN / 10), 0.01);
+    }
+
+    @Test
+    public void test_exponential() {
+        long[] counts = sample("exponential(percentile=95,fraction=0.1)", KEY_DOMAIN);
+
+        assertEquals(0.95, fraction(counts, 0, KEY_DOMAIN / 10), 0.01);
+    }
+
+    @Test
+    public void test_sequential() {
+        KeyDistribution distribution = KeyDistribution.create("sequential");
+
+        long first = distribution.nextKey(random, 10);
+        for (int i = 1; i < 25; i++) {
+            assertEquals((first + i) % 10, distribution.nextKey(random, 10));
+        }
+    }
+
+    @Test
+    public void test_keyDomainOfOne() {
+        for (String spec : new String[]{"uniform", "zipfian", "latest", "hotspot", "exponential", "sequential"}) {
+            KeyDistribution distribution = KeyDistribution.create(spec);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(spec, 0, distribution.nextKey(random, 1));
+            }
+        }
+    }
+
+    @Test
+    public void test_largeKeyDomain() {
+        long keyDomain = 10_000_000_000L;
+        KeyDistribution distribution = KeyDistribution.create("zipfian");
+        for (int i = 0; i < 1000; i++) {
+            long key = distribution.nextKey(random, keyDomain);
+            assertTrue(key >= 0 && key < keyDomain);
+        }
+    }
+
+    @Test
+    public void test_zeta_approximation() {
+        // beyond the exact terms the zeta is approximated; it should be continuous with the exact sum
+        double exact = ZipfianKeyDistribution.zeta(1_000_000, 0.5);
+        double approximated = ZipfianKeyDistribution.zeta(1_000_001, 0.5);
+        assertEquals(exact + 1 / Math.sqrt(1_000_001), approximated, 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidKeyDomain() {
+        KeyDistribution.create("uniform").nextKey(random, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unknownDistribution() {
+        KeyDistribution.create("foo");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unknownParameter() {
+        KeyDistribution.create("zipfian(foo=1)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidParameter() {
+        KeyDistribution.create("zipfian(theta)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidTheta() {
+        KeyDistribution.create("zipfian(theta=1)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_missingClosingParenthesis() {
+        KeyDistribution.create("zipfian(theta=0.5");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidHotSetFraction() {
+        KeyDistribution.create("hotspot(hotSetFraction=2)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidPercentile() {
+        KeyDistribution.create("exponential(percentile=100)");
+    }
+
+    private long[] sample(String spec, int keyDomain) {
+        KeyDistribution distribution = KeyDistribution.create(spec);
+        long[] counts = new long[keyDomain];
+        for (int i = 0; i < SAMPLES; i++) {
+            long key = distribution.nextKey(random, keyDomain);
+            assertTrue("key: " + key, key >= 0 && key < keyDomain);
+            counts[(int) key]++;
+        }
+        return counts;
+    }
+
+    private static double fraction(long[] counts, int fromInclusive, int toExclusive) {
+        long sum = 0;
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            sum += counts[i];
+        }
+        return sum / (double) SAMPLES;
+    }
+}
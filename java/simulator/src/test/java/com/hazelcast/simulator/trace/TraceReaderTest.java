@@ -0,0 +1,131 @@
+package com.hazelcast.simulator.trace;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.hazelcast.simulator.trace.TraceOperation.GET;
+import static com.hazelcast.simulator.trace.TraceOperation.PUT;
+import static com.hazelcast.simulator.trace.TraceOperation.REMOVE;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class TraceReaderTest {
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void test_writeAndRead() throws IOException {
+        File file = dir.newFile("trace.bin");
+        try (TraceWriter writer = new TraceWriter(file)) {
+            writer.write(100, GET, 1, 0);
+            writer.write(100, PUT, Long.MAX_VALUE, 1000);
+            writer.write(250, REMOVE, -5, 0);
+        }
+
+        TraceReader reader = new TraceReader(file);
+        assertEquals(3, reader.size());
+
+        assertEquals(100, reader.timestampNanos(0));
+        assertEquals(GET, reader.operation(0));
+        assertEquals(1, reader.key(0));
+        assertEquals(0, reader.valueSize(0));
+
+        assertEquals(100, reader.timestampNanos(1));
+        assertEquals(PUT, reader.operation(1));
+        assertEquals(Long.MAX_VALUE, reader.key(1));
+        assertEquals(1000, reader.valueSize(1));
+
+        assertEquals(250, reader.timestampNanos(2));
+        assertEquals(REMOVE, reader.operation(2));
+        assertEquals(-5, reader.key(2));
+    }
+
+    @Test
+    public void test_empty() throws IOException {
+        File file = dir.newFile("trace.bin");
+        new TraceWriter(file).close();
+
+        assertEquals(0, new TraceReader(file).size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_indexOutOfBounds() throws IOException {
+        File file = dir.newFile("trace.bin");
+        try (TraceWriter writer = new TraceWriter(file)) {
+            writer.write(100, GET, 1, 0);
+        }
+
+        new TraceReader(file).key(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unsortedTimestamps() throws IOException {
+        try (TraceWriter writer = new TraceWriter(dir.newFile("trace.bin"))) {
+            writer.write(100, GET, 1, 0);
+            writer.write(99, GET, 1, 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_notATraceFile() throws IOException {
+        File file = dir.newFile("trace.bin");
+        Files.write(file.toPath(), new byte[100]);
+
+        new TraceReader(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_truncated() throws IOException {
+        File file = dir.newFile("trace.bin");
+        try (TraceWriter writer = new TraceWriter(file)) {
+            writer.write(100, GET, 1, 0);
+            writer.write(200, GET, 2, 0);
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(file.toPath(), truncated);
+
+        new TraceReader(file);
+    }
+
+    @Test
+    public void test_convertCsv() throws IOException {
+        File csvFile = dir.newFile("trace.csv");
+        Files.write(csvFile.toPath(), asList(
+                "# timestampNanos,operation,key,valueSize",
+                "1000,get,42,0",
+                "",
+                "2000, PUT, 43, 100"));
+        File traceFile = dir.newFile("trace.bin");
+
+        assertEquals(2, TraceWriter.convertCsv(csvFile, traceFile));
+
+        TraceReader reader = new TraceReader(traceFile);
+        assertEquals(2, reader.size());
+        assertEquals(GET, reader.operation(0));
+        assertEquals(42, reader.key(0));
+        assertEquals(2000, reader.timestampNanos(1));
+        assertEquals(PUT, reader.operation(1));
+        assertEquals(100, reader.valueSize(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_convertCsv_invalidOperation() throws IOException {
+        File csvFile = dir.newFile("trace.csv");
+        Files.write(csvFile.toPath(), asList("1000,foo,42,0"));
+
+        TraceWriter.convertCsv(csvFile, dir.newFile("trace.bin"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unknownOperationCode() {
+        TraceOperation.fromCode((byte) 100);
+    }
+}
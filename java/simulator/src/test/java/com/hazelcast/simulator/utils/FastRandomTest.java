@@ -0,0 +1,161 @@
+package com.hazelcast.simulator.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FastRandomTest {
+
+    private static final int SAMPLES = 1_000_000;
+
+    @Test
+    public void test_sameSeed_sameSequence() {
+        FastRandom random1 = new FastRandom(42);
+        FastRandom random2 = new FastRandom(42);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(random1.nextLong(), random2.nextLong());
+        }
+    }
+
+    @Test
+    public void test_differentSeed_differentSequence() {
+        assertNotEquals(new FastRandom(1).nextLong(), new FastRandom(2).nextLong());
+    }
+
+    @Test
+    public void test_setSeed() {
+        FastRandom random = new FastRandom(42);
+        long first = random.nextLong();
+        random.nextLong();
+
+        random.setSeed(42);
+        assertEquals(first, random.nextLong());
+    }
+
+    @Test
+    public void test_defaultSeed_differentSequence() {
+        assertNotEquals(new FastRandom().nextLong(), new FastRandom().nextLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_nextInt_withZeroBound() {
+        new FastRandom().nextInt(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_nextLong_withNegativeBound() {
+        new FastRandom().nextLong(-1);
+    }
+
+    @Test
+    public void test_nextInt_withBound() {
+        FastRandom random = new FastRandom(42);
+        int[] counts = new int[3];
+        for (int i = 0; i < SAMPLES; i++) {
+            int value = random.nextInt(3);
+            assertTrue(value >= 0 && value < 3);
+            counts[value]++;
+        }
+
+        for (int count : counts) {
+            assertEquals(1 / 3d, count / (double) SAMPLES, 0.005);
+        }
+    }
+
+    @Test
+    public void test_nextInt_withLargeBound() {
+        FastRandom random = new FastRandom(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            int value = random.nextInt(Integer.MAX_VALUE);
+            assertTrue(value >= 0 && value < Integer.MAX_VALUE);
+        }
+    }
+
+    @Test
+    public void test_nextLong_withBound() {
+        FastRandom random = new FastRandom(42);
+        int[] counts = new int[3];
+        for (int i = 0; i < SAMPLES; i++) {
+            long value = random.nextLong(3);
+            assertTrue(value >= 0 && value < 3);
+            counts[(int) value]++;
+        }
+
+        for (int count : counts) {
+            assertEquals(1 / 3d, count / (double) SAMPLES, 0.005);
+        }
+    }
+
+    @Test
+    public void test_nextLong_withLargeBound() {
+        FastRandom random = new FastRandom(42);
+        long bound = Long.MAX_VALUE / 3 * 2;
+        long belowHalf = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            long value = random.nextLong(bound);
+            assertTrue(value >= 0 && value < bound);
+            if (value < bound / 2) {
+                belowHalf++;
+            }
+        }
+        assertEquals(0.5, belowHalf / (double) SAMPLES, 0.005);
+    }
+
+    @Test
+    public void test_nextDouble() {
+        FastRandom random = new FastRandom(42);
+        double sum = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double value = random.nextDouble();
+            assertTrue(value >= 0 && value < 1);
+            sum += value;
+        }
+        assertEquals(0.5, sum / SAMPLES, 0.005);
+    }
+
+    @Test
+    public void test_nextBytes() {
+        byte[] bytes = new byte[13];
+        new FastRandom(42).nextBytes(bytes);
+
+        byte[] expected = new byte[13];
+        FastRandom.fill(new FastRandom(42), expected, 0, expected.length);
+        assertArrayEquals(expected, bytes);
+    }
+
+    @Test
+    public void test_nextBytes_range() {
+        byte[] bytes = new byte[20];
+        FastRandom random = new FastRandom(42);
+        random.nextBytes(bytes, 5, 10);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bytes[i]);
+        }
+        for (int i = 15; i < 20; i++) {
+            assertEquals(0, bytes[i]);
+        }
+        int nonZero = 0;
+        for (int i = 5; i < 15; i++) {
+            if (bytes[i] != 0) {
+                nonZero++;
+            }
+        }
+        assertTrue(nonZero > 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_nextBytes_outOfBounds() {
+        new FastRandom().nextBytes(new byte[10], 5, 6);
+    }
+
+    @Test
+    public void test_mix_isDeterministic() {
+        assertEquals(FastRandom.mix(1), FastRandom.mix(1));
+        assertNotEquals(FastRandom.mix(1), FastRandom.mix(2));
+    }
+}
@@ -1,13 +1,151 @@
 package com.hazelcast.simulator.utils;
 
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 
 public class HistogramLogMergerTest {
 
+    private static final long RUN_START_MILLIS = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
     @Test
     public void testConstructor() throws Exception {
         invokePrivateConstructor(HistogramLogMerger.class);
     }
+
+    @Test
+    public void testMerge_alignsOnTimestamps() throws IOException {
+        // worker 2 starts 3 intervals later, so its first interval should be merged with the 4th interval of worker 1
+        File worker1 = writeLog("worker1.hdr", RUN_START_MILLIS, 5, 10);
+        File worker2 = writeLog("worker2.hdr", RUN_START_MILLIS + 3_000, 5, 1000);
+        File output = new File(dir.getRoot(), "merged.hdr");
+
+        int intervals = HistogramLogMerger.merge(output, asList(worker1, worker2), new ForkJoinPool(2));
+
+        assertEquals(8, intervals);
+        List<Histogram> merged = readLog(output);
+        assertEquals(8, merged.size());
+        for (int i = 0; i < merged.size(); i++) {
+            Histogram histogram = merged.get(i);
+            assertEquals(RUN_START_MILLIS + i * 1000, histogram.getStartTimeStamp());
+            assertEquals(RUN_START_MILLIS + (i + 1) * 1000, histogram.getEndTimeStamp());
+        }
+        assertEquals(1, merged.get(0).getTotalCount());
+        assertEquals(10, merged.get(0).getMaxValue());
+        assertEquals(2, merged.get(3).getTotalCount());
+        assertEquals(1000, merged.get(3).getMaxValue(), 1);
+        assertEquals(1, merged.get(7).getTotalCount());
+    }
+
+    @Test
+    public void testMerge_unalignedIntervalsOfManyFiles() throws IOException {
+        List<File> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // the workers start within the same interval, but not at the same moment
+            inputs.add(writeLog("worker" + i + ".hdr", RUN_START_MILLIS + i * 10, 10, i + 1));
+        }
+        File output = new File(dir.getRoot(), "merged.hdr");
+
+        HistogramLogMerger.merge(output, inputs, new ForkJoinPool(4));
+
+        List<Histogram> merged = readLog(output);
+        assertEquals(10, merged.size());
+        for (Histogram histogram : merged) {
+            assertEquals(20, histogram.getTotalCount());
+        }
+    }
+
+    @Test
+    public void testMerge_whenNoInputs() throws IOException {
+        File output = new File(dir.getRoot(), "merged.hdr");
+
+        assertEquals(0, HistogramLogMerger.merge(output, new ArrayList<>(), ForkJoinPool.commonPool()));
+        assertEquals(0, readLog(output).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMerge_whenInputDoesNotExist() {
+        HistogramLogMerger.merge(new File(dir.getRoot(), "merged.hdr"),
+                asList(new File(dir.getRoot(), "notexisting.hdr")), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testMain_batch() throws IOException {
+        File test1Worker1 = writeLog("test1-worker1.hdr", RUN_START_MILLIS, 3, 10);
+        File test1Worker2 = writeLog("test1-worker2.hdr", RUN_START_MILLIS, 3, 20);
+        File test2Worker1 = writeLog("test2-worker1.hdr", RUN_START_MILLIS, 4, 30);
+        File output1 = new File(dir.getRoot(), "test1.hdr");
+        File output2 = new File(dir.getRoot(), "test2.hdr");
+        File batchFile = dir.newFile("batch");
+        Files.write(batchFile.toPath(), asList(
+                output1 + "\t" + test1Worker1 + "\t" + test1Worker2,
+                output2 + "\t" + test2Worker1));
+
+        HistogramLogMerger.main(new String[]{"--batch", batchFile.getPath()});
+
+        List<Histogram> merged1 = readLog(output1);
+        assertEquals(3, merged1.size());
+        assertEquals(2, merged1.get(0).getTotalCount());
+        assertEquals(4, readLog(output2).size());
+    }
+
+    @Test
+    public void testMain_filesList() throws IOException {
+        File worker1 = writeLog("worker1.hdr", RUN_START_MILLIS, 3, 10);
+        File worker2 = writeLog("worker2.hdr", RUN_START_MILLIS, 3, 20);
+        File filesList = dir.newFile("files");
+        Files.write(filesList.toPath(), asList(worker1.getPath(), worker2.getPath()));
+        File output = new File(dir.getRoot(), "merged.hdr");
+
+        HistogramLogMerger.main(new String[]{output.getPath(), filesList.getPath()});
+
+        assertEquals(3, readLog(output).size());
+    }
+
+    // writes a log like a worker: relative timestamps against the run start, 1 second intervals with 1 value each
+    private File writeLog(String name, long runStartMillis, int intervals, long value) throws IOException {
+        File file = dir.newFile(name);
+        HistogramLogWriter writer = new HistogramLogWriter(file);
+        writer.setBaseTime(runStartMillis);
+        writer.outputStartTime(runStartMillis);
+        writer.outputLogFormatVersion();
+        writer.outputLegend();
+        for (int i = 0; i < intervals; i++) {
+            Histogram histogram = new Histogram(3);
+            histogram.recordValue(value);
+            histogram.setStartTimeStamp(runStartMillis + i * 1000L);
+            histogram.setEndTimeStamp(runStartMillis + (i + 1) * 1000L);
+            writer.outputIntervalHistogram(histogram);
+        }
+        writer.close();
+        return file;
+    }
+
+    private static List<Histogram> readLog(File file) throws IOException {
+        List<Histogram> histograms = new ArrayList<>();
+        HistogramLogReader reader = new HistogramLogReader(file);
+        Histogram histogram;
+        while ((histogram = (Histogram) reader.nextIntervalHistogram()) != null) {
+            histograms.add(histogram);
+        }
+        reader.close();
+        return histograms;
+    }
 }
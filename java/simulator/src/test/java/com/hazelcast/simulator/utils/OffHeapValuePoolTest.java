@@ -0,0 +1,107 @@
+package com.hazelcast.simulator.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapValuePoolTest {
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_whenCountZero() {
+        OffHeapValuePool.allocateDirect(0, 1, 10, new Random());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_whenMaxLengthSmallerThanMinLength() {
+        OffHeapValuePool.allocateDirect(1, 10, 1, new Random());
+    }
+
+    @Test
+    public void test_allocateDirect() {
+        OffHeapValuePool pool = OffHeapValuePool.allocateDirect(100, 10, 20, new Random());
+
+        assertEquals(100, pool.size());
+        long totalBytes = 0;
+        for (int i = 0; i < pool.size(); i++) {
+            int length = pool.length(i);
+            assertTrue("length: " + length, length >= 10 && length < 20);
+            ByteBuffer slice = pool.slice(i);
+            assertTrue(slice.isDirect());
+            assertTrue(slice.isReadOnly());
+            assertEquals(0, slice.position());
+            assertEquals(length, slice.remaining());
+            totalBytes += length;
+        }
+        assertEquals(totalBytes, pool.totalBytes());
+    }
+
+    @Test
+    public void test_fixedLength() {
+        OffHeapValuePool pool = OffHeapValuePool.allocateDirect(10, 100, 100, new Random());
+
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(100, pool.length(i));
+        }
+        assertEquals(1000, pool.totalBytes());
+    }
+
+    @Test
+    public void test_map() {
+        File file = new File(dir.getRoot(), "values.bin");
+        OffHeapValuePool pool = OffHeapValuePool.map(file, 10, 100, 100, new Random());
+
+        assertEquals(1000, file.length());
+        assertEquals(10, pool.size());
+        assertEquals(100, pool.slice(9).remaining());
+    }
+
+    @Test
+    public void test_multipleSegments() {
+        OffHeapValuePool pool = OffHeapValuePool.create(null, 100, 10, 50, new Random(), 128);
+
+        for (int i = 0; i < pool.size(); i++) {
+            ByteBuffer slice = pool.slice(i);
+            assertEquals(pool.length(i), slice.remaining());
+
+            byte[] expected = new byte[slice.remaining()];
+            slice.duplicate().get(expected);
+            byte[] actual = new byte[pool.length(i)];
+            pool.copyTo(i, 0, actual, 0, actual.length);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void test_copyTo_part() {
+        OffHeapValuePool pool = OffHeapValuePool.allocateDirect(2, 100, 100, new Random());
+
+        byte[] expected = new byte[10];
+        ByteBuffer slice = pool.slice(1);
+        slice.position(5);
+        slice.get(expected);
+
+        byte[] actual = new byte[12];
+        pool.copyTo(1, 5, actual, 2, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected[i], actual[i + 2]);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_copyTo_outOfBounds() {
+        OffHeapValuePool pool = OffHeapValuePool.allocateDirect(1, 100, 100, new Random());
+
+        pool.copyTo(0, 95, new byte[10], 0, 10);
+    }
+}
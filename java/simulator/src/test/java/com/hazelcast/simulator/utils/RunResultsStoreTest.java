@@ -0,0 +1,158 @@
+package com.hazelcast.simulator.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RunResultsStoreTest {
+
+    private static final long RUN_START_MILLIS = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(RunResultsStore.class);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        File runDir = dir.newFolder("run");
+        File worker1 = new File(runDir, "A1_W1-10.0.0.1-javaclient");
+        File worker2 = new File(runDir, "A2_W1-10.0.0.2-javaclient");
+        writeOperations(new File(worker1, "mapTest.operations.csv"), 100, 200);
+        writeOperations(new File(worker2, "mapTest.operations.csv"), 300);
+        writeLog(new File(worker1, "mapTest.get.hdr"), 2000);
+        writeLog(new File(runDir, "mapTest.get.hdr"), 4000);
+        // not part of a series
+        Files.writeString(new File(runDir, "dstat.csv").toPath(), "foo");
+        new File(runDir, "agent").mkdir();
+
+        File file = new File(runDir, RunResultsStore.FILE_NAME);
+        assertEquals(7, RunResultsStore.write(runDir, file));
+
+        RunResultsStore.Table table = RunResultsStore.read(file);
+        assertEquals(7, table.getRowCount());
+        assertEquals(asList("test_id", "worker_id", "probe", "start_millis", "end_millis", "count", "throughput",
+                "min_us", "mean_us", "p50_us", "p90_us", "p99_us", "p999_us", "p9999_us", "max_us"), table.getColumnNames());
+        // ordered by test, probe and worker; the merged series has an empty worker id
+        assertArrayEquals(new String[]{"mapTest", "mapTest", "mapTest", "mapTest", "mapTest", "mapTest", "mapTest"},
+                table.getStrings("test_id"));
+        assertArrayEquals(new String[]{"get", "get", "get", "get", "operations", "operations", "operations"},
+                table.getStrings("probe"));
+        assertArrayEquals(new String[]{"", "", "A1_W1", "A1_W1", "A1_W1", "A1_W1", "A2_W1"}, table.getStrings("worker_id"));
+        assertArrayEquals(new long[]{1, 2, 1, 2, 100, 200, 300}, table.getLongs("count"));
+        assertArrayEquals(new long[]{RUN_START_MILLIS, RUN_START_MILLIS + 1000, RUN_START_MILLIS, RUN_START_MILLIS + 1000,
+                        RUN_START_MILLIS + 1000, RUN_START_MILLIS + 2000, RUN_START_MILLIS + 1000},
+                table.getLongs("start_millis"));
+        assertArrayEquals(new long[]{RUN_START_MILLIS + 1000, RUN_START_MILLIS + 2000, RUN_START_MILLIS + 1000,
+                        RUN_START_MILLIS + 2000, RUN_START_MILLIS + 2000, RUN_START_MILLIS + 3000, RUN_START_MILLIS + 2000},
+                table.getLongs("end_millis"));
+        assertArrayEquals(new double[]{1, 2, 1, 2, 100, 200, 300}, table.getDoubles("throughput"), 0.01);
+
+        double[] p50 = table.getDoubles("p50_us");
+        assertEquals(4, p50[0], 0.01);
+        assertEquals(2, p50[2], 0.01);
+        assertTrue(Double.isNaN(p50[4]));
+    }
+
+    @Test
+    public void testWrite_whenEmptyRun() throws IOException {
+        File runDir = dir.newFolder("run");
+        File file = new File(runDir, RunResultsStore.FILE_NAME);
+
+        assertEquals(0, RunResultsStore.write(runDir, file));
+
+        RunResultsStore.Table table = RunResultsStore.read(file);
+        assertEquals(0, table.getRowCount());
+        assertEquals(0, table.getStrings("test_id").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrite_whenRunDirDoesNotExist() {
+        RunResultsStore.write(new File(dir.getRoot(), "notexisting"), new File(dir.getRoot(), RunResultsStore.FILE_NAME));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRead_whenNotResultsFile() throws IOException {
+        File file = dir.newFile("foo");
+        Files.writeString(file.toPath(), "not a results file");
+
+        RunResultsStore.read(file);
+    }
+
+    @Test
+    public void testReadOperations_skipsIncompleteLines() throws IOException {
+        File file = dir.newFile("operations.csv");
+        Files.writeString(file.toPath(), "epoch,timestamp,operations,operations-delta,operations/second\n"
+                + "1700000001.0,14/11/2023 22:13:21,10,10,10\n"
+                + "1700000002.0,14/11/2023 22:13:22,30,20,20\n"
+                + "1700000003.0,14/11/2023 22:13:23,3");
+
+        List<RunResultsStore.Interval> intervals = RunResultsStore.readOperations(file);
+
+        assertEquals(2, intervals.size());
+        assertEquals(RUN_START_MILLIS, intervals.get(0).startMillis());
+        assertEquals(RUN_START_MILLIS + 1000, intervals.get(1).startMillis());
+        assertEquals(20, intervals.get(1).count());
+    }
+
+    @Test
+    public void testOperationsTestId() {
+        assertEquals("", RunResultsStore.operationsTestId("operations.csv"));
+        assertEquals("mapTest", RunResultsStore.operationsTestId("mapTest.operations.csv"));
+        assertEquals("mapTest", RunResultsStore.operationsTestId("operations-mapTest.csv"));
+        assertEquals("mapTest", RunResultsStore.operationsTestId("operationsmapTest..csv"));
+        assertNull(RunResultsStore.operationsTestId("dstat.csv"));
+    }
+
+    // one line per second, the epoch is the end of the interval
+    private static void writeOperations(File file, long... deltas) throws IOException {
+        file.getParentFile().mkdirs();
+        StringBuilder sb = new StringBuilder("epoch,timestamp,operations,operations-delta,operations/second\n");
+        long total = 0;
+        for (int i = 0; i < deltas.length; i++) {
+            total += deltas[i];
+            long epochMillis = RUN_START_MILLIS + (i + 2) * 1000L;
+            sb.append(epochMillis / 1000d).append(",timestamp,").append(total).append(',').append(deltas[i]).append(',')
+                    .append(deltas[i]).append('\n');
+        }
+        Files.writeString(file.toPath(), sb.toString());
+    }
+
+    // 2 intervals of 1 second; the first with a single value, the second with 2 values
+    private static void writeLog(File file, long valueNanos) throws IOException {
+        file.getParentFile().mkdirs();
+        HistogramLogWriter writer = new HistogramLogWriter(file);
+        writer.setBaseTime(RUN_START_MILLIS);
+        writer.outputStartTime(RUN_START_MILLIS);
+        writer.outputLogFormatVersion();
+        writer.outputLegend();
+        for (int i = 0; i < 2; i++) {
+            Histogram histogram = new Histogram(3);
+            histogram.recordValue(valueNanos);
+            if (i == 1) {
+                histogram.recordValue(valueNanos);
+            }
+            histogram.setStartTimeStamp(RUN_START_MILLIS + i * 1000L);
+            histogram.setEndTimeStamp(RUN_START_MILLIS + (i + 1) * 1000L);
+            writer.outputIntervalHistogram(histogram);
+        }
+        writer.close();
+    }
+}
@@ -15,6 +15,8 @@ import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static com.hazelcast.simulator.utils.FileUtils.getUserDir;
 import static com.hazelcast.simulator.utils.TestUtils.assertEqualsStringFormat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
 public class ThreadSpawnerTest {
 
@@ -132,4 +134,43 @@ public class ThreadSpawnerTest {
         spawner.spawn(sleepInfiniteRunnable);
         spawner.awaitCompletion();
     }
+
+    @Test
+    public void testSpawnVirtual() {
+        assumeTrue(ThreadSpawner.isVirtualThreadSupported());
+
+        final AtomicInteger counter = new AtomicInteger(0);
+
+        ThreadSpawner spawner = new ThreadSpawner("AnyTestCaseId");
+        for (int i = 0; i < 100; i++) {
+            spawner.spawnVirtual("NamePrefix", counter::incrementAndGet);
+        }
+        spawner.awaitCompletion();
+
+        assertEqualsStringFormat("Expected counter to be %d, but as %d", 100, counter.get());
+    }
+
+    @Test
+    public void testSpawnVirtualException_reportException() {
+        assumeTrue(ThreadSpawner.isVirtualThreadSupported());
+
+        File exceptionFile = new File(getUserDir(), "1.exception");
+
+        ThreadSpawner spawner = new ThreadSpawner("AnyTestCaseId");
+        spawner.spawnVirtual("NamePrefix", () -> {
+            throw new CommandLineExitException("Expected exception");
+        });
+        spawner.awaitCompletion();
+
+        assertTrue(exceptionFile.exists());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSpawnVirtual_whenNotSupported() {
+        assumeFalse(ThreadSpawner.isVirtualThreadSupported());
+
+        ThreadSpawner spawner = new ThreadSpawner("AnyTestCaseId");
+        spawner.spawnVirtual("NamePrefix", () -> {
+        });
+    }
 }
@@ -10,6 +10,7 @@ import com.hazelcast.simulator.protocol.exception.HandleException;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.worker.messages.CreateTestMessage;
 import com.hazelcast.simulator.worker.messages.ExecuteScriptMessage;
+import com.hazelcast.simulator.worker.messages.SetRateMessage;
 import com.hazelcast.simulator.worker.messages.StartPhaseMessage;
 import com.hazelcast.simulator.worker.messages.StopRunMessage;
 import com.hazelcast.simulator.worker.messages.TerminateWorkerMessage;
@@ -105,6 +106,16 @@ public class WorkerMessageHandlerTest {
         assertTrue(promise.hasAnswer());
     }
 
+    @Test
+    public void test_SetRateOperation() throws Exception {
+        SetRateMessage op = new SetRateMessage("foo", 2);
+
+        processor.process(op, sourceAddress, promise);
+
+        verify(testManager).setRate(op);
+        assertTrue(promise.hasAnswer());
+    }
+
     // make sure that unhandled exceptions are trapped.
     @Test
     public void test_unhandledException() throws Exception {
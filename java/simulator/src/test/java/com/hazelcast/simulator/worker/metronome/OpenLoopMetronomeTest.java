@@ -0,0 +1,107 @@
+package com.hazelcast.simulator.worker.metronome;
+
+import com.hazelcast.simulator.probes.impl.HdrLatencyProbe;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OpenLoopMetronomeTest {
+
+    // the open loop catches up after a delay, so the spacing between calls isn't guaranteed; only the schedule is.
+    @Test
+    public void testNeverAheadOfSchedule() {
+        long intervalNanos = MILLISECONDS.toNanos(1);
+        OpenLoopMetronome metronome = new OpenLoopMetronome(new OpenLoopMetronome(intervalNanos, null));
+
+        long firstExpectedStartNanos = metronome.waitForNext();
+        for (int i = 1; i <= 10; i++) {
+            long expectedStartNanos = metronome.waitForNext();
+
+            assertEquals(firstExpectedStartNanos + i * intervalNanos, expectedStartNanos);
+            assertTrue(System.nanoTime() >= expectedStartNanos);
+        }
+    }
+
+    @Test
+    public void testScheduleIsShared() {
+        long intervalNanos = MILLISECONDS.toNanos(10);
+        OpenLoopMetronome master = new OpenLoopMetronome(intervalNanos, null);
+
+        OpenLoopMetronome metronome1 = new OpenLoopMetronome(master);
+        OpenLoopMetronome metronome2 = new OpenLoopMetronome(master);
+
+        long next = metronome1.waitForNext() + intervalNanos;
+
+        assertEquals(next, metronome2.waitForNext());
+        next += intervalNanos;
+        assertEquals(next, metronome2.waitForNext());
+        next += intervalNanos;
+        assertEquals(next, metronome1.waitForNext());
+        assertEquals(4, master.claimedCount());
+    }
+
+    @Test
+    public void testQueueDelay_whenBehindSchedule() throws InterruptedException {
+        long intervalNanos = MILLISECONDS.toNanos(10);
+        HdrLatencyProbe queueDelayProbe = new HdrLatencyProbe("queueDelay", false);
+        OpenLoopMetronome metronome = new OpenLoopMetronome(new OpenLoopMetronome(intervalNanos, queueDelayProbe));
+
+        long firstExpectedStartNanos = metronome.waitForNext();
+
+        // the request is blocked for 10 intervals; the schedule doesn't wait for it.
+        MILLISECONDS.sleep(100);
+        assertTrue(metronome.intendedCount() >= 10);
+
+        long secondExpectedStartNanos = metronome.waitForNext();
+        assertEquals(firstExpectedStartNanos + intervalNanos, secondExpectedStartNanos);
+
+        Histogram histogram = queueDelayProbe.getIntervalHistogram();
+        assertEquals(2, histogram.getTotalCount());
+        assertTrue(histogram.getMaxValue() >= MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    public void testIntendedCount_whenStopped_thenScheduleEnds() throws InterruptedException {
+        OpenLoopMetronome master = new OpenLoopMetronome(MILLISECONDS.toNanos(1), null);
+        new OpenLoopMetronome(master).waitForNext();
+
+        master.stop();
+        long intendedCount = master.intendedCount();
+
+        // the time spent stopping the threads doesn't count
+        MILLISECONDS.sleep(50);
+        assertEquals(intendedCount, master.intendedCount());
+    }
+
+    @Test
+    public void testIntendedCount_whenLoopsExited_thenScheduleEnds() throws InterruptedException {
+        OpenLoopMetronome master = new OpenLoopMetronome(MILLISECONDS.toNanos(1), null);
+        OpenLoopMetronome metronome = new OpenLoopMetronome(master);
+        metronome.waitForNext();
+
+        metronome.onLoopExit();
+        long intendedCount = master.intendedCount();
+
+        // the time spent waiting for the in-flight calls doesn't count
+        MILLISECONDS.sleep(50);
+        assertEquals(intendedCount, master.intendedCount());
+    }
+
+    @Test
+    public void testIntendedCount_whenNotStarted() {
+        OpenLoopMetronome metronome = new OpenLoopMetronome(MILLISECONDS.toNanos(1), null);
+
+        assertEquals(0, metronome.intendedCount());
+        assertEquals(0, metronome.claimedCount());
+    }
+
+    @Test
+    public void testIntendedRatePerSecond() {
+        OpenLoopMetronome metronome = new OpenLoopMetronome(MILLISECONDS.toNanos(1), null);
+
+        assertEquals(1000, metronome.intendedRatePerSecond(), 0.01);
+    }
+}
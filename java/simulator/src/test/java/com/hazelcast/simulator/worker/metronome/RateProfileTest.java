@@ -0,0 +1,191 @@
+package com.hazelcast.simulator.worker.metronome;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.function.Function;
+
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateProfileTest {
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void testRamp() {
+        RampRateProfile profile = new RampRateProfile(100, 1100, 10);
+
+        assertEquals(100, profile.ratePerSecond(0), 0.01);
+        assertEquals(600, profile.ratePerSecond(SECONDS.toNanos(5)), 0.01);
+        assertEquals(1100, profile.ratePerSecond(SECONDS.toNanos(10)), 0.01);
+        assertEquals(1100, profile.ratePerSecond(SECONDS.toNanos(100)), 0.01);
+    }
+
+    @Test
+    public void testStep() {
+        StepRateProfile profile = new StepRateProfile(1000, 500, 10, 2200);
+
+        assertEquals(1000, profile.ratePerSecond(0), 0.01);
+        assertEquals(1000, profile.ratePerSecond(SECONDS.toNanos(10) - 1), 0.01);
+        assertEquals(1500, profile.ratePerSecond(SECONDS.toNanos(10)), 0.01);
+        assertEquals(2000, profile.ratePerSecond(SECONDS.toNanos(25)), 0.01);
+        assertEquals(2200, profile.ratePerSecond(SECONDS.toNanos(30)), 0.01);
+        assertEquals(2200, profile.ratePerSecond(SECONDS.toNanos(1000)), 0.01);
+    }
+
+    @Test
+    public void testSine() {
+        SineRateProfile profile = new SineRateProfile(1000, 500, 40);
+
+        assertEquals(1000, profile.ratePerSecond(0), 0.01);
+        assertEquals(1500, profile.ratePerSecond(SECONDS.toNanos(10)), 0.01);
+        assertEquals(1000, profile.ratePerSecond(SECONDS.toNanos(20)), 0.01);
+        assertEquals(500, profile.ratePerSecond(SECONDS.toNanos(30)), 0.01);
+        assertEquals(1500, profile.ratePerSecond(SECONDS.toNanos(50)), 0.01);
+    }
+
+    @Test
+    public void testCsv() {
+        CsvRateProfile profile = new CsvRateProfile(new long[]{0, 10, 20}, new double[]{100, 200, 50});
+
+        assertEquals(100, profile.ratePerSecond(0), 0.01);
+        assertEquals(100, profile.ratePerSecond(SECONDS.toNanos(10) - 1), 0.01);
+        assertEquals(200, profile.ratePerSecond(SECONDS.toNanos(10)), 0.01);
+        assertEquals(200, profile.ratePerSecond(SECONDS.toNanos(15)), 0.01);
+        assertEquals(50, profile.ratePerSecond(SECONDS.toNanos(1000)), 0.01);
+    }
+
+    @Test
+    public void testCsv_whenFirstOffsetNotZero() {
+        CsvRateProfile profile = new CsvRateProfile(new long[]{10}, new double[]{100});
+
+        assertEquals(100, profile.ratePerSecond(0), 0.01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCsv_whenOffsetsNotIncreasing() {
+        new CsvRateProfile(new long[]{0, 10, 10}, new double[]{100, 200, 300});
+    }
+
+    @Test
+    public void testCsv_load() throws Exception {
+        File file = dir.newFile("rates.csv");
+        writeText("# seconds,ratePerSecond\n0,100\n\n10, 200\n", file);
+
+        CsvRateProfile profile = CsvRateProfile.load(file);
+
+        assertEquals(100, profile.ratePerSecond(0), 0.01);
+        assertEquals(200, profile.ratePerSecond(SECONDS.toNanos(10)), 0.01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCsv_load_whenInvalidLine() throws Exception {
+        File file = dir.newFile("rates.csv");
+        writeText("0,100,5\n", file);
+
+        CsvRateProfile.load(file);
+    }
+
+    @Test
+    public void testIntervalNanos() {
+        StepRateProfile profile = new StepRateProfile(1000, 1000, 1, Double.MAX_VALUE);
+        long start = System.nanoTime();
+
+        // the first call starts the profile
+        assertEquals(MILLISECONDS.toNanos(1), profile.intervalNanos(start));
+        assertEquals(MILLISECONDS.toNanos(1) / 2, profile.intervalNanos(start + SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testIntervalNanos_whenZeroRate() {
+        RampRateProfile profile = new RampRateProfile(0, 1000, 10);
+
+        assertEquals(SECONDS.toNanos(1), profile.intervalNanos(System.nanoTime()));
+    }
+
+    @Test
+    public void testIntervalNanos_perThread() {
+        StepRateProfile profile = new StepRateProfile(1000, 1000, 1, Double.MAX_VALUE);
+
+        assertEquals(MILLISECONDS.toNanos(100), profile.intervalNanos(System.nanoTime(), 100));
+    }
+
+    @Test
+    public void testIntervalNanos_perThread_whenZeroRate() {
+        RampRateProfile profile = new RampRateProfile(0, 1000, 10);
+
+        // the minimum rate applies to every thread, so it isn't multiplied by the number of threads
+        assertEquals(SECONDS.toNanos(1), profile.intervalNanos(System.nanoTime(), 100));
+    }
+
+    @Test
+    public void testSleepingMetronome_rampFromZero_withManyThreads() {
+        assertRampFromZeroFollowed(profile -> new SleepingMetronome(SECONDS.toNanos(100), true, 100, profile));
+    }
+
+    @Test
+    public void testBusySpinningMetronome_rampFromZero_withManyThreads() {
+        assertRampFromZeroFollowed(profile -> new BusySpinningMetronome(SECONDS.toNanos(100), true, 100, profile));
+    }
+
+    // with a ramp from 0 to 100.000/s, a thread out of 100 should start within the ramp instead of after the interval of
+    // the minimum rate multiplied by the number of threads
+    private static void assertRampFromZeroFollowed(Function<RateProfile, Metronome> metronomeFactory) {
+        RampRateProfile profile = new RampRateProfile(0, 100_000, 2);
+        Metronome metronome = metronomeFactory.apply(profile);
+
+        long startNanos = System.nanoTime();
+        metronome.waitForNext();
+        metronome.waitForNext();
+        long durationNanos = System.nanoTime() - startNanos;
+
+        assertTrue("durationNanos: " + durationNanos, durationNanos < SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void testSleepingMetronome_followsProfile() {
+        long intervalNanos = MILLISECONDS.toNanos(1);
+        StepRateProfile profile = new StepRateProfile(1000, 1000, 1, Double.MAX_VALUE);
+        SleepingMetronome metronome = new SleepingMetronome(
+                new SleepingMetronome(intervalNanos * 2, true, 2, profile));
+
+        long first = metronome.waitForNext();
+        long second = metronome.waitForNext();
+
+        // 2 threads at a combined rate of 1000/s
+        assertEquals(2 * intervalNanos, second - first);
+    }
+
+    @Test
+    public void testConstantCombinedRateMetronome_followsProfile() {
+        RampRateProfile profile = new RampRateProfile(1000, 1000, 1);
+        ConstantCombinedRateMetronome metronome = new ConstantCombinedRateMetronome(
+                new ConstantCombinedRateMetronome(SECONDS.toNanos(1), true, profile));
+
+        long first = metronome.waitForNext();
+        long second = metronome.waitForNext();
+
+        assertEquals(MILLISECONDS.toNanos(1), second - first);
+    }
+
+    @Test
+    public void testOpenLoopMetronome_followsProfile() {
+        StepRateProfile profile = new StepRateProfile(1000, 1000, 1, Double.MAX_VALUE);
+        OpenLoopMetronome master = new OpenLoopMetronome(SECONDS.toNanos(1), null, profile);
+        OpenLoopMetronome metronome = new OpenLoopMetronome(master);
+
+        long first = metronome.waitForNext();
+        long second = metronome.waitForNext();
+
+        assertEquals(MILLISECONDS.toNanos(1), second - first);
+        assertEquals(2, master.claimedCount());
+        assertEquals(1000, master.intendedRatePerSecond(), 0.01);
+    }
+}
@@ -1,9 +1,11 @@
 package com.hazelcast.simulator.worker.performance;
 
+import org.HdrHistogram.Histogram;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 public class PerformanceStatsTest {
@@ -101,4 +103,35 @@ public class PerformanceStatsTest {
     public void testToString() {
         assertNotNull(new PerformanceStats().toString());
     }
+
+    @Test
+    public void testAdd_mergesHistograms() {
+        Histogram histogram1 = new Histogram(3);
+        for (int i = 1; i <= 90; i++) {
+            histogram1.recordValue(1000);
+        }
+        Histogram histogram2 = new Histogram(3);
+        for (int i = 1; i <= 10; i++) {
+            histogram2.recordValue(100000);
+        }
+
+        PerformanceStats stats = new PerformanceStats();
+        stats.add(new PerformanceStats(90, 9, 9, 1000, 1000, 1000, histogram1));
+        stats.add(new PerformanceStats(10, 1, 1, 100000, 100000, 100000, histogram2));
+
+        Histogram merged = stats.getIntervalHistogram();
+        assertNotSame(histogram1, merged);
+        assertEquals(90, histogram1.getTotalCount());
+        assertEquals(100, merged.getTotalCount());
+        assertEquals(1000, stats.getIntervalLatencyPercentileNanos(50), 1);
+        assertEquals(100000, stats.getIntervalLatencyPercentileNanos(99), 100);
+    }
+
+    @Test
+    public void testGetIntervalLatencyPercentileNanos_withoutHistogram() {
+        PerformanceStats stats = new PerformanceStats(100, 5.0, 10.0, 175.0d, 150, 200);
+
+        assertEquals(150, stats.getIntervalLatencyPercentileNanos(PerformanceStats.INTERVAL_LATENCY_PERCENTILE));
+        assertEquals(-1, stats.getIntervalLatencyPercentileNanos(50));
+    }
 }
@@ -2,11 +2,19 @@ package com.hazelcast.simulator.worker.testcontainer;
 
 import com.hazelcast.simulator.common.TestCase;
 import com.hazelcast.simulator.worker.metronome.BusySpinningMetronome;
+import com.hazelcast.simulator.worker.metronome.CsvRateProfile;
 import com.hazelcast.simulator.worker.metronome.EmptyMetronome;
 import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.metronome.RampRateProfile;
+import com.hazelcast.simulator.worker.metronome.SineRateProfile;
 import com.hazelcast.simulator.worker.metronome.SleepingMetronome;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
@@ -15,9 +23,13 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class MetronomeSupplierTest {
 
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
     @Test
     public void test() {
         test(NANOSECONDS.toNanos(1), "1ns");
@@ -93,4 +105,130 @@ public class MetronomeSupplierTest {
         Metronome m = supplier.get();
         assertEquals(EmptyMetronome.class, m.getClass());
     }
+
+    @Test
+    public void withRateProfile() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("ratePerSecond", 1000)
+                        .setProperty("rateProfile", "ramp")
+                        .setProperty("rateProfileDurationSeconds", 60));
+        MetronomeSupplier supplier = new MetronomeSupplier("", propertyBinding, 1);
+
+        assertEquals(RampRateProfile.class, supplier.getRateProfile().getClass());
+        assertEquals(SleepingMetronome.class, supplier.get().getClass());
+        propertyBinding.ensureNoUnusedProperties();
+    }
+
+    @Test
+    public void withRateProfile_andExecutionGroup() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("fooRatePerSecond", 1000)
+                        .setProperty("fooRateProfile", "sine")
+                        .setProperty("fooRateProfileAmplitudePerSecond", 500)
+                        .setProperty("fooRateProfilePeriodSeconds", 60));
+        MetronomeSupplier supplier = new MetronomeSupplier("foo", propertyBinding, 1);
+
+        assertEquals(SineRateProfile.class, supplier.getRateProfile().getClass());
+        propertyBinding.ensureNoUnusedProperties();
+    }
+
+    @Test
+    public void withRateProfile_whenConstant() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("ratePerSecond", 1000)
+                        .setProperty("rateProfile", "constant"));
+        MetronomeSupplier supplier = new MetronomeSupplier("", propertyBinding, 1);
+
+        assertNull(supplier.getRateProfile());
+    }
+
+    @Test
+    public void withRateProfile_whenCsv_thenNoRatePerSecondNeeded() throws Exception {
+        File file = dir.newFile("rates.csv");
+        writeText("0,500\n10,1000\n", file);
+
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("rateProfile", "csv")
+                        .setProperty("rateProfileFile", file.getAbsolutePath()));
+        MetronomeSupplier supplier = new MetronomeSupplier("", propertyBinding, 1);
+
+        assertEquals(CsvRateProfile.class, supplier.getRateProfile().getClass());
+        assertEquals(MILLISECONDS.toNanos(2), supplier.getIntervalNanos());
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void withRateProfile_whenCsvFileMissing() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("rateProfile", "csv")
+                        .setProperty("rateProfileFile", "/not/existing.csv"));
+        new MetronomeSupplier("", propertyBinding, 1);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void withRateProfile_whenNoRatePerSecond() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("rateProfile", "step")
+                        .setProperty("rateProfileStepSeconds", 10));
+        new MetronomeSupplier("", propertyBinding, 1);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void withRateProfile_whenMissingDuration() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("ratePerSecond", 1000)
+                        .setProperty("rateProfile", "step"));
+        new MetronomeSupplier("", propertyBinding, 1);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void withRateProfile_whenAmplitudeTooLarge() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("ratePerSecond", 1000)
+                        .setProperty("rateProfile", "sine")
+                        .setProperty("rateProfileAmplitudePerSecond", 2000)
+                        .setProperty("rateProfilePeriodSeconds", 60));
+        new MetronomeSupplier("", propertyBinding, 1);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void withRateProfile_whenUnknown() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("ratePerSecond", 1000)
+                        .setProperty("rateProfile", "foo"));
+        new MetronomeSupplier("", propertyBinding, 1);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void withRateProfile_whenMetronomeDoesNotSupportIt() {
+        PropertyBinding propertyBinding = new PropertyBinding(
+                new TestCase("foo")
+                        .setProperty("ratePerSecond", 1000)
+                        .setProperty("rateProfile", "ramp")
+                        .setProperty("rateProfileDurationSeconds", 60)
+                        .setProperty("metronomeClass", FixedIntervalMetronome.class));
+        new MetronomeSupplier("", propertyBinding, 1);
+    }
+
+    public static class FixedIntervalMetronome implements Metronome {
+
+        public FixedIntervalMetronome(long intervalNanos, int threadCount, PropertyBinding binding, String prefix) {
+        }
+
+        public FixedIntervalMetronome(Metronome m) {
+        }
+
+        @Override
+        public long waitForNext() {
+            return System.nanoTime();
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.hazelcast.simulator.worker.testcontainer;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OperationSelectorTest {
+
+    private static final int SAMPLES = 1_000_000;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_whenEmpty() {
+        OperationSelector.fromRatios();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_whenNegative() {
+        OperationSelector.fromRatios(1, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_whenAllZero() {
+        OperationSelector.fromRatios(0, 0);
+    }
+
+    @Test
+    public void test_singleMethod() {
+        OperationSelector selector = OperationSelector.fromRatios(5);
+
+        assertEquals(1, selector.size());
+        assertEquals(0, selector.select(0));
+        assertEquals(0, selector.select(-1));
+        assertEquals(0, selector.select(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void test_extremeRandoms() {
+        OperationSelector selector = OperationSelector.fromRatios(1, 2, 3, 4);
+
+        assertValidIndex(selector, selector.select(0));
+        assertValidIndex(selector, selector.select(-1));
+        assertValidIndex(selector, selector.select(Long.MIN_VALUE));
+        assertValidIndex(selector, selector.select(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void test_zeroRatioIsNeverSelected() {
+        OperationSelector selector = OperationSelector.fromRatios(0, 1, 0, 1);
+
+        int[] counts = sample(selector);
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[2]);
+        assertEquals(SAMPLES, counts[1] + counts[3]);
+    }
+
+    @Test
+    public void test_distribution() {
+        assertDistribution(1, 1);
+        assertDistribution(1, 2, 3, 4);
+        assertDistribution(10, 20, 10, 29, 21, 10);
+        assertDistribution(1, 99_999, 900_000);
+    }
+
+    @Test
+    public void test_distribution_fromProbabilities() {
+        OperationSelector selector = Probability.loadOperationSelector(asList(
+                new Probability(0.1), new Probability(0.2), new Probability(0.7)));
+
+        int[] counts = sample(selector);
+        assertEquals(0.1, counts[0] / (double) SAMPLES, 0.005);
+        assertEquals(0.2, counts[1] / (double) SAMPLES, 0.005);
+        assertEquals(0.7, counts[2] / (double) SAMPLES, 0.005);
+    }
+
+    private static void assertDistribution(int... ratios) {
+        OperationSelector selector = OperationSelector.fromRatios(ratios);
+        assertEquals(ratios.length, selector.size());
+
+        long total = 0;
+        for (int ratio : ratios) {
+            total += ratio;
+        }
+
+        int[] counts = sample(selector);
+        for (int i = 0; i < ratios.length; i++) {
+            double expected = ratios[i] / (double) total;
+            double actual = counts[i] / (double) SAMPLES;
+            assertEquals("method " + i, expected, actual, 0.005);
+        }
+    }
+
+    private static int[] sample(OperationSelector selector) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[selector.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            int index = selector.select(random.nextLong());
+            assertValidIndex(selector, index);
+            counts[index]++;
+        }
+        return counts;
+    }
+
+    private static void assertValidIndex(OperationSelector selector, int index) {
+        assertTrue("index: " + index, index >= 0 && index < selector.size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.hazelcast.simulator.worker.testcontainer;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.TestSupport.spawn;
+import static com.hazelcast.simulator.common.TestPhase.RUN;
+import static com.hazelcast.simulator.common.TestPhase.SETUP;
+import static com.hazelcast.simulator.utils.TestUtils.assertCompletesEventually;
+import static com.hazelcast.simulator.utils.TestUtils.assertNoExceptions;
+import static java.util.Collections.synchronizedSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class TestContainer_TimeStep_KeyDistributionTest extends TestContainer_AbstractTest {
+
+    @Test
+    public void test_default() throws Exception {
+        KeyDistributionTest testInstance = run(new TestCase("keyDistribution")
+                .setProperty("threadCount", 2)
+                .setProperty("iterations", 1000)
+                .setProperty("class", KeyDistributionTest.class));
+
+        // uniform over 1000 keys; so with 2000 samples almost certainly keys above 100 are selected
+        boolean found = false;
+        for (long key : testInstance.keys) {
+            found |= key >= 100;
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void test_hotspot() throws Exception {
+        KeyDistributionTest testInstance = run(new TestCase("keyDistribution")
+                .setProperty("threadCount", 2)
+                .setProperty("iterations", 1000)
+                .setProperty("keyDistribution", "hotspot(hotSetFraction=0.1,hotOpnFraction=1)")
+                .setProperty("class", KeyDistributionTest.class));
+
+        for (long key : testInstance.keys) {
+            assertTrue("key: " + key, key >= 0 && key < 100);
+        }
+    }
+
+    @Test
+    public void test_sequential() throws Exception {
+        KeyDistributionTest testInstance = run(new TestCase("keyDistribution")
+                .setProperty("threadCount", 1)
+                .setProperty("iterations", 1000)
+                .setProperty("keyDistribution", "sequential")
+                .setProperty("class", KeyDistributionTest.class));
+
+        assertEquals(1000, testInstance.keys.size());
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_invalidKeyDistribution() {
+        newContainer(new TestCase("keyDistribution")
+                .setProperty("keyDistribution", "foo")
+                .setProperty("class", KeyDistributionTest.class), new KeyDistributionTest());
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_whenNoBaseThreadState() {
+        newContainer(new TestCase("keyDistribution")
+                .setProperty("keyDistribution", "zipfian")
+                .setProperty("class", NoThreadStateTest.class), new NoThreadStateTest());
+    }
+
+    private KeyDistributionTest run(TestCase testCase) throws Exception {
+        final TestContainer container = newContainer(testCase, new KeyDistributionTest());
+        container.invoke(SETUP);
+
+        Future f = spawn((Callable) () -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        assertCompletesEventually(f);
+        assertNoExceptions();
+
+        return (KeyDistributionTest) container.getTestInstance();
+    }
+
+    private static TestContainer newContainer(TestCase testCase, Object testInstance) {
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        return new TestContainer(testContext, testInstance, testCase);
+    }
+
+    public static class KeyDistributionTest {
+        private final Set<Long> keys = synchronizedSet(new HashSet<>());
+
+        @TimeStep
+        public void timeStep(BaseThreadState threadState) {
+            keys.add(threadState.randomKey(1000L));
+        }
+    }
+
+    public static class NoThreadStateTest {
+
+        @TimeStep
+        public void timeStep() {
+        }
+    }
+}
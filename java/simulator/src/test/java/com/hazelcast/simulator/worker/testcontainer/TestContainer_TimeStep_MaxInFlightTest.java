@@ -0,0 +1,141 @@
+package com.hazelcast.simulator.worker.testcontainer;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.TestSupport.spawn;
+import static com.hazelcast.simulator.common.TestPhase.RUN;
+import static com.hazelcast.simulator.common.TestPhase.SETUP;
+import static com.hazelcast.simulator.utils.TestUtils.assertCompletesEventually;
+import static com.hazelcast.simulator.utils.TestUtils.assertException;
+import static com.hazelcast.simulator.utils.TestUtils.assertNoExceptions;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class TestContainer_TimeStep_MaxInFlightTest extends TestContainer_AbstractTest {
+
+    @Test
+    public void test() throws Exception {
+        MaxInFlightTest testInstance = new MaxInFlightTest();
+        TestCase testCase = new TestCase("maxInFlight")
+                .setProperty("iterations", 200)
+                .setProperty("threadCount", 1)
+                .setProperty("maxInFlight", 4)
+                .setProperty("class", testInstance.getClass());
+
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        final TestContainer container = new TestContainer(testContext, testInstance, testCase);
+        container.invoke(SETUP);
+
+        Future f = spawn((Callable) () -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        assertCompletesEventually(f);
+        assertNoExceptions();
+
+        // the run only completes when all in-flight calls have completed
+        assertEquals(200, testInstance.completedCount.get());
+        assertEquals(0, testInstance.inFlight.get());
+        assertTrue("maxObservedInFlight: " + testInstance.maxObservedInFlight.get(),
+                testInstance.maxObservedInFlight.get() <= 4);
+    }
+
+    @Test
+    public void test_whenCallNeverCompletes() throws Exception {
+        NeverCompletingTest testInstance = new NeverCompletingTest();
+        TestCase testCase = new TestCase("maxInFlight")
+                .setProperty("iterations", 1)
+                .setProperty("threadCount", 1)
+                .setProperty("maxInFlight", 4)
+                .setProperty("inFlightTimeoutMillis", 100)
+                .setProperty("class", testInstance.getClass());
+
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        final TestContainer container = new TestContainer(testContext, testInstance, testCase);
+        container.invoke(SETUP);
+
+        Future f = spawn((Callable) () -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        // the lost completion fails the test instead of hanging the worker
+        assertCompletesEventually(f);
+        assertException("TestException", 1);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_whenNegative() {
+        MaxInFlightTest testInstance = new MaxInFlightTest();
+        TestCase testCase = new TestCase("maxInFlight")
+                .setProperty("maxInFlight", -1)
+                .setProperty("class", testInstance.getClass());
+
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        new TestContainer(testContext, testInstance, testCase);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_whenNoAsyncTimeStepMethod() {
+        SyncTest testInstance = new SyncTest();
+        TestCase testCase = new TestCase("maxInFlight")
+                .setProperty("maxInFlight", 10)
+                .setProperty("class", testInstance.getClass());
+
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        new TestContainer(testContext, testInstance, testCase);
+    }
+
+    public static class MaxInFlightTest {
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+        private final AtomicInteger completedCount = new AtomicInteger();
+
+        @TimeStep
+        public CompletableFuture<Object> asyncTimeStep() {
+            int current = inFlight.incrementAndGet();
+            maxObservedInFlight.accumulateAndGet(current, Math::max);
+
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                inFlight.decrementAndGet();
+                completedCount.incrementAndGet();
+                future.complete("1");
+            }, 1, MILLISECONDS);
+            return future;
+        }
+    }
+
+    public static class NeverCompletingTest {
+
+        @TimeStep
+        public CompletableFuture<Object> asyncTimeStep() {
+            return new CompletableFuture<>();
+        }
+    }
+
+    public static class SyncTest {
+
+        @TimeStep
+        public void timeStep() {
+        }
+    }
+}
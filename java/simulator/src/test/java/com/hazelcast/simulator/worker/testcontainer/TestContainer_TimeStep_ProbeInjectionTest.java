@@ -4,6 +4,7 @@ import com.hazelcast.simulator.common.TestCase;
 import com.hazelcast.simulator.probes.LatencyProbe;
 import com.hazelcast.simulator.probes.impl.NoopLatencyProbe;
 import com.hazelcast.simulator.probes.impl.HdrLatencyProbe;
+import com.hazelcast.simulator.probes.impl.StripedHdrLatencyProbe;
 import com.hazelcast.simulator.protocol.Server;
 import com.hazelcast.simulator.test.StopException;
 import com.hazelcast.simulator.test.annotations.StartNanos;
@@ -50,6 +51,40 @@ public class TestContainer_TimeStep_ProbeInjectionTest extends TestContainer_Abs
         assertInstanceOf(HdrLatencyProbe.class, testInstance.probe);
     }
 
+    @Test
+    public void testStripedLatencyProbe() throws Exception {
+        TestClass testInstance = new TestClass();
+        TestCase testCase = new TestCase("exceptionTest")
+                .setProperty("threadCount", 1)
+                .setProperty("latencyProbeClass", StripedHdrLatencyProbe.class)
+                .setProperty("class", testInstance.getClass());
+
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        final TestContainer container = new TestContainer(testContext, testInstance, testCase);
+        container.invoke(SETUP);
+
+        Future f = spawn(() -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        assertCompletesEventually(f);
+        assertInstanceOf(StripedHdrLatencyProbe.class, testInstance.probe);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testInvalidLatencyProbeClass() {
+        TestClass testInstance = new TestClass();
+        TestCase testCase = new TestCase("exceptionTest")
+                .setProperty("latencyProbeClass", NoopLatencyProbe.class)
+                .setProperty("class", testInstance.getClass());
+
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        new TestContainer(testContext, testInstance, testCase);
+    }
+
     @Test
     public void testNoMeasureLatency() throws Exception {
         TestClass testInstance = new TestClass();
@@ -0,0 +1,152 @@
+package com.hazelcast.simulator.worker.testcontainer;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.test.BaseThreadState;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.TestSupport.spawn;
+import static com.hazelcast.simulator.common.TestPhase.RUN;
+import static com.hazelcast.simulator.common.TestPhase.SETUP;
+import static com.hazelcast.simulator.utils.TestUtils.assertCompletesEventually;
+import static com.hazelcast.simulator.utils.TestUtils.assertNoExceptions;
+import static java.util.Collections.synchronizedList;
+import static java.util.Collections.synchronizedSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+public class TestContainer_TimeStep_RandomSeedTest extends TestContainer_AbstractTest {
+
+    @Test
+    public void test_sameSeed() throws Exception {
+        Set<Long> values1 = run("randomSeed", 42);
+        Set<Long> values2 = run("randomSeed", 42);
+
+        // every thread generated different values
+        assertEquals(30, values1.size());
+        assertEquals(values1, values2);
+    }
+
+    @Test
+    public void test_differentSeed() throws Exception {
+        assertNotEquals(run("randomSeed", 42), run("randomSeed", 43));
+    }
+
+    @Test
+    public void test_differentTestId() throws Exception {
+        assertNotEquals(run("randomSeed", 42), run("otherTest", 42));
+    }
+
+    @Test
+    public void test_noSeed() throws Exception {
+        TestCase testCase = new TestCase("randomSeed")
+                .setProperty("threadCount", 3)
+                .setProperty("iterations", 10)
+                .setProperty("class", RandomSeedTest.class);
+
+        assertNotEquals(run(testCase), run(testCase));
+    }
+
+    @Test
+    public void test_sameSeed_sameOperationSequence() throws Exception {
+        List<String> operations1 = runOperationMix(42);
+        List<String> operations2 = runOperationMix(42);
+
+        assertEquals(100, operations1.size());
+        assertEquals(operations1, operations2);
+        assertNotEquals(operations1, runOperationMix(43));
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_invalidSeed() {
+        TestCase testCase = new TestCase("randomSeed")
+                .setProperty("randomSeed", "foo")
+                .setProperty("class", RandomSeedTest.class);
+
+        newContainer(testCase);
+    }
+
+    private Set<Long> run(String testId, long seed) throws Exception {
+        TestCase testCase = new TestCase(testId)
+                .setProperty("threadCount", 3)
+                .setProperty("iterations", 10)
+                .setProperty("randomSeed", seed)
+                .setProperty("class", RandomSeedTest.class);
+        return run(testCase);
+    }
+
+    private Set<Long> run(TestCase testCase) throws Exception {
+        final TestContainer container = newContainer(testCase);
+        container.invoke(SETUP);
+
+        Future f = spawn((Callable) () -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        assertCompletesEventually(f);
+        assertNoExceptions();
+
+        return ((RandomSeedTest) container.getTestInstance()).values;
+    }
+
+    private List<String> runOperationMix(long seed) throws Exception {
+        TestCase testCase = new TestCase("randomSeed")
+                .setProperty("threadCount", 1)
+                .setProperty("iterations", 100)
+                .setProperty("randomSeed", seed)
+                .setProperty("class", OperationMixTest.class);
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        final TestContainer container = new TestContainer(testContext, new OperationMixTest(), testCase);
+        container.invoke(SETUP);
+
+        Future f = spawn((Callable) () -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        assertCompletesEventually(f);
+        assertNoExceptions();
+
+        return ((OperationMixTest) container.getTestInstance()).operations;
+    }
+
+    private static TestContainer newContainer(TestCase testCase) {
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        return new TestContainer(testContext, new RandomSeedTest(), testCase);
+    }
+
+    public static class RandomSeedTest {
+        private final Set<Long> values = synchronizedSet(new HashSet<>());
+
+        @TimeStep
+        public void timeStep(BaseThreadState threadState) {
+            values.add(threadState.randomLong());
+        }
+    }
+
+    public static class OperationMixTest {
+        private final List<String> operations = synchronizedList(new ArrayList<>());
+
+        @TimeStep(prob = 0.5)
+        public void put() {
+            operations.add("put");
+        }
+
+        @TimeStep(prob = 0.5)
+        public void get() {
+            operations.add("get");
+        }
+    }
+}
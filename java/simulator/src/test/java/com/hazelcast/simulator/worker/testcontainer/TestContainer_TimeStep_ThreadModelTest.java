@@ -0,0 +1,128 @@
+package com.hazelcast.simulator.worker.testcontainer;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.simulator.worker.metronome.BusySpinningMetronome;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.simulator.TestSupport.spawn;
+import static com.hazelcast.simulator.common.TestPhase.RUN;
+import static com.hazelcast.simulator.common.TestPhase.SETUP;
+import static com.hazelcast.simulator.utils.TestUtils.assertCompletesEventually;
+import static com.hazelcast.simulator.utils.TestUtils.assertNoExceptions;
+import static java.util.Collections.synchronizedSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+public class TestContainer_TimeStep_ThreadModelTest extends TestContainer_AbstractTest {
+
+    @Test
+    public void test_platform() throws Exception {
+        ThreadModelTest testInstance = run("platform");
+
+        assertEquals(3, testInstance.threads.size());
+        for (Thread thread : testInstance.threads) {
+            assertFalse(isVirtual(thread));
+        }
+    }
+
+    @Test
+    public void test_virtual() throws Exception {
+        assumeTrue(ThreadSpawner.isVirtualThreadSupported());
+
+        ThreadModelTest testInstance = run("virtual");
+
+        assertEquals(3, testInstance.threads.size());
+        for (Thread thread : testInstance.threads) {
+            assertTrue(isVirtual(thread));
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_virtual_whenNotSupported() {
+        assumeFalse(ThreadSpawner.isVirtualThreadSupported());
+
+        newContainer(new TestCase("threadModel")
+                .setProperty("threadModel", "virtual")
+                .setProperty("class", ThreadModelTest.class));
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_virtual_withBusySpinningMetronome() {
+        assumeTrue(ThreadSpawner.isVirtualThreadSupported());
+
+        newContainer(new TestCase("threadModel")
+                .setProperty("threadModel", "virtual")
+                .setProperty("interval", "1ms")
+                .setProperty("metronomeClass", BusySpinningMetronome.class)
+                .setProperty("class", ThreadModelTest.class));
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_invalidThreadModel() {
+        newContainer(new TestCase("threadModel")
+                .setProperty("threadModel", "foo")
+                .setProperty("class", ThreadModelTest.class));
+    }
+
+    private ThreadModelTest run(String threadModel) throws Exception {
+        TestCase testCase = new TestCase("threadModel")
+                .setProperty("threadCount", 3)
+                .setProperty("iterations", 100)
+                .setProperty("threadModel", threadModel)
+                .setProperty("class", ThreadModelTest.class);
+
+        final TestContainer container = newContainer(testCase);
+        container.invoke(SETUP);
+
+        Future f = spawn((Callable) () -> {
+            container.invoke(RUN);
+            return null;
+        });
+
+        assertCompletesEventually(f);
+        assertNoExceptions();
+
+        ThreadModelTest testInstance = (ThreadModelTest) container.getTestInstance();
+        assertEquals(3, testInstance.threadStates.size());
+        return testInstance;
+    }
+
+    private static TestContainer newContainer(TestCase testCase) {
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        return new TestContainer(testContext, new ThreadModelTest(), testCase);
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        if (!ThreadSpawner.isVirtualThreadSupported()) {
+            return false;
+        }
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    public static class ThreadModelTest {
+        private final Set<Thread> threads = synchronizedSet(new HashSet<>());
+        private final Set<ThreadState> threadStates = synchronizedSet(new HashSet<>());
+
+        @TimeStep
+        public void timeStep(ThreadState threadState) {
+            threads.add(Thread.currentThread());
+            threadStates.add(threadState);
+        }
+
+        public static class ThreadState {
+        }
+    }
+}
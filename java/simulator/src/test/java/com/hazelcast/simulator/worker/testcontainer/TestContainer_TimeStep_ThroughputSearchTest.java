@@ -0,0 +1,88 @@
+package com.hazelcast.simulator.worker.testcontainer;
+
+import com.hazelcast.simulator.common.TestCase;
+import com.hazelcast.simulator.protocol.Server;
+import com.hazelcast.simulator.test.annotations.Run;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.worker.metronome.AdjustableRateProfile;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_SLA_US;
+import static com.hazelcast.simulator.common.ThroughputSearchProperties.THROUGHPUT_SEARCH_STEP_SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class TestContainer_TimeStep_ThroughputSearchTest extends TestContainer_AbstractTest {
+
+    @Test
+    public void test() {
+        TestContainer container = newContainer(new TestCase("throughputSearch")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty(THROUGHPUT_SEARCH_STEP_SECONDS, 10)
+                .setProperty("ratePerSecond", 100)
+                .setProperty("class", TimeStepTest.class), new TimeStepTest());
+
+        container.setRateFactor(2.5);
+
+        AdjustableRateProfile rateProfile = rateProfile(container);
+        assertEquals(2.5, rateProfile.getRateFactor(), 0.001);
+        assertEquals(250, rateProfile.ratePerSecond(0), 0.001);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_whenNoRate() {
+        newContainer(new TestCase("throughputSearch")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty("class", TimeStepTest.class), new TimeStepTest());
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_whenRateProfile() {
+        newContainer(new TestCase("throughputSearch")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty("ratePerSecond", 100)
+                .setProperty("rateProfile", "ramp")
+                .setProperty("class", TimeStepTest.class), new TimeStepTest());
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void test_whenNoTimeStepMethods() {
+        newContainer(new TestCase("throughputSearch")
+                .setProperty(THROUGHPUT_SEARCH_SLA_US, 1000)
+                .setProperty("class", RunTest.class), new RunTest());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_setRateFactor_whenNotEnabled() {
+        TestContainer container = newContainer(new TestCase("throughputSearch")
+                .setProperty("class", TimeStepTest.class), new TimeStepTest());
+
+        container.setRateFactor(2);
+    }
+
+    private static AdjustableRateProfile rateProfile(TestContainer container) {
+        TimeStepRunner runner = (TimeStepRunner) container.getRunner();
+        MetronomeSupplier metronomeSupplier = runner.getMetronomeSupplier("");
+        return (AdjustableRateProfile) metronomeSupplier.getRateProfile();
+    }
+
+    private static TestContainer newContainer(TestCase testCase, Object testInstance) {
+        TestContextImpl testContext = new TestContextImpl(
+                testCase.getId(), "localhost", mock(Server.class));
+        return new TestContainer(testContext, testInstance, testCase);
+    }
+
+    public static class TimeStepTest {
+
+        @TimeStep
+        public void timeStep() {
+        }
+    }
+
+    public static class RunTest {
+
+        @Run
+        public void run() {
+        }
+    }
+}
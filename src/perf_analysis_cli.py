@@ -13,6 +13,7 @@ from signal_processing_algorithms.energy_statistics.energy_statistics import e_d
 
 import commit_sorter
 from simulator.log import info, log_header
+from simulator.perftest_results_store import RESULTS_STORE_FILE, load_results_store
 from simulator.util import load_yaml_file, validate_dir, mkdir, validate_git_dir, write_file, write_yaml, exit_with_error
 
 
@@ -132,7 +133,7 @@ class ChangePoint:
         self.direction = direction
 
 
-def load_commit_dir(dir, commit):
+def load_commit_dir(dir, commit, interval_metrics=False):
     commit_dir = f"{dir}/{commit}"
     result = {}
     for run in os.listdir(commit_dir):
@@ -148,11 +149,36 @@ def load_commit_dir(dir, commit):
                 if name == "duration(ms)":
                     continue
 
-                values = result.get(name)
-                if not values:
-                    values = []
-                    result[name] = values
-                values.append((commit, value))
+                add_value(result, name, commit, value)
+
+        results_store_file = f"{commit_dir}/{run}/{RESULTS_STORE_FILE}"
+        if interval_metrics and os.path.exists(results_store_file):
+            for name, value in load_interval_metrics(results_store_file).items():
+                add_value(result, name, commit, value)
+    return result
+
+
+def add_value(result, name, commit, value):
+    values = result.get(name)
+    if not values:
+        values = []
+        result[name] = values
+    values.append((commit, value))
+
+
+# The medians over the intervals of the series merged over all workers. Unlike the totals in the results.yaml, they
+# aren't skewed by a few outlier intervals, e.g. a gc pause or the ramp up of the test.
+def load_interval_metrics(results_store_file):
+    df = load_results_store(results_store_file)
+    df = df[df['worker_id'] == ""]
+    result = {}
+    for (test_id, probe), series in df.groupby(['test_id', 'probe'], observed=True):
+        test_id = test_id if test_id else "all"
+        if probe == "operations":
+            result[f"{test_id}.interval_throughput"] = float(series['throughput'].median())
+        else:
+            for percentile in ["p50", "p99", "p999"]:
+                result[f"{test_id}.{probe}.interval_{percentile}(us)"] = float(series[f"{percentile}_us"].median())
     return result
 
 
@@ -185,12 +211,12 @@ def ordered_commits(dir, git_dir):
     return commit_sorter.order(commits, git_dir)
 
 
-def load_ts_per_metric(dir, git_dir):
+def load_ts_per_metric(dir, git_dir, interval_metrics=False):
     info("Loading data")
     y_map = {}
     x_map = {}
     for commit in ordered_commits(dir, git_dir):
-        result = load_commit_dir(dir, commit)
+        result = load_commit_dir(dir, commit, interval_metrics)
 
         for metric_name, values in result.items():
             (commit, value) = pick_best_value(values, metric_name)
@@ -251,6 +277,9 @@ class PerfRegressionAnalysisCli:
                             type=float, default=4)
         parser.add_argument("-o", "--output", help="The directory to write the output", nargs=1,
                             default=f"{os.getcwd()}/analysis")
+        parser.add_argument("-i", "--interval-metrics",
+                            help=f"Also analyze the median interval throughput and latencies from the {RESULTS_STORE_FILE}"
+                                 " file of the runs", action='store_true')
 
         log_header("perfregtest analysis")
 
@@ -262,7 +291,7 @@ class PerfRegressionAnalysisCli:
         self.dir = validate_dir(args.dir[0])
         self.output = mkdir(args.output)
         self.zero = args.zero
-        self.ts_per_metric = load_ts_per_metric(self.dir, self.git_dir)
+        self.ts_per_metric = load_ts_per_metric(self.dir, self.git_dir, args.interval_metrics)
         self.permutations = args.permutations
         if self.permutations < 1:
             exit_with_error("permutations can't be smaller than 1")
@@ -9,6 +9,7 @@ import shutil
 from simulator.perftest_report_dstat import report_dstat, analyze_dstat
 from simulator.perftest_report_hdr import report_hdr, prepare_hdr, analyze_latency_history
 from simulator.perftest_report_operations import report_operations, prepare_operation, analyze_operations
+from simulator.perftest_results_store import prepare_results_store
 from simulator.util import mkdir, exit_with_error
 from simulator.perftest_report_common import *
 from simulator.perftest_report_html import HTMLReport
@@ -25,6 +26,8 @@ def prepare(config: ReportConfig):
     mkdir(report_dir)
     prepare_operation(config)
     prepare_hdr(config)
+    # after the operations and hdr files of the workers are merged, so the store contains the merged series as well
+    prepare_results_store(config)
 
 
 def analyze(config: ReportConfig):
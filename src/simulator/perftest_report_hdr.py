@@ -40,21 +40,23 @@ def __merge_worker_hdr(run_dir):
             files.append(hdr_file)
 
 
-    for file_name, hdr_files in dic.items():
-        # write the list of files into a file and let Java processor read from it
-        hdr_list_file_name = file_name + "._merge_worker_hdr_input_files_list"
-        hdr_list_file = os.path.join(run_dir, hdr_list_file_name)
-        print(f"Writing file list for {file_name} into file {hdr_list_file}")
-        with open(hdr_list_file, 'w') as listing_file:
-            for hdr_file_path in hdr_files:
-                listing_file.write(hdr_file_path + '\n')
-
-        command = f"""java -cp "{simulator_home}/lib/*" \
-                         com.hazelcast.simulator.utils.HistogramLogMerger \
-                         {run_dir}/{file_name} {hdr_list_file} 2>/dev/null"""
-
-        print(f"Executing process for {command}")
-        shell(command)
+    if not dic:
+        return
+
+    # write all merges of the run into a single batch file, so a single JVM merges all files in parallel.
+    # every line contains the output file followed by the input files, separated by tabs.
+    batch_file = os.path.join(run_dir, "_merge_worker_hdr_batch")
+    print(f"Writing merge batch for {len(dic)} hdr files into file {batch_file}")
+    with open(batch_file, 'w') as batch:
+        for file_name, hdr_files in dic.items():
+            batch.write("\t".join([f"{run_dir}/{file_name}"] + hdr_files) + '\n')
+
+    command = f"""java -cp "{simulator_home}/lib/*" \
+                     com.hazelcast.simulator.utils.HistogramLogMerger \
+                     --batch {batch_file} 2>/dev/null"""
+
+    print(f"Executing process for {command}")
+    shell(command)
 
 
 def __process_hdr(config: ReportConfig, run_dir, run_label):
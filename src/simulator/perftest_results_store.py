@@ -0,0 +1,80 @@
+#!/usr/bin/env python3
+# -*- coding: utf-8 -*-
+
+import struct
+import time
+
+from simulator.perftest_report_common import *
+from simulator.util import shell, simulator_home
+
+# The columnar file with the interval series of a run, written by the RunResultsStore into the run directory.
+# See the javadoc of com.hazelcast.simulator.utils.RunResultsStore for the layout.
+RESULTS_STORE_FILE = "results.columns"
+
+__MAGIC = b"SIMRES01"
+__TYPE_LONG = 0
+__TYPE_DOUBLE = 1
+__TYPE_STRING = 2
+
+
+def prepare_results_store(config: ReportConfig):
+    for run_dir in config.runs.values():
+        __create_results_store(run_dir)
+
+
+def __create_results_store(run_dir):
+    info("\tWriting results store")
+    start_time = time.time()
+    cmd = f"""java -cp "{simulator_home}/lib/*" \
+                               com.hazelcast.simulator.utils.RunResultsStore {run_dir}"""
+    status = shell(cmd)
+    if status != 0:
+        raise Exception(f"Writing results store failed with status {status}, cmd executed: \"{cmd}\"")
+    duration_seconds = time.time() - start_time
+    info(f"\tFinished writing results store in {duration_seconds:.1f} seconds.")
+
+
+# Loads the results store as a dataframe with a row per interval. The numeric columns are numpy views on the
+# file content and the string columns are categoricals, so nothing is parsed.
+def load_results_store(path):
+    with open(path, 'rb') as file:
+        data = file.read()
+
+    if data[:len(__MAGIC)] != __MAGIC:
+        raise Exception(f"[{path}] is not a results store")
+
+    offset = len(__MAGIC)
+    row_count, column_count = struct.unpack_from('<ii', data, offset)
+    offset += 8
+
+    columns = {}
+    for _ in range(column_count):
+        name, offset = __read_string(data, offset)
+        column_type = data[offset]
+        offset += 1
+        if column_type == __TYPE_LONG:
+            columns[name] = np.frombuffer(data, dtype='<i8', count=row_count, offset=offset)
+            offset += 8 * row_count
+        elif column_type == __TYPE_DOUBLE:
+            columns[name] = np.frombuffer(data, dtype='<f8', count=row_count, offset=offset)
+            offset += 8 * row_count
+        elif column_type == __TYPE_STRING:
+            (dictionary_size,) = struct.unpack_from('<i', data, offset)
+            offset += 4
+            dictionary = []
+            for _ in range(dictionary_size):
+                value, offset = __read_string(data, offset)
+                dictionary.append(value)
+            codes = np.frombuffer(data, dtype='<i4', count=row_count, offset=offset)
+            offset += 4 * row_count
+            columns[name] = pd.Categorical.from_codes(codes, categories=dictionary)
+        else:
+            raise Exception(f"Unknown type {column_type} of column {name} in [{path}]")
+
+    return pd.DataFrame(columns)
+
+
+def __read_string(data, offset):
+    (length,) = struct.unpack_from('<h', data, offset)
+    offset += 2
+    return data[offset:offset + length].decode('utf-8'), offset + length